@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shared benchmark data.
+ *
+ * @since 6.0.3
+ */
+public final class BenchmarkData {
+
+	/**
+	 * Number of elements of the JSON array payload
+	 */
+	public static final int ARRAY_SIZE = 100;
+
+	/**
+	 * A single JSON item payload
+	 */
+	public static final byte[] ITEM_JSON = item(1).getBytes(StandardCharsets.UTF_8);
+
+	/**
+	 * A JSON array payload of {@link #ARRAY_SIZE} items
+	 */
+	public static final byte[] ARRAY_JSON = array(ARRAY_SIZE).getBytes(StandardCharsets.UTF_8);
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Split given payload in chunks of given size, to simulate the network frames of a response body.
+	 * @param payload The payload
+	 * @param chunkSize Chunk size
+	 * @return The payload chunks
+	 */
+	public static byte[][] split(byte[] payload, int chunkSize) {
+		final int count = (payload.length + chunkSize - 1) / chunkSize;
+		final byte[][] chunks = new byte[count][];
+		for (int i = 0; i < count; i++) {
+			final int from = i * chunkSize;
+			final int length = Math.min(chunkSize, payload.length - from);
+			chunks[i] = new byte[length];
+			System.arraycopy(payload, from, chunks[i], 0, length);
+		}
+		return chunks;
+	}
+
+	private static String item(int id) {
+		return "{\"id\":" + id + ",\"name\":\"Item " + id + "\",\"description\":\"Benchmark item number " + id
+				+ "\",\"price\":" + (id * 10.5d) + ",\"available\":" + (id % 2 == 0) + "}";
+	}
+
+	private static String array(int size) {
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 1; i <= size; i++) {
+			if (i > 1) {
+				sb.append(',');
+			}
+			sb.append(item(i));
+		}
+		return sb.append(']').toString();
+	}
+
+	/**
+	 * Benchmark JSON item.
+	 */
+	public static class Item {
+
+		private int id;
+		private String name;
+		private String description;
+		private double price;
+		private boolean available;
+
+		public int getId() {
+			return id;
+		}
+
+		public void setId(int id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public void setDescription(String description) {
+			this.description = description;
+		}
+
+		public double getPrice() {
+			return price;
+		}
+
+		public void setPrice(double price) {
+			this.price = price;
+		}
+
+		public boolean isAvailable() {
+			return available;
+		}
+
+		public void setAvailable(boolean available) {
+			this.available = available;
+		}
+
+	}
+
+}
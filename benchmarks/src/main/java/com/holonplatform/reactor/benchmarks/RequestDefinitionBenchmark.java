@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.benchmarks;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.holonplatform.http.MediaType;
+import com.holonplatform.reactor.http.ReactiveRestClient;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.spring.SpringReactiveRestClient;
+
+/**
+ * Benchmarks the {@link ReactiveRequestDefinition} building, i.e. <code>ReactiveRestClient.request()</code> and the
+ * request configuration methods, without any invocation.
+ *
+ * @since 6.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestDefinitionBenchmark {
+
+	private static final URI TARGET = URI.create("http://localhost:8080/api");
+
+	private ReactiveRestClient client;
+	private ReactiveRestClient clientWithDefaults;
+
+	@Setup
+	public void setup() {
+		client = SpringReactiveRestClient.create(WebClient.create());
+		clientWithDefaults = SpringReactiveRestClient.create(WebClient.create()).defaultTarget(TARGET)
+				.withDefaultHeader("Accept-Language", "en-US")
+				.withDefaultHeader("X-Client", "benchmarks");
+	}
+
+	@Benchmark
+	public ReactiveRequestDefinition emptyRequest() {
+		return client.request();
+	}
+
+	@Benchmark
+	public ReactiveRequestDefinition requestWithClientDefaults() {
+		return clientWithDefaults.request();
+	}
+
+	@Benchmark
+	public ReactiveRequestDefinition fullRequest() {
+		return client.request().target(TARGET).path("items/{id}").resolve("id", 42).queryParameter("expand", "all")
+				.queryParameter("page", 1).header("X-Request", "benchmark").accept(MediaType.APPLICATION_JSON);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.benchmarks;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.holonplatform.http.MediaType;
+import com.holonplatform.reactor.http.PreparedRequest;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.ReactiveRestClient;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.spring.SpringReactiveRestClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Benchmarks the request invocation up to the {@link WebClient} exchange: base URL bound client lookup, URI template,
+ * query parameters and headers expansion and response entity wrapping.
+ * <p>
+ * The exchange is performed by a stub {@link ExchangeFunction} which returns an empty <code>200</code> response
+ * without any network I/O, so that only the client side overhead is measured.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestExchangeBenchmark {
+
+	private static final URI TARGET = URI.create("http://localhost:8080/api");
+
+	private ReactiveRestClient client;
+
+	private ReactiveRequestDefinition simpleRequest;
+	private ReactiveRequestDefinition expandedRequest;
+	private PreparedRequest preparedRequest;
+
+	@Setup
+	public void setup() {
+		final ExchangeFunction stub = request -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+		client = SpringReactiveRestClient.create(WebClient.builder().exchangeFunction(stub).build());
+
+		simpleRequest = client.request().target(TARGET).path("items");
+		expandedRequest = client.request().target(TARGET).path("items/{category}/{id}").resolve("category", "books")
+				.resolve("id", 42).queryParameter("expand", "all").queryParameter("fields", "id", "name", "price")
+				.queryParameter("page", 1).header("X-Request-Id", "2e6b1f2a-benchmark")
+				.header("X-Tenant", "benchmarks").accept(MediaType.APPLICATION_JSON);
+		preparedRequest = client.prepare(client.request().target(TARGET).path("items/{category}/{id}")
+				.queryParameter("expand", "all").queryParameter("fields", "id", "name", "price")
+				.queryParameter("page", 1).header("X-Request-Id", "2e6b1f2a-benchmark")
+				.header("X-Tenant", "benchmarks").accept(MediaType.APPLICATION_JSON));
+	}
+
+	@Benchmark
+	public ReactiveResponseEntity<Void> simpleExchange() {
+		return simpleRequest.get(Void.class).block();
+	}
+
+	@Benchmark
+	public ReactiveResponseEntity<Void> expandedExchange() {
+		return expandedRequest.get(Void.class).block();
+	}
+
+	@Benchmark
+	public ReactiveResponseEntity<Void> preparedExchange() {
+		return preparedRequest.bind().resolve("category", "books").resolve("id", 42).get(Void.class).block();
+	}
+
+	@Benchmark
+	public ReactiveResponseEntity<Void> buildAndExchange() {
+		return client.request().target(TARGET).path("items/{id}").resolve("id", 42).queryParameter("expand", "all")
+				.accept(MediaType.APPLICATION_JSON).get(Void.class).block();
+	}
+
+}
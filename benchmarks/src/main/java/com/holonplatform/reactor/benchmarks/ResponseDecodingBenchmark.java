@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.benchmarks.BenchmarkData.Item;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.spring.internal.ClientResponseEntity;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Benchmarks the {@link ClientResponseEntity} message entity decoding.
+ * <p>
+ * The response body is emitted as a sequence of chunks of configurable size, to simulate the network frames, wrapping
+ * pre-allocated byte arrays so that the body source itself does not allocate.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDecodingBenchmark {
+
+	private static final ResponseType<List<Item>> ITEM_LIST_TYPE = ResponseType.of(Item.class, List.class);
+
+	@Param({ "1024", "8192" })
+	public int chunkSize;
+
+	private ExchangeStrategies strategies;
+
+	private byte[][] itemChunks;
+	private byte[][] arrayChunks;
+
+	@Setup
+	public void setup() {
+		strategies = ExchangeStrategies.withDefaults();
+		itemChunks = BenchmarkData.split(BenchmarkData.ITEM_JSON, chunkSize);
+		arrayChunks = BenchmarkData.split(BenchmarkData.ARRAY_JSON, chunkSize);
+	}
+
+	@Benchmark
+	public Item itemAsMono() {
+		return entity(itemChunks, ResponseType.of(Item.class)).asMono().block();
+	}
+
+	@Benchmark
+	public List<Item> arrayAsMono() {
+		return entity(arrayChunks, ITEM_LIST_TYPE).asMono().block();
+	}
+
+	@Benchmark
+	public void arrayAsFlux(Blackhole blackhole) {
+		entity(arrayChunks, ResponseType.of(Item.class)).asFlux(Item.class).doOnNext(blackhole::consume)
+				.blockLast();
+	}
+
+	@Benchmark
+	public long arrayAsInputStream(Blackhole blackhole) throws IOException {
+		final byte[] buffer = new byte[4096];
+		long total = 0;
+		try (InputStream is = entity(arrayChunks, ResponseType.of(Item.class)).asInputStream().block()) {
+			int read;
+			while ((read = is.read(buffer)) > -1) {
+				total += read;
+			}
+		}
+		blackhole.consume(buffer);
+		return total;
+	}
+
+	/**
+	 * Build a response entity with a JSON body emitted as given chunks.
+	 * @param <T> Response type
+	 * @param chunks Body chunks
+	 * @param type Response type
+	 * @return The response entity
+	 */
+	private <T> ReactiveResponseEntity<T> entity(byte[][] chunks, ResponseType<T> type) {
+		final Flux<DataBuffer> body = Flux.fromArray(chunks)
+				.map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+		final ClientResponse response = ClientResponse.create(HttpStatus.OK, strategies)
+				.header(HttpHeaders.CONTENT_TYPE, "application/json").body(body).build();
+		return new ClientResponseEntity<>(response, type);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.benchmarks;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.holonplatform.reactor.benchmarks.BenchmarkData.Item;
+import com.holonplatform.reactor.http.ReactiveRestClient;
+import com.holonplatform.reactor.spring.PooledSpringReactiveRestClient;
+import com.holonplatform.reactor.spring.SpringReactiveRestClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * End-to-end throughput benchmarks against an embedded Reactor Netty stub server bound to the loopback interface,
+ * using a {@link PooledSpringReactiveRestClient}.
+ *
+ * @since 6.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThroughputBenchmark {
+
+	/**
+	 * Concurrent requests of the pipelined benchmarks
+	 */
+	private static final int CONCURRENCY = 64;
+
+	private DisposableServer server;
+	private PooledSpringReactiveRestClient client;
+
+	@Setup
+	public void setup() {
+		server = HttpServer.create().host("127.0.0.1").port(0)
+				.route(routes -> routes
+						.get("/item/{id}",
+								(request, response) -> response.header("Content-Type", "application/json")
+										.sendByteArray(Mono.just(BenchmarkData.ITEM_JSON)))
+						.get("/items",
+								(request, response) -> response.header("Content-Type", "application/json")
+										.sendByteArray(Mono.just(BenchmarkData.ARRAY_JSON))))
+				.bindNow();
+		client = SpringReactiveRestClient.builder().poolName("benchmarks").maxConnections(CONCURRENCY)
+				.pendingAcquireMaxCount(-1).build();
+		client.defaultTarget(URI.create("http://127.0.0.1:" + server.port()));
+	}
+
+	@TearDown
+	public void tearDown() {
+		client.close();
+		server.disposeNow();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Item blockingItem() {
+		return request().getForEntity(Item.class).block();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public List<Item> blockingList() {
+		return client.request().path("items").getAsList(Item.class).collectList().block();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CONCURRENCY * 4)
+	public Long pipelinedItems() {
+		return Flux.range(0, CONCURRENCY * 4).flatMap(i -> request().getForEntity(Item.class), CONCURRENCY)
+				.count().block();
+	}
+
+	private ReactiveRestClient.ReactiveRequestDefinition request() {
+		return client.request().path("item/{id}").resolve("id", 1);
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.reactor.http.internal.DefaultBulkInvocation;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Executes a large number of similar invocations, one for each element of a source publisher, with a bounded
+ * concurrency.
+ * <p>
+ * No more than {@link #getConcurrency()} invocations are in flight at the same time, so that a batch cannot exhaust
+ * the connection pool of the client: the concurrency should not exceed the number of connections available for the
+ * invoked target. The results can be emitted in completion order or in source order.
+ * </p>
+ * <p>
+ * Each invocation outcome is emitted as a {@link Result}: a failed invocation does not cancel the batch, and its error
+ * is available from {@link Result#getError()}. The batch fails only if the source publisher fails.
+ * </p>
+ * <p>
+ * The invocation counts, the latencies and the throughput are collected in the {@link Metrics} of the bulk
+ * invocation, cumulated across all the executions.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface BulkInvocation {
+
+	/**
+	 * Default concurrency
+	 */
+	public static final int DEFAULT_CONCURRENCY = 32;
+
+	/**
+	 * Get the maximum number of concurrent invocations.
+	 * @return The concurrency
+	 */
+	int getConcurrency();
+
+	/**
+	 * Get whether the results are emitted in source order.
+	 * @return <code>true</code> if the results are emitted in source order, <code>false</code> if they are emitted in
+	 *         completion order
+	 */
+	boolean isOrdered();
+
+	/**
+	 * Execute an invocation for each element of given publisher.
+	 * @param <I> Source elements type
+	 * @param <T> Invocation result type
+	 * @param items Source elements (not null)
+	 * @param invocation The function which performs the invocation for a source element (not null)
+	 * @return The invocation results
+	 */
+	<I, T> Flux<Result<I, T>> execute(Publisher<I> items, Function<? super I, ? extends Mono<? extends T>> invocation);
+
+	/**
+	 * Get the metrics of the invocations performed so far.
+	 * @return The bulk invocation metrics
+	 */
+	Metrics getMetrics();
+
+	/**
+	 * The outcome of an invocation.
+	 * @param <I> Source element type
+	 * @param <T> Invocation result type
+	 */
+	public interface Result<I, T> {
+
+		/**
+		 * Get the position of the source element in the source publisher.
+		 * @return The source element index
+		 */
+		long getIndex();
+
+		/**
+		 * Get the source element.
+		 * @return The source element
+		 */
+		I getItem();
+
+		/**
+		 * Get whether the invocation completed without errors.
+		 * @return <code>true</code> if the invocation was successful
+		 */
+		boolean isSuccess();
+
+		/**
+		 * Get the invocation result.
+		 * @return Optional invocation result, empty if the invocation failed or completed without a value
+		 */
+		Optional<T> getValue();
+
+		/**
+		 * Get the invocation error.
+		 * @return Optional invocation error, empty if the invocation was successful
+		 */
+		Optional<Throwable> getError();
+
+		/**
+		 * Get the invocation latency.
+		 * @return The invocation latency
+		 */
+		Duration getLatency();
+
+	}
+
+	/**
+	 * Bulk invocation metrics.
+	 */
+	public interface Metrics {
+
+		/**
+		 * Get the number of started invocations.
+		 * @return The started invocations count
+		 */
+		long getStartedCount();
+
+		/**
+		 * Get the number of successful invocations.
+		 * @return The successful invocations count
+		 */
+		long getSucceededCount();
+
+		/**
+		 * Get the number of failed invocations.
+		 * @return The failed invocations count
+		 */
+		long getFailedCount();
+
+		/**
+		 * Get the number of invocations currently in flight.
+		 * @return The in-flight invocations count
+		 */
+		int getInFlightCount();
+
+		/**
+		 * Get the time elapsed from the first invocation start to the last invocation completion, or to the current
+		 * time if some invocation is in flight.
+		 * @return The elapsed time
+		 */
+		Duration getElapsed();
+
+		/**
+		 * Get the number of completed invocations per second, over the elapsed time.
+		 * @return The throughput, <code>0</code> if no invocation was completed
+		 */
+		double getThroughput();
+
+		/**
+		 * Get the invocation latencies.
+		 * @return The latency histogram
+		 */
+		LatencyHistogram getLatencies();
+
+	}
+
+	// builders
+
+	/**
+	 * Create a {@link BulkInvocation} with the default configuration: {@link #DEFAULT_CONCURRENCY} concurrent
+	 * invocations and results emitted in completion order.
+	 * @return A new {@link BulkInvocation}
+	 */
+	static BulkInvocation create() {
+		return builder().build();
+	}
+
+	/**
+	 * Get a builder to create a {@link BulkInvocation}.
+	 * @return A new {@link Builder}
+	 */
+	static Builder builder() {
+		return new DefaultBulkInvocation.DefaultBuilder();
+	}
+
+	/**
+	 * {@link BulkInvocation} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the maximum number of concurrent invocations. Default is {@link BulkInvocation#DEFAULT_CONCURRENCY}.
+		 * @param concurrency The concurrency, greater than <code>0</code>
+		 * @return this
+		 */
+		Builder concurrency(int concurrency);
+
+		/**
+		 * Set whether the results have to be emitted in source order. Default is <code>false</code>, i.e. the results
+		 * are emitted in completion order. Ordered results may be buffered while waiting for a slower invocation.
+		 * @param ordered Whether to emit the results in source order
+		 * @return this
+		 */
+		Builder ordered(boolean ordered);
+
+		/**
+		 * Build the {@link BulkInvocation}.
+		 * @return A new {@link BulkInvocation}
+		 */
+		BulkInvocation build();
+
+	}
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.DefaultCircuitBreaker;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Circuit breaker of the request invocations, which stops sending requests to a failing target or endpoint.
+ * <p>
+ * A circuit is bound to each request target (the scheme and authority of the request base URI) or to each endpoint
+ * (the request method, target and path template), according to the configured {@link Scope}. Each circuit records
+ * the outcome of the last invocations in a sliding window:
+ * <ul>
+ * <li>When the rate of the failed invocations (errors and <code>5xx</code> responses) or the rate of the slow
+ * invocations exceeds the configured threshold, the circuit trips in the {@link State#OPEN} state, and any further
+ * invocation fails immediately with a {@link RequestRejectedException}, without performing any exchange.</li>
+ * <li>After the configured wait time, the circuit switches to the {@link State#HALF_OPEN} state, allowing a limited
+ * number of probe invocations: if all of them succeed the circuit is closed, otherwise it is opened again.</li>
+ * </ul>
+ *
+ * @since 6.0.3
+ */
+public interface CircuitBreaker {
+
+	/**
+	 * Circuit scope.
+	 */
+	public enum Scope {
+
+		/**
+		 * A circuit for each request target.
+		 */
+		TARGET,
+
+		/**
+		 * A circuit for each endpoint, i.e. each request method, target and path template.
+		 */
+		ENDPOINT
+
+	}
+
+	/**
+	 * Circuit state.
+	 */
+	public enum State {
+
+		/**
+		 * Invocations are allowed and their outcome is recorded.
+		 */
+		CLOSED,
+
+		/**
+		 * Invocations are rejected.
+		 */
+		OPEN,
+
+		/**
+		 * A limited number of probe invocations is allowed.
+		 */
+		HALF_OPEN
+
+	}
+
+	/**
+	 * Get the name of the circuit to use for a request invocation.
+	 * @param method Request method
+	 * @param requestDefinition Request definition
+	 * @return The circuit name
+	 */
+	String getCircuitName(HttpMethod method, ReactiveRequestDefinition requestDefinition);
+
+	/**
+	 * Execute an invocation through given circuit.
+	 * @param <T> Response type
+	 * @param circuit Circuit name (not null)
+	 * @param invocation Invocation supplier (not null)
+	 * @return The invocation response, or a {@link RequestRejectedException} error if the circuit does not allow the
+	 *         invocation
+	 */
+	<T> Mono<ReactiveResponseEntity<T>> execute(String circuit, Supplier<Mono<ReactiveResponseEntity<T>>> invocation);
+
+	/**
+	 * Get the state of given circuit.
+	 * @param circuit Circuit name
+	 * @return Optional circuit state, empty if no invocation was performed through given circuit
+	 */
+	Optional<CircuitState> getCircuit(String circuit);
+
+	/**
+	 * Get the state of all the circuits used so far.
+	 * @return The circuit states
+	 */
+	List<CircuitState> getCircuits();
+
+	/**
+	 * Add a circuit {@link State} transitions listener.
+	 * @param listener The listener to add (not null)
+	 */
+	void addStateListener(StateListener listener);
+
+	/**
+	 * Remove a circuit {@link State} transitions listener.
+	 * @param listener The listener to remove (not null)
+	 */
+	void removeStateListener(StateListener listener);
+
+	/**
+	 * The state of a circuit.
+	 */
+	public interface CircuitState {
+
+		/**
+		 * Get the circuit name.
+		 * @return The circuit name
+		 */
+		String getName();
+
+		/**
+		 * Get the current circuit state.
+		 * @return The circuit state
+		 */
+		State getState();
+
+		/**
+		 * Get the number of invocations recorded in the sliding window of the current closed state.
+		 * @return The recorded invocations count
+		 */
+		int getRecordedCalls();
+
+		/**
+		 * Get the failed invocations rate in the sliding window, as a percentage.
+		 * @return The failure rate, <code>0</code> if no invocation was recorded
+		 */
+		double getFailureRate();
+
+		/**
+		 * Get the slow invocations rate in the sliding window, as a percentage.
+		 * @return The slow invocations rate, <code>0</code> if no invocation was recorded
+		 */
+		double getSlowCallRate();
+
+		/**
+		 * Get the number of rejected invocations.
+		 * @return The rejected invocations count
+		 */
+		long getRejectedCount();
+
+	}
+
+	/**
+	 * Listener of the circuit {@link State} transitions.
+	 */
+	@FunctionalInterface
+	public interface StateListener {
+
+		/**
+		 * Invoked when a circuit changes its state.
+		 * @param circuit The circuit name
+		 * @param from The previous state
+		 * @param to The new state
+		 */
+		void onStateTransition(String circuit, State from, State to);
+
+	}
+
+	// builders
+
+	/**
+	 * Create a new {@link CircuitBreaker} using the default settings.
+	 * @return A new {@link CircuitBreaker}
+	 */
+	static CircuitBreaker create() {
+		return builder().build();
+	}
+
+	/**
+	 * Get a builder to create a {@link CircuitBreaker}.
+	 * @return A new {@link CircuitBreaker} builder
+	 */
+	static Builder builder() {
+		return new DefaultCircuitBreaker.DefaultBuilder();
+	}
+
+	/**
+	 * {@link CircuitBreaker} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the circuit scope. Defaults to {@link Scope#TARGET}.
+		 * @param scope The circuit scope (not null)
+		 * @return this
+		 */
+		Builder scope(Scope scope);
+
+		/**
+		 * Set the failure rate threshold, as a percentage. Defaults to <code>50</code>.
+		 * @param failureRateThreshold The failure rate threshold, greater than <code>0</code> and not greater than
+		 *        <code>100</code>
+		 * @return this
+		 */
+		Builder failureRateThreshold(double failureRateThreshold);
+
+		/**
+		 * Set the slow invocations rate threshold, as a percentage, and the duration above which an invocation is
+		 * considered slow, measured until the response headers are received. The slow invocations rate is not
+		 * checked by default.
+		 * @param slowCallRateThreshold The slow invocations rate threshold, greater than <code>0</code> and not
+		 *        greater than <code>100</code>
+		 * @param slowCallDuration The slow invocation duration (not null)
+		 * @return this
+		 */
+		Builder slowCallRateThreshold(double slowCallRateThreshold, Duration slowCallDuration);
+
+		/**
+		 * Set the number of the last invocations recorded to calculate the rates. Defaults to <code>100</code>.
+		 * @param slidingWindowSize The sliding window size, at least <code>1</code>
+		 * @return this
+		 */
+		Builder slidingWindowSize(int slidingWindowSize);
+
+		/**
+		 * Set the minimum number of recorded invocations before the rates are checked. Defaults to
+		 * <code>20</code>.
+		 * @param minimumCalls The minimum recorded invocations, at least <code>1</code>
+		 * @return this
+		 */
+		Builder minimumCalls(int minimumCalls);
+
+		/**
+		 * Set the time a circuit stays open before allowing the probe invocations. Defaults to 30 seconds.
+		 * @param waitInOpenState The wait time in the open state (not null)
+		 * @return this
+		 */
+		Builder waitInOpenState(Duration waitInOpenState);
+
+		/**
+		 * Set the number of probe invocations allowed in the half-open state. Defaults to <code>3</code>.
+		 * @param permittedProbes The permitted probe invocations, at least <code>1</code>
+		 * @return this
+		 */
+		Builder permittedProbes(int permittedProbes);
+
+		/**
+		 * Add a circuit {@link State} transitions listener.
+		 * @param listener The listener to add (not null)
+		 * @return this
+		 */
+		Builder withStateListener(StateListener listener);
+
+		/**
+		 * Build the {@link CircuitBreaker}.
+		 * @return A new {@link CircuitBreaker}
+		 */
+		CircuitBreaker build();
+
+	}
+
+}
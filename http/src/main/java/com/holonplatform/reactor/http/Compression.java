@@ -0,0 +1,294 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.DefaultCompression;
+
+/**
+ * HTTP message entity compression configuration.
+ * <p>
+ * When enabled on a {@link ReactiveRestClient}, or on a single request using
+ * {@link ReactiveRequestDefinition#compression(Compression)}:
+ * <ul>
+ * <li>The request entities whose encoded size is equal to or greater than the {@link #getThreshold()} are compressed
+ * using the configured {@link Encoding}, and the <code>Content-Encoding</code> header is set accordingly. The request
+ * entities provided as a publisher of elements are streamed as they are, since their size is not known in
+ * advance.</li>
+ * <li>The <code>Accept-Encoding</code> header is set, if not already present, and the response entities encoded using
+ * one of the supported {@link Encoding}s are decompressed while they are read, without buffering the whole
+ * entity.</li>
+ * </ul>
+ * <p>
+ * The request and response sizes before and after compression are collected in the compression {@link Metrics}.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface Compression {
+
+	/**
+	 * Default request entity compression threshold in bytes
+	 */
+	static final int DEFAULT_THRESHOLD = 1024;
+
+	/**
+	 * Get the encoding to use to compress the request entities.
+	 * @return The request entities encoding
+	 */
+	Encoding getEncoding();
+
+	/**
+	 * Get the minimum request entity size, in bytes, for which the entity is compressed.
+	 * @return The compression threshold
+	 */
+	int getThreshold();
+
+	/**
+	 * Get whether the request entities compression is enabled.
+	 * @return <code>true</code> if the request entities are compressed
+	 */
+	boolean isRequestCompression();
+
+	/**
+	 * Get whether the response entities decompression is enabled.
+	 * @return <code>true</code> if the compressed response entities are accepted and decompressed
+	 */
+	boolean isResponseDecompression();
+
+	/**
+	 * Get the <code>Accept-Encoding</code> header value listing the supported response encodings.
+	 * @return The <code>Accept-Encoding</code> header value
+	 */
+	default String getAcceptEncoding() {
+		return Encoding.GZIP.getName() + ", " + Encoding.DEFLATE.getName();
+	}
+
+	/**
+	 * Checks whether a request entity of given size should be compressed.
+	 * @param size The encoded request entity size in bytes
+	 * @return <code>true</code> if the request entity should be compressed
+	 */
+	default boolean isCompressible(long size) {
+		return isRequestCompression() && size >= getThreshold();
+	}
+
+	/**
+	 * Get the compression metrics.
+	 * @return The compression metrics
+	 */
+	Metrics getMetrics();
+
+	/**
+	 * Supported encodings.
+	 */
+	public enum Encoding {
+
+		/**
+		 * GZIP file format (RFC 1952)
+		 */
+		GZIP("gzip"),
+
+		/**
+		 * ZLIB data format (RFC 1950)
+		 */
+		DEFLATE("deflate");
+
+		private final String name;
+
+		private Encoding(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Get the encoding name, as used in the <code>Content-Encoding</code> header.
+		 * @return The encoding name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Wrap given stream into a stream which compresses the written bytes using this encoding.
+		 * @param stream The stream to wrap
+		 * @return The compressing stream, which must be closed to complete the compressed data
+		 * @throws IOException If an I/O error occurs
+		 */
+		public OutputStream compress(OutputStream stream) throws IOException {
+			return (this == GZIP) ? new GZIPOutputStream(stream) : new DeflaterOutputStream(stream);
+		}
+
+		/**
+		 * Get the {@link Encoding} which corresponds to given <code>Content-Encoding</code> header value.
+		 * @param contentEncoding The <code>Content-Encoding</code> header value
+		 * @return Optional matching {@link Encoding}, empty if not supported
+		 */
+		public static Optional<Encoding> of(String contentEncoding) {
+			if (contentEncoding != null) {
+				final String value = contentEncoding.trim();
+				for (Encoding encoding : values()) {
+					if (encoding.name.equalsIgnoreCase(value)) {
+						return Optional.of(encoding);
+					}
+				}
+				if ("x-gzip".equalsIgnoreCase(value)) {
+					return Optional.of(GZIP);
+				}
+			}
+			return Optional.empty();
+		}
+
+	}
+
+	/**
+	 * Compression metrics.
+	 */
+	public interface Metrics {
+
+		/**
+		 * Get the number of compressed request entities.
+		 * @return The compressed requests count
+		 */
+		long getCompressedRequests();
+
+		/**
+		 * Get the total size of the compressed request entities before compression.
+		 * @return The request entities size in bytes
+		 */
+		long getRequestBytes();
+
+		/**
+		 * Get the total size of the compressed request entities after compression, i.e. the size actually sent.
+		 * @return The compressed request entities size in bytes
+		 */
+		long getCompressedRequestBytes();
+
+		/**
+		 * Get the number of decompressed response entities.
+		 * @return The decompressed responses count
+		 */
+		long getDecompressedResponses();
+
+		/**
+		 * Get the total size of the compressed response entities, i.e. the size actually received.
+		 * @return The compressed response entities size in bytes
+		 */
+		long getCompressedResponseBytes();
+
+		/**
+		 * Get the total size of the compressed response entities after decompression.
+		 * @return The response entities size in bytes
+		 */
+		long getResponseBytes();
+
+		/**
+		 * Get the total number of bytes saved by compression, both for requests and responses.
+		 * @return The saved bytes count
+		 */
+		default long getSavedBytes() {
+			return (getRequestBytes() - getCompressedRequestBytes())
+					+ (getResponseBytes() - getCompressedResponseBytes());
+		}
+
+		/**
+		 * Record a compressed request entity.
+		 * @param size The entity size before compression
+		 * @param compressedSize The entity size after compression
+		 */
+		void recordRequest(long size, long compressedSize);
+
+		/**
+		 * Record a decompressed response entity.
+		 * @param compressedSize The entity size before decompression
+		 * @param size The entity size after decompression
+		 */
+		void recordResponse(long compressedSize, long size);
+
+		/**
+		 * Clear all the recorded metrics.
+		 */
+		void reset();
+
+	}
+
+	// builders
+
+	/**
+	 * Create a new {@link Compression} using the default configuration: {@link Encoding#GZIP} request entities
+	 * encoding, {@link #DEFAULT_THRESHOLD} threshold, request compression and response decompression enabled.
+	 * @return A new {@link Compression} instance
+	 */
+	static Compression create() {
+		return builder().build();
+	}
+
+	/**
+	 * Get a builder to create a {@link Compression}.
+	 * @return A new {@link Compression} builder
+	 */
+	static Builder builder() {
+		return new DefaultCompression.DefaultBuilder();
+	}
+
+	/**
+	 * {@link Compression} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the encoding to use to compress the request entities. Default is {@link Encoding#GZIP}.
+		 * @param encoding The request entities encoding (not null)
+		 * @return this
+		 */
+		Builder encoding(Encoding encoding);
+
+		/**
+		 * Set the minimum request entity size, in bytes, for which the entity is compressed. Default is
+		 * {@link Compression#DEFAULT_THRESHOLD}.
+		 * @param threshold The compression threshold (not negative)
+		 * @return this
+		 */
+		Builder threshold(int threshold);
+
+		/**
+		 * Set whether to compress the request entities. Default is <code>true</code>.
+		 * @param requestCompression Whether to compress the request entities
+		 * @return this
+		 */
+		Builder requestCompression(boolean requestCompression);
+
+		/**
+		 * Set whether to accept and decompress the compressed response entities. Default is <code>true</code>.
+		 * @param responseDecompression Whether to decompress the response entities
+		 * @return this
+		 */
+		Builder responseDecompression(boolean responseDecompression);
+
+		/**
+		 * Build the {@link Compression}.
+		 * @return A new {@link Compression} instance
+		 */
+		Compression build();
+
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.holonplatform.reactor.http.internal.DefaultConcurrencyLimiter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Adaptive limiter of the concurrent exchanges performed against each request target, i.e. each scheme and authority
+ * of the request base URI.
+ * <p>
+ * The limit of each target is adjusted using an AIMD (additive increase, multiplicative decrease) algorithm driven by
+ * the measured round trip time, i.e. the time to the response headers: while the RTT stays within a tolerance of the
+ * minimum observed RTT, the limit is increased by one for each window of <code>limit</code> successful exchanges. When
+ * the RTT exceeds the tolerance, or the exchange fails or the target signals an overload (<code>429</code>,
+ * <code>503</code> and <code>504</code> status codes), the limit is multiplied by the backoff ratio, at most once per
+ * RTT.
+ * </p>
+ * <p>
+ * The invocations exceeding the limit wait in a bounded queue, in arrival order. When the queue is full, or the
+ * maximum queue time elapses, the invocation fails with a {@link RequestRejectedException}.
+ * </p>
+ * <p>
+ * The exchange RTT is sampled when the response headers are received, while the exchange permit is held until the
+ * response body read terminates, either because it was completely read, or because of an error or a cancellation. A
+ * response with a message entity returned to the caller must be consumed or released (see
+ * {@link ReactiveResponseEntity#releaseBody()}), otherwise its permit is never released. The permit of a response
+ * without a message entity to read (for example a <code>204</code> response, or a response requested with a
+ * <code>Void</code> payload type) is released when the response headers are received.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface ConcurrencyLimiter {
+
+	/**
+	 * Execute an invocation against given target, waiting for an exchange permit if the target limit is reached.
+	 * @param <T> Response type
+	 * @param target Request target (not null)
+	 * @param invocation Invocation supplier (not null)
+	 * @return The invocation response
+	 */
+	<T> Mono<ReactiveResponseEntity<T>> execute(String target, Supplier<Mono<ReactiveResponseEntity<T>>> invocation);
+
+	/**
+	 * Get the state of given target.
+	 * @param target Request target
+	 * @return Optional target state, empty if no invocation was performed against given target
+	 */
+	Optional<TargetState> getState(String target);
+
+	/**
+	 * Get the state of all the targets invoked so far.
+	 * @return The target states
+	 */
+	List<TargetState> getStates();
+
+	/**
+	 * The limiter state of a request target.
+	 */
+	public interface TargetState {
+
+		/**
+		 * Get the request target.
+		 * @return The request target
+		 */
+		String getTarget();
+
+		/**
+		 * Get the current concurrency limit.
+		 * @return The concurrency limit
+		 */
+		int getLimit();
+
+		/**
+		 * Get the number of exchanges currently in progress.
+		 * @return The in-flight exchanges count
+		 */
+		int getInFlight();
+
+		/**
+		 * Get the number of invocations waiting for an exchange permit.
+		 * @return The queued invocations count
+		 */
+		int getQueued();
+
+		/**
+		 * Get the minimum RTT observed in the current measurement window.
+		 * @return The minimum RTT, {@link Duration#ZERO} if no exchange was completed
+		 */
+		Duration getMinRtt();
+
+		/**
+		 * Get the number of rejected invocations.
+		 * @return The rejected invocations count
+		 */
+		long getRejectedCount();
+
+	}
+
+	// builders
+
+	/**
+	 * Create a new {@link ConcurrencyLimiter} using the default settings.
+	 * @return A new {@link ConcurrencyLimiter}
+	 */
+	static ConcurrencyLimiter create() {
+		return builder().build();
+	}
+
+	/**
+	 * Get a builder to create a {@link ConcurrencyLimiter}.
+	 * @return A new {@link ConcurrencyLimiter} builder
+	 */
+	static Builder builder() {
+		return new DefaultConcurrencyLimiter.DefaultBuilder();
+	}
+
+	/**
+	 * {@link ConcurrencyLimiter} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the initial concurrency limit of each target. Defaults to <code>20</code>.
+		 * @param initialLimit The initial limit, at least <code>1</code>
+		 * @return this
+		 */
+		Builder initialLimit(int initialLimit);
+
+		/**
+		 * Set the concurrency limit bounds. Defaults to <code>1</code> and <code>200</code>.
+		 * @param minLimit The minimum limit, at least <code>1</code>
+		 * @param maxLimit The maximum limit, not lower than the minimum limit
+		 * @return this
+		 */
+		Builder limitBounds(int minLimit, int maxLimit);
+
+		/**
+		 * Set the ratio by which the limit is multiplied when a congestion is detected. Defaults to <code>0.9</code>.
+		 * @param backoffRatio The backoff ratio, greater than <code>0</code> and lower than <code>1</code>
+		 * @return this
+		 */
+		Builder backoffRatio(double backoffRatio);
+
+		/**
+		 * Set the RTT tolerance: a RTT greater than the minimum RTT multiplied by the tolerance is considered a
+		 * congestion signal. Defaults to <code>2</code>.
+		 * @param rttTolerance The RTT tolerance, at least <code>1</code>
+		 * @return this
+		 */
+		Builder rttTolerance(double rttTolerance);
+
+		/**
+		 * Set the maximum number of invocations which can wait for an exchange permit for each target. Defaults to
+		 * <code>100</code>.
+		 * @param maxQueueSize The max queue size, <code>0</code> to reject the invocations exceeding the limit
+		 *        immediately
+		 * @return this
+		 */
+		Builder maxQueueSize(int maxQueueSize);
+
+		/**
+		 * Set the maximum time an invocation can wait for an exchange permit. Defaults to 5 seconds.
+		 * @param maxQueueTime The max queue time (not null)
+		 * @return this
+		 */
+		Builder maxQueueTime(Duration maxQueueTime);
+
+		/**
+		 * Build the {@link ConcurrencyLimiter}.
+		 * @return A new {@link ConcurrencyLimiter}
+		 */
+		ConcurrencyLimiter build();
+
+	}
+
+}
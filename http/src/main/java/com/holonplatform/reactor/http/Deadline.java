@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.holonplatform.reactor.http.internal.DefaultDeadline;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * A point in time by which a unit of work has to be completed, carried in the Reactor context.
+ * <p>
+ * The {@link ReactiveRestClient} invocations subscribed with a deadline in their context fail fast with a
+ * {@link RequestTimeoutException} if the deadline is already expired, and are bounded by the remaining time otherwise.
+ * Since the nested deadlines can only shorten the outer ones, the requests performed to serve a request with a
+ * deadline get only the remaining time:
+ * </p>
+ * 
+ * <pre>
+ * client.request().path("orders").getForEntity(Order.class)
+ * 		.flatMap(order -&gt; client.request().path("customers/{id}").resolve("id", order.getCustomerId())
+ * 				.getForEntity(Customer.class).contextWrite(Deadline.within(Duration.ofMillis(300))))
+ * 		.contextWrite(Deadline.within(Duration.ofSeconds(1)));
+ * </pre>
+ *
+ * @since 6.0.3
+ */
+public interface Deadline {
+
+	/**
+	 * The Reactor context key of the current deadline
+	 */
+	static final String CONTEXT_KEY = Deadline.class.getName();
+
+	/**
+	 * Get the time remaining before the deadline expiration.
+	 * @return The remaining time, {@link Duration#ZERO} if the deadline is expired
+	 */
+	Duration getRemaining();
+
+	/**
+	 * Get whether the deadline is expired.
+	 * @return <code>true</code> if the deadline is expired
+	 */
+	boolean isExpired();
+
+	/**
+	 * Get whether this deadline expires before given one.
+	 * @param other The deadline to compare (not null)
+	 * @return <code>true</code> if this deadline expires before the other one
+	 */
+	boolean isBefore(Deadline other);
+
+	/**
+	 * Create a deadline which expires after given time from now.
+	 * @param timeout The time to the deadline expiration (not null)
+	 * @return A new {@link Deadline}
+	 */
+	static Deadline after(Duration timeout) {
+		return DefaultDeadline.after(timeout);
+	}
+
+	/**
+	 * Get the deadline available in given Reactor context, if any.
+	 * @param context The Reactor context (not null)
+	 * @return Optional current deadline
+	 */
+	static Optional<Deadline> current(ContextView context) {
+		return context.getOrEmpty(CONTEXT_KEY);
+	}
+
+	/**
+	 * Get a Reactor context function, to be used with <code>contextWrite</code>, which sets a deadline expiring after
+	 * given time from the subscription. The deadline is set only if it expires before the current one, if any.
+	 * @param timeout The time to the deadline expiration (not null)
+	 * @return The context function
+	 */
+	static Function<Context, Context> within(Duration timeout) {
+		final Duration time = DefaultDeadline.validate(timeout);
+		return context -> with(context, after(time));
+	}
+
+	/**
+	 * Set given deadline in a Reactor context, if it expires before the current one, if any.
+	 * @param context The Reactor context (not null)
+	 * @param deadline The deadline to set (not null)
+	 * @return The updated context
+	 */
+	static Context with(Context context, Deadline deadline) {
+		final Optional<Deadline> current = current(context);
+		if (current.isPresent() && !deadline.isBefore(current.get())) {
+			return context;
+		}
+		return context.put(CONTEXT_KEY, deadline);
+	}
+
+}
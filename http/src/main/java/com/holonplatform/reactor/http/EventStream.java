@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.internal.DefaultEventStream;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consumes a Server-Sent Events stream, reconnecting when the connection is closed or lost.
+ * <p>
+ * Each reconnection request carries the <code>Last-Event-ID</code> header with the id of the last received event, so
+ * that the server can resume the stream. The reconnection delay is the <code>retry</code> time sent by the server, if
+ * any, or the configured min delay, doubled for each consecutive failed attempt up to the max delay. The attempts
+ * counter is reset as soon as an event is received.
+ * </p>
+ * <p>
+ * The stream ends when the server responds with the <code>204</code> (No Content) status code, when the response has
+ * a non successful status code other than a <code>5xx</code> one, or when the max reconnection attempts are exhausted.
+ * </p>
+ * <p>
+ * The events received while the subscriber is not requesting are kept in a bounded buffer, and the configured
+ * {@link BufferOverflowStrategy} is applied when the buffer is full.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface EventStream {
+
+	/**
+	 * The header used to send the last received event id
+	 */
+	static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+	/**
+	 * Default reconnection min delay
+	 */
+	static final Duration DEFAULT_MIN_DELAY = Duration.ofSeconds(1);
+
+	/**
+	 * Default reconnection max delay
+	 */
+	static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+	/**
+	 * Default events buffer size
+	 */
+	static final int DEFAULT_BUFFER_SIZE = 256;
+
+	/**
+	 * The Server-Sent Events media type
+	 */
+	static final String MEDIA_TYPE = "text/event-stream";
+
+	/**
+	 * Get whether to reconnect when the connection is closed or lost.
+	 * @return <code>true</code> if reconnection is enabled
+	 */
+	boolean isReconnect();
+
+	/**
+	 * Get the maximum number of consecutive reconnection attempts without receiving any event.
+	 * @return The max reconnection attempts
+	 */
+	long getMaxReconnectAttempts();
+
+	/**
+	 * Get the delay of the first reconnection attempt, when no <code>retry</code> time was sent by the server.
+	 * @return The reconnection min delay
+	 */
+	Duration getMinDelay();
+
+	/**
+	 * Get the maximum reconnection delay.
+	 * @return The reconnection max delay
+	 */
+	Duration getMaxDelay();
+
+	/**
+	 * Get the size of the buffer in which the events are kept while the subscriber is not requesting.
+	 * @return The buffer size
+	 */
+	int getBufferSize();
+
+	/**
+	 * Get the strategy applied when the events buffer is full.
+	 * @return The overflow strategy
+	 */
+	BufferOverflowStrategy getOverflowStrategy();
+
+	/**
+	 * Get the id of the last event received before the first connection, if any.
+	 * @return Optional initial last event id
+	 */
+	Optional<String> getLastEventId();
+
+	/**
+	 * Consume an event stream.
+	 * @param <T> Event data type
+	 * @param connection The function which performs the stream request, given the last received event id, which may
+	 *        be null (not null)
+	 * @param dataType The event data type (not null)
+	 * @return The events of all the connections
+	 */
+	<T> Flux<ServerSentEvent<T>> execute(Function<String, Mono<? extends ReactiveResponseEntity<?>>> connection,
+			ResponseType<T> dataType);
+
+	/**
+	 * Create a new {@link EventStream} with the default configuration.
+	 * @return A new {@link EventStream}
+	 */
+	static EventStream create() {
+		return builder().build();
+	}
+
+	/**
+	 * Get a builder to create a new {@link EventStream}.
+	 * @return A new {@link EventStream} builder
+	 */
+	static Builder builder() {
+		return new DefaultEventStream.DefaultBuilder();
+	}
+
+	/**
+	 * {@link EventStream} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set whether to reconnect when the connection is closed or lost. Default is <code>true</code>.
+		 * @param reconnect Whether to reconnect
+		 * @return this
+		 */
+		Builder reconnect(boolean reconnect);
+
+		/**
+		 * Set the reconnection delays. Defaults are {@link EventStream#DEFAULT_MIN_DELAY} and
+		 * {@link EventStream#DEFAULT_MAX_DELAY}.
+		 * @param minDelay The delay of the first reconnection attempt, when no <code>retry</code> time was sent by the
+		 *        server (not null)
+		 * @param maxDelay The maximum delay of the following attempts (not null, not lower than the min delay)
+		 * @return this
+		 */
+		Builder backoff(Duration minDelay, Duration maxDelay);
+
+		/**
+		 * Set the maximum number of consecutive reconnection attempts without receiving any event. Default is
+		 * unbounded.
+		 * @param maxReconnectAttempts The max reconnection attempts (not negative)
+		 * @return this
+		 */
+		Builder maxReconnectAttempts(long maxReconnectAttempts);
+
+		/**
+		 * Set the id of the last event received before the first connection, to resume a previous stream.
+		 * @param lastEventId The last event id
+		 * @return this
+		 */
+		Builder lastEventId(String lastEventId);
+
+		/**
+		 * Set the size of the buffer in which the events are kept while the subscriber is not requesting. Default is
+		 * {@link EventStream#DEFAULT_BUFFER_SIZE}.
+		 * @param bufferSize The buffer size (greater than 0)
+		 * @return this
+		 */
+		Builder bufferSize(int bufferSize);
+
+		/**
+		 * Set the strategy to apply when the events buffer is full. Default is {@link BufferOverflowStrategy#ERROR}.
+		 * @param overflowStrategy The overflow strategy (not null)
+		 * @return this
+		 */
+		Builder overflowStrategy(BufferOverflowStrategy overflowStrategy);
+
+		/**
+		 * Build the {@link EventStream}.
+		 * @return A new {@link EventStream} instance
+		 */
+		EventStream build();
+
+	}
+
+}
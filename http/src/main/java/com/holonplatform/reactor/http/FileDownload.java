@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The result of a response message entity download to a file.
+ * <p>
+ * When the download is resumed, the bytes already present in the file are requested no more and the response content
+ * is appended to them: the {@link #getOffset()} is the size of the file before the download.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface FileDownload {
+
+	/**
+	 * Range request header name
+	 */
+	public static final String RANGE_HEADER = "Range";
+
+	/**
+	 * Content range response header name
+	 */
+	public static final String CONTENT_RANGE_HEADER = "Content-Range";
+
+	/**
+	 * Get the downloaded file.
+	 * @return The file path
+	 */
+	Path getFile();
+
+	/**
+	 * Get the position of the file from which the response content was written.
+	 * @return The write start position, <code>0</code> if the download was not resumed
+	 */
+	long getOffset();
+
+	/**
+	 * Get the number of bytes written to the file by this download.
+	 * @return The written bytes count
+	 */
+	long getBytesWritten();
+
+	/**
+	 * Get the time elapsed from the request invocation to the end of the file write.
+	 * @return The download duration
+	 */
+	Duration getDuration();
+
+	/**
+	 * Get the file size at the end of the download.
+	 * @return The file size
+	 */
+	default long getSize() {
+		return getOffset() + getBytesWritten();
+	}
+
+	/**
+	 * Get whether the download was resumed, appending the response content to a partially downloaded file.
+	 * @return <code>true</code> if the download was resumed
+	 */
+	default boolean isResumed() {
+		return getOffset() > 0;
+	}
+
+	/**
+	 * Get the download throughput, i.e. the written bytes per second.
+	 * @return The download throughput in bytes per second, <code>0</code> if no byte was written
+	 */
+	default double getThroughput() {
+		final long nanos = getDuration().toNanos();
+		return (nanos > 0) ? (getBytesWritten() * 1_000_000_000d) / nanos : 0d;
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import com.holonplatform.http.MediaType;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.reactor.http.internal.DefaultFileRequestEntity;
+
+/**
+ * A {@link RequestEntity} which payload is the content of a file, or of a region of it.
+ * <p>
+ * The file content is never loaded in memory: when supported by the underlying connector, the file is transferred to
+ * the connection without copying it in user space (<em>zero-copy</em>), otherwise it is read using NIO into pooled
+ * buffers and streamed as the connection is able to write it. The <code>Content-Length</code> request header is set to
+ * the size of the transferred region.
+ * </p>
+ * <p>
+ * A {@link FileRequestEntity} can be used as the value of a {@link MultipartRequestEntity} part, to upload a file
+ * together with other form fields.
+ * </p>
+ * <p>
+ * The request compression, if enabled, does not apply to the file request entities.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface FileRequestEntity extends RequestEntity<Path> {
+
+	/**
+	 * Get the file path.
+	 * @return The file path
+	 */
+	Path getFile();
+
+	/**
+	 * Get the position in the file from which the transfer starts.
+	 * @return The start position, <code>0</code> for the beginning of the file
+	 */
+	long getPosition();
+
+	/**
+	 * Get the number of bytes to transfer.
+	 * @return The number of bytes to transfer, empty to transfer the file content up to its end
+	 */
+	OptionalLong getCount();
+
+	/**
+	 * Get the file name to declare when the file is sent as a multipart part.
+	 * @return The file name, the file path name by default
+	 */
+	Optional<String> getFileName();
+
+	// builders
+
+	/**
+	 * Build a {@link FileRequestEntity} with the whole content of given file, using the
+	 * {@link MediaType#APPLICATION_OCTET_STREAM} media type.
+	 * @param file The file path (not null)
+	 * @return A new {@link FileRequestEntity} instance
+	 */
+	static FileRequestEntity of(Path file) {
+		return of(MediaType.APPLICATION_OCTET_STREAM.toString(), file);
+	}
+
+	/**
+	 * Build a {@link FileRequestEntity} with the whole content of given file.
+	 * @param mediaType Request entity media type
+	 * @param file The file path (not null)
+	 * @return A new {@link FileRequestEntity} instance
+	 */
+	static FileRequestEntity of(String mediaType, Path file) {
+		return new DefaultFileRequestEntity(mediaType, file, 0L, -1L, null);
+	}
+
+	/**
+	 * Build a {@link FileRequestEntity} with a region of given file.
+	 * @param mediaType Request entity media type
+	 * @param file The file path (not null)
+	 * @param position The position in the file from which the transfer starts (not negative)
+	 * @param count The number of bytes to transfer (not negative)
+	 * @return A new {@link FileRequestEntity} instance
+	 */
+	static FileRequestEntity of(String mediaType, Path file, long position, long count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Bytes count must be not negative");
+		}
+		return new DefaultFileRequestEntity(mediaType, file, position, count, null);
+	}
+
+	/**
+	 * Build a {@link FileRequestEntity} with the whole content of given file, declaring given file name when sent as
+	 * a multipart part.
+	 * @param mediaType Request entity media type
+	 * @param file The file path (not null)
+	 * @param fileName The file name
+	 * @return A new {@link FileRequestEntity} instance
+	 */
+	static FileRequestEntity of(String mediaType, Path file, String fileName) {
+		return new DefaultFileRequestEntity(mediaType, file, 0L, -1L, fileName);
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.reactor.http.internal.DefaultHedgingPolicy;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedging policy of the idempotent request invocations, to reduce the tail latency.
+ * <p>
+ * When a hedging policy applies to an invocation performed using a safe HTTP method (<code>GET</code>,
+ * <code>HEAD</code> and <code>OPTIONS</code>) without a request entity, if no response is received within the hedging
+ * delay, a duplicate request is issued. The first successful response wins and the other in-flight requests are
+ * cancelled. A response is considered successful if it has not a <code>5xx</code> status code. If no attempt succeeds,
+ * the outcome of the last completed attempt is returned.
+ * </p>
+ * <p>
+ * The hedging delay can be fixed or derived from a percentile of the observed primary request latencies. The number
+ * of issued hedges is limited by a budget, expressed as a ratio of the hedgeable invocations, so that hedging cannot
+ * multiply the load of a slow upstream.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface HedgingPolicy {
+
+	/**
+	 * Default hedging delay
+	 */
+	public static final Duration DEFAULT_DELAY = Duration.ofMillis(50);
+
+	/**
+	 * Default hedging budget ratio
+	 */
+	public static final double DEFAULT_BUDGET_RATIO = 0.1d;
+
+	/**
+	 * Check whether a request invocation can be hedged.
+	 * @param method Request method
+	 * @param requestEntity Request entity, may be <code>null</code>
+	 * @return <code>true</code> if the request invocation can be hedged
+	 */
+	boolean isHedgeable(HttpMethod method, RequestEntity<?> requestEntity);
+
+	/**
+	 * Execute an invocation, issuing hedged attempts according to this policy.
+	 * @param <T> Response type
+	 * @param invocation Invocation supplier, used to obtain each attempt (not null)
+	 * @return The response of the winning attempt
+	 */
+	<T> Mono<ReactiveResponseEntity<T>> execute(Supplier<Mono<ReactiveResponseEntity<T>>> invocation);
+
+	/**
+	 * Get the delay after which a hedged attempt is currently issued.
+	 * @return The current hedging delay
+	 */
+	Duration getCurrentDelay();
+
+	/**
+	 * Get the latencies of the primary attempts, used to calculate the hedging delay when a percentile is configured.
+	 * Cancelled primary attempts are recorded with the latency at cancellation time.
+	 * @return The primary attempts latency histogram
+	 */
+	LatencyHistogram getLatencies();
+
+	/**
+	 * Get the number of invocations executed through this policy.
+	 * @return The invocations count
+	 */
+	long getInvocationCount();
+
+	/**
+	 * Get the number of hedged attempts issued.
+	 * @return The fired hedges count
+	 */
+	long getHedgeCount();
+
+	/**
+	 * Get the number of invocations whose response was provided by a hedged attempt.
+	 * @return The winning hedges count
+	 */
+	long getHedgeWinCount();
+
+	/**
+	 * Get the number of hedged attempts not issued because the hedging budget was exhausted.
+	 * @return The rejected hedges count
+	 */
+	long getBudgetExhaustedCount();
+
+	// builders
+
+	/**
+	 * Create a new {@link HedgingPolicy} using the default settings: at most one hedged attempt after
+	 * {@link #DEFAULT_DELAY}, with a budget ratio of {@link #DEFAULT_BUDGET_RATIO}.
+	 * @return A new {@link HedgingPolicy}
+	 */
+	static HedgingPolicy create() {
+		return builder().build();
+	}
+
+	/**
+	 * Get a builder to create a {@link HedgingPolicy}.
+	 * @return A new {@link HedgingPolicy} builder
+	 */
+	static Builder builder() {
+		return new DefaultHedgingPolicy.DefaultBuilder();
+	}
+
+	/**
+	 * {@link HedgingPolicy} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the fixed hedging delay. When a percentile is configured, it is used until enough latencies are
+		 * recorded. Defaults to {@link HedgingPolicy#DEFAULT_DELAY}.
+		 * @param delay The hedging delay (not null, not negative)
+		 * @return this
+		 */
+		Builder delay(Duration delay);
+
+		/**
+		 * Derive the hedging delay from given percentile of the observed primary request latencies.
+		 * @param percentile The percentile, greater than <code>0</code> and lower than <code>100</code> (for example
+		 *        <code>95</code>)
+		 * @param minDelay The minimum hedging delay (not null)
+		 * @param minSamples The minimum number of recorded latencies to use the percentile, until then the fixed
+		 *        delay is used
+		 * @return this
+		 */
+		Builder percentile(double percentile, Duration minDelay, int minSamples);
+
+		/**
+		 * Set the maximum number of hedged attempts for each invocation, each one issued after a further hedging
+		 * delay. Defaults to <code>1</code>.
+		 * @param maxHedges The maximum hedged attempts, at least <code>1</code>
+		 * @return this
+		 */
+		Builder maxHedges(int maxHedges);
+
+		/**
+		 * Set the hedging budget: each invocation adds <code>ratio</code> tokens to the budget, up to
+		 * <code>maxBurst</code> tokens, and each hedged attempt consumes one token. Defaults to
+		 * {@link HedgingPolicy#DEFAULT_BUDGET_RATIO} and <code>10</code>.
+		 * @param ratio The ratio of hedged attempts to invocations, between <code>0</code> and <code>1</code>
+		 * @param maxBurst The maximum number of tokens, at least <code>1</code>
+		 * @return this
+		 */
+		Builder budget(double ratio, int maxBurst);
+
+		/**
+		 * Build the {@link HedgingPolicy}.
+		 * @return A new {@link HedgingPolicy}
+		 */
+		HedgingPolicy build();
+
+	}
+
+}
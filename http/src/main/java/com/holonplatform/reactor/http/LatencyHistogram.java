@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+
+import com.holonplatform.reactor.http.internal.DefaultLatencyHistogram;
+
+/**
+ * A lock-free latency histogram.
+ * <p>
+ * The recorded values are collected in logarithmic buckets, each one split into linear sub-buckets, so that the
+ * percentiles are reported with a relative error of at most 12.5%, using a fixed amount of memory.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface LatencyHistogram {
+
+	/**
+	 * Record a latency value.
+	 * @param nanos The latency in nanoseconds
+	 */
+	void record(long nanos);
+
+	/**
+	 * Get the number of recorded values.
+	 * @return The values count
+	 */
+	long getCount();
+
+	/**
+	 * Get the mean of the recorded values.
+	 * @return The mean latency, {@link Duration#ZERO} if no value was recorded
+	 */
+	Duration getMean();
+
+	/**
+	 * Get the maximum recorded value.
+	 * @return The max latency, {@link Duration#ZERO} if no value was recorded
+	 */
+	Duration getMax();
+
+	/**
+	 * Get the value below which given percentage of the recorded values fall.
+	 * @param percentile The percentile, between <code>0</code> and <code>100</code>
+	 * @return The latency at given percentile, {@link Duration#ZERO} if no value was recorded
+	 */
+	Duration getPercentile(double percentile);
+
+	/**
+	 * Clear all the recorded values.
+	 */
+	void reset();
+
+	/**
+	 * Create a new {@link LatencyHistogram}.
+	 * @return A new {@link LatencyHistogram}
+	 */
+	static LatencyHistogram create() {
+		return new DefaultLatencyHistogram();
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.reactor.http.internal.DefaultMultipartRequestEntity;
+
+/**
+ * A <code>multipart/form-data</code> {@link RequestEntity}, which payload is a list of named {@link Part}s.
+ * <p>
+ * The part values are encoded according to their type and media type. A {@link FileRequestEntity} part value is
+ * streamed from the file, without loading it in memory, declaring the file name and the part length.
+ * </p>
+ * <p>
+ * The request compression, if enabled, does not apply to the multipart request entities.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface MultipartRequestEntity extends RequestEntity<List<MultipartRequestEntity.Part>> {
+
+	/**
+	 * Multipart form data media type
+	 */
+	public static final String MULTIPART_FORM_DATA = "multipart/form-data";
+
+	/**
+	 * Get the request entity parts.
+	 * @return The parts list, in declaration order
+	 */
+	List<Part> getParts();
+
+	/**
+	 * A multipart request entity part.
+	 */
+	public interface Part {
+
+		/**
+		 * Get the part name.
+		 * @return The part name
+		 */
+		String getName();
+
+		/**
+		 * Get the part value.
+		 * @return The part value
+		 */
+		Object getValue();
+
+		/**
+		 * Get the part media type.
+		 * @return Optional part media type
+		 */
+		Optional<String> getMediaType();
+
+	}
+
+	/**
+	 * Get a builder to create a {@link MultipartRequestEntity}.
+	 * @return A new {@link MultipartRequestEntity} builder
+	 */
+	static Builder builder() {
+		return new DefaultMultipartRequestEntity.DefaultBuilder();
+	}
+
+	/**
+	 * {@link MultipartRequestEntity} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Add a part.
+		 * @param name The part name (not null)
+		 * @param value The part value (not null)
+		 * @return this
+		 */
+		Builder part(String name, Object value);
+
+		/**
+		 * Add a part using given media type.
+		 * @param name The part name (not null)
+		 * @param value The part value (not null)
+		 * @param mediaType The part media type
+		 * @return this
+		 */
+		Builder part(String name, Object value, String mediaType);
+
+		/**
+		 * Add a file part, with the whole content of given file.
+		 * @param name The part name (not null)
+		 * @param file The file path (not null)
+		 * @return this
+		 */
+		default Builder file(String name, Path file) {
+			return file(name, FileRequestEntity.of(file));
+		}
+
+		/**
+		 * Add a file part. The part media type is the file request entity media type.
+		 * @param name The part name (not null)
+		 * @param file The file request entity (not null)
+		 * @return this
+		 */
+		default Builder file(String name, FileRequestEntity file) {
+			return part(name, file, (file != null) ? file.getMediaType().orElse(null) : null);
+		}
+
+		/**
+		 * Build the {@link MultipartRequestEntity}.
+		 * @return A new {@link MultipartRequestEntity} instance
+		 */
+		MultipartRequestEntity build();
+
+	}
+
+}
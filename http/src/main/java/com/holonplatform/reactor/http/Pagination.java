@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveInvocation;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.DefaultPagination;
+
+/**
+ * Pagination strategy of a paginated API, used by {@link ReactiveInvocation#getPaginated(Pagination)} to obtain the
+ * elements of all the pages as a single stream.
+ * <p>
+ * A pagination strategy declares how a page response payload is decoded, how the page elements are extracted from it
+ * and how the request of the next page is obtained from the current page. Built-in strategies are provided for the
+ * <code>Link</code> header navigation ({@link #links(Class)}), the cursor tokens ({@link #cursor(Class, Function,
+ * Function, String)}) and the offset query parameters ({@link #offset(Class, String, int)}).
+ * </p>
+ *
+ * @param <P> Page payload type
+ * @param <T> Page elements type
+ *
+ * @since 6.0.3
+ */
+public interface Pagination<P, T> {
+
+	/**
+	 * Default number of pages fetched ahead of the page being consumed
+	 */
+	public static final int DEFAULT_LOOKAHEAD = 1;
+
+	/**
+	 * Get the page payload type.
+	 * @return The page payload type
+	 */
+	ResponseType<P> getPageType();
+
+	/**
+	 * Get the elements of a page.
+	 * @param page The page payload
+	 * @return The page elements, empty if none
+	 */
+	List<T> getItems(P page);
+
+	/**
+	 * Get the request of the page which follows given page.
+	 * @param page The current page
+	 * @return Optional next page request, empty if given page is the last one
+	 */
+	Optional<ReactiveRequestDefinition> getNextPage(Page<P> page);
+
+	/**
+	 * A received page.
+	 * @param <P> Page payload type
+	 */
+	public interface Page<P> {
+
+		/**
+		 * Get the page index, starting from <code>0</code>.
+		 * @return The page index
+		 */
+		int getIndex();
+
+		/**
+		 * Get the request of this page.
+		 * @return The page request
+		 */
+		ReactiveRequestDefinition getRequest();
+
+		/**
+		 * Get the page response headers.
+		 * @return The response headers
+		 */
+		Map<String, List<String>> getHeaders();
+
+		/**
+		 * Get the values of a page response header.
+		 * @param name The header name (case insensitive)
+		 * @return The header values, empty if not present
+		 */
+		List<String> getHeader(String name);
+
+		/**
+		 * Get the page payload.
+		 * @return Optional page payload, empty if the response has no payload
+		 */
+		Optional<P> getContent();
+
+		/**
+		 * Get the number of elements of this page.
+		 * @return The page elements count
+		 */
+		int getItemCount();
+
+		/**
+		 * Create a new request definition which is a copy of this page request, to be configured as the next page
+		 * request.
+		 * @return A new request definition
+		 */
+		ReactiveRequestDefinition next();
+
+		/**
+		 * Create a new request definition for given URI, with the same headers and settings of this page request. A
+		 * relative URI is resolved against the base URI of this page request. The URI is used as the complete request
+		 * URI, as is, without any path or query parameters template expansion.
+		 * @param uri The next page URI (not null)
+		 * @return A new request definition
+		 */
+		ReactiveRequestDefinition next(URI uri);
+
+	}
+
+	// builders
+
+	/**
+	 * Create a pagination strategy using given functions.
+	 * @param <P> Page payload type
+	 * @param <T> Page elements type
+	 * @param pageType Page payload type (not null)
+	 * @param items Function to extract the page elements from a page payload (not null)
+	 * @param next Function to obtain the next page request from the current page (not null)
+	 * @return A new {@link Pagination}
+	 */
+	static <P, T> Pagination<P, T> of(ResponseType<P> pageType, Function<P, List<T>> items,
+			Function<Page<P>, Optional<ReactiveRequestDefinition>> next) {
+		return new DefaultPagination<>(pageType, items, next);
+	}
+
+	/**
+	 * Create a pagination strategy which follows the <code>rel="next"</code> link of the <code>Link</code> response
+	 * header (RFC 8288). Each page payload is a JSON array of elements.
+	 * @param <T> Page elements type
+	 * @param itemType Page elements type (not null)
+	 * @return A new {@link Pagination}
+	 */
+	static <T> Pagination<List<T>, T> links(Class<T> itemType) {
+		return DefaultPagination.links(itemType);
+	}
+
+	/**
+	 * Create a pagination strategy which uses a cursor token, obtained from the page payload, as the value of a query
+	 * parameter of the next page request. The last page is the one without a cursor.
+	 * @param <P> Page payload type
+	 * @param <T> Page elements type
+	 * @param pageType Page payload type (not null)
+	 * @param items Function to extract the page elements from a page payload (not null)
+	 * @param cursor Function to extract the next page cursor from a page payload, which may return <code>null</code>
+	 *        or an empty String if there is no next page (not null)
+	 * @param cursorParameter The name of the query parameter to use to send the cursor (not null)
+	 * @return A new {@link Pagination}
+	 */
+	static <P, T> Pagination<P, T> cursor(Class<P> pageType, Function<P, List<T>> items, Function<P, String> cursor,
+			String cursorParameter) {
+		return DefaultPagination.cursor(pageType, items, cursor, cursorParameter);
+	}
+
+	/**
+	 * Create a pagination strategy which uses an offset query parameter, incremented by the number of elements of
+	 * each page. Each page payload is a JSON array of elements, and a page with less than <code>pageSize</code>
+	 * elements is the last one.
+	 * @param <T> Page elements type
+	 * @param itemType Page elements type (not null)
+	 * @param offsetParameter The name of the offset query parameter (not null)
+	 * @param pageSize The requested page size, greater than <code>0</code>
+	 * @return A new {@link Pagination}
+	 */
+	static <T> Pagination<List<T>, T> offset(Class<T> itemType, String offsetParameter, int pageSize) {
+		return DefaultPagination.offset(itemType, offsetParameter, pageSize);
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+
+/**
+ * A request template prepared by a {@link ReactiveRestClient} for high rate, fixed shape invocations.
+ * <p>
+ * The request target, the path template, the query parameters and the headers (including the client default ones)
+ * are captured when the request is prepared, and they are parsed and encoded only once by the concrete client
+ * implementation. Each invocation obtains a new request definition through {@link #bind()}, which usually only
+ * resolves the path template parameters, so that just the variable parts of the request are processed for each
+ * invocation.
+ * </p>
+ * <p>
+ * The bound request definitions can be further configured, for example adding query parameters or headers: in that
+ * case, the changed parts are processed for each invocation.
+ * </p>
+ * <p>
+ * A prepared request is immutable and it can be shared among threads.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface PreparedRequest {
+
+	/**
+	 * Get the request base URI.
+	 * @return Optional request base URI
+	 */
+	Optional<URI> getBaseRequestURI();
+
+	/**
+	 * Get the request path template.
+	 * @return Optional request path template
+	 */
+	Optional<String> getRequestPath();
+
+	/**
+	 * Get the prepared query parameters.
+	 * @return The query parameters, as an unmodifiable map
+	 */
+	Map<String, Object[]> getQueryParameters();
+
+	/**
+	 * Get the prepared headers.
+	 * @return The headers, as an unmodifiable map
+	 */
+	Map<String, String> getHeaders();
+
+	/**
+	 * Create a new request definition bound to this prepared request, to perform an invocation.
+	 * @return A new {@link ReactiveRequestDefinition}
+	 */
+	ReactiveRequestDefinition bind();
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.nio.ByteBuffer;
+
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.http.MediaType;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.reactor.http.internal.DefaultReactiveRequestEntity;
+
+/**
+ * A {@link RequestEntity} which payload is provided by a {@link Publisher} of elements, which are encoded and streamed
+ * to the server as they are emitted, honoring the publisher backpressure.
+ * <p>
+ * Any {@link ReactiveRequestEntity} can be used with the {@link ReactiveRestClient} invocation methods which accept a
+ * {@link RequestEntity}, for example to <code>post</code> or <code>put</code> a large number of elements without
+ * building the whole request payload in memory.
+ * </p>
+ * <p>
+ * The supported element types depend on the concrete {@link ReactiveRestClient} implementation. Besides the types
+ * supported by the available encoders, the {@link ByteBuffer} element type is always supported to stream raw bytes.
+ * </p>
+ *
+ * @param <T> Payload elements type
+ *
+ * @since 6.0.3
+ */
+public interface ReactiveRequestEntity<T> extends RequestEntity<Publisher<T>> {
+
+	/**
+	 * Newline delimited JSON media type
+	 */
+	public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+	/**
+	 * Get the payload elements type.
+	 * @return The payload elements type
+	 */
+	Class<T> getElementType();
+
+	// builders
+
+	/**
+	 * Build a {@link ReactiveRequestEntity} using given media type.
+	 * @param <T> Payload elements type
+	 * @param mediaType Request entity media type
+	 * @param elements Payload elements publisher (not null)
+	 * @param elementType Payload elements type (not null)
+	 * @return A new {@link ReactiveRequestEntity} instance
+	 */
+	static <T> ReactiveRequestEntity<T> create(String mediaType, Publisher<T> elements, Class<T> elementType) {
+		return new DefaultReactiveRequestEntity<>(mediaType, elements, elementType);
+	}
+
+	/**
+	 * Build a {@link ReactiveRequestEntity} using the {@link MediaType#APPLICATION_JSON} media type. The elements are
+	 * encoded as a JSON array.
+	 * @param <T> Payload elements type
+	 * @param elements Payload elements publisher (not null)
+	 * @param elementType Payload elements type (not null)
+	 * @return A new {@link ReactiveRequestEntity} instance
+	 */
+	static <T> ReactiveRequestEntity<T> json(Publisher<T> elements, Class<T> elementType) {
+		return create(MediaType.APPLICATION_JSON.toString(), elements, elementType);
+	}
+
+	/**
+	 * Build a {@link ReactiveRequestEntity} using the {@link #APPLICATION_NDJSON} media type. Each element is encoded
+	 * as a JSON value followed by a new line.
+	 * @param <T> Payload elements type
+	 * @param elements Payload elements publisher (not null)
+	 * @param elementType Payload elements type (not null)
+	 * @return A new {@link ReactiveRequestEntity} instance
+	 */
+	static <T> ReactiveRequestEntity<T> ndjson(Publisher<T> elements, Class<T> elementType) {
+		return create(APPLICATION_NDJSON, elements, elementType);
+	}
+
+	/**
+	 * Build a {@link ReactiveRequestEntity} which streams the bytes emitted by given publisher, using the
+	 * {@link MediaType#APPLICATION_OCTET_STREAM} media type.
+	 * @param bytes Payload bytes publisher (not null)
+	 * @return A new {@link ReactiveRequestEntity} instance
+	 */
+	static ReactiveRequestEntity<ByteBuffer> bytes(Publisher<ByteBuffer> bytes) {
+		return bytes(MediaType.APPLICATION_OCTET_STREAM.toString(), bytes);
+	}
+
+	/**
+	 * Build a {@link ReactiveRequestEntity} which streams the bytes emitted by given publisher.
+	 * @param mediaType Request entity media type
+	 * @param bytes Payload bytes publisher (not null)
+	 * @return A new {@link ReactiveRequestEntity} instance
+	 */
+	static ReactiveRequestEntity<ByteBuffer> bytes(String mediaType, Publisher<ByteBuffer> bytes) {
+		return create(mediaType, bytes, ByteBuffer.class);
+	}
+
+}
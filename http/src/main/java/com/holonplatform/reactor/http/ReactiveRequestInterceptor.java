@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.util.Optional;
+
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Interceptor of the request invocations performed by a {@link ReactiveRestClient}.
+ * <p>
+ * The interceptors registered in a {@link ReactiveRestClient} form a chain, invoked in registration order: each
+ * interceptor can observe or modify the request before calling {@link Invocation#proceed()}, and observe or transform
+ * the response {@link Mono} returned by it. The last element of the chain performs the actual exchange.
+ * </p>
+ * <p>
+ * The interceptors see any response, regardless of its status code: the check of the successful status code, if
+ * required by the invocation method, is performed after the chain.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface ReactiveRequestInterceptor {
+
+	/**
+	 * Intercept a request invocation.
+	 * @param <T> Response type
+	 * @param invocation The intercepted invocation
+	 * @return The response, usually obtained through {@link Invocation#proceed()}
+	 */
+	<T> Mono<ReactiveResponseEntity<T>> intercept(Invocation<T> invocation);
+
+	/**
+	 * An intercepted request invocation.
+	 * @param <T> Response type
+	 */
+	public interface Invocation<T> {
+
+		/**
+		 * Get the request method.
+		 * @return The request method
+		 */
+		HttpMethod getMethod();
+
+		/**
+		 * Get the request definition. The request headers can be modified before calling {@link #proceed()}.
+		 * @return The request definition
+		 */
+		ReactiveRequestDefinition getRequestDefinition();
+
+		/**
+		 * Get the request entity, if any.
+		 * @return Optional request entity
+		 */
+		Optional<RequestEntity<?>> getRequestEntity();
+
+		/**
+		 * Get the expected response type.
+		 * @return The response type
+		 */
+		ResponseType<T> getResponseType();
+
+		/**
+		 * Proceed with the next element of the chain.
+		 * @return The response
+		 */
+		Mono<ReactiveResponseEntity<T>> proceed();
+
+	}
+
+}
@@ -16,9 +16,13 @@
 package com.holonplatform.reactor.http;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
 
 import com.holonplatform.http.rest.ResponseEntity;
 import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.internal.BodyTerminationReactiveResponseEntity;
+import com.holonplatform.reactor.http.internal.FileDownloads;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -63,10 +67,106 @@ public interface ReactiveResponseEntity<T> extends ResponseEntity<T> {
 	 */
 	<E> Flux<E> asFlux(Class<E> entityType);
 
+	/**
+	 * Read the message entity as a {@link Flux} of the specified type, using a {@link ResponseType} representation to
+	 * allow generic types support.
+	 * <p>
+	 * The default implementation only supports {@link ResponseType}s which represent a simple {@link Class} type.
+	 * </p>
+	 * @param <E> Entity instance type
+	 * @param entityType Entity response type (not null)
+	 * @return A {@link Flux} containing the message entity
+	 * @throws UnsupportedOperationException If given type is a generic type and it is not supported by the concrete
+	 *         implementation
+	 * @since 6.0.3
+	 */
+	@SuppressWarnings("unchecked")
+	default <E> Flux<E> asFlux(ResponseType<E> entityType) {
+		if (entityType.getType() instanceof Class) {
+			return asFlux((Class<E>) entityType.getType());
+		}
+		throw new UnsupportedOperationException("Generic Flux element type not supported: " + entityType);
+	}
+
+	/**
+	 * Read the message entity as a stream of Server-Sent Events, decoding the data of each event using given type.
+	 * <p>
+	 * The events are emitted as soon as they are received. The default implementation throws an
+	 * {@link UnsupportedOperationException}.
+	 * </p>
+	 * @param <E> Event data type
+	 * @param dataType Event data type (not null)
+	 * @return A {@link Flux} of the message entity events
+	 * @throws UnsupportedOperationException If the Server-Sent Events decoding is not supported by the concrete
+	 *         implementation
+	 * @since 6.0.3
+	 */
+	default <E> Flux<ServerSentEvent<E>> asEvents(ResponseType<E> dataType) {
+		throw new UnsupportedOperationException("Server-Sent Events decoding not supported");
+	}
+
 	/**
 	 * Read the message entity as a raw {@link InputStream}.
+	 * <p>
+	 * The returned stream should always be closed after use, to release any resource bound to the message entity.
+	 * </p>
 	 * @return A {@link Mono} to handle the message entity stream
 	 */
 	Mono<InputStream> asInputStream();
 
+	/**
+	 * Read the message entity as a {@link Flux} of raw bytes chunks, without any decoding.
+	 * <p>
+	 * Each emitted {@link ByteBuffer} is owned by the subscriber and does not require to be released. Implementations
+	 * should emit the chunks as they are received, without accumulating the whole message entity in memory. The
+	 * default implementation reads the message entity as a single byte array.
+	 * </p>
+	 * @return A {@link Flux} of the message entity bytes chunks
+	 * @since 6.0.3
+	 */
+	default Flux<ByteBuffer> asByteBuffers() {
+		return asMono(byte[].class).map(bytes -> ByteBuffer.wrap(bytes)).flux();
+	}
+
+	/**
+	 * Write the message entity to given file channel, starting from given file position, as its bytes are received.
+	 * <p>
+	 * The file channel is not closed when the write completes. The default implementation writes the chunks emitted
+	 * by {@link #asByteBuffers()}.
+	 * </p>
+	 * @param channel The file channel to write (not null)
+	 * @param position The file position from which to start to write
+	 * @return A {@link Mono} which emits the number of written bytes when the whole message entity is written
+	 * @since 6.0.3
+	 */
+	default Mono<Long> writeTo(AsynchronousFileChannel channel, long position) {
+		return FileDownloads.write(asByteBuffers(), channel, position);
+	}
+
+	/**
+	 * Release the message entity without reading it, for example when the response is discarded.
+	 * <p>
+	 * The default implementation reads and drops the whole message entity.
+	 * </p>
+	 * @return A {@link Mono} which completes when the message entity is released
+	 * @since 6.0.3
+	 */
+	default Mono<Void> releaseBody() {
+		return asMono(byte[].class).then();
+	}
+
+	/**
+	 * Get a response entity which reads the same message entity of this one, invoking given callback when the message
+	 * entity read terminates, either because it was completely read, or because of an error or a cancellation.
+	 * <p>
+	 * The callback is invoked at most once, and it is not invoked at all if the message entity is never read.
+	 * </p>
+	 * @param callback The callback to invoke (not null)
+	 * @return A response entity bound to given callback
+	 * @since 6.0.3
+	 */
+	default ReactiveResponseEntity<T> doOnBodyTermination(Runnable callback) {
+		return new BodyTerminationReactiveResponseEntity<>(this, callback);
+	}
+
 }
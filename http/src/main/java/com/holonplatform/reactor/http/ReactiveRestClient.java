@@ -17,7 +17,12 @@ package com.holonplatform.reactor.http;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import org.reactivestreams.Publisher;
 
 import com.holonplatform.core.internal.utils.ClassUtils;
 import com.holonplatform.http.HttpMethod;
@@ -106,6 +111,12 @@ public interface ReactiveRestClient extends RestClientOperations<ReactiveRestCli
 		/**
 		 * Invoke the request and asynchronously receive back the response as a {@link Flux} of response entity
 		 * elements.
+		 * <p>
+		 * The response elements are decoded and emitted as soon as they are parsed, according to the downstream
+		 * demand, without reading the whole response payload in memory. Besides a JSON array, newline delimited JSON
+		 * (<code>application/x-ndjson</code>) and <code>application/stream+json</code> response payloads are
+		 * supported by the concrete client implementations which support streaming decoding.
+		 * </p>
 		 * @param <T> Response type
 		 * @param <R> Request entity type
 		 * @param method Request method
@@ -119,6 +130,28 @@ public interface ReactiveRestClient extends RestClientOperations<ReactiveRestCli
 		 */
 		<T, R> Flux<T> invokeForFlux(HttpMethod method, RequestEntity<R> requestEntity, Class<T> responseElementType);
 
+		/**
+		 * Invoke the request and asynchronously receive back the response as a {@link Flux} of response entity
+		 * elements, using a {@link ResponseType} representation of the elements type to allow generic types support.
+		 * <p>
+		 * The response elements are decoded and emitted as soon as they are parsed, according to the downstream
+		 * demand, without reading the whole response payload in memory.
+		 * </p>
+		 * @param <T> Response type
+		 * @param <R> Request entity type
+		 * @param method Request method
+		 * @param requestEntity Request entity
+		 * @param responseElementType Expected response entity elements type
+		 * @return A {@link Flux} to handle the response payload elements
+		 * @throws HttpClientInvocationException Internal invocation failure (for example, an I/O error on communication
+		 *         channel or expected and actual payload type mismatch)
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @since 6.0.3
+		 */
+		<T, R> Flux<T> invokeForFlux(HttpMethod method, RequestEntity<R> requestEntity,
+				ResponseType<T> responseElementType);
+
 		/**
 		 * Invoke the request and asynchronously receive back the response as a raw {@link InputStream}.
 		 * @param <R> Request entity type
@@ -132,6 +165,83 @@ public interface ReactiveRestClient extends RestClientOperations<ReactiveRestCli
 		 */
 		<R> Mono<InputStream> invokeForStream(HttpMethod method, RequestEntity<R> requestEntity);
 
+		/**
+		 * Invoke a paginated request and asynchronously receive back the elements of all the pages as a single
+		 * {@link Flux}.
+		 * <p>
+		 * The first page is obtained invoking this request, and each following page request is obtained from the
+		 * previous page using given {@link Pagination} strategy. The next page is fetched as soon as the previous page
+		 * is received, while its elements are consumed, up to <code>lookahead</code> pages ahead of the page being
+		 * consumed.
+		 * </p>
+		 * @param <P> Page payload type
+		 * @param <T> Page elements type
+		 * @param <R> Request entity type
+		 * @param method Request method
+		 * @param requestEntity Request entity, sent with each page request
+		 * @param pagination Pagination strategy (not null)
+		 * @param lookahead Maximum number of pages to fetch ahead of the page being consumed, greater than
+		 *        <code>0</code>
+		 * @return A {@link Flux} to handle the elements of all the pages
+		 * @throws HttpClientInvocationException Internal invocation failure (for example, an I/O error on communication
+		 *         channel or expected and actual payload type mismatch)
+		 * @throws UnsuccessfulResponseException In case the status code of a page response returned by the server is
+		 *         not a successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @since 6.0.3
+		 */
+		<P, T, R> Flux<T> invokeForPages(HttpMethod method, RequestEntity<R> requestEntity,
+				Pagination<P, T> pagination, int lookahead);
+
+		/**
+		 * Invoke the request and asynchronously receive back the response as a stream of Server-Sent Events, using
+		 * given {@link EventStream} to reconnect when the connection is closed or lost.
+		 * <p>
+		 * Each connection is performed using a copy of this request definition, which is not modified: the
+		 * <code>Accept</code> header is set to <code>text/event-stream</code>, if not already present, the
+		 * <code>Last-Event-ID</code> header is set when reconnecting and the response cache is not used.
+		 * </p>
+		 * @param <T> Event data type
+		 * @param <R> Request entity type
+		 * @param method Request method
+		 * @param requestEntity Request entity, sent with each connection request
+		 * @param dataType Expected event data type (not null)
+		 * @param eventStream Event stream configuration (not null)
+		 * @return A {@link Flux} to handle the events of all the connections
+		 * @throws HttpClientInvocationException Internal invocation failure (for example, an I/O error on communication
+		 *         channel when reconnection is disabled or the reconnection attempts are exhausted)
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code and the stream cannot be resumed
+		 * @since 6.0.3
+		 */
+		<T, R> Flux<ServerSentEvent<T>> invokeForEvents(HttpMethod method, RequestEntity<R> requestEntity,
+				ResponseType<T> dataType, EventStream eventStream);
+
+		/**
+		 * Invoke the request and asynchronously write the response message entity to given file, as its bytes are
+		 * received, without accumulating it in memory.
+		 * <p>
+		 * When <code>resume</code> is <code>true</code> and the file is not empty, the <code>Range</code> header is
+		 * set to request only the bytes following the current file content, which are appended to the file if the
+		 * server returns them as partial content. Otherwise, the file content is replaced. The request is performed
+		 * using a copy of this request definition, which is not modified, and the response cache is not used.
+		 * </p>
+		 * @param <R> Request entity type
+		 * @param method Request method
+		 * @param requestEntity Request entity
+		 * @param file The file to write (not null)
+		 * @param resume Whether to resume a partially downloaded file
+		 * @return A {@link Mono} which emits the {@link FileDownload} result when the file write is completed
+		 * @throws HttpClientInvocationException Internal invocation failure (for example, an I/O error on communication
+		 *         channel or on the file write)
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @throws IllegalArgumentException If <code>resume</code> is <code>true</code> and a <code>Range</code> header
+		 *         is set on this request definition
+		 * @since 6.0.3
+		 */
+		<R> Mono<FileDownload> invokeForFile(HttpMethod method, RequestEntity<R> requestEntity, Path file,
+				boolean resume);
+
 		// GET
 
 		/**
@@ -227,6 +337,120 @@ public interface ReactiveRestClient extends RestClientOperations<ReactiveRestCli
 			return invokeForFlux(HttpMethod.GET, null, responseType);
 		}
 
+		/**
+		 * Convenience method to invoke the request using <code>GET</code> method and asynchronously receive the
+		 * response entity elements of given generic type back.
+		 * @param <T> Response entity type
+		 * @param responseType Response elements generic type representation
+		 * @return A {@link Flux} to handle the response payload elements as the result of the request invocation, or
+		 *         an empty flux if not present
+		 * @throws HttpClientInvocationException Internal invocation failure (for example, an I/O error on communication
+		 *         channel or expected and actual payload type mismatch)
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @since 6.0.3
+		 */
+		default <T> Flux<T> getAsList(ResponseType<T> responseType) {
+			return invokeForFlux(HttpMethod.GET, null, responseType);
+		}
+
+		/**
+		 * Convenience method to invoke a paginated request using <code>GET</code> method and asynchronously receive
+		 * the elements of all the pages back, fetching up to {@link Pagination#DEFAULT_LOOKAHEAD} pages ahead of the
+		 * page being consumed.
+		 * @param <P> Page payload type
+		 * @param <T> Page elements type
+		 * @param pagination Pagination strategy (not null)
+		 * @return A {@link Flux} to handle the elements of all the pages
+		 * @throws HttpClientInvocationException Internal invocation failure (for example, an I/O error on communication
+		 *         channel or expected and actual payload type mismatch)
+		 * @throws UnsuccessfulResponseException In case the status code of a page response returned by the server is
+		 *         not a successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @since 6.0.3
+		 */
+		default <P, T> Flux<T> getPaginated(Pagination<P, T> pagination) {
+			return invokeForPages(HttpMethod.GET, null, pagination, Pagination.DEFAULT_LOOKAHEAD);
+		}
+
+		/**
+		 * Convenience method to invoke a paginated request using <code>GET</code> method and asynchronously receive
+		 * the elements of all the pages back.
+		 * @param <P> Page payload type
+		 * @param <T> Page elements type
+		 * @param pagination Pagination strategy (not null)
+		 * @param lookahead Maximum number of pages to fetch ahead of the page being consumed, greater than
+		 *        <code>0</code>
+		 * @return A {@link Flux} to handle the elements of all the pages
+		 * @throws HttpClientInvocationException Internal invocation failure (for example, an I/O error on communication
+		 *         channel or expected and actual payload type mismatch)
+		 * @throws UnsuccessfulResponseException In case the status code of a page response returned by the server is
+		 *         not a successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @since 6.0.3
+		 */
+		default <P, T> Flux<T> getPaginated(Pagination<P, T> pagination, int lookahead) {
+			return invokeForPages(HttpMethod.GET, null, pagination, lookahead);
+		}
+
+		/**
+		 * Convenience method to invoke the request using <code>GET</code> method and asynchronously receive back the
+		 * response as a stream of Server-Sent Events, using the {@link EventStream} default configuration.
+		 * @param <T> Event data type
+		 * @param dataType Expected event data type (not null)
+		 * @return A {@link Flux} to handle the events of all the connections
+		 * @throws HttpClientInvocationException Internal invocation failure
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code and the stream cannot be resumed
+		 * @since 6.0.3
+		 */
+		default <T> Flux<ServerSentEvent<T>> getEvents(Class<T> dataType) {
+			return invokeForEvents(HttpMethod.GET, null, ResponseType.of(dataType), EventStream.create());
+		}
+
+		/**
+		 * Convenience method to invoke the request using <code>GET</code> method and asynchronously receive back the
+		 * response as a stream of Server-Sent Events.
+		 * @param <T> Event data type
+		 * @param dataType Expected event data type (not null)
+		 * @param eventStream Event stream configuration (not null)
+		 * @return A {@link Flux} to handle the events of all the connections
+		 * @throws HttpClientInvocationException Internal invocation failure
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code and the stream cannot be resumed
+		 * @since 6.0.3
+		 */
+		default <T> Flux<ServerSentEvent<T>> getEvents(ResponseType<T> dataType, EventStream eventStream) {
+			return invokeForEvents(HttpMethod.GET, null, dataType, eventStream);
+		}
+
+		/**
+		 * Convenience method to invoke the request using <code>GET</code> method and asynchronously write the response
+		 * message entity to given file, replacing its content.
+		 * @param file The file to write (not null)
+		 * @return A {@link Mono} which emits the {@link FileDownload} result when the file write is completed
+		 * @throws HttpClientInvocationException Internal invocation failure
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @since 6.0.3
+		 */
+		default Mono<FileDownload> getForFile(Path file) {
+			return invokeForFile(HttpMethod.GET, null, file, false);
+		}
+
+		/**
+		 * Convenience method to invoke the request using <code>GET</code> method and asynchronously write the response
+		 * message entity to given file, optionally resuming a partially downloaded file.
+		 * @param file The file to write (not null)
+		 * @param resume Whether to resume a partially downloaded file, using a range request
+		 * @return A {@link Mono} which emits the {@link FileDownload} result when the file write is completed
+		 * @throws HttpClientInvocationException Internal invocation failure
+		 * @throws UnsuccessfulResponseException In case the status code of the response returned by the server is not a
+		 *         successful type status code, i.e. it is not a <code>2xx</code> status code
+		 * @since 6.0.3
+		 */
+		default Mono<FileDownload> getForFile(Path file, boolean resume) {
+			return invokeForFile(HttpMethod.GET, null, file, resume);
+		}
+
 		// POST
 
 		/**
@@ -781,12 +1005,265 @@ public interface ReactiveRestClient extends RestClientOperations<ReactiveRestCli
 
 	}
 
+	/**
+	 * Prepare a request for high rate, fixed shape invocations, using given request definition as template.
+	 * <p>
+	 * The target, the path template, the query parameters and the headers of the request definition are captured and
+	 * precompiled once: use {@link PreparedRequest#bind()} to obtain a request definition for each invocation.
+	 * </p>
+	 * @param definition The request definition to use as template, usually obtained from {@link #request()} (not
+	 *        null)
+	 * @return A new {@link PreparedRequest}
+	 * @since 6.0.3
+	 */
+	PreparedRequest prepare(ReactiveRequestDefinition definition);
+
+	/**
+	 * Set the {@link RequestCoalescing} to use to coalesce identical in-flight idempotent requests, sharing a single
+	 * exchange among all the subscribers. Request coalescing is disabled by default.
+	 * @param requestCoalescing The {@link RequestCoalescing} to use, <code>null</code> to disable request coalescing
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withRequestCoalescing(RequestCoalescing requestCoalescing);
+
+	/**
+	 * Get the {@link RequestCoalescing} used by this client, if request coalescing is enabled.
+	 * @return Optional {@link RequestCoalescing}
+	 * @since 6.0.3
+	 */
+	Optional<RequestCoalescing> getRequestCoalescing();
+
+	/**
+	 * Set the {@link ResponseCache} to use to store the responses of the <code>GET</code> requests according to the
+	 * HTTP caching semantics. Response caching is disabled by default.
+	 * @param responseCache The {@link ResponseCache} to use, <code>null</code> to disable response caching
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withResponseCache(ResponseCache responseCache);
+
+	/**
+	 * Get the {@link ResponseCache} used by this client, if response caching is enabled.
+	 * @return Optional {@link ResponseCache}
+	 * @since 6.0.3
+	 */
+	Optional<ResponseCache> getResponseCache();
+
+	/**
+	 * Set the {@link HedgingPolicy} to use to hedge the idempotent request invocations. Hedging is disabled by default
+	 * and it can be configured for a single request using {@link ReactiveRequestDefinition#hedging(HedgingPolicy)}.
+	 * @param hedgingPolicy The {@link HedgingPolicy} to use, <code>null</code> to disable hedging
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withHedgingPolicy(HedgingPolicy hedgingPolicy);
+
+	/**
+	 * Get the {@link HedgingPolicy} used by this client, if hedging is enabled.
+	 * @return Optional {@link HedgingPolicy}
+	 * @since 6.0.3
+	 */
+	Optional<HedgingPolicy> getHedgingPolicy();
+
+	/**
+	 * Set the {@link ConcurrencyLimiter} to use to limit the concurrent exchanges performed against each request
+	 * target. Concurrency limiting is disabled by default.
+	 * @param concurrencyLimiter The {@link ConcurrencyLimiter} to use, <code>null</code> to disable concurrency
+	 *        limiting
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter);
+
+	/**
+	 * Get the {@link ConcurrencyLimiter} used by this client, if concurrency limiting is enabled.
+	 * @return Optional {@link ConcurrencyLimiter}
+	 * @since 6.0.3
+	 */
+	Optional<ConcurrencyLimiter> getConcurrencyLimiter();
+
+	/**
+	 * Set the {@link CircuitBreaker} to use to stop sending requests to failing targets or endpoints. The circuit
+	 * breaker is disabled by default.
+	 * @param circuitBreaker The {@link CircuitBreaker} to use, <code>null</code> to disable it
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withCircuitBreaker(CircuitBreaker circuitBreaker);
+
+	/**
+	 * Get the {@link CircuitBreaker} used by this client, if enabled.
+	 * @return Optional {@link CircuitBreaker}
+	 * @since 6.0.3
+	 */
+	Optional<CircuitBreaker> getCircuitBreaker();
+
+	/**
+	 * Set the {@link Compression} to use to compress the request entities and decompress the response entities.
+	 * Compression is disabled by default and it can be configured for a single request using
+	 * {@link ReactiveRequestDefinition#compression(Compression)}.
+	 * @param compression The {@link Compression} to use, <code>null</code> to disable compression
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withCompression(Compression compression);
+
+	/**
+	 * Get the {@link Compression} used by this client, if compression is enabled.
+	 * @return Optional {@link Compression}
+	 * @since 6.0.3
+	 */
+	Optional<Compression> getCompression();
+
+	/**
+	 * Set the {@link Timeouts} to use for the request invocations. No timeout is configured by default and the timeouts
+	 * can be configured for a single request using {@link ReactiveRequestDefinition#timeouts(Timeouts)}.
+	 * <p>
+	 * Regardless of the timeouts, the invocations are bounded by the {@link Deadline} available in the Reactor
+	 * context, if any.
+	 * </p>
+	 * @param timeouts The {@link Timeouts} to use, <code>null</code> to disable the timeouts
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withTimeouts(Timeouts timeouts);
+
+	/**
+	 * Get the {@link Timeouts} used by this client, if any.
+	 * @return Optional {@link Timeouts}
+	 * @since 6.0.3
+	 */
+	Optional<Timeouts> getTimeouts();
+
+	/**
+	 * Add a {@link ReactiveRequestInterceptor} to the interceptors chain. The interceptors are invoked in registration
+	 * order.
+	 * @param interceptor The interceptor to add (not null)
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient withInterceptor(ReactiveRequestInterceptor interceptor);
+
+	/**
+	 * Remove a {@link ReactiveRequestInterceptor} from the interceptors chain.
+	 * @param interceptor The interceptor to remove (not null)
+	 * @return this
+	 * @since 6.0.3
+	 */
+	ReactiveRestClient removeInterceptor(ReactiveRequestInterceptor interceptor);
+
+	/**
+	 * Get the registered {@link ReactiveRequestInterceptor}s, in invocation order.
+	 * @return The interceptors list, empty if none
+	 * @since 6.0.3
+	 */
+	List<ReactiveRequestInterceptor> getInterceptors();
+
+	/**
+	 * Perform a request invocation for each element of given publisher, using the {@link BulkInvocation} default
+	 * configuration.
+	 * <p>
+	 * For each source element, the invocation function receives the element and a new request definition, obtained
+	 * from {@link #request()}, which has to be configured and invoked.
+	 * </p>
+	 * @param <I> Source elements type
+	 * @param <T> Invocation result type
+	 * @param items Source elements (not null)
+	 * @param invocation The function which configures and invokes the request for a source element (not null)
+	 * @return The invocation results, one for each source element
+	 * @see BulkInvocation
+	 * @since 6.0.3
+	 */
+	<I, T> Flux<BulkInvocation.Result<I, T>> bulk(Publisher<I> items,
+			BiFunction<? super I, ReactiveRequestDefinition, ? extends Mono<? extends T>> invocation);
+
+	/**
+	 * Perform a request invocation for each element of given publisher, using given {@link BulkInvocation} to bound
+	 * the concurrency, order the results and collect the metrics.
+	 * <p>
+	 * For each source element, the invocation function receives the element and a new request definition, obtained
+	 * from {@link #request()}, which has to be configured and invoked.
+	 * </p>
+	 * @param <I> Source elements type
+	 * @param <T> Invocation result type
+	 * @param items Source elements (not null)
+	 * @param invocation The function which configures and invokes the request for a source element (not null)
+	 * @param bulkInvocation The bulk invocation to use (not null)
+	 * @return The invocation results, one for each source element
+	 * @since 6.0.3
+	 */
+	<I, T> Flux<BulkInvocation.Result<I, T>> bulk(Publisher<I> items,
+			BiFunction<? super I, ReactiveRequestDefinition, ? extends Mono<? extends T>> invocation,
+			BulkInvocation bulkInvocation);
+
 	/**
 	 * Request message definition and response invocation.
 	 */
 	public interface ReactiveRequestDefinition
 			extends RequestConfiguration<ReactiveRequestDefinition>, ReactiveInvocation {
 
+		/**
+		 * Set the {@link HedgingPolicy} to use for this request, overriding the client one, if any.
+		 * @param hedgingPolicy The {@link HedgingPolicy} to use, <code>null</code> to use the client one
+		 * @return this
+		 * @since 6.0.3
+		 */
+		ReactiveRequestDefinition hedging(HedgingPolicy hedgingPolicy);
+
+		/**
+		 * Get the {@link HedgingPolicy} configured for this request, if any.
+		 * @return Optional request {@link HedgingPolicy}
+		 * @since 6.0.3
+		 */
+		Optional<HedgingPolicy> getHedgingPolicy();
+
+		/**
+		 * Set the {@link Compression} to use for this request, overriding the client one, if any.
+		 * @param compression The {@link Compression} to use, <code>null</code> to use the client one
+		 * @return this
+		 * @since 6.0.3
+		 */
+		ReactiveRequestDefinition compression(Compression compression);
+
+		/**
+		 * Get the {@link Compression} configured for this request, if any.
+		 * @return Optional request {@link Compression}
+		 * @since 6.0.3
+		 */
+		Optional<Compression> getCompression();
+
+		/**
+		 * Set the {@link Timeouts} to use for this request, overriding the client ones, if any.
+		 * @param timeouts The {@link Timeouts} to use, <code>null</code> to use the client ones
+		 * @return this
+		 * @since 6.0.3
+		 */
+		ReactiveRequestDefinition timeouts(Timeouts timeouts);
+
+		/**
+		 * Get the {@link Timeouts} configured for this request, if any.
+		 * @return Optional request {@link Timeouts}
+		 * @since 6.0.3
+		 */
+		Optional<Timeouts> getTimeouts();
+
+		/**
+		 * Set whether the client {@link ResponseCache}, if any, can be used for this request. Streaming invocations,
+		 * such as the Server-Sent Events and the file download ones, never use the response cache.
+		 * @param enabled <code>false</code> to bypass the response cache for this request
+		 * @return this
+		 * @since 6.0.3
+		 */
+		ReactiveRequestDefinition responseCache(boolean enabled);
+
+		/**
+		 * Get whether the client {@link ResponseCache}, if any, can be used for this request.
+		 * @return <code>true</code> if the response cache can be used (default)
+		 * @since 6.0.3
+		 */
+		boolean isResponseCacheEnabled();
+
 	}
 
 	// Builders
@@ -865,4 +1342,44 @@ public interface ReactiveRestClient extends RestClientOperations<ReactiveRestCli
 		return ReactiveRestClientFactoryRegistry.INSTANCE.createRestClient(fullyQualifiedClassName, classLoader);
 	}
 
+	/**
+	 * Get the shared {@link ReactiveRestClient} instance for the default {@link ClassLoader} and the default
+	 * implementation. The shared instance is created at first invocation, as {@link #create()} does, and then cached,
+	 * so that its acquisition does not require the {@link ReactiveRestClientFactory} lookup.
+	 * <p>
+	 * Since the same instance is returned to all the callers, its configuration should not be changed after creation:
+	 * use {@link #create()} to obtain a client with a specific configuration.
+	 * </p>
+	 * <p>
+	 * A client created using a resource bound to the current thread, such as a thread scoped <code>WebClient</code>
+	 * {@link com.holonplatform.core.Context} resource, is not cached: a new instance is returned at each invocation
+	 * until the shared instance is available, and the shared instance ignores such resources.
+	 * </p>
+	 * @return The shared {@link ReactiveRestClient} instance
+	 * @throws RestClientCreationException If the shared instance is not available yet and its creation failed
+	 * @since 6.0.3
+	 */
+	static ReactiveRestClient shared() {
+		return shared(null, ClassUtils.getDefaultClassLoader());
+	}
+
+	/**
+	 * Get the shared {@link ReactiveRestClient} instance for given <code>classLoader</code> and the implementation with
+	 * given fully qualified class name. The shared instance is created at first invocation, as
+	 * {@link #create(String, ClassLoader)} does, and then cached until the {@link ClassLoader} is garbage collected.
+	 * <p>
+	 * Since the same instance is returned to all the callers, its configuration should not be changed after creation.
+	 * A client created using a resource bound to the current thread is not cached (see {@link #shared()}).
+	 * </p>
+	 * @param fullyQualifiedClassName The {@link ReactiveRestClient} implementation fully qualified class name to
+	 *        obtain, <code>null</code> for the default implementation
+	 * @param classLoader The {@link ClassLoader} to use
+	 * @return The shared {@link ReactiveRestClient} instance
+	 * @throws RestClientCreationException If the shared instance is not available yet and its creation failed
+	 * @since 6.0.3
+	 */
+	static ReactiveRestClient shared(String fullyQualifiedClassName, ClassLoader classLoader) {
+		return ReactiveRestClientFactoryRegistry.INSTANCE.getSharedRestClient(fullyQualifiedClassName, classLoader);
+	}
+
 }
@@ -58,4 +58,19 @@ public interface ReactiveRestClientFactory {
 	 */
 	ReactiveRestClient create(ClassLoader classLoader) throws RestClientCreationException;
 
+	/**
+	 * Get whether the {@link ReactiveRestClient} instance created by this factory for given {@link ClassLoader} in the
+	 * current context can be cached and returned as the shared instance by {@link ReactiveRestClient#shared()}.
+	 * <p>
+	 * A factory which creates the instance using a resource bound to the current thread should return
+	 * <code>false</code>, since such instance must not be returned to other threads.
+	 * </p>
+	 * @param classLoader The {@link ClassLoader} for which the instance creation is requested
+	 * @return <code>true</code> if the created instance can be shared (the default)
+	 * @since 6.0.3
+	 */
+	default boolean isShareable(ClassLoader classLoader) {
+		return true;
+	}
+
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.util.function.Supplier;
+
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.DefaultRequestCoalescing;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalescing of identical in-flight idempotent requests.
+ * <p>
+ * When enabled on a {@link ReactiveRestClient}, the <code>xxxForEntity</code> invocations performed using a safe HTTP
+ * method (<code>GET</code>, <code>HEAD</code> and <code>OPTIONS</code>) without a request entity are identified by a
+ * key, obtained from a {@link KeyResolver}. While an invocation is in progress, any other invocation with the same key
+ * does not perform a new exchange, but receives the response entity of the in-flight one.
+ * </p>
+ * <p>
+ * Since the same response entity instance is shared among all the coalesced invocations, it should be treated as
+ * immutable.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface RequestCoalescing {
+
+	/**
+	 * Get the {@link KeyResolver} used to identify identical requests.
+	 * @return The request key resolver
+	 */
+	KeyResolver getKeyResolver();
+
+	/**
+	 * Check whether a request invocation can be coalesced.
+	 * @param method Request method
+	 * @param requestEntity Request entity, may be <code>null</code>
+	 * @return <code>true</code> if the request invocation can be coalesced
+	 */
+	boolean isCoalescable(HttpMethod method, RequestEntity<?> requestEntity);
+
+	/**
+	 * Execute an invocation, sharing the result of an in-flight invocation with the same key, if any.
+	 * @param <T> Result type
+	 * @param key Invocation key (not null)
+	 * @param invocation Invocation supplier, used only if no in-flight invocation with the same key is available
+	 * @return The invocation result
+	 */
+	<T> Mono<T> execute(Object key, Supplier<Mono<T>> invocation);
+
+	/**
+	 * Get the number of invocations which actually performed an exchange.
+	 * @return The performed exchanges count
+	 */
+	long getExchangeCount();
+
+	/**
+	 * Get the number of invocations which shared the result of an in-flight invocation, i.e. the number of saved
+	 * exchanges.
+	 * @return The coalesced invocations count
+	 */
+	long getCoalescedCount();
+
+	/**
+	 * Get the number of invocations currently in progress.
+	 * @return The in-flight invocations count
+	 */
+	int getInFlightCount();
+
+	/**
+	 * Function to obtain the key which identifies a request invocation.
+	 */
+	@FunctionalInterface
+	public interface KeyResolver {
+
+		/**
+		 * Get the key of a request invocation. Invocations with equal keys are considered identical.
+		 * @param method Request method
+		 * @param requestDefinition Request definition
+		 * @param responseType Expected response type
+		 * @return The invocation key (not null)
+		 */
+		Object getKey(HttpMethod method, ReactiveRequestDefinition requestDefinition, ResponseType<?> responseType);
+
+	}
+
+	// builders
+
+	/**
+	 * Create a new {@link RequestCoalescing} using the default {@link KeyResolver}, which uses the request method, the
+	 * request URI components (base URI, path, template and query parameters), all the request headers and the response
+	 * type as invocation key.
+	 * @return A new {@link RequestCoalescing} instance
+	 */
+	static RequestCoalescing create() {
+		return new DefaultRequestCoalescing(DefaultRequestCoalescing.DEFAULT_KEY_RESOLVER);
+	}
+
+	/**
+	 * Create a new {@link RequestCoalescing} using given {@link KeyResolver}.
+	 * @param keyResolver The key resolver to use (not null)
+	 * @return A new {@link RequestCoalescing} instance
+	 */
+	static RequestCoalescing create(KeyResolver keyResolver) {
+		return new DefaultRequestCoalescing(keyResolver);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.reactor.http.internal.DefaultRequestMetricsInterceptor;
+
+/**
+ * A {@link ReactiveRequestInterceptor} which records the request latencies in a {@link LatencyHistogram} for each
+ * endpoint, identified by the request method, the request path template (before the template parameters resolution)
+ * and the response status class.
+ * <p>
+ * For each endpoint, two latencies are tracked:
+ * <ul>
+ * <li>The <em>time to headers</em>, from the request invocation to the response status and headers reception.</li>
+ * <li>The <em>time to last byte</em>, from the request invocation to the end of the response message entity read. It
+ * is recorded only if the message entity is actually read.</li>
+ * </ul>
+ * <p>
+ * The invocations failed without a response are recorded using the <code>0</code> status class.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface RequestMetricsInterceptor extends ReactiveRequestInterceptor {
+
+	/**
+	 * Get the metrics of all the endpoints invoked so far.
+	 * @return The endpoint metrics list
+	 */
+	List<EndpointMetrics> getEndpointMetrics();
+
+	/**
+	 * Get the metrics of given endpoint.
+	 * @param method Request method (not null)
+	 * @param path Request path template
+	 * @param statusClass Response status class, i.e. the first digit of the status code (<code>0</code> for failed
+	 *        invocations)
+	 * @return Optional endpoint metrics, empty if the endpoint was not invoked
+	 */
+	Optional<EndpointMetrics> getEndpointMetrics(HttpMethod method, String path, int statusClass);
+
+	/**
+	 * Clear all the recorded metrics.
+	 */
+	void reset();
+
+	/**
+	 * The latency metrics of an endpoint.
+	 */
+	public interface EndpointMetrics {
+
+		/**
+		 * Get the request method.
+		 * @return The request method
+		 */
+		HttpMethod getMethod();
+
+		/**
+		 * Get the request path template.
+		 * @return The request path template
+		 */
+		String getPath();
+
+		/**
+		 * Get the response status class, i.e. the first digit of the status code.
+		 * @return The response status class, <code>0</code> for failed invocations
+		 */
+		int getStatusClass();
+
+		/**
+		 * Get the latencies from the request invocation to the response headers reception.
+		 * @return The time to headers histogram
+		 */
+		LatencyHistogram getTimeToHeaders();
+
+		/**
+		 * Get the latencies from the request invocation to the end of the response message entity read.
+		 * @return The time to last byte histogram
+		 */
+		LatencyHistogram getTimeToLastByte();
+
+	}
+
+	/**
+	 * Create a new {@link RequestMetricsInterceptor}.
+	 * @return A new {@link RequestMetricsInterceptor}
+	 */
+	static RequestMetricsInterceptor create() {
+		return new DefaultRequestMetricsInterceptor();
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import com.holonplatform.http.exceptions.HttpClientInvocationException;
+
+/**
+ * Exception thrown when a request invocation is rejected before any exchange is performed, for example because the
+ * concurrency limit of the target is reached.
+ *
+ * @since 6.0.3
+ */
+public class RequestRejectedException extends HttpClientInvocationException {
+
+	private static final long serialVersionUID = -2461953027604377416L;
+
+	/**
+	 * Request target
+	 */
+	private final String target;
+
+	/**
+	 * Constructor.
+	 * @param target Request target
+	 * @param message Error message
+	 */
+	public RequestRejectedException(String target, String message) {
+		super(message);
+		this.target = target;
+	}
+
+	/**
+	 * Constructor.
+	 * @param target Request target
+	 * @param message Error message
+	 * @param cause Error cause
+	 */
+	public RequestRejectedException(String target, String message, Throwable cause) {
+		super(message, cause);
+		this.target = target;
+	}
+
+	/**
+	 * Get the target of the rejected request.
+	 * @return The request target
+	 */
+	public String getTarget() {
+		return target;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+
+import com.holonplatform.http.exceptions.HttpClientInvocationException;
+
+/**
+ * Exception thrown when a request invocation is not completed within one of the configured {@link Timeouts} or before
+ * the {@link Deadline} expiration.
+ *
+ * @since 6.0.3
+ */
+public class RequestTimeoutException extends HttpClientInvocationException {
+
+	private static final long serialVersionUID = 4390183614287412318L;
+
+	/**
+	 * The invocation phases which can time out.
+	 */
+	public enum Phase {
+
+		/**
+		 * The request was not sent within the connect timeout.
+		 */
+		CONNECT,
+
+		/**
+		 * The response headers were not received within the response timeout.
+		 */
+		RESPONSE,
+
+		/**
+		 * No response entity data was received within the read timeout.
+		 */
+		READ,
+
+		/**
+		 * The deadline expired.
+		 */
+		DEADLINE;
+
+	}
+
+	/**
+	 * Timed out phase
+	 */
+	private final Phase phase;
+
+	/**
+	 * Constructor.
+	 * @param phase The timed out phase
+	 * @param timeout The expired timeout, may be null
+	 */
+	public RequestTimeoutException(Phase phase, Duration timeout) {
+		super(getMessage(phase, timeout));
+		this.phase = phase;
+	}
+
+	/**
+	 * Get the invocation phase which timed out.
+	 * @return The timed out phase
+	 */
+	public Phase getPhase() {
+		return phase;
+	}
+
+	private static String getMessage(Phase phase, Duration timeout) {
+		final String after = (timeout != null) ? " after " + timeout.toMillis() + "ms" : "";
+		switch (phase) {
+		case CONNECT:
+			return "Request not sent" + after;
+		case RESPONSE:
+			return "Response not received" + after;
+		case READ:
+			return "Response entity read timed out" + after;
+		default:
+			return "Deadline exceeded";
+		}
+	}
+
+}
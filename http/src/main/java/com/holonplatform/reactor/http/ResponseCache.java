@@ -0,0 +1,292 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.holonplatform.reactor.http.internal.DefaultResponseCache;
+
+/**
+ * A client side HTTP response cache, which follows the HTTP caching semantics.
+ * <p>
+ * When configured for a {@link ReactiveRestClient}, the responses to the <code>GET</code> requests without a request
+ * entity are stored in the cache according to the response <code>Cache-Control</code>, <code>Expires</code>,
+ * <code>ETag</code> and <code>Last-Modified</code> headers. A subsequent identical request is served as follows:
+ * <ul>
+ * <li>If the stored response is fresh, it is returned without contacting the server.</li>
+ * <li>If the stored response is stale but within its <code>stale-while-revalidate</code> window, it is returned
+ * immediately and revalidated in background.</li>
+ * <li>Otherwise, a conditional request is performed using the <code>If-None-Match</code> and/or
+ * <code>If-Modified-Since</code> headers: if the server replies with <code>304 Not Modified</code>, the stored response
+ * body is reused and its freshness is updated.</li>
+ * </ul>
+ * <p>
+ * The cache is bounded by the total weight of the stored responses, expressed in bytes: when the maximum weight is
+ * exceeded, the least recently used stored responses are evicted.
+ * </p>
+ * <p>
+ * Only the responses which declare an explicit freshness lifetime or a validator are stored, and their body is read in
+ * memory only up to the maximum entry weight: larger responses are streamed to the caller as they are received. The
+ * cache can be bypassed for a specific request using
+ * {@link ReactiveRestClient.ReactiveRequestDefinition#responseCache(boolean)}.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface ResponseCache {
+
+	/**
+	 * Default maximum cache weight: 16 MB
+	 */
+	public static final long DEFAULT_MAX_WEIGHT = 16L * 1024L * 1024L;
+
+	/**
+	 * Get the maximum total weight of the stored responses, in bytes.
+	 * @return The maximum cache weight
+	 */
+	long getMaxWeight();
+
+	/**
+	 * Get the maximum weight of a single stored response, in bytes. Larger responses are not stored.
+	 * @return The maximum entry weight
+	 */
+	long getMaxEntryWeight();
+
+	/**
+	 * Get the current total weight of the stored responses, in bytes.
+	 * @return The current cache weight
+	 */
+	long getWeight();
+
+	/**
+	 * Get the number of stored responses.
+	 * @return The cache size
+	 */
+	int size();
+
+	/**
+	 * Get the stored response bound to given key, if available. The returned response may be stale.
+	 * @param key Request key (not null)
+	 * @return Optional stored response
+	 */
+	Optional<CachedResponse> get(Object key);
+
+	/**
+	 * Checks whether a response with given status code and headers can be stored, before reading the response body: the
+	 * response must have a cacheable status code, must declare an explicit freshness lifetime or a validator and its
+	 * declared content length, if any, must not exceed the maximum entry weight.
+	 * @param statusCode Response status code
+	 * @param headers Response headers
+	 * @return <code>true</code> if the response is cacheable
+	 */
+	boolean isCacheable(int statusCode, Map<String, List<String>> headers);
+
+	/**
+	 * Store a response, if it is cacheable according to its status code and headers.
+	 * @param key Request key (not null)
+	 * @param statusCode Response status code
+	 * @param headers Response headers
+	 * @param body Response body bytes
+	 * @param requestTime The time at which the request was sent, in milliseconds since the epoch
+	 * @param responseTime The time at which the response was received, in milliseconds since the epoch
+	 * @return The stored response, or an empty Optional if the response was not cacheable
+	 */
+	Optional<CachedResponse> put(Object key, int statusCode, Map<String, List<String>> headers, byte[] body,
+			long requestTime, long responseTime);
+
+	/**
+	 * Update a stored response after a successful revalidation, i.e. when the server replied with a
+	 * <code>304 Not Modified</code> status. The headers of the <code>304</code> response replace the stored ones and the
+	 * response freshness is recalculated.
+	 * @param key Request key (not null)
+	 * @param cached The stored response which was revalidated (not null)
+	 * @param headers The <code>304</code> response headers
+	 * @param requestTime The time at which the conditional request was sent, in milliseconds since the epoch
+	 * @param responseTime The time at which the <code>304</code> response was received, in milliseconds since the epoch
+	 * @return The updated response, or an empty Optional if the response is no longer cacheable and was removed
+	 */
+	Optional<CachedResponse> revalidated(Object key, CachedResponse cached, Map<String, List<String>> headers,
+			long requestTime, long responseTime);
+
+	/**
+	 * Remove the stored response bound to given key, if any.
+	 * @param key Request key (not null)
+	 */
+	void invalidate(Object key);
+
+	/**
+	 * Remove all the stored responses.
+	 */
+	void clear();
+
+	/**
+	 * Record a cache hit, i.e. a request served without transferring the response body from the server. Invoked by the
+	 * client which uses the cache.
+	 */
+	void recordHit();
+
+	/**
+	 * Record a cache miss, i.e. a request for which the response body was transferred from the server. Invoked by the
+	 * client which uses the cache.
+	 */
+	void recordMiss();
+
+	/**
+	 * Record a conditional request performed to revalidate a stored response. Invoked by the client which uses the
+	 * cache.
+	 */
+	void recordRevalidation();
+
+	/**
+	 * Get the number of requests served without transferring the response body from the server.
+	 * @return The cache hit count
+	 */
+	long getHitCount();
+
+	/**
+	 * Get the number of requests for which the response body was transferred from the server.
+	 * @return The cache miss count
+	 */
+	long getMissCount();
+
+	/**
+	 * Get the number of conditional requests performed to revalidate stored responses.
+	 * @return The revalidation count
+	 */
+	long getRevalidationCount();
+
+	/**
+	 * Get the number of stored responses evicted to honor the maximum cache weight.
+	 * @return The eviction count
+	 */
+	long getEvictionCount();
+
+	/**
+	 * A stored response.
+	 */
+	public interface CachedResponse {
+
+		/**
+		 * Get the response status code.
+		 * @return The status code
+		 */
+		int getStatusCode();
+
+		/**
+		 * Get the response headers.
+		 * @return The response headers (case insensitive names)
+		 */
+		Map<String, List<String>> getHeaders();
+
+		/**
+		 * Get the response body bytes.
+		 * @return The response body (never null)
+		 */
+		byte[] getBody();
+
+		/**
+		 * Get the response weight, in bytes.
+		 * @return The response weight
+		 */
+		long getWeight();
+
+		/**
+		 * Get the response <code>ETag</code> validator, if available.
+		 * @return Optional entity tag
+		 */
+		Optional<String> getETag();
+
+		/**
+		 * Get the response <code>Last-Modified</code> validator, if available.
+		 * @return Optional last modification date, in the HTTP date format
+		 */
+		Optional<String> getLastModified();
+
+		/**
+		 * Checks whether the response is fresh at given time, i.e. it can be served without revalidation.
+		 * @param now Current time, in milliseconds since the epoch
+		 * @return <code>true</code> if the response is fresh
+		 */
+		boolean isFresh(long now);
+
+		/**
+		 * Checks whether the response is stale but can still be served while it is revalidated in background,
+		 * according to the <code>stale-while-revalidate</code> directive.
+		 * @param now Current time, in milliseconds since the epoch
+		 * @return <code>true</code> if the response can be served while revalidated
+		 */
+		boolean isStaleWhileRevalidate(long now);
+
+	}
+
+	// builders
+
+	/**
+	 * Get a builder to create a {@link ResponseCache}.
+	 * @return A new {@link ResponseCache} builder
+	 */
+	static Builder builder() {
+		return new DefaultResponseCache.DefaultBuilder();
+	}
+
+	/**
+	 * Create a {@link ResponseCache} using the default configuration.
+	 * @return A new {@link ResponseCache}
+	 */
+	static ResponseCache create() {
+		return builder().build();
+	}
+
+	/**
+	 * {@link ResponseCache} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the maximum total weight of the stored responses, in bytes. Default is {@link #DEFAULT_MAX_WEIGHT}.
+		 * @param maxWeight The maximum cache weight (must be greater than 0)
+		 * @return this
+		 */
+		Builder maxWeight(long maxWeight);
+
+		/**
+		 * Set the maximum weight of a single stored response, in bytes. By default, it is the same as the maximum
+		 * cache weight.
+		 * @param maxEntryWeight The maximum entry weight (must be greater than 0)
+		 * @return this
+		 */
+		Builder maxEntryWeight(long maxEntryWeight);
+
+		/**
+		 * Set the <code>stale-while-revalidate</code> window to use when a response does not declare it. Default is
+		 * zero, i.e. stale responses are always revalidated before being served.
+		 * @param staleWhileRevalidate The default stale-while-revalidate window (not null)
+		 * @return this
+		 */
+		Builder staleWhileRevalidate(Duration staleWhileRevalidate);
+
+		/**
+		 * Build the {@link ResponseCache}.
+		 * @return A new {@link ResponseCache}
+		 */
+		ResponseCache build();
+
+	}
+
+}
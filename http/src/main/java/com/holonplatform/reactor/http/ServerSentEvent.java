@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.holonplatform.reactor.http.internal.DefaultServerSentEvent;
+
+/**
+ * A Server-Sent Event, as defined by the HTML <code>text/event-stream</code> format.
+ *
+ * @param <T> Event data type
+ *
+ * @since 6.0.3
+ */
+public interface ServerSentEvent<T> {
+
+	/**
+	 * Get the event id.
+	 * @return Optional event id
+	 */
+	Optional<String> getId();
+
+	/**
+	 * Get the event name.
+	 * @return Optional event name
+	 */
+	Optional<String> getEvent();
+
+	/**
+	 * Get the decoded event data.
+	 * @return Optional event data
+	 */
+	Optional<T> getData();
+
+	/**
+	 * Get the reconnection time hint sent by the server.
+	 * @return Optional reconnection time
+	 */
+	Optional<Duration> getRetry();
+
+	/**
+	 * Get the event comment.
+	 * @return Optional comment
+	 */
+	Optional<String> getComment();
+
+	/**
+	 * Create a new {@link ServerSentEvent}.
+	 * @param <T> Event data type
+	 * @param id Event id, may be null
+	 * @param event Event name, may be null
+	 * @param data Event data, may be null
+	 * @param retry Reconnection time, may be null
+	 * @param comment Comment, may be null
+	 * @return A new {@link ServerSentEvent}
+	 */
+	static <T> ServerSentEvent<T> create(String id, String event, T data, Duration retry, String comment) {
+		return new DefaultServerSentEvent<>(id, event, data, retry, comment);
+	}
+
+}
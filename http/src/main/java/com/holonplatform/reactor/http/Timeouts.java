@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.DefaultTimeouts;
+
+/**
+ * Request invocation timeouts configuration.
+ * <p>
+ * When configured on a {@link ReactiveRestClient}, or on a single request using
+ * {@link ReactiveRequestDefinition#timeouts(Timeouts)}, the invocation fails with a {@link RequestTimeoutException}
+ * when:
+ * <ul>
+ * <li>The request is not sent within the <em>connect timeout</em>, which includes the connection acquisition from the
+ * pool and the connection establishment.</li>
+ * <li>The response status and headers are not received within the <em>response timeout</em>, measured from the
+ * exchange start.</li>
+ * <li>No response entity data is received for longer than the <em>read timeout</em> while the response entity is
+ * read.</li>
+ * </ul>
+ * <p>
+ * Each timeout is bounded by the {@link Deadline} available in the Reactor context, if any.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface Timeouts {
+
+	/**
+	 * Get the maximum time to wait for the request to be sent.
+	 * @return Optional connect timeout
+	 */
+	Optional<Duration> getConnectTimeout();
+
+	/**
+	 * Get the maximum time to wait for the response status and headers.
+	 * @return Optional response timeout
+	 */
+	Optional<Duration> getResponseTimeout();
+
+	/**
+	 * Get the maximum time to wait for the next response entity data while the entity is read.
+	 * @return Optional read timeout
+	 */
+	Optional<Duration> getReadTimeout();
+
+	/**
+	 * Get a builder to create a new {@link Timeouts} configuration.
+	 * @return A new {@link Timeouts} builder
+	 */
+	static Builder builder() {
+		return new DefaultTimeouts.DefaultBuilder();
+	}
+
+	/**
+	 * {@link Timeouts} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the maximum time to wait for the request to be sent, including the connection acquisition and
+		 * establishment. Not set by default.
+		 * @param connectTimeout The connect timeout (not null, greater than zero)
+		 * @return this
+		 */
+		Builder connectTimeout(Duration connectTimeout);
+
+		/**
+		 * Set the maximum time to wait for the response status and headers, measured from the exchange start. Not set
+		 * by default.
+		 * @param responseTimeout The response timeout (not null, greater than zero)
+		 * @return this
+		 */
+		Builder responseTimeout(Duration responseTimeout);
+
+		/**
+		 * Set the maximum time to wait for the next response entity data while the entity is read. Not set by
+		 * default.
+		 * @param readTimeout The read timeout (not null, greater than zero)
+		 * @return this
+		 */
+		Builder readTimeout(Duration readTimeout);
+
+		/**
+		 * Build the {@link Timeouts}.
+		 * @return A new {@link Timeouts} instance
+		 */
+		Timeouts build();
+
+	}
+
+}
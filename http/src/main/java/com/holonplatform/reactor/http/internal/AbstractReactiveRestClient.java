@@ -16,14 +16,41 @@
 package com.holonplatform.reactor.http.internal;
 
 import java.net.URI;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.reactivestreams.Publisher;
 
 import com.holonplatform.core.internal.Logger;
 import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.HttpStatus;
+import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
 import com.holonplatform.http.internal.HttpLogger;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.BulkInvocation;
+import com.holonplatform.reactor.http.CircuitBreaker;
+import com.holonplatform.reactor.http.Compression;
+import com.holonplatform.reactor.http.ConcurrencyLimiter;
+import com.holonplatform.reactor.http.Deadline;
+import com.holonplatform.reactor.http.HedgingPolicy;
+import com.holonplatform.reactor.http.PreparedRequest;
+import com.holonplatform.reactor.http.ReactiveRequestInterceptor;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
 import com.holonplatform.reactor.http.ReactiveRestClient;
+import com.holonplatform.reactor.http.RequestCoalescing;
+import com.holonplatform.reactor.http.RequestTimeoutException;
+import com.holonplatform.reactor.http.RequestTimeoutException.Phase;
+import com.holonplatform.reactor.http.ResponseCache;
+import com.holonplatform.reactor.http.Timeouts;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Abstract {@link ReactiveRestClient} implementation.
@@ -37,74 +64,403 @@ public abstract class AbstractReactiveRestClient implements ReactiveRestClient,
 	 */
 	private static final Logger LOGGER = HttpLogger.create();
 
+	private static final AtomicReferenceFieldUpdater<AbstractReactiveRestClient, ClientConfiguration> CONFIGURATION = AtomicReferenceFieldUpdater
+			.newUpdater(AbstractReactiveRestClient.class, ClientConfiguration.class, "configuration");
+
 	/**
-	 * Default request target URI
+	 * Configuration snapshot, replaced on each configuration change
 	 */
-	private URI defaultTargetURI;
+	private volatile ClientConfiguration configuration = ClientConfiguration.EMPTY;
 
 	/**
-	 * Default headers
+	 * Replace the configuration snapshot with the one obtained applying given function to the current one.
+	 * @param update Update function
 	 */
-	private final Map<String, String> defaultHeaders = new HashMap<>(4);
+	private void configure(UnaryOperator<ClientConfiguration> update) {
+		ClientConfiguration current;
+		do {
+			current = configuration;
+		} while (!CONFIGURATION.compareAndSet(this, current, update.apply(current)));
+	}
 
 	@Override
 	public ReactiveRestClient defaultTarget(URI baseUri) {
-		this.defaultTargetURI = baseUri;
+		configure(c -> c.defaultTarget(baseUri));
 		return this;
 	}
 
 	@Override
 	public Optional<URI> getDefaultTarget() {
-		return Optional.ofNullable(defaultTargetURI);
+		return Optional.ofNullable(configuration.defaultTarget);
 	}
 
 	@Override
 	public ReactiveRestClient withDefaultHeader(String name, String value) {
 		ObjectUtils.argumentNotNull(name, "Header name must be not null");
-		defaultHeaders.put(name, value);
+		configure(c -> c.withDefaultHeader(name, value));
 		return this;
 	}
 
 	@Override
 	public ReactiveRestClient removeDefaultHeader(String name) {
 		ObjectUtils.argumentNotNull(name, "Header name must be not null");
-		defaultHeaders.remove(name);
+		configure(c -> c.removeDefaultHeader(name));
 		return this;
 	}
 
 	@Override
 	public ReactiveRestClient clearDefaultHeaders() {
-		defaultHeaders.clear();
+		configure(c -> c.clearDefaultHeaders());
+		return this;
+	}
+
+	@Override
+	public ReactiveRestClient withRequestCoalescing(RequestCoalescing requestCoalescing) {
+		configure(c -> c.requestCoalescing(requestCoalescing));
+		return this;
+	}
+
+	@Override
+	public Optional<RequestCoalescing> getRequestCoalescing() {
+		return Optional.ofNullable(configuration.requestCoalescing);
+	}
+
+	@Override
+	public ReactiveRestClient withResponseCache(ResponseCache responseCache) {
+		configure(c -> c.responseCache(responseCache));
+		return this;
+	}
+
+	@Override
+	public Optional<ResponseCache> getResponseCache() {
+		return Optional.ofNullable(configuration.responseCache);
+	}
+
+	@Override
+	public ReactiveRestClient withHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		configure(c -> c.hedgingPolicy(hedgingPolicy));
+		return this;
+	}
+
+	@Override
+	public Optional<HedgingPolicy> getHedgingPolicy() {
+		return Optional.ofNullable(configuration.hedgingPolicy);
+	}
+
+	@Override
+	public ReactiveRestClient withConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+		configure(c -> c.concurrencyLimiter(concurrencyLimiter));
+		return this;
+	}
+
+	@Override
+	public Optional<ConcurrencyLimiter> getConcurrencyLimiter() {
+		return Optional.ofNullable(configuration.concurrencyLimiter);
+	}
+
+	@Override
+	public ReactiveRestClient withCircuitBreaker(CircuitBreaker circuitBreaker) {
+		configure(c -> c.circuitBreaker(circuitBreaker));
+		return this;
+	}
+
+	@Override
+	public Optional<CircuitBreaker> getCircuitBreaker() {
+		return Optional.ofNullable(configuration.circuitBreaker);
+	}
+
+	@Override
+	public ReactiveRestClient withCompression(Compression compression) {
+		configure(c -> c.compression(compression));
+		return this;
+	}
+
+	@Override
+	public Optional<Compression> getCompression() {
+		return Optional.ofNullable(configuration.compression);
+	}
+
+	@Override
+	public ReactiveRestClient withTimeouts(Timeouts timeouts) {
+		configure(c -> c.timeouts(timeouts));
+		return this;
+	}
+
+	@Override
+	public Optional<Timeouts> getTimeouts() {
+		return Optional.ofNullable(configuration.timeouts);
+	}
+
+	@Override
+	public ReactiveRestClient withInterceptor(ReactiveRequestInterceptor interceptor) {
+		ObjectUtils.argumentNotNull(interceptor, "Interceptor must be not null");
+		configure(c -> c.withInterceptor(interceptor));
 		return this;
 	}
 
+	@Override
+	public ReactiveRestClient removeInterceptor(ReactiveRequestInterceptor interceptor) {
+		ObjectUtils.argumentNotNull(interceptor, "Interceptor must be not null");
+		configure(c -> c.removeInterceptor(interceptor));
+		return this;
+	}
+
+	@Override
+	public List<ReactiveRequestInterceptor> getInterceptors() {
+		return configuration.getInterceptors();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.http.rest.RestClientOperations#request()
 	 */
 	@Override
 	public ReactiveRequestDefinition request() {
+		final ClientConfiguration cfg = configuration;
 		ReactiveRequestDefinition definition = buildDefinition();
 
 		// set default target URI, if configured
-		getDefaultTarget().ifPresent(t -> definition.target(t));
+		if (cfg.defaultTarget != null) {
+			definition.target(cfg.defaultTarget);
+		}
 
 		// set default headers
-		defaultHeaders.forEach((n, v) -> {
-			if (!definition.getHeaders().containsKey(n)) {
-				definition.getHeaders().put(n, v);
-			}
-		});
+		cfg.mergeDefaultHeaders(definition.getHeaders());
 
 		LOGGER.debug(() -> "AsyncRestClient: build request[" + definition + "]");
 
 		return definition;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient#prepare(com.holonplatform.reactor.http.
+	 * ReactiveRestClient.ReactiveRequestDefinition)
+	 */
+	@Override
+	public PreparedRequest prepare(ReactiveRequestDefinition definition) {
+		final DefaultPreparedRequest preparedRequest = new DefaultPreparedRequest(this, definition);
+		preparedRequest.setCompiled(compile(preparedRequest));
+		LOGGER.debug(() -> "AsyncRestClient: prepared request [" + preparedRequest + "]");
+		return preparedRequest;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient#bulk(org.reactivestreams.Publisher,
+	 * java.util.function.BiFunction)
+	 */
+	@Override
+	public <I, T> Flux<BulkInvocation.Result<I, T>> bulk(Publisher<I> items,
+			BiFunction<? super I, ReactiveRequestDefinition, ? extends Mono<? extends T>> invocation) {
+		return bulk(items, invocation, BulkInvocation.create());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient#bulk(org.reactivestreams.Publisher,
+	 * java.util.function.BiFunction, com.holonplatform.reactor.http.BulkInvocation)
+	 */
+	@Override
+	public <I, T> Flux<BulkInvocation.Result<I, T>> bulk(Publisher<I> items,
+			BiFunction<? super I, ReactiveRequestDefinition, ? extends Mono<? extends T>> invocation,
+			BulkInvocation bulkInvocation) {
+		ObjectUtils.argumentNotNull(invocation, "Invocation function must be not null");
+		ObjectUtils.argumentNotNull(bulkInvocation, "BulkInvocation must be not null");
+		return bulkInvocation.execute(items, item -> invocation.apply(item, request()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.internal.ReactiveInvoker#invokeForEntity(com.holonplatform.reactor.http.
+	 * ReactiveRestClient.ReactiveRequestDefinition, com.holonplatform.http.HttpMethod,
+	 * com.holonplatform.http.rest.RequestEntity, com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <T, R> Mono<T> invokeForEntity(ReactiveRequestDefinition requestDefinition, HttpMethod method,
+			RequestEntity<R> requestEntity, ResponseType<T> responseType) {
+		final RequestCoalescing coalescing = configuration.requestCoalescing;
+		if (coalescing != null && coalescing.isCoalescable(method, requestEntity)) {
+			final Object key = coalescing.getKeyResolver().getKey(method, requestDefinition, responseType);
+			return coalescing.execute(key, () -> ReactiveInvoker.super.invokeForEntity(requestDefinition, method,
+					requestEntity, responseType));
+		}
+		return ReactiveInvoker.super.invokeForEntity(requestDefinition, method, requestEntity, responseType);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.internal.ReactiveInvoker#invoke(com.holonplatform.reactor.http.
+	 * ReactiveRestClient.ReactiveRequestDefinition, com.holonplatform.http.HttpMethod,
+	 * com.holonplatform.http.rest.RequestEntity, com.holonplatform.http.rest.ResponseType, boolean)
+	 */
+	@Override
+	public <T, R> Mono<ReactiveResponseEntity<T>> invoke(ReactiveRequestDefinition requestDefinition, HttpMethod method,
+			RequestEntity<R> requestEntity, ResponseType<T> responseType, boolean onlySuccessfulStatusCode) {
+		ObjectUtils.argumentNotNull(method, "HTTP method must be not null");
+
+		final ClientConfiguration cfg = configuration;
+
+		final Supplier<Mono<ReactiveResponseEntity<T>>> chained;
+		final ReactiveRequestInterceptor[] chain = cfg.interceptors;
+		if (chain.length == 0) {
+			chained = () -> exchange(requestDefinition, method, requestEntity, responseType);
+		} else {
+			chained = () -> new ChainInvocation<>(chain, 0, requestDefinition, method, requestEntity, responseType)
+					.proceed();
+		}
+
+		// concurrency limit, for each attempt
+		final ConcurrencyLimiter limiter = cfg.concurrencyLimiter;
+		final Supplier<Mono<ReactiveResponseEntity<T>>> limited = (limiter == null) ? chained
+				: () -> limiter.execute(getTarget(requestDefinition), chained);
+
+		// circuit breaker, checked before waiting for a concurrency limiter permit
+		final CircuitBreaker breaker = cfg.circuitBreaker;
+		final Supplier<Mono<ReactiveResponseEntity<T>>> invocation;
+		if (breaker == null) {
+			invocation = limited;
+		} else {
+			final String circuit = breaker.getCircuitName(method, requestDefinition);
+			invocation = () -> breaker.execute(circuit, limited);
+		}
+
+		// hedging
+		final HedgingPolicy hedging = requestDefinition.getHedgingPolicy().orElse(cfg.hedgingPolicy);
+		final Mono<ReactiveResponseEntity<T>> hedged = (hedging != null
+				&& hedging.isHedgeable(method, requestEntity)) ? hedging.execute(invocation) : invocation.get();
+
+		// deadline, checked before any other processing
+		final Mono<ReactiveResponseEntity<T>> response = Mono.deferContextual(context -> {
+			final Optional<Deadline> deadline = Deadline.current(context);
+			return (deadline.isPresent() && deadline.get().isExpired())
+					? Mono.<ReactiveResponseEntity<T>>error(new RequestTimeoutException(Phase.DEADLINE, null))
+					: hedged;
+		});
+
+		if (!onlySuccessfulStatusCode) {
+			return response;
+		}
+		// the message entity of an unsuccessful response is released, since it is not returned to the caller
+		return response.flatMap(r -> HttpStatus.isSuccessStatusCode(r.getStatusCode()) ? Mono.just(r)
+				: r.releaseBody().onErrorResume(e -> Mono.empty())
+						.then(Mono.<ReactiveResponseEntity<T>>error(new UnsuccessfulResponseException(r))));
+	}
+
+	/**
+	 * Get the target of a request, i.e. the scheme and authority of the request base URI.
+	 * @param requestDefinition Request definition
+	 * @return The request target, an empty String if no base URI is available
+	 */
+	protected static String getTarget(ReactiveRequestDefinition requestDefinition) {
+		return requestDefinition.getBaseRequestURI().map(uri -> uri.getScheme() + "://" + uri.getRawAuthority())
+				.orElse("");
+	}
+
+	/**
+	 * Perform the actual request exchange.
+	 * @param <T> Response type
+	 * @param <R> Request entity type
+	 * @param requestDefinition Request definition
+	 * @param method Request method
+	 * @param requestEntity Request entity, may be null
+	 * @param responseType Expected response type
+	 * @return The response, regardless of its status code
+	 */
+	protected abstract <T, R> Mono<ReactiveResponseEntity<T>> exchange(ReactiveRequestDefinition requestDefinition,
+			HttpMethod method, RequestEntity<R> requestEntity, ResponseType<T> responseType);
+
+	/**
+	 * Get the {@link Compression} to use for given request: the request one, if configured, or the client one.
+	 * @param requestDefinition Request definition
+	 * @return The request compression, <code>null</code> if compression is disabled
+	 */
+	protected Compression getCompression(ReactiveRequestDefinition requestDefinition) {
+		return requestDefinition.getCompression().orElse(configuration.compression);
+	}
+
+	/**
+	 * Get the {@link Timeouts} to use for given request: the request ones, if configured, or the client ones.
+	 * @param requestDefinition Request definition
+	 * @return The request timeouts, <code>null</code> if none
+	 */
+	protected Timeouts getTimeouts(ReactiveRequestDefinition requestDefinition) {
+		return requestDefinition.getTimeouts().orElse(configuration.timeouts);
+	}
+
+	/**
+	 * Compile a prepared request in the concrete client implementation specific form, which will be available from
+	 * {@link DefaultPreparedRequest#getCompiled()} when a bound request definition is invoked.
+	 * <p>
+	 * The default implementation returns <code>null</code>, i.e. no compiled form is available.
+	 * </p>
+	 * @param preparedRequest The prepared request
+	 * @return The compiled form, <code>null</code> if not supported
+	 */
+	protected Object compile(DefaultPreparedRequest preparedRequest) {
+		return null;
+	}
+
 	/**
 	 * Build a new {@link ReactiveRequestDefinition} to be used for request configuration.
 	 * @return The request definition
 	 */
 	protected abstract ReactiveRequestDefinition buildDefinition();
 
+	/**
+	 * An element of the interceptors chain.
+	 * @param <T> Response type
+	 * @param <R> Request entity type
+	 */
+	private final class ChainInvocation<T, R> implements ReactiveRequestInterceptor.Invocation<T> {
+
+		private final ReactiveRequestInterceptor[] chain;
+		private final int index;
+		private final ReactiveRequestDefinition requestDefinition;
+		private final HttpMethod method;
+		private final RequestEntity<R> requestEntity;
+		private final ResponseType<T> responseType;
+
+		ChainInvocation(ReactiveRequestInterceptor[] chain, int index, ReactiveRequestDefinition requestDefinition,
+				HttpMethod method, RequestEntity<R> requestEntity, ResponseType<T> responseType) {
+			super();
+			this.chain = chain;
+			this.index = index;
+			this.requestDefinition = requestDefinition;
+			this.method = method;
+			this.requestEntity = requestEntity;
+			this.responseType = responseType;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return method;
+		}
+
+		@Override
+		public ReactiveRequestDefinition getRequestDefinition() {
+			return requestDefinition;
+		}
+
+		@Override
+		public Optional<RequestEntity<?>> getRequestEntity() {
+			return Optional.ofNullable(requestEntity);
+		}
+
+		@Override
+		public ResponseType<T> getResponseType() {
+			return responseType;
+		}
+
+		@Override
+		public Mono<ReactiveResponseEntity<T>> proceed() {
+			if (index < chain.length) {
+				return chain[index].intercept(new ChainInvocation<>(chain, index + 1, requestDefinition, method,
+						requestEntity, responseType));
+			}
+			return exchange(requestDefinition, method, requestEntity, responseType);
+		}
+
+	}
+
 }
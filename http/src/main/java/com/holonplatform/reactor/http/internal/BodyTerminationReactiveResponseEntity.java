@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.ServerSentEvent;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link ReactiveResponseEntity} which delegates to a concrete response entity, invoking a callback when the message
+ * entity read terminates.
+ *
+ * @param <T> Response entity type
+ *
+ * @since 6.0.3
+ */
+public class BodyTerminationReactiveResponseEntity<T> implements ReactiveResponseEntity<T> {
+
+	private final ReactiveResponseEntity<T> delegate;
+	private final Runnable callback;
+	private final AtomicBoolean terminated = new AtomicBoolean(false);
+
+	/**
+	 * Constructor.
+	 * @param delegate Concrete response entity (not null)
+	 * @param callback Termination callback (not null)
+	 */
+	public BodyTerminationReactiveResponseEntity(ReactiveResponseEntity<T> delegate, Runnable callback) {
+		super();
+		ObjectUtils.argumentNotNull(delegate, "Response entity must be not null");
+		ObjectUtils.argumentNotNull(callback, "Callback must be not null");
+		this.delegate = delegate;
+		this.callback = callback;
+	}
+
+	/**
+	 * Invoke the callback, only the first time.
+	 */
+	private void terminate() {
+		if (terminated.compareAndSet(false, true)) {
+			callback.run();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.HttpResponse#getStatusCode()
+	 */
+	@Override
+	public int getStatusCode() {
+		return delegate.getStatusCode();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.messaging.MessageHeaders#getHeaders()
+	 */
+	@Override
+	public Map<String, List<String>> getHeaders() {
+		return delegate.getHeaders();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.messaging.Message#getPayloadType()
+	 */
+	@Override
+	public Class<? extends T> getPayloadType() throws UnsupportedOperationException {
+		return delegate.getPayloadType();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.messaging.Message#getPayload()
+	 */
+	@Override
+	public Optional<T> getPayload() throws UnsupportedOperationException {
+		return asMono().blockOptional();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.ResponseEntity#as(java.lang.Class)
+	 */
+	@Override
+	public <E> Optional<E> as(Class<E> entityType) {
+		return asMono(entityType).blockOptional();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.ResponseEntity#as(com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <E> Optional<E> as(ResponseType<E> entityType) {
+		return asMono(entityType).blockOptional();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asMono()
+	 */
+	@Override
+	public Mono<T> asMono() {
+		return delegate.asMono().doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asMono(java.lang.Class)
+	 */
+	@Override
+	public <E> Mono<E> asMono(Class<E> entityType) {
+		return delegate.asMono(entityType).doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asMono(com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <E> Mono<E> asMono(ResponseType<E> entityType) {
+		return delegate.asMono(entityType).doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asFlux(java.lang.Class)
+	 */
+	@Override
+	public <E> Flux<E> asFlux(Class<E> entityType) {
+		return delegate.asFlux(entityType).doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asFlux(com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <E> Flux<E> asFlux(ResponseType<E> entityType) {
+		return delegate.asFlux(entityType).doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asEvents(com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <E> Flux<ServerSentEvent<E>> asEvents(ResponseType<E> dataType) {
+		return delegate.asEvents(dataType).doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#writeTo(java.nio.channels.AsynchronousFileChannel,
+	 * long)
+	 */
+	@Override
+	public Mono<Long> writeTo(AsynchronousFileChannel channel, long position) {
+		return delegate.writeTo(channel, position).doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asByteBuffers()
+	 */
+	@Override
+	public Flux<ByteBuffer> asByteBuffers() {
+		return delegate.asByteBuffers().doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#releaseBody()
+	 */
+	@Override
+	public Mono<Void> releaseBody() {
+		return delegate.releaseBody().doFinally(signal -> terminate());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asInputStream()
+	 */
+	@Override
+	public Mono<InputStream> asInputStream() {
+		return delegate.asInputStream().<InputStream>map(stream -> new FilterInputStream(stream) {
+
+			@Override
+			public int read() throws IOException {
+				final int b = super.read();
+				if (b < 0) {
+					terminate();
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				final int read = super.read(b, off, len);
+				if (read < 0) {
+					terminate();
+				}
+				return read;
+			}
+
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					terminate();
+				}
+			}
+
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.ResponseEntity#close()
+	 */
+	@Override
+	public void close() {
+		delegate.close();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return delegate.toString();
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.holonplatform.reactor.http.CircuitBreaker;
+import com.holonplatform.reactor.http.Compression;
+import com.holonplatform.reactor.http.ConcurrencyLimiter;
+import com.holonplatform.reactor.http.HedgingPolicy;
+import com.holonplatform.reactor.http.ReactiveRequestInterceptor;
+import com.holonplatform.reactor.http.RequestCoalescing;
+import com.holonplatform.reactor.http.ResponseCache;
+import com.holonplatform.reactor.http.Timeouts;
+
+/**
+ * Immutable snapshot of the {@link AbstractReactiveRestClient} configuration.
+ * <p>
+ * Each configuration change creates a new snapshot, so that the request invocations read the whole configuration
+ * through a single reference, without locking. The default headers are kept in precomputed name and value arrays.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+final class ClientConfiguration {
+
+	private static final String[] NO_HEADERS = new String[0];
+	private static final ReactiveRequestInterceptor[] NO_INTERCEPTORS = new ReactiveRequestInterceptor[0];
+
+	/**
+	 * Empty configuration
+	 */
+	static final ClientConfiguration EMPTY = new ClientConfiguration(null, NO_HEADERS, NO_HEADERS, null, null, null,
+			null, null, null, null, NO_INTERCEPTORS);
+
+	final URI defaultTarget;
+	final String[] headerNames;
+	final String[] headerValues;
+	final RequestCoalescing requestCoalescing;
+	final ResponseCache responseCache;
+	final HedgingPolicy hedgingPolicy;
+	final ConcurrencyLimiter concurrencyLimiter;
+	final CircuitBreaker circuitBreaker;
+	final Compression compression;
+	final Timeouts timeouts;
+	final ReactiveRequestInterceptor[] interceptors;
+
+	private ClientConfiguration(URI defaultTarget, String[] headerNames, String[] headerValues,
+			RequestCoalescing requestCoalescing, ResponseCache responseCache, HedgingPolicy hedgingPolicy,
+			ConcurrencyLimiter concurrencyLimiter, CircuitBreaker circuitBreaker, Compression compression,
+			Timeouts timeouts, ReactiveRequestInterceptor[] interceptors) {
+		super();
+		this.defaultTarget = defaultTarget;
+		this.headerNames = headerNames;
+		this.headerValues = headerValues;
+		this.requestCoalescing = requestCoalescing;
+		this.responseCache = responseCache;
+		this.hedgingPolicy = hedgingPolicy;
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.circuitBreaker = circuitBreaker;
+		this.compression = compression;
+		this.timeouts = timeouts;
+		this.interceptors = interceptors;
+	}
+
+	/**
+	 * Set the default headers which are not already present in given headers map.
+	 * @param headers The request headers
+	 */
+	void mergeDefaultHeaders(Map<String, String> headers) {
+		for (int i = 0; i < headerNames.length; i++) {
+			headers.putIfAbsent(headerNames[i], headerValues[i]);
+		}
+	}
+
+	/**
+	 * Get the interceptors as an unmodifiable list.
+	 * @return The interceptors list
+	 */
+	List<ReactiveRequestInterceptor> getInterceptors() {
+		return Collections.unmodifiableList(Arrays.asList(interceptors));
+	}
+
+	ClientConfiguration defaultTarget(URI defaultTarget) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration withDefaultHeader(String name, String value) {
+		final int index = indexOfHeader(name);
+		final String[] names;
+		final String[] values;
+		if (index > -1) {
+			names = headerNames;
+			values = headerValues.clone();
+			values[index] = value;
+		} else {
+			names = Arrays.copyOf(headerNames, headerNames.length + 1);
+			values = Arrays.copyOf(headerValues, headerValues.length + 1);
+			names[headerNames.length] = name;
+			values[headerNames.length] = value;
+		}
+		return new ClientConfiguration(defaultTarget, names, values, requestCoalescing, responseCache, hedgingPolicy,
+				concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration removeDefaultHeader(String name) {
+		final int index = indexOfHeader(name);
+		if (index < 0) {
+			return this;
+		}
+		return new ClientConfiguration(defaultTarget, remove(headerNames, index, NO_HEADERS),
+				remove(headerValues, index, NO_HEADERS), requestCoalescing, responseCache, hedgingPolicy,
+				concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration clearDefaultHeaders() {
+		return new ClientConfiguration(defaultTarget, NO_HEADERS, NO_HEADERS, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration requestCoalescing(RequestCoalescing requestCoalescing) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration responseCache(ResponseCache responseCache) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration hedgingPolicy(HedgingPolicy hedgingPolicy) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration circuitBreaker(CircuitBreaker circuitBreaker) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration compression(Compression compression) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration timeouts(Timeouts timeouts) {
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, interceptors);
+	}
+
+	ClientConfiguration withInterceptor(ReactiveRequestInterceptor interceptor) {
+		final ReactiveRequestInterceptor[] chain = Arrays.copyOf(interceptors, interceptors.length + 1);
+		chain[interceptors.length] = interceptor;
+		return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing, responseCache,
+				hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts, chain);
+	}
+
+	ClientConfiguration removeInterceptor(ReactiveRequestInterceptor interceptor) {
+		for (int i = 0; i < interceptors.length; i++) {
+			if (interceptors[i].equals(interceptor)) {
+				return new ClientConfiguration(defaultTarget, headerNames, headerValues, requestCoalescing,
+						responseCache, hedgingPolicy, concurrencyLimiter, circuitBreaker, compression, timeouts,
+						remove(interceptors, i, NO_INTERCEPTORS));
+			}
+		}
+		return this;
+	}
+
+	private int indexOfHeader(String name) {
+		for (int i = 0; i < headerNames.length; i++) {
+			if (headerNames[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static <E> E[] remove(E[] array, int index, E[] empty) {
+		if (array.length == 1) {
+			return empty;
+		}
+		final E[] removed = Arrays.copyOf(array, array.length - 1);
+		System.arraycopy(array, index + 1, removed, index, array.length - index - 1);
+		return removed;
+	}
+
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.BulkInvocation;
+import com.holonplatform.reactor.http.LatencyHistogram;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Default {@link BulkInvocation} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultBulkInvocation implements BulkInvocation {
+
+	private final int concurrency;
+	private final boolean ordered;
+
+	private final DefaultMetrics metrics = new DefaultMetrics();
+
+	/**
+	 * Constructor.
+	 * @param concurrency Maximum number of concurrent invocations
+	 * @param ordered Whether to emit the results in source order
+	 */
+	public DefaultBulkInvocation(int concurrency, boolean ordered) {
+		super();
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("Bulk invocation concurrency must be greater than 0");
+		}
+		this.concurrency = concurrency;
+		this.ordered = ordered;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.BulkInvocation#getConcurrency()
+	 */
+	@Override
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.BulkInvocation#isOrdered()
+	 */
+	@Override
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.BulkInvocation#execute(org.reactivestreams.Publisher,
+	 * java.util.function.Function)
+	 */
+	@Override
+	public <I, T> Flux<Result<I, T>> execute(Publisher<I> items,
+			Function<? super I, ? extends Mono<? extends T>> invocation) {
+		ObjectUtils.argumentNotNull(items, "Items publisher must be not null");
+		ObjectUtils.argumentNotNull(invocation, "Invocation function must be not null");
+		final Function<Tuple2<Long, I>, Mono<Result<I, T>>> invoke = item -> invoke(item.getT1(), item.getT2(),
+				invocation);
+		final Flux<Tuple2<Long, I>> indexed = Flux.from(items).index();
+		return ordered ? indexed.flatMapSequential(invoke, concurrency) : indexed.flatMap(invoke, concurrency);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.BulkInvocation#getMetrics()
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "BulkInvocation [concurrency=" + concurrency + ", ordered=" + ordered + ", metrics=" + metrics + "]";
+	}
+
+	/**
+	 * Perform the invocation for a source element, isolating its errors.
+	 * @param <I> Source element type
+	 * @param <T> Invocation result type
+	 * @param index Source element index
+	 * @param item Source element
+	 * @param invocation Invocation function
+	 * @return The invocation result, never an error
+	 */
+	private <I, T> Mono<Result<I, T>> invoke(long index, I item,
+			Function<? super I, ? extends Mono<? extends T>> invocation) {
+		return Mono.defer(() -> {
+			final long start = metrics.start();
+			return Mono.<T>defer(() -> invocation.apply(item))
+					.<Result<I, T>>map(value -> new DefaultResult<>(index, item, value, null, start))
+					.switchIfEmpty(Mono.fromSupplier(() -> new DefaultResult<I, T>(index, item, null, null, start)))
+					.onErrorResume(error -> Mono.just(new DefaultResult<I, T>(index, item, null, error, start)))
+					.doOnNext(result -> metrics.record(result)).doFinally(signal -> metrics.end());
+		});
+	}
+
+	/**
+	 * Default {@link Result} implementation.
+	 * @param <I> Source element type
+	 * @param <T> Invocation result type
+	 */
+	private static final class DefaultResult<I, T> implements Result<I, T> {
+
+		private final long index;
+		private final I item;
+		private final T value;
+		private final Throwable error;
+		private final long latency;
+
+		DefaultResult(long index, I item, T value, Throwable error, long start) {
+			super();
+			this.index = index;
+			this.item = item;
+			this.value = value;
+			this.error = error;
+			this.latency = System.nanoTime() - start;
+		}
+
+		@Override
+		public long getIndex() {
+			return index;
+		}
+
+		@Override
+		public I getItem() {
+			return item;
+		}
+
+		@Override
+		public boolean isSuccess() {
+			return error == null;
+		}
+
+		@Override
+		public Optional<T> getValue() {
+			return Optional.ofNullable(value);
+		}
+
+		@Override
+		public Optional<Throwable> getError() {
+			return Optional.ofNullable(error);
+		}
+
+		@Override
+		public Duration getLatency() {
+			return Duration.ofNanos(latency);
+		}
+
+		@Override
+		public String toString() {
+			return "Result [index=" + index + ", item=" + item + ", success=" + isSuccess() + ", latency="
+					+ getLatency() + "]";
+		}
+
+	}
+
+	/**
+	 * Default {@link Metrics} implementation.
+	 */
+	private static final class DefaultMetrics implements Metrics {
+
+		private static final long UNSET = Long.MIN_VALUE;
+
+		private final LongAdder started = new LongAdder();
+		private final LongAdder succeeded = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicLong firstStart = new AtomicLong(UNSET);
+		private final LongAccumulator lastEnd = new LongAccumulator(Long::max, UNSET);
+		private final LatencyHistogram latencies = new DefaultLatencyHistogram();
+
+		/**
+		 * Record an invocation start.
+		 * @return The start time
+		 */
+		long start() {
+			final long now = System.nanoTime();
+			firstStart.compareAndSet(UNSET, now);
+			started.increment();
+			inFlight.incrementAndGet();
+			return now;
+		}
+
+		/**
+		 * Record an invocation outcome.
+		 * @param result The invocation result
+		 */
+		void record(Result<?, ?> result) {
+			if (result.isSuccess()) {
+				succeeded.increment();
+			} else {
+				failed.increment();
+			}
+			latencies.record(result.getLatency().toNanos());
+			lastEnd.accumulate(System.nanoTime());
+		}
+
+		/**
+		 * Record an invocation termination, either completed or cancelled.
+		 */
+		void end() {
+			inFlight.decrementAndGet();
+		}
+
+		@Override
+		public long getStartedCount() {
+			return started.sum();
+		}
+
+		@Override
+		public long getSucceededCount() {
+			return succeeded.sum();
+		}
+
+		@Override
+		public long getFailedCount() {
+			return failed.sum();
+		}
+
+		@Override
+		public int getInFlightCount() {
+			return inFlight.get();
+		}
+
+		@Override
+		public Duration getElapsed() {
+			final long first = firstStart.get();
+			if (first == UNSET) {
+				return Duration.ZERO;
+			}
+			final long last = lastEnd.get();
+			final long end = (inFlight.get() > 0 || last == UNSET) ? System.nanoTime() : last;
+			return Duration.ofNanos(Math.max(0L, end - first));
+		}
+
+		@Override
+		public double getThroughput() {
+			final long completed = succeeded.sum() + failed.sum();
+			final long elapsed = getElapsed().toNanos();
+			return (completed > 0 && elapsed > 0) ? (completed * 1_000_000_000d) / elapsed : 0d;
+		}
+
+		@Override
+		public LatencyHistogram getLatencies() {
+			return latencies;
+		}
+
+		@Override
+		public String toString() {
+			return "Metrics [started=" + getStartedCount() + ", succeeded=" + getSucceededCount() + ", failed="
+					+ getFailedCount() + ", inFlight=" + getInFlightCount() + ", throughput="
+					+ String.format("%.1f", getThroughput()) + "/s, latencies=" + latencies + "]";
+		}
+
+	}
+
+	/**
+	 * Default {@link BulkInvocation.Builder}.
+	 */
+	public static class DefaultBuilder implements BulkInvocation.Builder {
+
+		private int concurrency = DEFAULT_CONCURRENCY;
+		private boolean ordered = false;
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.BulkInvocation.Builder#concurrency(int)
+		 */
+		@Override
+		public BulkInvocation.Builder concurrency(int concurrency) {
+			this.concurrency = concurrency;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.BulkInvocation.Builder#ordered(boolean)
+		 */
+		@Override
+		public BulkInvocation.Builder ordered(boolean ordered) {
+			this.ordered = ordered;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.BulkInvocation.Builder#build()
+		 */
+		@Override
+		public BulkInvocation build() {
+			return new DefaultBulkInvocation(concurrency, ordered);
+		}
+
+	}
+
+}
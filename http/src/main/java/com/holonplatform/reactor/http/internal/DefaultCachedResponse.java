@@ -0,0 +1,413 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import com.holonplatform.reactor.http.ResponseCache.CachedResponse;
+
+/**
+ * Default {@link CachedResponse} implementation, which calculates the response freshness according to the HTTP caching
+ * semantics.
+ *
+ * @since 6.0.3
+ */
+public class DefaultCachedResponse implements CachedResponse {
+
+	private static final String CACHE_CONTROL = "Cache-Control";
+	private static final String EXPIRES = "Expires";
+	private static final String DATE = "Date";
+	private static final String AGE = "Age";
+	private static final String ETAG = "ETag";
+	private static final String LAST_MODIFIED = "Last-Modified";
+	private static final String VARY = "Vary";
+	private static final String CONTENT_LENGTH = "Content-Length";
+
+	/**
+	 * Fixed weight added to each response to account for the entry overhead
+	 */
+	private static final long ENTRY_OVERHEAD = 128L;
+
+	private final int statusCode;
+	private final Map<String, List<String>> headers;
+	private final byte[] body;
+	private final long weight;
+	private final long responseTime;
+	private final long initialAge;
+	private final long freshnessLifetime;
+	private final long staleWhileRevalidate;
+
+	private DefaultCachedResponse(int statusCode, Map<String, List<String>> headers, byte[] body, long responseTime,
+			long initialAge, long freshnessLifetime, long staleWhileRevalidate) {
+		super();
+		this.statusCode = statusCode;
+		this.headers = Collections.unmodifiableMap(headers);
+		this.body = body;
+		this.responseTime = responseTime;
+		this.initialAge = initialAge;
+		this.freshnessLifetime = freshnessLifetime;
+		this.staleWhileRevalidate = staleWhileRevalidate;
+		long w = ENTRY_OVERHEAD + body.length;
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			w += header.getKey().length();
+			if (header.getValue() != null) {
+				for (String value : header.getValue()) {
+					w += (value != null) ? value.length() : 0;
+				}
+			}
+		}
+		this.weight = w;
+	}
+
+	/**
+	 * Checks whether a response with given status code and headers is cacheable, i.e. it has a cacheable status code,
+	 * it can be stored and it declares either an explicit freshness lifetime or a validator.
+	 * @param statusCode Response status code
+	 * @param headers Response headers
+	 * @return <code>true</code> if the response is cacheable
+	 */
+	public static boolean isCacheable(int statusCode, Map<String, List<String>> headers) {
+		switch (statusCode) {
+		case 200:
+		case 203:
+		case 204:
+		case 300:
+		case 301:
+		case 308:
+		case 404:
+		case 410:
+			break;
+		default:
+			return false;
+		}
+		final Map<String, String> directives = parseCacheControl(getHeaderValues(headers, CACHE_CONTROL));
+		if (directives.containsKey("no-store")) {
+			return false;
+		}
+		final List<String> vary = getHeaderValues(headers, VARY);
+		if (vary != null && vary.stream().anyMatch(v -> v != null && v.trim().equals("*"))) {
+			return false;
+		}
+		// storable only with a validator or an explicit freshness lifetime
+		if (getHeaderValue(headers, ETAG) != null || getHeaderValue(headers, LAST_MODIFIED) != null) {
+			return true;
+		}
+		return !directives.containsKey("no-cache")
+				&& (parseSeconds(directives.get("max-age")) > 0 || getHeaderValue(headers, EXPIRES) != null);
+	}
+
+	/**
+	 * Get the declared response <code>Content-Length</code>, if available.
+	 * @param headers Response headers
+	 * @return The content length, or <code>-1</code> if not available
+	 */
+	public static long getContentLength(Map<String, List<String>> headers) {
+		final String value = getHeaderValue(headers, CONTENT_LENGTH);
+		if (value != null) {
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException e) {
+				// ignore
+			}
+		}
+		return -1L;
+	}
+
+	/**
+	 * Create a {@link CachedResponse}, if the response is cacheable.
+	 * @param statusCode Response status code
+	 * @param headers Response headers
+	 * @param body Response body bytes
+	 * @param requestTime Request time in milliseconds
+	 * @param responseTime Response time in milliseconds
+	 * @param defaultStaleWhileRevalidate Stale-while-revalidate window to use when not declared by the response, in
+	 *        milliseconds
+	 * @return The cached response, or an empty Optional if the response is not cacheable
+	 */
+	public static Optional<CachedResponse> create(int statusCode, Map<String, List<String>> headers, byte[] body,
+			long requestTime, long responseTime, long defaultStaleWhileRevalidate) {
+		if (headers == null || !isCacheable(statusCode, headers)) {
+			return Optional.empty();
+		}
+		final Map<String, List<String>> stored = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		stored.putAll(headers);
+
+		final Map<String, String> directives = parseCacheControl(getHeaderValues(stored, CACHE_CONTROL));
+		final long date = parseDate(getHeaderValue(stored, DATE), responseTime);
+		final long freshness = getFreshnessLifetime(directives, stored, date);
+
+		// stored responses without freshness can only be reused through validation
+		if (freshness <= 0 && getHeaderValue(stored, ETAG) == null && getHeaderValue(stored, LAST_MODIFIED) == null) {
+			return Optional.empty();
+		}
+
+		// corrected initial age
+		final long ageValue = parseSeconds(getHeaderValue(stored, AGE));
+		final long apparentAge = Math.max(0L, responseTime - date);
+		final long initialAge = Math.max(apparentAge,
+				((ageValue > 0) ? ageValue : 0L) + Math.max(0L, responseTime - requestTime));
+
+		long swr = 0L;
+		if (!directives.containsKey("no-cache") && !directives.containsKey("must-revalidate")) {
+			final long declared = parseSeconds(directives.get("stale-while-revalidate"));
+			swr = (declared >= 0) ? declared : Math.max(0L, defaultStaleWhileRevalidate);
+		}
+
+		return Optional.of(new DefaultCachedResponse(statusCode, stored, (body != null) ? body : new byte[0],
+				responseTime, initialAge, freshness, swr));
+	}
+
+	/**
+	 * Create a new {@link CachedResponse} updating given stored response with the headers of a <code>304</code>
+	 * response.
+	 * @param cached The stored response
+	 * @param headers The <code>304</code> response headers
+	 * @param requestTime Request time in milliseconds
+	 * @param responseTime Response time in milliseconds
+	 * @param defaultStaleWhileRevalidate Stale-while-revalidate window to use when not declared by the response, in
+	 *        milliseconds
+	 * @return The updated response, or an empty Optional if the response is no longer cacheable
+	 */
+	public static Optional<CachedResponse> revalidate(CachedResponse cached, Map<String, List<String>> headers,
+			long requestTime, long responseTime, long defaultStaleWhileRevalidate) {
+		final Map<String, List<String>> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		merged.putAll(cached.getHeaders());
+		if (headers != null) {
+			headers.forEach((n, v) -> {
+				// the 304 response has no body: keep the stored entity length
+				if (!CONTENT_LENGTH.equalsIgnoreCase(n)) {
+					merged.put(n, v);
+				}
+			});
+		}
+		return create(cached.getStatusCode(), merged, cached.getBody(), requestTime, responseTime,
+				defaultStaleWhileRevalidate);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#getStatusCode()
+	 */
+	@Override
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#getHeaders()
+	 */
+	@Override
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#getBody()
+	 */
+	@Override
+	public byte[] getBody() {
+		return body;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#getWeight()
+	 */
+	@Override
+	public long getWeight() {
+		return weight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#getETag()
+	 */
+	@Override
+	public Optional<String> getETag() {
+		return Optional.ofNullable(getHeaderValue(headers, ETAG));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#getLastModified()
+	 */
+	@Override
+	public Optional<String> getLastModified() {
+		return Optional.ofNullable(getHeaderValue(headers, LAST_MODIFIED));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#isFresh(long)
+	 */
+	@Override
+	public boolean isFresh(long now) {
+		return getCurrentAge(now) < freshnessLifetime;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache.CachedResponse#isStaleWhileRevalidate(long)
+	 */
+	@Override
+	public boolean isStaleWhileRevalidate(long now) {
+		final long age = getCurrentAge(now);
+		return age >= freshnessLifetime && age < (freshnessLifetime + staleWhileRevalidate);
+	}
+
+	/**
+	 * Get the response age at given time.
+	 * @param now Current time in milliseconds
+	 * @return The response age in milliseconds
+	 */
+	private long getCurrentAge(long now) {
+		return initialAge + Math.max(0L, now - responseTime);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DefaultCachedResponse [statusCode=" + statusCode + ", weight=" + weight + ", freshnessLifetime="
+				+ freshnessLifetime + ", staleWhileRevalidate=" + staleWhileRevalidate + "]";
+	}
+
+	// ------- parsing
+
+	/**
+	 * Calculate the response freshness lifetime.
+	 * @param directives Cache-Control directives
+	 * @param headers Response headers
+	 * @param date Response date
+	 * @return The freshness lifetime in milliseconds
+	 */
+	private static long getFreshnessLifetime(Map<String, String> directives, Map<String, List<String>> headers,
+			long date) {
+		if (directives.containsKey("no-cache")) {
+			return 0L;
+		}
+		final long maxAge = parseSeconds(directives.get("max-age"));
+		if (maxAge >= 0) {
+			return maxAge;
+		}
+		final String expires = getHeaderValue(headers, EXPIRES);
+		if (expires != null) {
+			// an invalid Expires value means already expired
+			final long expiresAt = parseDate(expires, -1L);
+			return (expiresAt > 0) ? Math.max(0L, expiresAt - date) : 0L;
+		}
+		final long lastModified = parseDate(getHeaderValue(headers, LAST_MODIFIED), -1L);
+		if (lastModified > 0 && lastModified < date) {
+			// heuristic freshness: 10% of the time since last modification
+			return (date - lastModified) / 10L;
+		}
+		return 0L;
+	}
+
+	/**
+	 * Parse the Cache-Control directives.
+	 * @param values Header values
+	 * @return Directives by lower case name, the value is <code>null</code> for directives without a value
+	 */
+	private static Map<String, String> parseCacheControl(List<String> values) {
+		if (values == null || values.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		final Map<String, String> directives = new HashMap<>(4);
+		for (String value : values) {
+			if (value != null) {
+				for (String directive : value.split(",")) {
+					final String d = directive.trim();
+					if (!d.isEmpty()) {
+						final int idx = d.indexOf('=');
+						if (idx > 0) {
+							String v = d.substring(idx + 1).trim();
+							if (v.length() > 1 && v.startsWith("\"") && v.endsWith("\"")) {
+								v = v.substring(1, v.length() - 1);
+							}
+							directives.put(d.substring(0, idx).trim().toLowerCase(), v);
+						} else {
+							directives.put(d.toLowerCase(), null);
+						}
+					}
+				}
+			}
+		}
+		return directives;
+	}
+
+	/**
+	 * Parse a delta-seconds value.
+	 * @param value The value to parse
+	 * @return The value in milliseconds, or <code>-1</code> if not available or invalid
+	 */
+	private static long parseSeconds(String value) {
+		if (value != null) {
+			try {
+				final long seconds = Long.parseLong(value.trim());
+				return (seconds >= 0) ? seconds * 1000L : -1L;
+			} catch (NumberFormatException e) {
+				// ignore
+			}
+		}
+		return -1L;
+	}
+
+	/**
+	 * Parse a HTTP date.
+	 * @param value The value to parse
+	 * @param defaultValue The value to return if not available or invalid
+	 * @return The date in milliseconds since the epoch
+	 */
+	private static long parseDate(String value, long defaultValue) {
+		if (value != null) {
+			try {
+				return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+						.toEpochMilli();
+			} catch (DateTimeParseException e) {
+				// ignore
+			}
+		}
+		return defaultValue;
+	}
+
+	private static List<String> getHeaderValues(Map<String, List<String>> headers, String name) {
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (name.equalsIgnoreCase(header.getKey())) {
+				return header.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static String getHeaderValue(Map<String, List<String>> headers, String name) {
+		final List<String> values = getHeaderValues(headers, name);
+		return (values != null && !values.isEmpty()) ? values.get(0) : null;
+	}
+
+}
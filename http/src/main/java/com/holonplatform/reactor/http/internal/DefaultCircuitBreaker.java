@@ -0,0 +1,568 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.holonplatform.core.internal.Logger;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.internal.HttpLogger;
+import com.holonplatform.reactor.http.CircuitBreaker;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.RequestRejectedException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Default {@link CircuitBreaker} implementation.
+ * <p>
+ * The circuit state is an immutable phase replaced using compare-and-set, and each closed phase owns its own sliding
+ * window, so that no lock is required to record the invocation outcomes or to perform the state transitions.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class DefaultCircuitBreaker implements CircuitBreaker {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = HttpLogger.create();
+
+	private final Scope scope;
+	private final double failureRateThreshold;
+	private final double slowCallRateThreshold;
+	private final long slowCallDuration;
+	private final int slidingWindowSize;
+	private final int minimumCalls;
+	private final long waitInOpenState;
+	private final int permittedProbes;
+
+	private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Sliding window outcome flags
+	 */
+	private static final int RECORDED = 1;
+	private static final int FAILED = 2;
+	private static final int SLOW = 4;
+
+	/**
+	 * Circuits by name
+	 */
+	private final ConcurrentHashMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param scope Circuit scope (not null)
+	 * @param failureRateThreshold Failure rate threshold percentage
+	 * @param slowCallRateThreshold Slow invocations rate threshold percentage, <code>0</code> to disable
+	 * @param slowCallDuration Slow invocation duration (not null)
+	 * @param slidingWindowSize Sliding window size
+	 * @param minimumCalls Minimum recorded invocations
+	 * @param waitInOpenState Wait time in the open state (not null)
+	 * @param permittedProbes Permitted probe invocations
+	 */
+	public DefaultCircuitBreaker(Scope scope, double failureRateThreshold, double slowCallRateThreshold,
+			Duration slowCallDuration, int slidingWindowSize, int minimumCalls, Duration waitInOpenState,
+			int permittedProbes) {
+		super();
+		ObjectUtils.argumentNotNull(scope, "Scope must be not null");
+		ObjectUtils.argumentNotNull(slowCallDuration, "Slow call duration must be not null");
+		ObjectUtils.argumentNotNull(waitInOpenState, "Wait in open state duration must be not null");
+		if (failureRateThreshold <= 0 || failureRateThreshold > 100) {
+			throw new IllegalArgumentException("Failure rate threshold must be between 0 and 100");
+		}
+		if (slowCallRateThreshold < 0 || slowCallRateThreshold > 100) {
+			throw new IllegalArgumentException("Slow call rate threshold must be between 0 and 100");
+		}
+		if (slidingWindowSize < 1) {
+			throw new IllegalArgumentException("Sliding window size must be greater than 0");
+		}
+		if (minimumCalls < 1) {
+			throw new IllegalArgumentException("Minimum calls must be greater than 0");
+		}
+		if (permittedProbes < 1) {
+			throw new IllegalArgumentException("Permitted probes must be greater than 0");
+		}
+		this.scope = scope;
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.slowCallDuration = slowCallDuration.toNanos();
+		this.slidingWindowSize = slidingWindowSize;
+		this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+		this.waitInOpenState = waitInOpenState.toNanos();
+		this.permittedProbes = permittedProbes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.CircuitBreaker#getCircuitName(com.holonplatform.http.HttpMethod,
+	 * com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition)
+	 */
+	@Override
+	public String getCircuitName(HttpMethod method, ReactiveRequestDefinition requestDefinition) {
+		final String target = AbstractReactiveRestClient.getTarget(requestDefinition);
+		if (scope == Scope.ENDPOINT) {
+			return method.getMethodName() + " " + target + "/" + requestDefinition.getRequestPath().orElse("");
+		}
+		return target;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.CircuitBreaker#execute(java.lang.String, java.util.function.Supplier)
+	 */
+	@Override
+	public <T> Mono<ReactiveResponseEntity<T>> execute(String circuit,
+			Supplier<Mono<ReactiveResponseEntity<T>>> invocation) {
+		ObjectUtils.argumentNotNull(circuit, "Circuit name must be not null");
+		ObjectUtils.argumentNotNull(invocation, "Invocation must be not null");
+		return Mono.defer(() -> {
+			final Circuit c = getOrCreate(circuit);
+			final Phase phase = c.acquire();
+			if (phase == null) {
+				c.rejected.increment();
+				return Mono.error(new RequestRejectedException(circuit,
+						"Circuit [" + circuit + "] is " + c.getState() + ": invocation not permitted"));
+			}
+			final long start = System.nanoTime();
+			final AtomicBoolean recorded = new AtomicBoolean(false);
+			return Mono.defer(invocation).doOnNext(response -> {
+				if (recorded.compareAndSet(false, true)) {
+					c.record(phase, response.getStatusCode() >= 500, System.nanoTime() - start);
+				}
+			}).doOnError(error -> {
+				if (recorded.compareAndSet(false, true)) {
+					if (error instanceof RequestRejectedException) {
+						// not performed: not an outcome of the target
+						c.abandon(phase);
+					} else {
+						c.record(phase, true, System.nanoTime() - start);
+					}
+				}
+			}).doFinally(signal -> {
+				if (recorded.compareAndSet(false, true)) {
+					c.abandon(phase);
+				}
+			});
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.CircuitBreaker#getCircuit(java.lang.String)
+	 */
+	@Override
+	public Optional<CircuitState> getCircuit(String circuit) {
+		return Optional.ofNullable(circuits.get(circuit));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.CircuitBreaker#getCircuits()
+	 */
+	@Override
+	public List<CircuitState> getCircuits() {
+		return new ArrayList<>(circuits.values());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.CircuitBreaker#addStateListener(com.holonplatform.reactor.http.
+	 * CircuitBreaker.StateListener)
+	 */
+	@Override
+	public void addStateListener(StateListener listener) {
+		ObjectUtils.argumentNotNull(listener, "Listener must be not null");
+		listeners.add(listener);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.CircuitBreaker#removeStateListener(com.holonplatform.reactor.http.
+	 * CircuitBreaker.StateListener)
+	 */
+	@Override
+	public void removeStateListener(StateListener listener) {
+		ObjectUtils.argumentNotNull(listener, "Listener must be not null");
+		listeners.remove(listener);
+	}
+
+	private Circuit getOrCreate(String name) {
+		final Circuit circuit = circuits.get(name);
+		return (circuit != null) ? circuit : circuits.computeIfAbsent(name, Circuit::new);
+	}
+
+	/**
+	 * Notify a state transition to the listeners.
+	 * @param circuit Circuit name
+	 * @param from Previous state
+	 * @param to New state
+	 */
+	private void fireStateTransition(String circuit, State from, State to) {
+		LOGGER.debug(() -> "Circuit [" + circuit + "] state changed from " + from + " to " + to);
+		for (StateListener listener : listeners) {
+			try {
+				listener.onStateTransition(circuit, from, to);
+			} catch (Exception e) {
+				LOGGER.warn("Circuit state listener failed", e);
+			}
+		}
+	}
+
+	/**
+	 * A circuit.
+	 */
+	private final class Circuit implements CircuitState {
+
+		private final String name;
+		private final AtomicReference<Phase> phase;
+		final LongAdder rejected = new LongAdder();
+
+		Circuit(String name) {
+			super();
+			this.name = name;
+			this.phase = new AtomicReference<>(Phase.closed(new Window(slidingWindowSize)));
+		}
+
+		/**
+		 * Acquire the permission to perform an invocation.
+		 * @return The phase in which the invocation is performed, <code>null</code> if not permitted
+		 */
+		Phase acquire() {
+			for (;;) {
+				final Phase current = phase.get();
+				switch (current.state) {
+				case CLOSED:
+					return current;
+				case OPEN:
+					if (System.nanoTime() - current.since < waitInOpenState) {
+						return null;
+					}
+					transition(current, Phase.halfOpen(permittedProbes));
+					break;
+				case HALF_OPEN:
+				default:
+					return current.tryAcquireProbe() ? current : null;
+				}
+			}
+		}
+
+		/**
+		 * Record the outcome of an invocation.
+		 * @param acquired The phase in which the invocation was permitted
+		 * @param failed Whether the invocation failed
+		 * @param duration Invocation duration in nanoseconds
+		 */
+		void record(Phase acquired, boolean failed, long duration) {
+			final boolean slow = slowCallRateThreshold > 0 && duration >= slowCallDuration;
+			if (acquired.state == State.CLOSED) {
+				acquired.window.record(failed, slow);
+				if (acquired.window.isTripped()) {
+					transition(acquired, Phase.open());
+				}
+			} else if (acquired.state == State.HALF_OPEN) {
+				if (failed || slow) {
+					transition(acquired, Phase.open());
+				} else if (acquired.probeSuccesses.incrementAndGet() >= permittedProbes) {
+					transition(acquired, Phase.closed(new Window(slidingWindowSize)));
+				}
+			}
+		}
+
+		/**
+		 * Abandon an invocation without recording its outcome, i.e. when cancelled.
+		 * @param acquired The phase in which the invocation was permitted
+		 */
+		void abandon(Phase acquired) {
+			if (acquired.state == State.HALF_OPEN) {
+				acquired.probes.incrementAndGet();
+			}
+		}
+
+		private void transition(Phase from, Phase to) {
+			if (phase.compareAndSet(from, to)) {
+				fireStateTransition(name, from.state, to.state);
+			}
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public State getState() {
+			return phase.get().state;
+		}
+
+		@Override
+		public int getRecordedCalls() {
+			final Window window = phase.get().window;
+			return (window != null) ? window.calls.get() : 0;
+		}
+
+		@Override
+		public double getFailureRate() {
+			final Window window = phase.get().window;
+			return (window != null) ? window.getFailureRate() : 0d;
+		}
+
+		@Override
+		public double getSlowCallRate() {
+			final Window window = phase.get().window;
+			return (window != null) ? window.getSlowCallRate() : 0d;
+		}
+
+		@Override
+		public long getRejectedCount() {
+			return rejected.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "CircuitState [name=" + name + ", state=" + getState() + ", recordedCalls=" + getRecordedCalls()
+					+ ", failureRate=" + getFailureRate() + ", slowCallRate=" + getSlowCallRate() + ", rejected="
+					+ getRejectedCount() + "]";
+		}
+
+	}
+
+	/**
+	 * Count based sliding window of the invocation outcomes.
+	 */
+	private final class Window {
+
+		private final AtomicIntegerArray outcomes;
+		private final AtomicLong index = new AtomicLong();
+		final AtomicInteger calls = new AtomicInteger();
+		private final AtomicInteger failures = new AtomicInteger();
+		private final AtomicInteger slowCalls = new AtomicInteger();
+
+		Window(int size) {
+			super();
+			this.outcomes = new AtomicIntegerArray(size);
+		}
+
+		void record(boolean failed, boolean slow) {
+			final int outcome = RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0);
+			final int slot = (int) (index.getAndIncrement() % outcomes.length());
+			final int previous = outcomes.getAndSet(slot, outcome);
+			if (previous == 0) {
+				calls.incrementAndGet();
+			}
+			failures.addAndGet(((outcome & FAILED) != 0 ? 1 : 0) - ((previous & FAILED) != 0 ? 1 : 0));
+			slowCalls.addAndGet(((outcome & SLOW) != 0 ? 1 : 0) - ((previous & SLOW) != 0 ? 1 : 0));
+		}
+
+		double getFailureRate() {
+			final int c = calls.get();
+			return (c > 0) ? failures.get() * 100d / c : 0d;
+		}
+
+		double getSlowCallRate() {
+			final int c = calls.get();
+			return (c > 0) ? slowCalls.get() * 100d / c : 0d;
+		}
+
+		boolean isTripped() {
+			if (calls.get() < minimumCalls) {
+				return false;
+			}
+			return getFailureRate() >= failureRateThreshold
+					|| (slowCallRateThreshold > 0 && getSlowCallRate() >= slowCallRateThreshold);
+		}
+
+	}
+
+	/**
+	 * An immutable circuit phase.
+	 */
+	private static final class Phase {
+
+		final State state;
+		final long since = System.nanoTime();
+		final Window window;
+		final AtomicInteger probes;
+		final AtomicInteger probeSuccesses;
+
+		private Phase(State state, Window window, int probes) {
+			super();
+			this.state = state;
+			this.window = window;
+			this.probes = new AtomicInteger(probes);
+			this.probeSuccesses = new AtomicInteger();
+		}
+
+		static Phase closed(Window window) {
+			return new Phase(State.CLOSED, window, 0);
+		}
+
+		static Phase open() {
+			return new Phase(State.OPEN, null, 0);
+		}
+
+		static Phase halfOpen(int probes) {
+			return new Phase(State.HALF_OPEN, null, probes);
+		}
+
+		boolean tryAcquireProbe() {
+			int current;
+			do {
+				current = probes.get();
+				if (current <= 0) {
+					return false;
+				}
+			} while (!probes.compareAndSet(current, current - 1));
+			return true;
+		}
+
+	}
+
+	/**
+	 * Default {@link CircuitBreaker.Builder}.
+	 */
+	public static class DefaultBuilder implements CircuitBreaker.Builder {
+
+		private Scope scope = Scope.TARGET;
+		private double failureRateThreshold = 50d;
+		private double slowCallRateThreshold = 0d;
+		private Duration slowCallDuration = Duration.ofSeconds(5);
+		private int slidingWindowSize = 100;
+		private int minimumCalls = 20;
+		private Duration waitInOpenState = Duration.ofSeconds(30);
+		private int permittedProbes = 3;
+		private final List<StateListener> listeners = new ArrayList<>();
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#scope(com.holonplatform.reactor.http.
+		 * CircuitBreaker.Scope)
+		 */
+		@Override
+		public CircuitBreaker.Builder scope(Scope scope) {
+			this.scope = scope;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#failureRateThreshold(double)
+		 */
+		@Override
+		public CircuitBreaker.Builder failureRateThreshold(double failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#slowCallRateThreshold(double,
+		 * java.time.Duration)
+		 */
+		@Override
+		public CircuitBreaker.Builder slowCallRateThreshold(double slowCallRateThreshold, Duration slowCallDuration) {
+			if (slowCallRateThreshold <= 0) {
+				throw new IllegalArgumentException("Slow call rate threshold must be greater than 0");
+			}
+			this.slowCallRateThreshold = slowCallRateThreshold;
+			this.slowCallDuration = slowCallDuration;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#slidingWindowSize(int)
+		 */
+		@Override
+		public CircuitBreaker.Builder slidingWindowSize(int slidingWindowSize) {
+			this.slidingWindowSize = slidingWindowSize;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#minimumCalls(int)
+		 */
+		@Override
+		public CircuitBreaker.Builder minimumCalls(int minimumCalls) {
+			this.minimumCalls = minimumCalls;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#waitInOpenState(java.time.Duration)
+		 */
+		@Override
+		public CircuitBreaker.Builder waitInOpenState(Duration waitInOpenState) {
+			this.waitInOpenState = waitInOpenState;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#permittedProbes(int)
+		 */
+		@Override
+		public CircuitBreaker.Builder permittedProbes(int permittedProbes) {
+			this.permittedProbes = permittedProbes;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#withStateListener(com.holonplatform.reactor.http.
+		 * CircuitBreaker.StateListener)
+		 */
+		@Override
+		public CircuitBreaker.Builder withStateListener(StateListener listener) {
+			ObjectUtils.argumentNotNull(listener, "Listener must be not null");
+			this.listeners.add(listener);
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.CircuitBreaker.Builder#build()
+		 */
+		@Override
+		public CircuitBreaker build() {
+			final DefaultCircuitBreaker circuitBreaker = new DefaultCircuitBreaker(scope, failureRateThreshold,
+					slowCallRateThreshold, slowCallDuration, slidingWindowSize, minimumCalls, waitInOpenState,
+					permittedProbes);
+			listeners.forEach(listener -> circuitBreaker.addStateListener(listener));
+			return circuitBreaker;
+		}
+
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.Compression;
+
+/**
+ * Default {@link Compression} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultCompression implements Compression {
+
+	private final Encoding encoding;
+	private final int threshold;
+	private final boolean requestCompression;
+	private final boolean responseDecompression;
+
+	private final DefaultMetrics metrics = new DefaultMetrics();
+
+	/**
+	 * Constructor.
+	 * @param encoding Request entities encoding (not null)
+	 * @param threshold Compression threshold in bytes
+	 * @param requestCompression Whether to compress the request entities
+	 * @param responseDecompression Whether to decompress the response entities
+	 */
+	public DefaultCompression(Encoding encoding, int threshold, boolean requestCompression,
+			boolean responseDecompression) {
+		super();
+		ObjectUtils.argumentNotNull(encoding, "Encoding must be not null");
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Compression threshold must be not negative");
+		}
+		this.encoding = encoding;
+		this.threshold = threshold;
+		this.requestCompression = requestCompression;
+		this.responseDecompression = responseDecompression;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Compression#getEncoding()
+	 */
+	@Override
+	public Encoding getEncoding() {
+		return encoding;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Compression#getThreshold()
+	 */
+	@Override
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Compression#isRequestCompression()
+	 */
+	@Override
+	public boolean isRequestCompression() {
+		return requestCompression;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Compression#isResponseDecompression()
+	 */
+	@Override
+	public boolean isResponseDecompression() {
+		return responseDecompression;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Compression#getMetrics()
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Compression [encoding=" + encoding + ", threshold=" + threshold + ", requestCompression="
+				+ requestCompression + ", responseDecompression=" + responseDecompression + "]";
+	}
+
+	/**
+	 * Default {@link Metrics} implementation.
+	 */
+	private static final class DefaultMetrics implements Metrics {
+
+		private final LongAdder compressedRequests = new LongAdder();
+		private final LongAdder requestBytes = new LongAdder();
+		private final LongAdder compressedRequestBytes = new LongAdder();
+		private final LongAdder decompressedResponses = new LongAdder();
+		private final LongAdder compressedResponseBytes = new LongAdder();
+		private final LongAdder responseBytes = new LongAdder();
+
+		@Override
+		public long getCompressedRequests() {
+			return compressedRequests.sum();
+		}
+
+		@Override
+		public long getRequestBytes() {
+			return requestBytes.sum();
+		}
+
+		@Override
+		public long getCompressedRequestBytes() {
+			return compressedRequestBytes.sum();
+		}
+
+		@Override
+		public long getDecompressedResponses() {
+			return decompressedResponses.sum();
+		}
+
+		@Override
+		public long getCompressedResponseBytes() {
+			return compressedResponseBytes.sum();
+		}
+
+		@Override
+		public long getResponseBytes() {
+			return responseBytes.sum();
+		}
+
+		@Override
+		public void recordRequest(long size, long compressedSize) {
+			compressedRequests.increment();
+			requestBytes.add(size);
+			compressedRequestBytes.add(compressedSize);
+		}
+
+		@Override
+		public void recordResponse(long compressedSize, long size) {
+			decompressedResponses.increment();
+			compressedResponseBytes.add(compressedSize);
+			responseBytes.add(size);
+		}
+
+		@Override
+		public void reset() {
+			compressedRequests.reset();
+			requestBytes.reset();
+			compressedRequestBytes.reset();
+			decompressedResponses.reset();
+			compressedResponseBytes.reset();
+			responseBytes.reset();
+		}
+
+		@Override
+		public String toString() {
+			return "Metrics [compressedRequests=" + getCompressedRequests() + ", decompressedResponses="
+					+ getDecompressedResponses() + ", savedBytes=" + getSavedBytes() + "]";
+		}
+
+	}
+
+	/**
+	 * Default {@link Compression.Builder}.
+	 */
+	public static class DefaultBuilder implements Compression.Builder {
+
+		private Encoding encoding = Encoding.GZIP;
+		private int threshold = DEFAULT_THRESHOLD;
+		private boolean requestCompression = true;
+		private boolean responseDecompression = true;
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Compression.Builder#encoding(com.holonplatform.reactor.http.
+		 * Compression.Encoding)
+		 */
+		@Override
+		public Compression.Builder encoding(Encoding encoding) {
+			ObjectUtils.argumentNotNull(encoding, "Encoding must be not null");
+			this.encoding = encoding;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Compression.Builder#threshold(int)
+		 */
+		@Override
+		public Compression.Builder threshold(int threshold) {
+			this.threshold = threshold;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Compression.Builder#requestCompression(boolean)
+		 */
+		@Override
+		public Compression.Builder requestCompression(boolean requestCompression) {
+			this.requestCompression = requestCompression;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Compression.Builder#responseDecompression(boolean)
+		 */
+		@Override
+		public Compression.Builder responseDecompression(boolean responseDecompression) {
+			this.responseDecompression = responseDecompression;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Compression.Builder#build()
+		 */
+		@Override
+		public Compression build() {
+			return new DefaultCompression(encoding, threshold, requestCompression, responseDecompression);
+		}
+
+	}
+
+}
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.holonplatform.core.internal.Logger;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpHeaders;
+import com.holonplatform.http.internal.HttpLogger;
+import com.holonplatform.reactor.http.ConcurrencyLimiter;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.RequestRejectedException;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Default {@link ConcurrencyLimiter} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultConcurrencyLimiter implements ConcurrencyLimiter {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = HttpLogger.create();
+
+	/**
+	 * Number of samples after which the minimum RTT is reset, to follow the target latency changes
+	 */
+	private static final int RTT_WINDOW = 500;
+
+	private final int initialLimit;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final double rttTolerance;
+	private final int maxQueueSize;
+	private final Duration maxQueueTime;
+
+	/**
+	 * Target states
+	 */
+	private final ConcurrentHashMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param initialLimit Initial limit
+	 * @param minLimit Minimum limit
+	 * @param maxLimit Maximum limit
+	 * @param backoffRatio Backoff ratio
+	 * @param rttTolerance RTT tolerance
+	 * @param maxQueueSize Max queue size
+	 * @param maxQueueTime Max queue time (not null)
+	 */
+	public DefaultConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+			double rttTolerance, int maxQueueSize, Duration maxQueueTime) {
+		super();
+		ObjectUtils.argumentNotNull(maxQueueTime, "Max queue time must be not null");
+		if (minLimit < 1 || maxLimit < minLimit) {
+			throw new IllegalArgumentException("Invalid limit bounds: [" + minLimit + ", " + maxLimit + "]");
+		}
+		if (initialLimit < minLimit || initialLimit > maxLimit) {
+			throw new IllegalArgumentException("Initial limit must be between " + minLimit + " and " + maxLimit);
+		}
+		if (backoffRatio <= 0 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("Backoff ratio must be between 0 and 1: " + backoffRatio);
+		}
+		if (rttTolerance < 1) {
+			throw new IllegalArgumentException("RTT tolerance must be at least 1: " + rttTolerance);
+		}
+		if (maxQueueSize < 0) {
+			throw new IllegalArgumentException("Max queue size must be not negative");
+		}
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.rttTolerance = rttTolerance;
+		this.maxQueueSize = maxQueueSize;
+		this.maxQueueTime = maxQueueTime;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ConcurrencyLimiter#execute(java.lang.String, java.util.function.Supplier)
+	 */
+	@Override
+	public <T> Mono<ReactiveResponseEntity<T>> execute(String target,
+			Supplier<Mono<ReactiveResponseEntity<T>>> invocation) {
+		ObjectUtils.argumentNotNull(target, "Target must be not null");
+		ObjectUtils.argumentNotNull(invocation, "Invocation must be not null");
+		return Mono.defer(() -> {
+			final Limit limit = getOrCreate(target);
+			return limit.acquire()
+					.flatMap(permit -> Mono.defer(invocation).map(response -> {
+						// the RTT is sampled at headers time, the permit is held until the body read terminates
+						permit.sample(isOverloaded(response.getStatusCode()));
+						if (hasNoBody(response)) {
+							permit.release();
+							return response;
+						}
+						return permit.bind(response);
+					}).doOnError(error -> permit.sample(true)).doFinally(signal -> permit.cancel()));
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ConcurrencyLimiter#getState(java.lang.String)
+	 */
+	@Override
+	public Optional<TargetState> getState(String target) {
+		return Optional.ofNullable(limits.get(target));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ConcurrencyLimiter#getStates()
+	 */
+	@Override
+	public List<TargetState> getStates() {
+		return new ArrayList<>(limits.values());
+	}
+
+	/**
+	 * Checks whether given response status code signals an overload of the target.
+	 * @param statusCode Response status code
+	 * @return <code>true</code> for the <code>429</code>, <code>503</code> and <code>504</code> status codes
+	 */
+	private static boolean isOverloaded(int statusCode) {
+		return statusCode == 429 || statusCode == 503 || statusCode == 504;
+	}
+
+	/**
+	 * Checks whether given response has no message entity which is expected to be read, either because of its status
+	 * code or headers, or because no response payload type was requested.
+	 * @param response The response
+	 * @return <code>true</code> if the response has no message entity to read
+	 */
+	private static boolean hasNoBody(ReactiveResponseEntity<?> response) {
+		final int statusCode = response.getStatusCode();
+		if (statusCode < 200 || statusCode == 204 || statusCode == 304) {
+			return true;
+		}
+		if (response.getHeaderValue(HttpHeaders.CONTENT_LENGTH).map(String::trim).filter("0"::equals).isPresent()) {
+			return true;
+		}
+		try {
+			final Class<?> type = response.getPayloadType();
+			return type == Void.class || type == void.class;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	private Limit getOrCreate(String target) {
+		final Limit limit = limits.get(target);
+		return (limit != null) ? limit : limits.computeIfAbsent(target, Limit::new);
+	}
+
+	/**
+	 * The limit of a target.
+	 */
+	private final class Limit implements TargetState {
+
+		private final String target;
+
+		private final AtomicInteger limit = new AtomicInteger(initialLimit);
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger successes = new AtomicInteger();
+
+		private final AtomicLong minRtt = new AtomicLong(Long.MAX_VALUE);
+		private final AtomicInteger samples = new AtomicInteger();
+		private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+		private final ConcurrentLinkedQueue<Waiter> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger queued = new AtomicInteger();
+		private final LongAdder rejected = new LongAdder();
+
+		Limit(String target) {
+			super();
+			this.target = target;
+		}
+
+		/**
+		 * Acquire an exchange permit, waiting in the queue if the limit is reached.
+		 * @return The permit
+		 */
+		Mono<Permit> acquire() {
+			final Mono<Permit> permit = Mono.<Permit>create(sink -> {
+				if (tryAcquire()) {
+					sink.success(new Permit(this));
+					return;
+				}
+				if (maxQueueSize == 0 || queued.incrementAndGet() > maxQueueSize) {
+					if (maxQueueSize > 0) {
+						queued.decrementAndGet();
+					}
+					rejected.increment();
+					sink.error(new RequestRejectedException(target,
+							"Concurrency limit [" + limit.get() + "] reached for target [" + target + "]"));
+					return;
+				}
+				final Waiter waiter = new Waiter(sink);
+				sink.onCancel(() -> {
+					if (waiter.cancel()) {
+						queued.decrementAndGet();
+					}
+				});
+				queue.offer(waiter);
+				// a permit may have been released meanwhile
+				drain();
+			});
+			// a permit granted after the queue timeout or the cancellation is released
+			return permit.timeout(maxQueueTime, Mono.defer(() -> {
+				rejected.increment();
+				return Mono.error(new RequestRejectedException(target, "Concurrency limit queue time ["
+						+ maxQueueTime + "] elapsed for target [" + target + "]", new TimeoutException()));
+			})).doOnDiscard(Permit.class, Permit::cancel);
+		}
+
+		/**
+		 * Try to acquire a permit without waiting.
+		 * @return <code>true</code> if acquired
+		 */
+		private boolean tryAcquire() {
+			int current;
+			do {
+				current = inFlight.get();
+				if (current >= limit.get()) {
+					return false;
+				}
+			} while (!inFlight.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		/**
+		 * Grant the available permits to the queued invocations.
+		 */
+		void drain() {
+			while (!queue.isEmpty() && tryAcquire()) {
+				final Waiter waiter = queue.poll();
+				if (waiter != null && waiter.grant(new Permit(this))) {
+					queued.decrementAndGet();
+				} else {
+					inFlight.decrementAndGet();
+				}
+			}
+		}
+
+		/**
+		 * Release a permit.
+		 */
+		void release() {
+			inFlight.decrementAndGet();
+			drain();
+		}
+
+		/**
+		 * Adjust the limit using an exchange sample.
+		 * @param rtt Exchange RTT in nanoseconds
+		 * @param dropped Whether the exchange failed or the target signaled an overload
+		 */
+		void sample(long rtt, boolean dropped) {
+			if (samples.incrementAndGet() % RTT_WINDOW == 0) {
+				minRtt.set(rtt);
+			} else {
+				minRtt.accumulateAndGet(rtt, Math::min);
+			}
+			final long now = System.nanoTime();
+			final int current = limit.get();
+			if (dropped || rtt > minRtt.get() * rttTolerance) {
+				// multiplicative decrease, at most once per RTT
+				final long last = lastDecrease.get();
+				if (now - last >= rtt && lastDecrease.compareAndSet(last, now)) {
+					final int decreased = Math.max(minLimit, (int) (current * backoffRatio));
+					if (decreased < current && limit.compareAndSet(current, decreased)) {
+						successes.set(0);
+						LOGGER.debug(() -> "Concurrency limit of target [" + target + "] decreased to " + decreased);
+					}
+				}
+			} else if (inFlight.get() * 2 >= current && successes.incrementAndGet() >= current) {
+				// additive increase, once per window of limit successful samples, only if the limit is actually used
+				successes.set(0);
+				if (current < maxLimit) {
+					limit.compareAndSet(current, current + 1);
+				}
+			}
+		}
+
+		@Override
+		public String getTarget() {
+			return target;
+		}
+
+		@Override
+		public int getLimit() {
+			return limit.get();
+		}
+
+		@Override
+		public int getInFlight() {
+			return inFlight.get();
+		}
+
+		@Override
+		public int getQueued() {
+			return queued.get();
+		}
+
+		@Override
+		public Duration getMinRtt() {
+			final long rtt = minRtt.get();
+			return (rtt == Long.MAX_VALUE) ? Duration.ZERO : Duration.ofNanos(rtt);
+		}
+
+		@Override
+		public long getRejectedCount() {
+			return rejected.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "TargetState [target=" + target + ", limit=" + getLimit() + ", inFlight=" + getInFlight()
+					+ ", queued=" + getQueued() + ", minRtt=" + getMinRtt() + ", rejected=" + getRejectedCount() + "]";
+		}
+
+	}
+
+	/**
+	 * A queued invocation.
+	 */
+	private static final class Waiter {
+
+		private final MonoSink<Permit> sink;
+		private final AtomicBoolean done = new AtomicBoolean(false);
+
+		Waiter(MonoSink<Permit> sink) {
+			super();
+			this.sink = sink;
+		}
+
+		/**
+		 * Grant a permit to the waiting invocation.
+		 * @param permit The permit
+		 * @return <code>false</code> if the invocation was cancelled
+		 */
+		boolean grant(Permit permit) {
+			if (done.compareAndSet(false, true)) {
+				sink.success(permit);
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Cancel the waiting invocation.
+		 * @return <code>false</code> if a permit was already granted
+		 */
+		boolean cancel() {
+			return done.compareAndSet(false, true);
+		}
+
+	}
+
+	/**
+	 * An exchange permit, sampled and released only once.
+	 */
+	private static final class Permit {
+
+		private final Limit limit;
+		private final long start = System.nanoTime();
+		private final AtomicBoolean sampled = new AtomicBoolean(false);
+		private final AtomicBoolean released = new AtomicBoolean(false);
+
+		private volatile boolean bound = false;
+
+		Permit(Limit limit) {
+			super();
+			this.limit = limit;
+		}
+
+		/**
+		 * Sample the exchange RTT when the response headers are received or the exchange fails.
+		 * @param dropped Whether the exchange failed or the target signaled an overload
+		 */
+		void sample(boolean dropped) {
+			if (sampled.compareAndSet(false, true)) {
+				limit.sample(System.nanoTime() - start, dropped);
+			}
+		}
+
+		/**
+		 * Bind the permit release to the termination of the response body read.
+		 * @param <T> Response type
+		 * @param response The response
+		 * @return The response which releases the permit when the body read terminates
+		 */
+		<T> ReactiveResponseEntity<T> bind(ReactiveResponseEntity<T> response) {
+			bound = true;
+			return response.doOnBodyTermination(this::release);
+		}
+
+		/**
+		 * Release the permit, if not already released.
+		 */
+		void release() {
+			if (released.compareAndSet(false, true)) {
+				limit.release();
+			}
+		}
+
+		/**
+		 * Release the permit when the exchange is cancelled, fails or completes without a response, or when the
+		 * permit is discarded. Does nothing if the permit is bound to a response body.
+		 */
+		void cancel() {
+			if (!bound) {
+				release();
+			}
+		}
+
+	}
+
+	/**
+	 * Default {@link ConcurrencyLimiter.Builder}.
+	 */
+	public static class DefaultBuilder implements ConcurrencyLimiter.Builder {
+
+		private int initialLimit = 20;
+		private int minLimit = 1;
+		private int maxLimit = 200;
+		private double backoffRatio = 0.9d;
+		private double rttTolerance = 2d;
+		private int maxQueueSize = 100;
+		private Duration maxQueueTime = Duration.ofSeconds(5);
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ConcurrencyLimiter.Builder#initialLimit(int)
+		 */
+		@Override
+		public ConcurrencyLimiter.Builder initialLimit(int initialLimit) {
+			this.initialLimit = initialLimit;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ConcurrencyLimiter.Builder#limitBounds(int, int)
+		 */
+		@Override
+		public ConcurrencyLimiter.Builder limitBounds(int minLimit, int maxLimit) {
+			this.minLimit = minLimit;
+			this.maxLimit = maxLimit;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ConcurrencyLimiter.Builder#backoffRatio(double)
+		 */
+		@Override
+		public ConcurrencyLimiter.Builder backoffRatio(double backoffRatio) {
+			this.backoffRatio = backoffRatio;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ConcurrencyLimiter.Builder#rttTolerance(double)
+		 */
+		@Override
+		public ConcurrencyLimiter.Builder rttTolerance(double rttTolerance) {
+			this.rttTolerance = rttTolerance;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ConcurrencyLimiter.Builder#maxQueueSize(int)
+		 */
+		@Override
+		public ConcurrencyLimiter.Builder maxQueueSize(int maxQueueSize) {
+			this.maxQueueSize = maxQueueSize;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ConcurrencyLimiter.Builder#maxQueueTime(java.time.Duration)
+		 */
+		@Override
+		public ConcurrencyLimiter.Builder maxQueueTime(Duration maxQueueTime) {
+			this.maxQueueTime = maxQueueTime;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ConcurrencyLimiter.Builder#build()
+		 */
+		@Override
+		public ConcurrencyLimiter build() {
+			return new DefaultConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, rttTolerance,
+					maxQueueSize, maxQueueTime);
+		}
+
+	}
+
+}
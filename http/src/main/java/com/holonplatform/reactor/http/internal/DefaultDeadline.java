@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.Deadline;
+
+/**
+ * Default {@link Deadline} implementation, based on {@link System#nanoTime()}.
+ *
+ * @since 6.0.3
+ */
+public class DefaultDeadline implements Deadline {
+
+	/**
+	 * Expiration time, in {@link System#nanoTime()} units
+	 */
+	private final long expiration;
+
+	/**
+	 * Constructor.
+	 * @param expiration Expiration time, in {@link System#nanoTime()} units
+	 */
+	public DefaultDeadline(long expiration) {
+		super();
+		this.expiration = expiration;
+	}
+
+	/**
+	 * Create a deadline which expires after given time from now.
+	 * @param timeout The time to the deadline expiration (not null)
+	 * @return A new {@link Deadline}
+	 */
+	public static Deadline after(Duration timeout) {
+		return new DefaultDeadline(System.nanoTime() + validate(timeout).toNanos());
+	}
+
+	/**
+	 * Checks that given deadline timeout is not null nor negative.
+	 * @param timeout The timeout to check
+	 * @return The timeout
+	 * @throws IllegalArgumentException If the timeout is null or negative
+	 */
+	public static Duration validate(Duration timeout) {
+		ObjectUtils.argumentNotNull(timeout, "Deadline timeout must be not null");
+		if (timeout.isNegative()) {
+			throw new IllegalArgumentException("Deadline timeout must be not negative");
+		}
+		return timeout;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Deadline#getRemaining()
+	 */
+	@Override
+	public Duration getRemaining() {
+		final long remaining = expiration - System.nanoTime();
+		return (remaining > 0) ? Duration.ofNanos(remaining) : Duration.ZERO;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Deadline#isExpired()
+	 */
+	@Override
+	public boolean isExpired() {
+		return expiration - System.nanoTime() <= 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Deadline#isBefore(com.holonplatform.reactor.http.Deadline)
+	 */
+	@Override
+	public boolean isBefore(Deadline other) {
+		ObjectUtils.argumentNotNull(other, "Deadline must be not null");
+		if (other instanceof DefaultDeadline) {
+			// overflow-safe comparison of nanoTime values
+			return expiration - ((DefaultDeadline) other).expiration < 0;
+		}
+		return getRemaining().compareTo(other.getRemaining()) < 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Deadline [remaining=" + getRemaining() + "]";
+	}
+
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.EventStream;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.RequestTimeoutException;
+import com.holonplatform.reactor.http.RequestTimeoutException.Phase;
+import com.holonplatform.reactor.http.ServerSentEvent;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Default {@link EventStream} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultEventStream implements EventStream {
+
+	/**
+	 * Signals the normal end of a connection, to reconnect through the retry operator
+	 */
+	private static final EndOfStream END_OF_STREAM = new EndOfStream();
+
+	private final boolean reconnect;
+	private final Duration minDelay;
+	private final Duration maxDelay;
+	private final long maxReconnectAttempts;
+	private final String lastEventId;
+	private final int bufferSize;
+	private final BufferOverflowStrategy overflowStrategy;
+
+	/**
+	 * Constructor.
+	 * @param reconnect Whether to reconnect
+	 * @param minDelay Reconnection min delay (not null)
+	 * @param maxDelay Reconnection max delay (not null, not lower than the min delay)
+	 * @param maxReconnectAttempts Max consecutive reconnection attempts (not negative)
+	 * @param lastEventId Initial last event id, may be null
+	 * @param bufferSize Events buffer size (greater than 0)
+	 * @param overflowStrategy Buffer overflow strategy (not null)
+	 */
+	public DefaultEventStream(boolean reconnect, Duration minDelay, Duration maxDelay, long maxReconnectAttempts,
+			String lastEventId, int bufferSize, BufferOverflowStrategy overflowStrategy) {
+		super();
+		ObjectUtils.argumentNotNull(minDelay, "Min delay must be not null");
+		ObjectUtils.argumentNotNull(maxDelay, "Max delay must be not null");
+		ObjectUtils.argumentNotNull(overflowStrategy, "Overflow strategy must be not null");
+		if (minDelay.isNegative() || maxDelay.compareTo(minDelay) < 0) {
+			throw new IllegalArgumentException("Invalid reconnection delays: [" + minDelay + "," + maxDelay + "]");
+		}
+		if (maxReconnectAttempts < 0) {
+			throw new IllegalArgumentException("Max reconnection attempts must be not negative");
+		}
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("Buffer size must be greater than 0");
+		}
+		this.reconnect = reconnect;
+		this.minDelay = minDelay;
+		this.maxDelay = maxDelay;
+		this.maxReconnectAttempts = maxReconnectAttempts;
+		this.lastEventId = lastEventId;
+		this.bufferSize = bufferSize;
+		this.overflowStrategy = overflowStrategy;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#isReconnect()
+	 */
+	@Override
+	public boolean isReconnect() {
+		return reconnect;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#getMinDelay()
+	 */
+	@Override
+	public Duration getMinDelay() {
+		return minDelay;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#getMaxDelay()
+	 */
+	@Override
+	public Duration getMaxDelay() {
+		return maxDelay;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#getMaxReconnectAttempts()
+	 */
+	@Override
+	public long getMaxReconnectAttempts() {
+		return maxReconnectAttempts;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#getBufferSize()
+	 */
+	@Override
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#getOverflowStrategy()
+	 */
+	@Override
+	public BufferOverflowStrategy getOverflowStrategy() {
+		return overflowStrategy;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#getLastEventId()
+	 */
+	@Override
+	public Optional<String> getLastEventId() {
+		return Optional.ofNullable(lastEventId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.EventStream#execute(java.util.function.Function,
+	 * com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <T> Flux<ServerSentEvent<T>> execute(
+			Function<String, Mono<? extends ReactiveResponseEntity<?>>> connection, ResponseType<T> dataType) {
+		ObjectUtils.argumentNotNull(connection, "Connection function must be not null");
+		ObjectUtils.argumentNotNull(dataType, "Event data type must be not null");
+		return Flux.defer(() -> {
+			// state of a single subscription, the connections are sequential
+			final StreamState state = new StreamState(lastEventId);
+			final Flux<ServerSentEvent<T>> connected = Mono
+					.<ReactiveResponseEntity<?>>defer(() -> connection.apply(state.lastEventId))
+					.flatMapMany(response -> read(response, dataType, state)).doOnNext(state::received);
+			if (!reconnect) {
+				return connected;
+			}
+			return connected.concatWith(Mono.error(END_OF_STREAM))
+					.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+						final Throwable failure = signal.failure();
+						if (state.completed || state.attempts >= maxReconnectAttempts
+								|| !isReconnectable(failure, state)) {
+							return Mono.<Long>error(failure);
+						}
+						return Mono.delay(state.nextDelay(minDelay, maxDelay));
+					}))).onErrorResume(
+						error -> (error == END_OF_STREAM) ? Flux.<ServerSentEvent<T>>empty() : Flux.error(error));
+		}).filter(DefaultEventStream::isEvent).onBackpressureBuffer(bufferSize, event -> {
+			// dropped according to the overflow strategy
+		}, overflowStrategy);
+	}
+
+	/**
+	 * Read the events of a connection response.
+	 * @param <T> Event data type
+	 * @param response The connection response
+	 * @param dataType The event data type
+	 * @param state The stream state
+	 * @return The response events
+	 */
+	private static <T> Flux<ServerSentEvent<T>> read(ReactiveResponseEntity<?> response, ResponseType<T> dataType,
+			StreamState state) {
+		final int status = response.getStatusCode();
+		state.status = status;
+		if (status == 204) {
+			// the server requested to stop reconnecting
+			state.completed = true;
+			return response.releaseBody().thenMany(Flux.empty());
+		}
+		if (status < 200 || status > 299) {
+			return response.releaseBody().thenMany(Flux.error(new UnsuccessfulResponseException(response)));
+		}
+		return response.asEvents(dataType);
+	}
+
+	/**
+	 * Checks whether the stream can be resumed after given failure: after the normal end of the stream, after an I/O
+	 * error or a timeout, and after a <code>5xx</code> response.
+	 * @param failure The connection failure
+	 * @param state The stream state
+	 * @return <code>true</code> if a reconnection can be attempted
+	 */
+	private static boolean isReconnectable(Throwable failure, StreamState state) {
+		if (failure == END_OF_STREAM) {
+			return true;
+		}
+		if (failure instanceof UnsuccessfulResponseException) {
+			return state.status >= 500;
+		}
+		Throwable error = failure;
+		while (error != null) {
+			if (error instanceof RequestTimeoutException) {
+				return ((RequestTimeoutException) error).getPhase() != Phase.DEADLINE;
+			}
+			if (error instanceof IOException || error instanceof TimeoutException) {
+				return true;
+			}
+			error = (error.getCause() != error) ? error.getCause() : null;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether given event is not a comment only event, for example a keep-alive.
+	 * @param event The event
+	 * @return <code>true</code> if the event has an id, a name or data
+	 */
+	private static boolean isEvent(ServerSentEvent<?> event) {
+		return event.getData().isPresent() || event.getId().isPresent() || event.getEvent().isPresent();
+	}
+
+	/**
+	 * The state of an event stream subscription.
+	 */
+	private static final class StreamState {
+
+		volatile String lastEventId;
+		volatile Duration retry;
+		volatile long attempts;
+		volatile int status;
+		volatile boolean completed;
+
+		StreamState(String lastEventId) {
+			super();
+			this.lastEventId = lastEventId;
+		}
+
+		void received(ServerSentEvent<?> event) {
+			event.getId().ifPresent(id -> lastEventId = id);
+			event.getRetry().ifPresent(time -> retry = time);
+			attempts = 0;
+		}
+
+		Duration nextDelay(Duration minDelay, Duration maxDelay) {
+			final Duration base = (retry != null) ? retry : minDelay;
+			final Duration max = (base.compareTo(maxDelay) > 0) ? base : maxDelay;
+			final long shift = Math.min(attempts++, 20);
+			final long delay = base.toMillis() << shift;
+			return (delay < 0 || delay > max.toMillis()) ? max : Duration.ofMillis(delay);
+		}
+
+	}
+
+	/**
+	 * Signals the normal end of a connection.
+	 */
+	private static final class EndOfStream extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		EndOfStream() {
+			super("End of stream", null, false, false);
+		}
+
+	}
+
+	/**
+	 * Default {@link EventStream.Builder} implementation.
+	 */
+	public static class DefaultBuilder implements EventStream.Builder {
+
+		private boolean reconnect = true;
+		private Duration minDelay = DEFAULT_MIN_DELAY;
+		private Duration maxDelay = DEFAULT_MAX_DELAY;
+		private long maxReconnectAttempts = Long.MAX_VALUE;
+		private String lastEventId;
+		private int bufferSize = DEFAULT_BUFFER_SIZE;
+		private BufferOverflowStrategy overflowStrategy = BufferOverflowStrategy.ERROR;
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.EventStream.Builder#reconnect(boolean)
+		 */
+		@Override
+		public EventStream.Builder reconnect(boolean reconnect) {
+			this.reconnect = reconnect;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.EventStream.Builder#backoff(java.time.Duration, java.time.Duration)
+		 */
+		@Override
+		public EventStream.Builder backoff(Duration minDelay, Duration maxDelay) {
+			this.minDelay = minDelay;
+			this.maxDelay = maxDelay;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.EventStream.Builder#maxReconnectAttempts(long)
+		 */
+		@Override
+		public EventStream.Builder maxReconnectAttempts(long maxReconnectAttempts) {
+			this.maxReconnectAttempts = maxReconnectAttempts;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.EventStream.Builder#lastEventId(java.lang.String)
+		 */
+		@Override
+		public EventStream.Builder lastEventId(String lastEventId) {
+			this.lastEventId = lastEventId;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.EventStream.Builder#bufferSize(int)
+		 */
+		@Override
+		public EventStream.Builder bufferSize(int bufferSize) {
+			this.bufferSize = bufferSize;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.EventStream.Builder#overflowStrategy(reactor.core.publisher.
+		 * BufferOverflowStrategy)
+		 */
+		@Override
+		public EventStream.Builder overflowStrategy(BufferOverflowStrategy overflowStrategy) {
+			this.overflowStrategy = overflowStrategy;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.EventStream.Builder#build()
+		 */
+		@Override
+		public EventStream build() {
+			return new DefaultEventStream(reconnect, minDelay, maxDelay, maxReconnectAttempts, lastEventId, bufferSize,
+					overflowStrategy);
+		}
+
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.FileRequestEntity;
+
+/**
+ * Default {@link FileRequestEntity} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultFileRequestEntity implements FileRequestEntity {
+
+	private final String mediaType;
+	private final Path file;
+	private final long position;
+	private final long count;
+	private final String fileName;
+
+	/**
+	 * Constructor.
+	 * @param mediaType Media type
+	 * @param file File path (not null)
+	 * @param position Transfer start position (not negative)
+	 * @param count Bytes to transfer, a negative value to transfer up to the end of the file
+	 * @param fileName File name, if <code>null</code> the file path name is used
+	 */
+	public DefaultFileRequestEntity(String mediaType, Path file, long position, long count, String fileName) {
+		super();
+		ObjectUtils.argumentNotNull(file, "File must be not null");
+		if (position < 0) {
+			throw new IllegalArgumentException("File position must be not negative");
+		}
+		this.mediaType = mediaType;
+		this.file = file;
+		this.position = position;
+		this.count = count;
+		this.fileName = (fileName != null) ? fileName
+				: ((file.getFileName() != null) ? file.getFileName().toString() : null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.RequestEntity#getMediaType()
+	 */
+	@Override
+	public Optional<String> getMediaType() {
+		return Optional.ofNullable(mediaType);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.RequestEntity#getPayload()
+	 */
+	@Override
+	public Optional<Path> getPayload() {
+		return Optional.of(file);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.FileRequestEntity#getFile()
+	 */
+	@Override
+	public Path getFile() {
+		return file;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.FileRequestEntity#getPosition()
+	 */
+	@Override
+	public long getPosition() {
+		return position;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.FileRequestEntity#getCount()
+	 */
+	@Override
+	public OptionalLong getCount() {
+		return (count < 0) ? OptionalLong.empty() : OptionalLong.of(count);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.FileRequestEntity#getFileName()
+	 */
+	@Override
+	public Optional<String> getFileName() {
+		return Optional.ofNullable(fileName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DefaultFileRequestEntity [mediaType=" + mediaType + ", file=" + file + ", position=" + position
+				+ ", count=" + count + "]";
+	}
+
+}
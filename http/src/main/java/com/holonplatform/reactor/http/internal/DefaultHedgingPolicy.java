@@ -0,0 +1,413 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.holonplatform.core.internal.Logger;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.internal.HttpLogger;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.reactor.http.HedgingPolicy;
+import com.holonplatform.reactor.http.LatencyHistogram;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Default {@link HedgingPolicy} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultHedgingPolicy implements HedgingPolicy {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = HttpLogger.create();
+
+	/**
+	 * Budget tokens fixed point scale
+	 */
+	private static final long TOKEN = 1000L;
+
+	private final long delay;
+	private final double percentile;
+	private final long minDelay;
+	private final int minSamples;
+	private final int maxHedges;
+	private final long tokensPerInvocation;
+	private final long maxTokens;
+
+	private final AtomicLong tokens;
+
+	private final LatencyHistogram latencies = new DefaultLatencyHistogram();
+
+	private final LongAdder invocations = new LongAdder();
+	private final LongAdder hedges = new LongAdder();
+	private final LongAdder hedgeWins = new LongAdder();
+	private final LongAdder budgetExhausted = new LongAdder();
+
+	/**
+	 * Constructor.
+	 * @param delay Fixed hedging delay (not null)
+	 * @param percentile Latency percentile to use as hedging delay, <code>0</code> to use only the fixed delay
+	 * @param minDelay Minimum hedging delay when the percentile is used (not null)
+	 * @param minSamples Minimum latency samples to use the percentile
+	 * @param maxHedges Maximum hedged attempts for each invocation
+	 * @param budgetRatio Hedging budget ratio
+	 * @param maxBurst Hedging budget max tokens
+	 */
+	public DefaultHedgingPolicy(Duration delay, double percentile, Duration minDelay, int minSamples, int maxHedges,
+			double budgetRatio, int maxBurst) {
+		super();
+		ObjectUtils.argumentNotNull(delay, "Hedging delay must be not null");
+		ObjectUtils.argumentNotNull(minDelay, "Minimum hedging delay must be not null");
+		if (delay.isNegative() || minDelay.isNegative()) {
+			throw new IllegalArgumentException("Hedging delay must be not negative");
+		}
+		if (percentile < 0 || percentile >= 100) {
+			throw new IllegalArgumentException("Hedging percentile must be between 0 and 100: " + percentile);
+		}
+		if (maxHedges < 1) {
+			throw new IllegalArgumentException("Max hedges must be greater than 0");
+		}
+		if (budgetRatio < 0 || budgetRatio > 1) {
+			throw new IllegalArgumentException("Hedging budget ratio must be between 0 and 1: " + budgetRatio);
+		}
+		if (maxBurst < 1) {
+			throw new IllegalArgumentException("Hedging budget max burst must be greater than 0");
+		}
+		this.delay = delay.toNanos();
+		this.percentile = percentile;
+		this.minDelay = minDelay.toNanos();
+		this.minSamples = Math.max(1, minSamples);
+		this.maxHedges = maxHedges;
+		this.tokensPerInvocation = (long) (budgetRatio * TOKEN);
+		this.maxTokens = maxBurst * TOKEN;
+		this.tokens = new AtomicLong(maxTokens);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#isHedgeable(com.holonplatform.http.HttpMethod,
+	 * com.holonplatform.http.rest.RequestEntity)
+	 */
+	@Override
+	public boolean isHedgeable(HttpMethod method, RequestEntity<?> requestEntity) {
+		if (requestEntity != null && requestEntity.getPayload().isPresent()) {
+			return false;
+		}
+		return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#execute(java.util.function.Supplier)
+	 */
+	@Override
+	public <T> Mono<ReactiveResponseEntity<T>> execute(Supplier<Mono<ReactiveResponseEntity<T>>> invocation) {
+		ObjectUtils.argumentNotNull(invocation, "Invocation must be not null");
+		return Mono.defer(() -> {
+			invocations.increment();
+			deposit();
+
+			final Duration hedgingDelay = getCurrentDelay();
+			final long start = System.nanoTime();
+			// the last unsuccessful attempt, returned if no attempt succeeds
+			final AtomicReference<Attempt<T>> lastFailure = new AtomicReference<>();
+
+			final List<Mono<Attempt<T>>> attempts = new ArrayList<>(maxHedges + 1);
+			attempts.add(attempt(0, invocation).doOnNext(a -> latencies.record(System.nanoTime() - start))
+					.doOnCancel(() -> {
+						// the actual latency of a cancelled primary attempt is unknown: if it outlived the hedging
+						// delay the elapsed time is recorded as a lower bound, otherwise the sample is skipped, so that
+						// early cancellations do not shrink the delay
+						final long elapsed = System.nanoTime() - start;
+						if (elapsed >= hedgingDelay.toNanos()) {
+							latencies.record(elapsed);
+						}
+					}));
+			for (int i = 1; i <= maxHedges; i++) {
+				final int index = i;
+				attempts.add(Mono.delay(hedgingDelay.multipliedBy(i)).filter(t -> acquire()).flatMap(t -> {
+					hedges.increment();
+					LOGGER.debug(() -> "Hedging: issuing hedged attempt " + index + " after " + hedgingDelay);
+					return attempt(index, invocation);
+				}));
+			}
+
+			return Flux.merge(attempts).filter(attempt -> {
+				if (attempt.isSuccessful()) {
+					return true;
+				}
+				attempt.retained = true;
+				final Attempt<T> previous = lastFailure.getAndSet(attempt);
+				if (previous != null) {
+					previous.release();
+				}
+				return false;
+			}).next().doOnDiscard(Attempt.class, Attempt::discard).flatMap(winner -> {
+				if (winner.index > 0) {
+					hedgeWins.increment();
+				}
+				final Attempt<T> failure = lastFailure.getAndSet(null);
+				if (failure != null) {
+					failure.release();
+				}
+				return winner.asMono();
+			}).switchIfEmpty(Mono.defer(() -> {
+				final Attempt<T> failure = lastFailure.getAndSet(null);
+				return (failure != null) ? failure.asMono() : Mono.empty();
+			}));
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#getCurrentDelay()
+	 */
+	@Override
+	public Duration getCurrentDelay() {
+		if (percentile > 0 && latencies.getCount() >= minSamples) {
+			return Duration.ofNanos(Math.max(minDelay, latencies.getPercentile(percentile).toNanos()));
+		}
+		return Duration.ofNanos(delay);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#getLatencies()
+	 */
+	@Override
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#getInvocationCount()
+	 */
+	@Override
+	public long getInvocationCount() {
+		return invocations.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#getHedgeCount()
+	 */
+	@Override
+	public long getHedgeCount() {
+		return hedges.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#getHedgeWinCount()
+	 */
+	@Override
+	public long getHedgeWinCount() {
+		return hedgeWins.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.HedgingPolicy#getBudgetExhaustedCount()
+	 */
+	@Override
+	public long getBudgetExhaustedCount() {
+		return budgetExhausted.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "HedgingPolicy [invocations=" + getInvocationCount() + ", hedges=" + getHedgeCount() + ", hedgeWins="
+				+ getHedgeWinCount() + ", budgetExhausted=" + getBudgetExhaustedCount() + ", currentDelay="
+				+ getCurrentDelay() + "]";
+	}
+
+	/**
+	 * Add the tokens of an invocation to the hedging budget.
+	 */
+	private void deposit() {
+		long current;
+		do {
+			current = tokens.get();
+			if (current >= maxTokens) {
+				return;
+			}
+		} while (!tokens.compareAndSet(current, Math.min(maxTokens, current + tokensPerInvocation)));
+	}
+
+	/**
+	 * Try to consume a token of the hedging budget.
+	 * @return <code>true</code> if a token was available
+	 */
+	private boolean acquire() {
+		long current;
+		do {
+			current = tokens.get();
+			if (current < TOKEN) {
+				budgetExhausted.increment();
+				return false;
+			}
+		} while (!tokens.compareAndSet(current, current - TOKEN));
+		return true;
+	}
+
+	/**
+	 * Perform an attempt, materializing its outcome.
+	 * @param <T> Response type
+	 * @param index Attempt index, <code>0</code> for the primary attempt
+	 * @param invocation Invocation supplier
+	 * @return The attempt outcome
+	 */
+	private static <T> Mono<Attempt<T>> attempt(int index, Supplier<Mono<ReactiveResponseEntity<T>>> invocation) {
+		return Mono.defer(invocation).map(response -> new Attempt<>(index, response, null))
+				.onErrorResume(error -> Mono.just(new Attempt<>(index, null, error)));
+	}
+
+	/**
+	 * The outcome of an attempt.
+	 * @param <T> Response type
+	 */
+	private static final class Attempt<T> {
+
+		final int index;
+		final ReactiveResponseEntity<T> response;
+		final Throwable error;
+		volatile boolean retained;
+
+		Attempt(int index, ReactiveResponseEntity<T> response, Throwable error) {
+			super();
+			this.index = index;
+			this.response = response;
+			this.error = error;
+		}
+
+		boolean isSuccessful() {
+			return response != null && response.getStatusCode() < 500;
+		}
+
+		Mono<ReactiveResponseEntity<T>> asMono() {
+			return (response != null) ? Mono.just(response) : Mono.error(error);
+		}
+
+		/**
+		 * Release the response of an attempt discarded by the operators, unless it is retained as fallback outcome.
+		 */
+		void discard() {
+			if (!retained) {
+				release();
+			}
+		}
+
+		/**
+		 * Release the response message entity, if any.
+		 */
+		void release() {
+			if (response != null) {
+				response.releaseBody().onErrorResume(e -> Mono.empty()).subscribe();
+			}
+		}
+
+	}
+
+	/**
+	 * Default {@link HedgingPolicy.Builder}.
+	 */
+	public static class DefaultBuilder implements HedgingPolicy.Builder {
+
+		private Duration delay = DEFAULT_DELAY;
+		private double percentile = 0;
+		private Duration minDelay = Duration.ZERO;
+		private int minSamples = 0;
+		private int maxHedges = 1;
+		private double budgetRatio = DEFAULT_BUDGET_RATIO;
+		private int maxBurst = 10;
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.HedgingPolicy.Builder#delay(java.time.Duration)
+		 */
+		@Override
+		public HedgingPolicy.Builder delay(Duration delay) {
+			this.delay = delay;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.HedgingPolicy.Builder#percentile(double, java.time.Duration, int)
+		 */
+		@Override
+		public HedgingPolicy.Builder percentile(double percentile, Duration minDelay, int minSamples) {
+			if (percentile <= 0) {
+				throw new IllegalArgumentException("Hedging percentile must be greater than 0");
+			}
+			this.percentile = percentile;
+			this.minDelay = minDelay;
+			this.minSamples = minSamples;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.HedgingPolicy.Builder#maxHedges(int)
+		 */
+		@Override
+		public HedgingPolicy.Builder maxHedges(int maxHedges) {
+			this.maxHedges = maxHedges;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.HedgingPolicy.Builder#budget(double, int)
+		 */
+		@Override
+		public HedgingPolicy.Builder budget(double ratio, int maxBurst) {
+			this.budgetRatio = ratio;
+			this.maxBurst = maxBurst;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.HedgingPolicy.Builder#build()
+		 */
+		@Override
+		public HedgingPolicy build() {
+			return new DefaultHedgingPolicy(delay, percentile, minDelay, minSamples, maxHedges, budgetRatio,
+					maxBurst);
+		}
+
+	}
+
+}
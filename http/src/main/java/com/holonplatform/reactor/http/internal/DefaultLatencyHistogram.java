@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.holonplatform.reactor.http.LatencyHistogram;
+
+/**
+ * Default {@link LatencyHistogram} implementation.
+ * <p>
+ * Each power of two range is split into 8 linear sub-buckets. Values lower than 8 are counted exactly.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class DefaultLatencyHistogram implements LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.LatencyHistogram#record(long)
+	 */
+	@Override
+	public void record(long nanos) {
+		final long value = Math.max(0L, nanos);
+		buckets.incrementAndGet(getBucketIndex(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.LatencyHistogram#getCount()
+	 */
+	@Override
+	public long getCount() {
+		return count.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.LatencyHistogram#getMean()
+	 */
+	@Override
+	public Duration getMean() {
+		final long c = count.sum();
+		return (c > 0) ? Duration.ofNanos(sum.sum() / c) : Duration.ZERO;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.LatencyHistogram#getMax()
+	 */
+	@Override
+	public Duration getMax() {
+		return Duration.ofNanos(max.get());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.LatencyHistogram#getPercentile(double)
+	 */
+	@Override
+	public Duration getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+		}
+		// snapshot of the bucket counts, the total is calculated from the snapshot for consistency
+		final long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return Duration.ZERO;
+		}
+		final long rank = Math.max(1L, (long) Math.ceil((percentile / 100d) * total));
+		long cumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulated += snapshot[i];
+			if (cumulated >= rank) {
+				return Duration.ofNanos(Math.min(getBucketUpperBound(i), max.get()));
+			}
+		}
+		return getMax();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.LatencyHistogram#reset()
+	 */
+	@Override
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0L);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "LatencyHistogram [count=" + getCount() + ", mean=" + getMean() + ", p50=" + getPercentile(50)
+				+ ", p99=" + getPercentile(99) + ", max=" + getMax() + "]";
+	}
+
+	/**
+	 * Get the index of the bucket which contains given value.
+	 * @param value The value (not negative)
+	 * @return The bucket index
+	 */
+	private static int getBucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+		return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+	}
+
+	/**
+	 * Get the highest value which falls in the bucket with given index.
+	 * @param index Bucket index
+	 * @return The bucket upper bound
+	 */
+	private static long getBucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+		final long subBucket = index & (SUB_BUCKETS - 1);
+		final long lower = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+		return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+}
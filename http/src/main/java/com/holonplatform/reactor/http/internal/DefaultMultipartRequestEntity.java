@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.MultipartRequestEntity;
+
+/**
+ * Default {@link MultipartRequestEntity} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultMultipartRequestEntity implements MultipartRequestEntity {
+
+	private final List<Part> parts;
+
+	/**
+	 * Constructor.
+	 * @param parts The parts (not null)
+	 */
+	public DefaultMultipartRequestEntity(List<Part> parts) {
+		super();
+		ObjectUtils.argumentNotNull(parts, "Parts must be not null");
+		this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.RequestEntity#getMediaType()
+	 */
+	@Override
+	public Optional<String> getMediaType() {
+		return Optional.of(MULTIPART_FORM_DATA);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.RequestEntity#getPayload()
+	 */
+	@Override
+	public Optional<List<Part>> getPayload() {
+		return Optional.of(parts);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.MultipartRequestEntity#getParts()
+	 */
+	@Override
+	public List<Part> getParts() {
+		return parts;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DefaultMultipartRequestEntity [parts=" + parts + "]";
+	}
+
+	/**
+	 * Default {@link Part} implementation.
+	 */
+	private static final class DefaultPart implements Part {
+
+		private final String name;
+		private final Object value;
+		private final String mediaType;
+
+		DefaultPart(String name, Object value, String mediaType) {
+			super();
+			this.name = name;
+			this.value = value;
+			this.mediaType = mediaType;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public Optional<String> getMediaType() {
+			return Optional.ofNullable(mediaType);
+		}
+
+		@Override
+		public String toString() {
+			return "Part [name=" + name + ", mediaType=" + mediaType + ", value=" + value + "]";
+		}
+
+	}
+
+	/**
+	 * Default {@link MultipartRequestEntity.Builder} implementation.
+	 */
+	public static class DefaultBuilder implements MultipartRequestEntity.Builder {
+
+		private final List<Part> parts = new ArrayList<>();
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.MultipartRequestEntity.Builder#part(java.lang.String,
+		 * java.lang.Object)
+		 */
+		@Override
+		public MultipartRequestEntity.Builder part(String name, Object value) {
+			return part(name, value, null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.MultipartRequestEntity.Builder#part(java.lang.String,
+		 * java.lang.Object, java.lang.String)
+		 */
+		@Override
+		public MultipartRequestEntity.Builder part(String name, Object value, String mediaType) {
+			ObjectUtils.argumentNotNull(name, "Part name must be not null");
+			ObjectUtils.argumentNotNull(value, "Part value must be not null");
+			parts.add(new DefaultPart(name, value, mediaType));
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.MultipartRequestEntity.Builder#build()
+		 */
+		@Override
+		public MultipartRequestEntity build() {
+			return new DefaultMultipartRequestEntity(parts);
+		}
+
+	}
+
+}
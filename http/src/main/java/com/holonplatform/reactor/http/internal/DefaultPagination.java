@@ -0,0 +1,213 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.Pagination;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+
+/**
+ * Default {@link Pagination} implementation.
+ *
+ * @param <P> Page payload type
+ * @param <T> Page elements type
+ *
+ * @since 6.0.3
+ */
+public class DefaultPagination<P, T> implements Pagination<P, T> {
+
+	private static final String LINK = "Link";
+
+	private final ResponseType<P> pageType;
+	private final Function<P, List<T>> items;
+	private final Function<Page<P>, Optional<ReactiveRequestDefinition>> next;
+
+	/**
+	 * Constructor.
+	 * @param pageType Page payload type (not null)
+	 * @param items Function to extract the page elements from a page payload (not null)
+	 * @param next Function to obtain the next page request from the current page (not null)
+	 */
+	public DefaultPagination(ResponseType<P> pageType, Function<P, List<T>> items,
+			Function<Page<P>, Optional<ReactiveRequestDefinition>> next) {
+		super();
+		ObjectUtils.argumentNotNull(pageType, "Page type must be not null");
+		ObjectUtils.argumentNotNull(items, "Page items function must be not null");
+		ObjectUtils.argumentNotNull(next, "Next page function must be not null");
+		this.pageType = pageType;
+		this.items = items;
+		this.next = next;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Pagination#getPageType()
+	 */
+	@Override
+	public ResponseType<P> getPageType() {
+		return pageType;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Pagination#getItems(java.lang.Object)
+	 */
+	@Override
+	public List<T> getItems(P page) {
+		final List<T> pageItems = items.apply(page);
+		return (pageItems != null) ? pageItems : Collections.emptyList();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Pagination#getNextPage(com.holonplatform.reactor.http.Pagination.Page)
+	 */
+	@Override
+	public Optional<ReactiveRequestDefinition> getNextPage(Page<P> page) {
+		final Optional<ReactiveRequestDefinition> nextPage = next.apply(page);
+		return (nextPage != null) ? nextPage : Optional.empty();
+	}
+
+	/**
+	 * Create a pagination strategy which follows the <code>rel="next"</code> link of the <code>Link</code> header.
+	 * @param <T> Page elements type
+	 * @param itemType Page elements type
+	 * @return A new {@link Pagination}
+	 */
+	public static <T> Pagination<List<T>, T> links(Class<T> itemType) {
+		ObjectUtils.argumentNotNull(itemType, "Item type must be not null");
+		return new DefaultPagination<>(ResponseType.of(itemType, List.class), Function.identity(),
+				page -> getNextLink(page.getHeader(LINK)).map(uri -> page.next(uri)));
+	}
+
+	/**
+	 * Create a pagination strategy which sends a cursor token as a query parameter.
+	 * @param <P> Page payload type
+	 * @param <T> Page elements type
+	 * @param pageType Page payload type
+	 * @param items Page elements function
+	 * @param cursor Cursor function
+	 * @param cursorParameter Cursor query parameter name
+	 * @return A new {@link Pagination}
+	 */
+	public static <P, T> Pagination<P, T> cursor(Class<P> pageType, Function<P, List<T>> items,
+			Function<P, String> cursor, String cursorParameter) {
+		ObjectUtils.argumentNotNull(pageType, "Page type must be not null");
+		ObjectUtils.argumentNotNull(cursor, "Cursor function must be not null");
+		ObjectUtils.argumentNotNull(cursorParameter, "Cursor parameter name must be not null");
+		return new DefaultPagination<>(ResponseType.of(pageType), items, page -> page.getContent().map(cursor)
+				.filter(c -> !c.isEmpty()).map(c -> page.next().queryParameter(cursorParameter, c)));
+	}
+
+	/**
+	 * Create a pagination strategy which increments an offset query parameter.
+	 * @param <T> Page elements type
+	 * @param itemType Page elements type
+	 * @param offsetParameter Offset query parameter name
+	 * @param pageSize Requested page size
+	 * @return A new {@link Pagination}
+	 */
+	public static <T> Pagination<List<T>, T> offset(Class<T> itemType, String offsetParameter, int pageSize) {
+		ObjectUtils.argumentNotNull(itemType, "Item type must be not null");
+		ObjectUtils.argumentNotNull(offsetParameter, "Offset parameter name must be not null");
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be greater than 0");
+		}
+		return new DefaultPagination<>(ResponseType.of(itemType, List.class), Function.identity(), page -> {
+			if (page.getItemCount() < pageSize) {
+				return Optional.empty();
+			}
+			final long offset = getOffset(page.getRequest(), offsetParameter) + page.getItemCount();
+			return Optional.of(page.next().queryParameter(offsetParameter, offset));
+		});
+	}
+
+	/**
+	 * Get the current value of the offset query parameter.
+	 * @param request The page request
+	 * @param offsetParameter Offset query parameter name
+	 * @return The offset, <code>0</code> if not present
+	 */
+	private static long getOffset(ReactiveRequestDefinition request, String offsetParameter) {
+		final Object[] values = request.getQueryParameters().get(offsetParameter);
+		if (values == null || values.length == 0 || values[0] == null) {
+			return 0L;
+		}
+		try {
+			return Long.parseLong(values[0].toString().trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid offset query parameter [" + offsetParameter + "] value: "
+					+ values[0], e);
+		}
+	}
+
+	/**
+	 * Get the URI of the link with the <code>next</code> relation type from given <code>Link</code> header values.
+	 * @param headers The <code>Link</code> header values
+	 * @return Optional next link URI
+	 */
+	static Optional<URI> getNextLink(List<String> headers) {
+		for (String header : headers) {
+			int start = 0;
+			while ((start = header.indexOf('<', start)) > -1) {
+				final int end = header.indexOf('>', start);
+				if (end < 0) {
+					break;
+				}
+				final int following = header.indexOf('<', end);
+				if (isNextRelation(header.substring(end + 1, (following > -1) ? following : header.length()))) {
+					return Optional.of(URI.create(header.substring(start + 1, end).trim()));
+				}
+				start = end + 1;
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Checks whether given link parameters declare the <code>next</code> relation type.
+	 * @param parameters The link parameters
+	 * @return <code>true</code> if the relation types include <code>next</code>
+	 */
+	private static boolean isNextRelation(String parameters) {
+		for (String parameter : parameters.split(";")) {
+			final int separator = parameter.indexOf('=');
+			if (separator > -1 && "rel".equalsIgnoreCase(parameter.substring(0, separator).trim())) {
+				String relations = parameter.substring(separator + 1).trim();
+				if (relations.endsWith(",")) {
+					relations = relations.substring(0, relations.length() - 1).trim();
+				}
+				if (relations.length() > 1 && relations.startsWith("\"") && relations.endsWith("\"")) {
+					relations = relations.substring(1, relations.length() - 1);
+				}
+				for (String relation : relations.trim().split("\\s+")) {
+					if ("next".equalsIgnoreCase(relation)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.Compression;
+import com.holonplatform.reactor.http.HedgingPolicy;
+import com.holonplatform.reactor.http.PreparedRequest;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.Timeouts;
+
+/**
+ * Default {@link PreparedRequest} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultPreparedRequest implements PreparedRequest {
+
+	private final ReactiveInvoker invoker;
+
+	private final URI baseURI;
+	private final String path;
+	private final Map<String, Object> templateParameters;
+	private final Map<String, Object[]> queryParameters;
+	private final Map<String, String> headers;
+	private final HedgingPolicy hedgingPolicy;
+	private final Compression compression;
+	private final Timeouts timeouts;
+	private final boolean responseCache;
+
+	/**
+	 * Client implementation specific compiled form
+	 */
+	private volatile Object compiled;
+
+	/**
+	 * Constructor.
+	 * @param invoker Invoker to use to invoke the bound requests (not null)
+	 * @param definition Request definition to use as template (not null)
+	 */
+	public DefaultPreparedRequest(ReactiveInvoker invoker, ReactiveRequestDefinition definition) {
+		super();
+		ObjectUtils.argumentNotNull(invoker, "Invoker must be not null");
+		ObjectUtils.argumentNotNull(definition, "Request definition must be not null");
+		this.invoker = invoker;
+		this.baseURI = definition.getBaseRequestURI().orElse(null);
+		this.path = definition.getRequestPath().orElse(null);
+		this.templateParameters = Collections.unmodifiableMap(new LinkedHashMap<>(definition.getTemplateParameters()));
+		this.queryParameters = Collections.unmodifiableMap(new LinkedHashMap<>(definition.getQueryParameters()));
+		this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(definition.getHeaders()));
+		this.hedgingPolicy = definition.getHedgingPolicy().orElse(null);
+		this.compression = definition.getCompression().orElse(null);
+		this.timeouts = definition.getTimeouts().orElse(null);
+		this.responseCache = definition.isResponseCacheEnabled();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.PreparedRequest#getBaseRequestURI()
+	 */
+	@Override
+	public Optional<URI> getBaseRequestURI() {
+		return Optional.ofNullable(baseURI);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.PreparedRequest#getRequestPath()
+	 */
+	@Override
+	public Optional<String> getRequestPath() {
+		return Optional.ofNullable(path);
+	}
+
+	/**
+	 * Get the template parameters resolved in the request template.
+	 * @return The template parameters, as an unmodifiable map
+	 */
+	public Map<String, Object> getTemplateParameters() {
+		return templateParameters;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.PreparedRequest#getQueryParameters()
+	 */
+	@Override
+	public Map<String, Object[]> getQueryParameters() {
+		return queryParameters;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.PreparedRequest#getHeaders()
+	 */
+	@Override
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Get the client implementation specific compiled form of this request.
+	 * @return The compiled form, <code>null</code> if not available
+	 */
+	public Object getCompiled() {
+		return compiled;
+	}
+
+	/**
+	 * Set the client implementation specific compiled form of this request.
+	 * @param compiled The compiled form
+	 */
+	public void setCompiled(Object compiled) {
+		this.compiled = compiled;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.PreparedRequest#bind()
+	 */
+	@Override
+	public ReactiveRequestDefinition bind() {
+		return new BoundReactiveRequestDefinition(invoker, this);
+	}
+
+	/**
+	 * Checks whether given bound definition still has the prepared target and path.
+	 * @param definition The request definition
+	 * @return <code>true</code> if target and path were not changed
+	 */
+	public boolean hasPreparedTarget(ReactiveRequestDefinition definition) {
+		return Objects.equals(baseURI, definition.getBaseRequestURI().orElse(null))
+				&& Objects.equals(path, definition.getRequestPath().orElse(null));
+	}
+
+	/**
+	 * Checks whether given bound definition has exactly the prepared query parameters. The parameter values are
+	 * compared without any conversion.
+	 * @param definition The request definition
+	 * @return <code>true</code> if the query parameters were not changed
+	 */
+	public boolean hasPreparedQueryParameters(ReactiveRequestDefinition definition) {
+		return isSame(queryParameters, definition.getQueryParameters());
+	}
+
+	/**
+	 * Checks whether given bound definition has exactly the prepared headers.
+	 * @param definition The request definition
+	 * @return <code>true</code> if the headers were not changed
+	 */
+	public boolean hasPreparedHeaders(ReactiveRequestDefinition definition) {
+		return isSame(headers, definition.getHeaders());
+	}
+
+	private static <V> boolean isSame(Map<String, V> prepared, Map<String, V> actual) {
+		if (prepared.size() != actual.size()) {
+			return false;
+		}
+		for (Map.Entry<String, V> entry : prepared.entrySet()) {
+			final V value = actual.get(entry.getKey());
+			if (value != entry.getValue() && !Objects.deepEquals(value, entry.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "PreparedRequest [baseURI=" + baseURI + ", path=" + path + "]";
+	}
+
+	/**
+	 * A request definition bound to a {@link DefaultPreparedRequest}.
+	 */
+	public static class BoundReactiveRequestDefinition extends DefaultReactiveRequestDefinition {
+
+		private final DefaultPreparedRequest preparedRequest;
+
+		/**
+		 * Constructor.
+		 * @param invoker Invoker
+		 * @param preparedRequest Prepared request
+		 */
+		BoundReactiveRequestDefinition(ReactiveInvoker invoker, DefaultPreparedRequest preparedRequest) {
+			super(invoker);
+			this.preparedRequest = preparedRequest;
+			if (preparedRequest.baseURI != null) {
+				target(preparedRequest.baseURI);
+			}
+			if (preparedRequest.path != null) {
+				path(preparedRequest.path);
+			}
+			preparedRequest.templateParameters.forEach((name, value) -> resolve(name, value));
+			preparedRequest.queryParameters.forEach((name, values) -> queryParameter(name, values));
+			getHeaders().putAll(preparedRequest.headers);
+			if (preparedRequest.hedgingPolicy != null) {
+				hedging(preparedRequest.hedgingPolicy);
+			}
+			if (preparedRequest.compression != null) {
+				compression(preparedRequest.compression);
+			}
+			if (preparedRequest.timeouts != null) {
+				timeouts(preparedRequest.timeouts);
+			}
+			responseCache(preparedRequest.responseCache);
+		}
+
+		/**
+		 * Get the prepared request to which this definition is bound.
+		 * @return The prepared request
+		 */
+		public DefaultPreparedRequest getPreparedRequest() {
+			return preparedRequest;
+		}
+
+	}
+
+}
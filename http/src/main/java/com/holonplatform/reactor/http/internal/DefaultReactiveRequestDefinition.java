@@ -16,17 +16,28 @@
 package com.holonplatform.reactor.http.internal;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpHeaders;
 import com.holonplatform.http.HttpMethod;
 import com.holonplatform.http.exceptions.HttpClientInvocationException;
 import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
 import com.holonplatform.http.internal.rest.AbstractRequestDefinition;
 import com.holonplatform.http.rest.RequestEntity;
 import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.Compression;
+import com.holonplatform.reactor.http.EventStream;
+import com.holonplatform.reactor.http.FileDownload;
+import com.holonplatform.reactor.http.HedgingPolicy;
+import com.holonplatform.reactor.http.Pagination;
 import com.holonplatform.reactor.http.ReactiveResponseEntity;
 import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.ServerSentEvent;
+import com.holonplatform.reactor.http.Timeouts;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -44,6 +55,26 @@ public class DefaultReactiveRequestDefinition extends AbstractRequestDefinition<
 	 */
 	protected final ReactiveInvoker invoker;
 
+	/**
+	 * Request hedging policy
+	 */
+	private HedgingPolicy hedgingPolicy;
+
+	/**
+	 * Request compression
+	 */
+	private Compression compression;
+
+	/**
+	 * Request timeouts
+	 */
+	private Timeouts timeouts;
+
+	/**
+	 * Whether the response cache can be used
+	 */
+	private boolean responseCache = true;
+
 	/**
 	 * Constructor.
 	 * @param invoker Invoker to use to invoke for response
@@ -63,6 +94,85 @@ public class DefaultReactiveRequestDefinition extends AbstractRequestDefinition<
 		return this;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#hedging(com.holonplatform.
+	 * reactor.http.HedgingPolicy)
+	 */
+	@Override
+	public ReactiveRequestDefinition hedging(HedgingPolicy hedgingPolicy) {
+		this.hedgingPolicy = hedgingPolicy;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#getHedgingPolicy()
+	 */
+	@Override
+	public Optional<HedgingPolicy> getHedgingPolicy() {
+		return Optional.ofNullable(hedgingPolicy);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#compression(com.holonplatform.
+	 * reactor.http.Compression)
+	 */
+	@Override
+	public ReactiveRequestDefinition compression(Compression compression) {
+		this.compression = compression;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#getCompression()
+	 */
+	@Override
+	public Optional<Compression> getCompression() {
+		return Optional.ofNullable(compression);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#timeouts(com.holonplatform.
+	 * reactor.http.Timeouts)
+	 */
+	@Override
+	public ReactiveRequestDefinition timeouts(Timeouts timeouts) {
+		this.timeouts = timeouts;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#getTimeouts()
+	 */
+	@Override
+	public Optional<Timeouts> getTimeouts() {
+		return Optional.ofNullable(timeouts);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#responseCache(boolean)
+	 */
+	@Override
+	public ReactiveRequestDefinition responseCache(boolean enabled) {
+		this.responseCache = enabled;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition#isResponseCacheEnabled()
+	 */
+	@Override
+	public boolean isResponseCacheEnabled() {
+		return responseCache;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
@@ -95,12 +205,7 @@ public class DefaultReactiveRequestDefinition extends AbstractRequestDefinition<
 	@Override
 	public <T, R> Mono<T> invokeForEntity(HttpMethod method, RequestEntity<R> requestEntity,
 			ResponseType<T> responseType) {
-		return invoker.invoke(this, method, requestEntity, responseType, true).onErrorMap(error -> {
-			if (error instanceof UnsuccessfulResponseException) {
-				return error;
-			}
-			return new HttpClientInvocationException(error);
-		}).flatMap(r -> r.asMono());
+		return invoker.invokeForEntity(this, method, requestEntity, responseType);
 	}
 
 	/*
@@ -136,4 +241,131 @@ public class DefaultReactiveRequestDefinition extends AbstractRequestDefinition<
 		}).flatMapMany(r -> r.asFlux(responseElementType));
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveInvocation#invokeForFlux(com.holonplatform.http.
+	 * HttpMethod, com.holonplatform.http.rest.RequestEntity, com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <T, R> Flux<T> invokeForFlux(HttpMethod method, RequestEntity<R> requestEntity,
+			ResponseType<T> responseElementType) {
+		ObjectUtils.argumentNotNull(responseElementType, "Response element type must be not null");
+		return invoker.invoke(this, method, requestEntity, responseElementType, true).onErrorMap(error -> {
+			if (error instanceof UnsuccessfulResponseException) {
+				return error;
+			}
+			return new HttpClientInvocationException(error);
+		}).flatMapMany(r -> r.asFlux(responseElementType));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveInvocation#invokeForPages(com.holonplatform.http.
+	 * HttpMethod, com.holonplatform.http.rest.RequestEntity, com.holonplatform.reactor.http.Pagination, int)
+	 */
+	@Override
+	public <P, T, R> Flux<T> invokeForPages(HttpMethod method, RequestEntity<R> requestEntity,
+			Pagination<P, T> pagination, int lookahead) {
+		return PaginatedInvocation.execute(invoker, this, method, requestEntity, pagination, lookahead);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveInvocation#invokeForEvents(com.holonplatform.http.
+	 * HttpMethod, com.holonplatform.http.rest.RequestEntity, com.holonplatform.http.rest.ResponseType,
+	 * com.holonplatform.reactor.http.EventStream)
+	 */
+	@Override
+	public <T, R> Flux<ServerSentEvent<T>> invokeForEvents(HttpMethod method, RequestEntity<R> requestEntity,
+			ResponseType<T> dataType, EventStream eventStream) {
+		ObjectUtils.argumentNotNull(dataType, "Event data type must be not null");
+		ObjectUtils.argumentNotNull(eventStream, "Event stream must be not null");
+		return eventStream.execute(lastEventId -> {
+			// each connection uses a copy of this definition, which is left unchanged
+			final DefaultReactiveRequestDefinition connection = copy();
+			if (!hasHeader(connection.getHeaders(), HttpHeaders.ACCEPT)) {
+				connection.getHeaders().put(HttpHeaders.ACCEPT, EventStream.MEDIA_TYPE);
+			}
+			if (lastEventId != null) {
+				setHeader(connection.getHeaders(), EventStream.LAST_EVENT_ID_HEADER, lastEventId);
+			}
+			connection.responseCache(false);
+			return invoker.invoke(connection, method, requestEntity, dataType, false);
+		}, dataType).onErrorMap(error -> {
+			if (error instanceof UnsuccessfulResponseException || error instanceof HttpClientInvocationException) {
+				return error;
+			}
+			return new HttpClientInvocationException(error);
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClient.ReactiveInvocation#invokeForFile(com.holonplatform.http.
+	 * HttpMethod, com.holonplatform.http.rest.RequestEntity, java.nio.file.Path, boolean)
+	 */
+	@Override
+	public <R> Mono<FileDownload> invokeForFile(HttpMethod method, RequestEntity<R> requestEntity, Path file,
+			boolean resume) {
+		ObjectUtils.argumentNotNull(file, "File must be not null");
+		if (resume && hasHeader(getHeaders(), FileDownload.RANGE_HEADER)) {
+			throw new IllegalArgumentException("Cannot resume a download when a Range header is set on the request");
+		}
+		return FileDownloads.download(file, resume, position -> {
+			// each attempt uses a copy of this definition, which is left unchanged
+			final DefaultReactiveRequestDefinition attempt = copy();
+			if (position > 0) {
+				attempt.getHeaders().put(FileDownload.RANGE_HEADER, "bytes=" + position + "-");
+			}
+			attempt.responseCache(false);
+			return invoker.invoke(attempt, method, requestEntity, ResponseType.of(byte[].class), false);
+		}).onErrorMap(error -> {
+			if (error instanceof UnsuccessfulResponseException || error instanceof HttpClientInvocationException) {
+				return error;
+			}
+			return new HttpClientInvocationException(error);
+		});
+	}
+
+	/**
+	 * Create a copy of this request definition, which can be modified for a single exchange without affecting this
+	 * definition.
+	 * @return A new request definition with the same configuration of this one
+	 */
+	protected DefaultReactiveRequestDefinition copy() {
+		final DefaultReactiveRequestDefinition copy = new DefaultReactiveRequestDefinition(invoker);
+		getBaseRequestURI().ifPresent(uri -> copy.target(uri));
+		getRequestPath().ifPresent(path -> copy.path(path));
+		getTemplateParameters().forEach((name, value) -> copy.resolve(name, value));
+		getQueryParameters().forEach((name, values) -> copy.queryParameter(name, values));
+		copy.getHeaders().putAll(getHeaders());
+		getPropertySet().ifPresent(propertySet -> copy.propertySet(propertySet));
+		copy.hedgingPolicy = hedgingPolicy;
+		copy.compression = compression;
+		copy.timeouts = timeouts;
+		copy.responseCache = responseCache;
+		return copy;
+	}
+
+	/**
+	 * Checks whether a header is present, ignoring the header name case.
+	 * @param headers The headers
+	 * @param name The header name
+	 * @return <code>true</code> if the header is present
+	 */
+	private static boolean hasHeader(Map<String, String> headers, String name) {
+		return headers.keySet().stream().anyMatch(key -> name.equalsIgnoreCase(key));
+	}
+
+	/**
+	 * Set a header value, replacing any value of the same header, ignoring the header name case.
+	 * @param headers The headers
+	 * @param name The header name
+	 * @param value The header value
+	 */
+	private static void setHeader(Map<String, String> headers, String name, String value) {
+		headers.keySet().removeIf(key -> name.equalsIgnoreCase(key));
+		headers.put(name, value);
+	}
+
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.util.Optional;
+
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.ReactiveRequestEntity;
+
+/**
+ * Default {@link ReactiveRequestEntity} implementation.
+ *
+ * @param <T> Payload elements type
+ *
+ * @since 6.0.3
+ */
+public class DefaultReactiveRequestEntity<T> implements ReactiveRequestEntity<T> {
+
+	private final String mediaType;
+	private final Publisher<T> elements;
+	private final Class<T> elementType;
+
+	/**
+	 * Constructor.
+	 * @param mediaType Media type
+	 * @param elements Payload elements publisher (not null)
+	 * @param elementType Payload elements type (not null)
+	 */
+	public DefaultReactiveRequestEntity(String mediaType, Publisher<T> elements, Class<T> elementType) {
+		super();
+		ObjectUtils.argumentNotNull(elements, "Payload elements publisher must be not null");
+		ObjectUtils.argumentNotNull(elementType, "Payload elements type must be not null");
+		this.mediaType = mediaType;
+		this.elements = elements;
+		this.elementType = elementType;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.RequestEntity#getMediaType()
+	 */
+	@Override
+	public Optional<String> getMediaType() {
+		return Optional.ofNullable(mediaType);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.http.rest.RequestEntity#getPayload()
+	 */
+	@Override
+	public Optional<Publisher<T>> getPayload() {
+		return Optional.of(elements);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRequestEntity#getElementType()
+	 */
+	@Override
+	public Class<T> getElementType() {
+		return elementType;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DefaultReactiveRequestEntity [mediaType=" + mediaType + ", elementType=" + elementType.getName()
+				+ "]";
+	}
+
+}
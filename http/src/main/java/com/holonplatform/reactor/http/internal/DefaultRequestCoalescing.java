@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.reactor.http.RequestCoalescing;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Default {@link RequestCoalescing} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultRequestCoalescing implements RequestCoalescing {
+
+	/**
+	 * Default key resolver
+	 */
+	public static final KeyResolver DEFAULT_KEY_RESOLVER = (method, definition, responseType) -> RequestKey.of(method,
+			definition, responseType.getType());
+
+	private final KeyResolver keyResolver;
+
+	/**
+	 * In-flight invocations by key
+	 */
+	private final ConcurrentHashMap<Object, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder exchanges = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+
+	/**
+	 * Constructor.
+	 * @param keyResolver Key resolver (not null)
+	 */
+	public DefaultRequestCoalescing(KeyResolver keyResolver) {
+		super();
+		ObjectUtils.argumentNotNull(keyResolver, "KeyResolver must be not null");
+		this.keyResolver = keyResolver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestCoalescing#getKeyResolver()
+	 */
+	@Override
+	public KeyResolver getKeyResolver() {
+		return keyResolver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestCoalescing#isCoalescable(com.holonplatform.http.HttpMethod,
+	 * com.holonplatform.http.rest.RequestEntity)
+	 */
+	@Override
+	public boolean isCoalescable(HttpMethod method, RequestEntity<?> requestEntity) {
+		if (requestEntity != null && requestEntity.getPayload().isPresent()) {
+			return false;
+		}
+		return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestCoalescing#execute(java.lang.Object, java.util.function.Supplier)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> Mono<T> execute(Object key, Supplier<Mono<T>> invocation) {
+		ObjectUtils.argumentNotNull(key, "Invocation key must be not null");
+		return Mono.defer(() -> {
+			final boolean[] created = new boolean[] { false };
+			final Mono<T> shared = (Mono<T>) inFlight.computeIfAbsent(key, k -> {
+				created[0] = true;
+				final Object[] self = new Object[1];
+				final Mono<T> mono = invocation.get().doFinally(signal -> inFlight.remove(k, self[0])).cache();
+				self[0] = mono;
+				return mono;
+			});
+			if (created[0]) {
+				exchanges.increment();
+			} else {
+				coalesced.increment();
+			}
+			return shared;
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestCoalescing#getExchangeCount()
+	 */
+	@Override
+	public long getExchangeCount() {
+		return exchanges.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestCoalescing#getCoalescedCount()
+	 */
+	@Override
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestCoalescing#getInFlightCount()
+	 */
+	@Override
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+}
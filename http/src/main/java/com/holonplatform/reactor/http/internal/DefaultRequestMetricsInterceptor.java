@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.reactor.http.LatencyHistogram;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.RequestMetricsInterceptor;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Default {@link RequestMetricsInterceptor} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultRequestMetricsInterceptor implements RequestMetricsInterceptor {
+
+	/**
+	 * Metrics by endpoint
+	 */
+	private final ConcurrentHashMap<EndpointKey, DefaultEndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRequestInterceptor#intercept(com.holonplatform.reactor.http.
+	 * ReactiveRequestInterceptor.Invocation)
+	 */
+	@Override
+	public <T> Mono<ReactiveResponseEntity<T>> intercept(Invocation<T> invocation) {
+		final HttpMethod method = invocation.getMethod();
+		final String path = invocation.getRequestDefinition().getRequestPath().orElse("");
+		return Mono.defer(() -> {
+			final long start = System.nanoTime();
+			return invocation.proceed().map(response -> {
+				final DefaultEndpointMetrics metrics = getOrCreate(method, path, response.getStatusCode() / 100);
+				metrics.timeToHeaders.record(System.nanoTime() - start);
+				return response.doOnBodyTermination(() -> metrics.timeToLastByte.record(System.nanoTime() - start));
+			}).doOnError(e -> getOrCreate(method, path, 0).timeToHeaders.record(System.nanoTime() - start));
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestMetricsInterceptor#getEndpointMetrics()
+	 */
+	@Override
+	public List<EndpointMetrics> getEndpointMetrics() {
+		return new ArrayList<>(endpoints.values());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestMetricsInterceptor#getEndpointMetrics(com.holonplatform.http.
+	 * HttpMethod, java.lang.String, int)
+	 */
+	@Override
+	public Optional<EndpointMetrics> getEndpointMetrics(HttpMethod method, String path, int statusClass) {
+		ObjectUtils.argumentNotNull(method, "Method must be not null");
+		return Optional.ofNullable(endpoints.get(new EndpointKey(method, (path != null) ? path : "", statusClass)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.RequestMetricsInterceptor#reset()
+	 */
+	@Override
+	public void reset() {
+		endpoints.clear();
+	}
+
+	private DefaultEndpointMetrics getOrCreate(HttpMethod method, String path, int statusClass) {
+		final EndpointKey key = new EndpointKey(method, path, statusClass);
+		final DefaultEndpointMetrics metrics = endpoints.get(key);
+		return (metrics != null) ? metrics : endpoints.computeIfAbsent(key, DefaultEndpointMetrics::new);
+	}
+
+	/**
+	 * Endpoint key.
+	 */
+	private static final class EndpointKey {
+
+		final HttpMethod method;
+		final String path;
+		final int statusClass;
+		private final int hash;
+
+		EndpointKey(HttpMethod method, String path, int statusClass) {
+			super();
+			this.method = method;
+			this.path = path;
+			this.statusClass = statusClass;
+			this.hash = Objects.hash(method, path, statusClass);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof EndpointKey)) {
+				return false;
+			}
+			final EndpointKey other = (EndpointKey) obj;
+			return statusClass == other.statusClass && method == other.method && path.equals(other.path);
+		}
+
+	}
+
+	/**
+	 * Default {@link EndpointMetrics} implementation.
+	 */
+	private static final class DefaultEndpointMetrics implements EndpointMetrics {
+
+		private final EndpointKey key;
+		final LatencyHistogram timeToHeaders = new DefaultLatencyHistogram();
+		final LatencyHistogram timeToLastByte = new DefaultLatencyHistogram();
+
+		DefaultEndpointMetrics(EndpointKey key) {
+			super();
+			this.key = key;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return key.method;
+		}
+
+		@Override
+		public String getPath() {
+			return key.path;
+		}
+
+		@Override
+		public int getStatusClass() {
+			return key.statusClass;
+		}
+
+		@Override
+		public LatencyHistogram getTimeToHeaders() {
+			return timeToHeaders;
+		}
+
+		@Override
+		public LatencyHistogram getTimeToLastByte() {
+			return timeToLastByte;
+		}
+
+		@Override
+		public String toString() {
+			return key.method + " " + key.path + " " + key.statusClass + "xx [timeToHeaders=" + timeToHeaders
+					+ ", timeToLastByte=" + timeToLastByte + "]";
+		}
+
+	}
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.ResponseCache;
+
+/**
+ * Default {@link ResponseCache} implementation.
+ * <p>
+ * The stored responses are evicted in least recently used order when the maximum cache weight is exceeded.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class DefaultResponseCache implements ResponseCache {
+
+	private final long maxWeight;
+	private final long maxEntryWeight;
+	private final long defaultStaleWhileRevalidate;
+
+	/**
+	 * Stored responses by key, in access order. Guarded by the map lock.
+	 */
+	private final LinkedHashMap<Object, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Total weight of the stored responses. Guarded by the map lock.
+	 */
+	private long weight;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder revalidations = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Constructor.
+	 * @param maxWeight Maximum cache weight in bytes (must be greater than 0)
+	 * @param maxEntryWeight Maximum entry weight in bytes (must be greater than 0)
+	 * @param defaultStaleWhileRevalidate Default stale-while-revalidate window (not null)
+	 */
+	public DefaultResponseCache(long maxWeight, long maxEntryWeight, Duration defaultStaleWhileRevalidate) {
+		super();
+		if (maxWeight < 1) {
+			throw new IllegalArgumentException("Cache max weight must be greater than 0");
+		}
+		if (maxEntryWeight < 1) {
+			throw new IllegalArgumentException("Cache max entry weight must be greater than 0");
+		}
+		ObjectUtils.argumentNotNull(defaultStaleWhileRevalidate, "Stale-while-revalidate duration must be not null");
+		this.maxWeight = maxWeight;
+		this.maxEntryWeight = Math.min(maxWeight, maxEntryWeight);
+		this.defaultStaleWhileRevalidate = defaultStaleWhileRevalidate.toMillis();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#getMaxWeight()
+	 */
+	@Override
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#getMaxEntryWeight()
+	 */
+	@Override
+	public long getMaxEntryWeight() {
+		return maxEntryWeight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#getWeight()
+	 */
+	@Override
+	public long getWeight() {
+		synchronized (entries) {
+			return weight;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#size()
+	 */
+	@Override
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#get(java.lang.Object)
+	 */
+	@Override
+	public Optional<CachedResponse> get(Object key) {
+		ObjectUtils.argumentNotNull(key, "Key must be not null");
+		synchronized (entries) {
+			return Optional.ofNullable(entries.get(key));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#isCacheable(int, java.util.Map)
+	 */
+	@Override
+	public boolean isCacheable(int statusCode, Map<String, List<String>> headers) {
+		return DefaultCachedResponse.isCacheable(statusCode, headers)
+				&& DefaultCachedResponse.getContentLength(headers) < maxEntryWeight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#put(java.lang.Object, int, java.util.Map, byte[], long, long)
+	 */
+	@Override
+	public Optional<CachedResponse> put(Object key, int statusCode, Map<String, List<String>> headers, byte[] body,
+			long requestTime, long responseTime) {
+		ObjectUtils.argumentNotNull(key, "Key must be not null");
+		final Optional<CachedResponse> response = DefaultCachedResponse.create(statusCode, headers, body, requestTime,
+				responseTime, defaultStaleWhileRevalidate);
+		response.ifPresent(r -> store(key, r));
+		return response;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#revalidated(java.lang.Object,
+	 * com.holonplatform.reactor.http.ResponseCache.CachedResponse, java.util.Map, long, long)
+	 */
+	@Override
+	public Optional<CachedResponse> revalidated(Object key, CachedResponse cached, Map<String, List<String>> headers,
+			long requestTime, long responseTime) {
+		ObjectUtils.argumentNotNull(key, "Key must be not null");
+		ObjectUtils.argumentNotNull(cached, "Cached response must be not null");
+		final Optional<CachedResponse> response = DefaultCachedResponse.revalidate(cached, headers, requestTime,
+				responseTime, defaultStaleWhileRevalidate);
+		if (response.isPresent()) {
+			store(key, response.get());
+		} else {
+			invalidate(key);
+		}
+		return response;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#invalidate(java.lang.Object)
+	 */
+	@Override
+	public void invalidate(Object key) {
+		ObjectUtils.argumentNotNull(key, "Key must be not null");
+		synchronized (entries) {
+			remove(key);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#clear()
+	 */
+	@Override
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			weight = 0L;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#recordHit()
+	 */
+	@Override
+	public void recordHit() {
+		hits.increment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#recordMiss()
+	 */
+	@Override
+	public void recordMiss() {
+		misses.increment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#recordRevalidation()
+	 */
+	@Override
+	public void recordRevalidation() {
+		revalidations.increment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#getHitCount()
+	 */
+	@Override
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#getMissCount()
+	 */
+	@Override
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#getRevalidationCount()
+	 */
+	@Override
+	public long getRevalidationCount() {
+		return revalidations.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ResponseCache#getEvictionCount()
+	 */
+	@Override
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Store a response, evicting the least recently used entries if the maximum weight is exceeded.
+	 * @param key Response key
+	 * @param response Response to store
+	 */
+	private void store(Object key, CachedResponse response) {
+		synchronized (entries) {
+			if (response.getWeight() > maxEntryWeight) {
+				remove(key);
+				return;
+			}
+			final CachedResponse previous = entries.put(key, response);
+			weight += response.getWeight() - ((previous != null) ? previous.getWeight() : 0L);
+			final Iterator<Map.Entry<Object, CachedResponse>> eldest = entries.entrySet().iterator();
+			while (weight > maxWeight && eldest.hasNext()) {
+				final Map.Entry<Object, CachedResponse> entry = eldest.next();
+				if (entry.getValue() != response) {
+					weight -= entry.getValue().getWeight();
+					eldest.remove();
+					evictions.increment();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the entry bound to given key. Must be called holding the map lock.
+	 * @param key Entry key
+	 */
+	private void remove(Object key) {
+		final CachedResponse removed = entries.remove(key);
+		if (removed != null) {
+			weight -= removed.getWeight();
+		}
+	}
+
+	// ------- builder
+
+	/**
+	 * Default {@link ResponseCache} builder.
+	 */
+	public static class DefaultBuilder implements ResponseCache.Builder {
+
+		private long maxWeight = DEFAULT_MAX_WEIGHT;
+		private long maxEntryWeight = -1L;
+		private Duration staleWhileRevalidate = Duration.ZERO;
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ResponseCache.Builder#maxWeight(long)
+		 */
+		@Override
+		public ResponseCache.Builder maxWeight(long maxWeight) {
+			this.maxWeight = maxWeight;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ResponseCache.Builder#maxEntryWeight(long)
+		 */
+		@Override
+		public ResponseCache.Builder maxEntryWeight(long maxEntryWeight) {
+			this.maxEntryWeight = maxEntryWeight;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ResponseCache.Builder#staleWhileRevalidate(java.time.Duration)
+		 */
+		@Override
+		public ResponseCache.Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+			this.staleWhileRevalidate = staleWhileRevalidate;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.ResponseCache.Builder#build()
+		 */
+		@Override
+		public ResponseCache build() {
+			return new DefaultResponseCache(maxWeight, (maxEntryWeight > 0) ? maxEntryWeight : maxWeight,
+					staleWhileRevalidate);
+		}
+
+	}
+
+}
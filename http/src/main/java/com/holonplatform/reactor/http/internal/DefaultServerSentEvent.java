@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.holonplatform.reactor.http.ServerSentEvent;
+
+/**
+ * Default {@link ServerSentEvent} implementation.
+ *
+ * @param <T> Event data type
+ *
+ * @since 6.0.3
+ */
+public class DefaultServerSentEvent<T> implements ServerSentEvent<T> {
+
+	private final String id;
+	private final String event;
+	private final T data;
+	private final Duration retry;
+	private final String comment;
+
+	/**
+	 * Constructor.
+	 * @param id Event id, may be null
+	 * @param event Event name, may be null
+	 * @param data Event data, may be null
+	 * @param retry Reconnection time, may be null
+	 * @param comment Comment, may be null
+	 */
+	public DefaultServerSentEvent(String id, String event, T data, Duration retry, String comment) {
+		super();
+		this.id = id;
+		this.event = event;
+		this.data = data;
+		this.retry = retry;
+		this.comment = comment;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ServerSentEvent#getId()
+	 */
+	@Override
+	public Optional<String> getId() {
+		return Optional.ofNullable(id);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ServerSentEvent#getEvent()
+	 */
+	@Override
+	public Optional<String> getEvent() {
+		return Optional.ofNullable(event);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ServerSentEvent#getData()
+	 */
+	@Override
+	public Optional<T> getData() {
+		return Optional.ofNullable(data);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ServerSentEvent#getRetry()
+	 */
+	@Override
+	public Optional<Duration> getRetry() {
+		return Optional.ofNullable(retry);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ServerSentEvent#getComment()
+	 */
+	@Override
+	public Optional<String> getComment() {
+		return Optional.ofNullable(comment);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ServerSentEvent [id=" + id + ", event=" + event + ", data=" + data + ", retry=" + retry + "]";
+	}
+
+}
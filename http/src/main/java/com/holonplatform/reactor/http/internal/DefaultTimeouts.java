@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.Timeouts;
+
+/**
+ * Default {@link Timeouts} implementation.
+ *
+ * @since 6.0.3
+ */
+public class DefaultTimeouts implements Timeouts {
+
+	private final Duration connectTimeout;
+	private final Duration responseTimeout;
+	private final Duration readTimeout;
+
+	/**
+	 * Constructor.
+	 * @param connectTimeout Connect timeout, may be null
+	 * @param responseTimeout Response timeout, may be null
+	 * @param readTimeout Read timeout, may be null
+	 */
+	public DefaultTimeouts(Duration connectTimeout, Duration responseTimeout, Duration readTimeout) {
+		super();
+		this.connectTimeout = connectTimeout;
+		this.responseTimeout = responseTimeout;
+		this.readTimeout = readTimeout;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Timeouts#getConnectTimeout()
+	 */
+	@Override
+	public Optional<Duration> getConnectTimeout() {
+		return Optional.ofNullable(connectTimeout);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Timeouts#getResponseTimeout()
+	 */
+	@Override
+	public Optional<Duration> getResponseTimeout() {
+		return Optional.ofNullable(responseTimeout);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.Timeouts#getReadTimeout()
+	 */
+	@Override
+	public Optional<Duration> getReadTimeout() {
+		return Optional.ofNullable(readTimeout);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Timeouts [connectTimeout=" + connectTimeout + ", responseTimeout=" + responseTimeout
+				+ ", readTimeout=" + readTimeout + "]";
+	}
+
+	/**
+	 * Default {@link Timeouts.Builder} implementation.
+	 */
+	public static class DefaultBuilder implements Timeouts.Builder {
+
+		private Duration connectTimeout;
+		private Duration responseTimeout;
+		private Duration readTimeout;
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Timeouts.Builder#connectTimeout(java.time.Duration)
+		 */
+		@Override
+		public Timeouts.Builder connectTimeout(Duration connectTimeout) {
+			this.connectTimeout = validate(connectTimeout, "Connect timeout");
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Timeouts.Builder#responseTimeout(java.time.Duration)
+		 */
+		@Override
+		public Timeouts.Builder responseTimeout(Duration responseTimeout) {
+			this.responseTimeout = validate(responseTimeout, "Response timeout");
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Timeouts.Builder#readTimeout(java.time.Duration)
+		 */
+		@Override
+		public Timeouts.Builder readTimeout(Duration readTimeout) {
+			this.readTimeout = validate(readTimeout, "Read timeout");
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.reactor.http.Timeouts.Builder#build()
+		 */
+		@Override
+		public Timeouts build() {
+			return new DefaultTimeouts(connectTimeout, responseTimeout, readTimeout);
+		}
+
+		private static Duration validate(Duration timeout, String name) {
+			ObjectUtils.argumentNotNull(timeout, name + " must be not null");
+			if (timeout.isNegative() || timeout.isZero()) {
+				throw new IllegalArgumentException(name + " must be greater than zero");
+			}
+			return timeout;
+		}
+
+	}
+
+}
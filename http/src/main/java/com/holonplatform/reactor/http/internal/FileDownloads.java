@@ -0,0 +1,214 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import com.holonplatform.http.exceptions.HttpClientInvocationException;
+import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
+import com.holonplatform.reactor.http.FileDownload;
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Response message entity downloads to {@link AsynchronousFileChannel}s.
+ *
+ * @since 6.0.3
+ */
+public final class FileDownloads {
+
+	private static final OpenOption[] APPEND_OPTIONS = { StandardOpenOption.CREATE, StandardOpenOption.WRITE };
+	private static final OpenOption[] TRUNCATE_OPTIONS = { StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING };
+
+	private FileDownloads() {
+	}
+
+	/**
+	 * Download a response message entity to given file.
+	 * <p>
+	 * When resuming, the request is performed with the current file size as range start, if the file is not empty. A
+	 * <code>206</code> response which content starts from that position is appended to the file, any other successful
+	 * response replaces the file content. A <code>416</code> response to a range request is considered as an already
+	 * completed download.
+	 * </p>
+	 * @param file The file to write (not null)
+	 * @param resume Whether to resume a partially downloaded file
+	 * @param request The request function, which receives the range start position, or <code>0</code> for the whole
+	 *        message entity
+	 * @return The download result
+	 */
+	public static Mono<FileDownload> download(Path file, boolean resume,
+			LongFunction<Mono<? extends ReactiveResponseEntity<?>>> request) {
+		return Mono.defer(() -> {
+			final long existing;
+			try {
+				existing = (resume && Files.exists(file)) ? Files.size(file) : 0L;
+			} catch (IOException e) {
+				return Mono.error(e);
+			}
+			final long start = System.nanoTime();
+			return request.apply(existing).<FileDownload>flatMap(response -> {
+				final int status = response.getStatusCode();
+				if (existing > 0 && status == 416) {
+					// nothing left to download
+					return response.releaseBody()
+							.thenReturn(new DefaultFileDownload(file, existing, 0L, elapsed(start)));
+				}
+				if (status < 200 || status > 299) {
+					return response.releaseBody().then(Mono.error(new UnsuccessfulResponseException(response)));
+				}
+				final boolean append = existing > 0 && status == 206;
+				if (append && !isContentRangeStart(response, existing)) {
+					final String range = response.getHeaderValue(FileDownload.CONTENT_RANGE_HEADER).orElse(null);
+					return response.releaseBody().then(Mono.error(new HttpClientInvocationException(
+							"Unexpected partial content range: " + range + ", expected start: " + existing)));
+				}
+				final long offset = append ? existing : 0L;
+				return Mono
+						.using(() -> AsynchronousFileChannel.open(file, append ? APPEND_OPTIONS : TRUNCATE_OPTIONS),
+								channel -> response.writeTo(channel, offset), FileDownloads::close)
+						.map(written -> new DefaultFileDownload(file, offset, written, elapsed(start)));
+			});
+		});
+	}
+
+	/**
+	 * Write the given buffers to a file channel, in sequence, starting from given position.
+	 * @param buffers The buffers to write
+	 * @param channel The file channel
+	 * @param position The position of the file from which to start to write
+	 * @return The number of written bytes
+	 */
+	public static Mono<Long> write(Flux<ByteBuffer> buffers, AsynchronousFileChannel channel, long position) {
+		final AtomicLong written = new AtomicLong(0L);
+		return buffers.concatMap(buffer -> Mono.<Integer>create(
+				sink -> write(channel, buffer, position + written.get(), 0, sink)).doOnNext(written::addAndGet))
+				.then(Mono.fromSupplier(written::get));
+	}
+
+	/**
+	 * Write the remaining bytes of given buffer, performing as many channel writes as required.
+	 * @param channel The file channel
+	 * @param buffer The buffer to write
+	 * @param position The file position
+	 * @param total Bytes written so far
+	 * @param sink The sink to notify with the total written bytes
+	 */
+	private static void write(AsynchronousFileChannel channel, ByteBuffer buffer, long position, int total,
+			MonoSink<Integer> sink) {
+		channel.write(buffer, position, null, new CompletionHandler<Integer, Void>() {
+
+			@Override
+			public void completed(Integer result, Void attachment) {
+				if (buffer.hasRemaining()) {
+					write(channel, buffer, position + result, total + result, sink);
+				} else {
+					sink.success(total + result);
+				}
+			}
+
+			@Override
+			public void failed(Throwable exc, Void attachment) {
+				sink.error(exc);
+			}
+
+		});
+	}
+
+	/**
+	 * Checks whether the <code>Content-Range</code> header of given response starts from given position.
+	 * @param response The response
+	 * @param position The expected start position
+	 * @return <code>true</code> if the content range starts from given position
+	 */
+	private static boolean isContentRangeStart(ReactiveResponseEntity<?> response, long position) {
+		return response.getHeaderValue(FileDownload.CONTENT_RANGE_HEADER).map(String::trim)
+				.map(range -> range.startsWith("bytes " + position + "-")).orElse(Boolean.FALSE);
+	}
+
+	private static Duration elapsed(long start) {
+		return Duration.ofNanos(System.nanoTime() - start);
+	}
+
+	private static void close(AsynchronousFileChannel channel) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	/**
+	 * Default {@link FileDownload} implementation.
+	 */
+	private static final class DefaultFileDownload implements FileDownload {
+
+		private final Path file;
+		private final long offset;
+		private final long bytesWritten;
+		private final Duration duration;
+
+		DefaultFileDownload(Path file, long offset, long bytesWritten, Duration duration) {
+			super();
+			this.file = file;
+			this.offset = offset;
+			this.bytesWritten = bytesWritten;
+			this.duration = duration;
+		}
+
+		@Override
+		public Path getFile() {
+			return file;
+		}
+
+		@Override
+		public long getOffset() {
+			return offset;
+		}
+
+		@Override
+		public long getBytesWritten() {
+			return bytesWritten;
+		}
+
+		@Override
+		public Duration getDuration() {
+			return duration;
+		}
+
+		@Override
+		public String toString() {
+			return "FileDownload [file=" + file + ", offset=" + offset + ", bytesWritten=" + bytesWritten
+					+ ", duration=" + duration + "]";
+		}
+
+	}
+
+}
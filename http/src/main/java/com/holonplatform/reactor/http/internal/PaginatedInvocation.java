@@ -0,0 +1,207 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.exceptions.HttpClientInvocationException;
+import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
+import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.reactor.http.Pagination;
+import com.holonplatform.reactor.http.Pagination.Page;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Performs a paginated invocation, emitting the elements of all the pages as a single {@link Flux}.
+ * <p>
+ * Each page is fetched as soon as the previous one is received, while its elements are consumed, up to the configured
+ * number of pages ahead of the page being consumed.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public final class PaginatedInvocation {
+
+	private PaginatedInvocation() {
+	}
+
+	/**
+	 * Execute a paginated invocation.
+	 * @param <P> Page payload type
+	 * @param <T> Page elements type
+	 * @param <R> Request entity type
+	 * @param invoker The invoker to use for the next page requests (not null)
+	 * @param request First page request (not null)
+	 * @param method Request method (not null)
+	 * @param requestEntity Request entity, sent with each page request, may be null
+	 * @param pagination Pagination strategy (not null)
+	 * @param lookahead Maximum number of pages to fetch ahead of the page being consumed, greater than <code>0</code>
+	 * @return The elements of all the pages
+	 */
+	public static <P, T, R> Flux<T> execute(ReactiveInvoker invoker, ReactiveRequestDefinition request,
+			HttpMethod method, RequestEntity<R> requestEntity, Pagination<P, T> pagination, int lookahead) {
+		ObjectUtils.argumentNotNull(invoker, "Invoker must be not null");
+		ObjectUtils.argumentNotNull(request, "Request definition must be not null");
+		ObjectUtils.argumentNotNull(method, "HTTP method must be not null");
+		ObjectUtils.argumentNotNull(pagination, "Pagination must be not null");
+		if (lookahead < 1) {
+			throw new IllegalArgumentException("Pagination lookahead must be greater than 0");
+		}
+		return fetch(invoker, 0, request, method, requestEntity, pagination)
+				.expand(page -> pagination.getNextPage(page)
+						.map(next -> fetch(invoker, page.getIndex() + 1, next, method, requestEntity, pagination))
+						.orElse(Mono.empty()))
+				.concatMapIterable(page -> page.items, lookahead);
+	}
+
+	/**
+	 * Fetch a page.
+	 * @param <P> Page payload type
+	 * @param <T> Page elements type
+	 * @param <R> Request entity type
+	 * @param invoker Invoker
+	 * @param index Page index
+	 * @param request Page request
+	 * @param method Request method
+	 * @param requestEntity Request entity
+	 * @param pagination Pagination strategy
+	 * @return The page
+	 */
+	private static <P, T, R> Mono<DefaultPage<P, T>> fetch(ReactiveInvoker invoker, int index,
+			ReactiveRequestDefinition request, HttpMethod method, RequestEntity<R> requestEntity,
+			Pagination<P, T> pagination) {
+		return request.invokeForSuccess(method, requestEntity, pagination.getPageType()).onErrorMap(error -> {
+			if (error instanceof UnsuccessfulResponseException) {
+				return error;
+			}
+			return new HttpClientInvocationException(error);
+		}).flatMap(response -> response.asMono()
+				.map(content -> new DefaultPage<>(invoker, index, request, response.getHeaders(), content,
+						pagination.getItems(content)))
+				.switchIfEmpty(Mono.fromSupplier(() -> new DefaultPage<P, T>(invoker, index, request,
+						response.getHeaders(), null, Collections.emptyList()))));
+	}
+
+	/**
+	 * Default {@link Page} implementation.
+	 * @param <P> Page payload type
+	 * @param <T> Page elements type
+	 */
+	private static final class DefaultPage<P, T> implements Page<P> {
+
+		private final ReactiveInvoker invoker;
+		private final int index;
+		private final ReactiveRequestDefinition request;
+		private final Map<String, List<String>> headers;
+		private final P content;
+		final List<T> items;
+
+		DefaultPage(ReactiveInvoker invoker, int index, ReactiveRequestDefinition request,
+				Map<String, List<String>> headers, P content, List<T> items) {
+			super();
+			this.invoker = invoker;
+			this.index = index;
+			this.request = request;
+			this.headers = (headers != null) ? headers : Collections.emptyMap();
+			this.content = content;
+			this.items = items;
+		}
+
+		@Override
+		public int getIndex() {
+			return index;
+		}
+
+		@Override
+		public ReactiveRequestDefinition getRequest() {
+			return request;
+		}
+
+		@Override
+		public Map<String, List<String>> getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public List<String> getHeader(String name) {
+			for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+				if (header.getKey() != null && header.getKey().equalsIgnoreCase(name)) {
+					return (header.getValue() != null) ? header.getValue() : Collections.emptyList();
+				}
+			}
+			return Collections.emptyList();
+		}
+
+		@Override
+		public Optional<P> getContent() {
+			return Optional.ofNullable(content);
+		}
+
+		@Override
+		public int getItemCount() {
+			return items.size();
+		}
+
+		@Override
+		public ReactiveRequestDefinition next() {
+			final ReactiveRequestDefinition next = new DefaultReactiveRequestDefinition(invoker);
+			request.getBaseRequestURI().ifPresent(uri -> next.target(uri));
+			request.getRequestPath().ifPresent(path -> next.path(path));
+			request.getTemplateParameters().forEach((name, value) -> next.resolve(name, value));
+			request.getQueryParameters().forEach((name, values) -> next.queryParameter(name, values));
+			return copyHeaders(next);
+		}
+
+		@Override
+		public ReactiveRequestDefinition next(URI uri) {
+			ObjectUtils.argumentNotNull(uri, "Next page URI must be not null");
+			final URI absolute = uri.isAbsolute() ? uri
+					: request.getBaseRequestURI().map(base -> base.resolve(uri))
+							.orElseThrow(() -> new IllegalArgumentException(
+									"Cannot resolve the relative next page URI [" + uri + "]: missing base URI"));
+			// the link is the complete request URI, sent as is without any path or query expansion
+			final ReactiveRequestDefinition next = new DefaultReactiveRequestDefinition(invoker);
+			next.target(absolute);
+			return copyHeaders(next);
+		}
+
+		private ReactiveRequestDefinition copyHeaders(ReactiveRequestDefinition next) {
+			next.getHeaders().putAll(request.getHeaders());
+			request.getPropertySet().ifPresent(propertySet -> next.propertySet(propertySet));
+			request.getHedgingPolicy().ifPresent(hedgingPolicy -> next.hedging(hedgingPolicy));
+			request.getCompression().ifPresent(compression -> next.compression(compression));
+			request.getTimeouts().ifPresent(timeouts -> next.timeouts(timeouts));
+			next.responseCache(request.isResponseCacheEnabled());
+			return next;
+		}
+
+		@Override
+		public String toString() {
+			return "Page [index=" + index + ", items=" + items.size() + "]";
+		}
+
+	}
+
+}
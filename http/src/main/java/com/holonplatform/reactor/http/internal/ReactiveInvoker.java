@@ -16,6 +16,7 @@
 package com.holonplatform.reactor.http.internal;
 
 import com.holonplatform.http.HttpMethod;
+import com.holonplatform.http.exceptions.HttpClientInvocationException;
 import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
 import com.holonplatform.http.rest.RequestEntity;
 import com.holonplatform.http.rest.ResponseType;
@@ -48,4 +49,26 @@ public interface ReactiveInvoker {
 	<T, R> Mono<ReactiveResponseEntity<T>> invoke(ReactiveRequestDefinition requestDefinition, HttpMethod method,
 			RequestEntity<R> requestEntity, ResponseType<T> responseType, boolean onlySuccessfulStatusCode);
 
+	/**
+	 * Invoke a request asynchronously using current given <code>request</code> definition and read the response
+	 * entity, only if the response has a <em>success</em> (<code>2xx</code>) status code.
+	 * @param <T> Response type
+	 * @param <R> Request entity type
+	 * @param requestDefinition Request definition
+	 * @param method Request method
+	 * @param requestEntity Request message payload
+	 * @param responseType Expected response payload type
+	 * @return A {@link Mono} to handle the response entity
+	 * @since 6.0.3
+	 */
+	default <T, R> Mono<T> invokeForEntity(ReactiveRequestDefinition requestDefinition, HttpMethod method,
+			RequestEntity<R> requestEntity, ResponseType<T> responseType) {
+		return invoke(requestDefinition, method, requestEntity, responseType, true).onErrorMap(error -> {
+			if (error instanceof UnsuccessfulResponseException) {
+				return error;
+			}
+			return new HttpClientInvocationException(error);
+		}).flatMap(r -> r.asMono());
+	}
+
 }
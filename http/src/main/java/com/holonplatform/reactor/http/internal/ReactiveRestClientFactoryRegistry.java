@@ -15,14 +15,19 @@
  */
 package com.holonplatform.reactor.http.internal;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.annotation.Priority;
 
@@ -35,6 +40,11 @@ import com.holonplatform.reactor.http.ReactiveRestClientFactory;
 
 /**
  * {@link ReactiveRestClientFactory} registry.
+ * <p>
+ * The factories available from a {@link ClassLoader} are loaded once and indexed by implementation class name. The
+ * index is kept in a concurrent map weakly referencing the {@link ClassLoader}s, so that the factories lookup does not
+ * require locking.
+ * </p>
  *
  * @since 5.2.0
  */
@@ -55,12 +65,23 @@ public enum ReactiveRestClientFactoryRegistry {
 					: ReactiveRestClientFactory.DEFAULT_PRIORITY);
 
 	/**
-	 * The {@link ReactiveRestClientFactory}s by class name organized by the {@link ClassLoader} was used to load them.
+	 * Shared clients key for the default implementation
 	 */
-	private final WeakHashMap<ClassLoader, List<ReactiveRestClientFactory>> factories;
+	private static final String DEFAULT_IMPLEMENTATION = "";
+
+	/**
+	 * The {@link ReactiveRestClientFactory}s index by the {@link ClassLoader} was used to load them.
+	 */
+	private final ConcurrentHashMap<Object, FactoryIndex> factories;
+
+	/**
+	 * Queue of the garbage collected {@link ClassLoader} keys
+	 */
+	private final ReferenceQueue<ClassLoader> staleClassLoaders;
 
 	private ReactiveRestClientFactoryRegistry() {
-		factories = new WeakHashMap<>();
+		factories = new ConcurrentHashMap<>(4);
+		staleClassLoaders = new ReferenceQueue<>();
 	}
 
 	/**
@@ -76,27 +97,42 @@ public enum ReactiveRestClientFactoryRegistry {
 	 */
 	public ReactiveRestClient createRestClient(String fullyQualifiedClassName, ClassLoader classLoader) {
 		ClassLoader cl = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
-		List<ReactiveRestClientFactory> restClientFactories = getRestClientFactories(fullyQualifiedClassName, cl);
-		if (restClientFactories.isEmpty()) {
-			throw new RestClientCreationException("No ReactiveRestClientFactory available for ClassLoader [" + cl + "]"
-					+ ((fullyQualifiedClassName != null)
-							? " and ReactiveRestClient implementation class name [" + fullyQualifiedClassName + "]"
-							: ""));
-		}
-		ReactiveRestClient restClient = null;
-		for (ReactiveRestClientFactory factory : restClientFactories) {
-			restClient = factory.create(cl);
-			if (restClient != null) {
-				break;
-			}
+		return createRestClient(fullyQualifiedClassName, cl, getFactoryIndex(cl));
+	}
+
+	/**
+	 * Get the shared {@link ReactiveRestClient} instance for given <code>fullyQualifiedClassName</code> and
+	 * {@link ClassLoader}. The instance is created at first request using
+	 * {@link #createRestClient(String, ClassLoader)} and then cached until the {@link ClassLoader} is garbage
+	 * collected.
+	 * <p>
+	 * An instance which the creating factory declares as not shareable (see
+	 * {@link ReactiveRestClientFactory#isShareable(ClassLoader)}), for example because it was created using a resource
+	 * bound to the current thread, is returned without being cached.
+	 * </p>
+	 * @param fullyQualifiedClassName {@link ReactiveRestClient} class name to obtain, or <code>null</code> for the
+	 *        default one
+	 * @param classLoader ClassLoader for which to obtain the {@link ReactiveRestClient}
+	 * @return The shared {@link ReactiveRestClient} instance for given <code>fullyQualifiedClassName</code> (or the
+	 *         default one if <code>null</code>) and {@link ClassLoader}
+	 * @throws RestClientCreationException If the shared instance is not available yet and its creation failed
+	 * @since 6.0.3
+	 */
+	public ReactiveRestClient getSharedRestClient(String fullyQualifiedClassName, ClassLoader classLoader) {
+		final ClassLoader cl = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
+		final FactoryIndex index = getFactoryIndex(cl);
+		final String key = (fullyQualifiedClassName != null) ? fullyQualifiedClassName : DEFAULT_IMPLEMENTATION;
+		final ReactiveRestClient shared = index.sharedClients.get(key);
+		if (shared != null) {
+			return shared;
 		}
-		if (restClient == null) {
-			throw new RestClientCreationException("No ReactiveRestClient available for ClassLoader [" + cl + "]"
-					+ ((fullyQualifiedClassName != null)
-							? " and ReactiveRestClient implementation class name [" + fullyQualifiedClassName + "]"
-							: ""));
+		// created outside of the map update, since the factory may in turn request a shared instance
+		final CreatedRestClient created = create(fullyQualifiedClassName, cl, index);
+		if (!created.factory.isShareable(cl)) {
+			return created.restClient;
 		}
-		return restClient;
+		final ReactiveRestClient previous = index.sharedClients.putIfAbsent(key, created.restClient);
+		return (previous != null) ? previous : created.restClient;
 	}
 
 	/**
@@ -113,51 +149,199 @@ public enum ReactiveRestClientFactoryRegistry {
 	public List<ReactiveRestClientFactory> getRestClientFactories(String fullyQualifiedClassName,
 			ClassLoader classLoader) {
 		ClassLoader serviceClassLoader = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
-		List<ReactiveRestClientFactory> restClientFactories = getRestClientFactories(serviceClassLoader);
-		if (fullyQualifiedClassName != null) {
-			List<ReactiveRestClientFactory> byName = new LinkedList<>();
-			for (ReactiveRestClientFactory factory : restClientFactories) {
+		return getFactoryIndex(serviceClassLoader).getFactories(fullyQualifiedClassName);
+	}
+
+	private static ReactiveRestClient createRestClient(String fullyQualifiedClassName, ClassLoader cl,
+			FactoryIndex index) {
+		return create(fullyQualifiedClassName, cl, index).restClient;
+	}
+
+	private static CreatedRestClient create(String fullyQualifiedClassName, ClassLoader cl, FactoryIndex index) {
+		List<ReactiveRestClientFactory> restClientFactories = index.getFactories(fullyQualifiedClassName);
+		if (restClientFactories.isEmpty()) {
+			throw new RestClientCreationException("No ReactiveRestClientFactory available for ClassLoader [" + cl + "]"
+					+ ((fullyQualifiedClassName != null)
+							? " and ReactiveRestClient implementation class name [" + fullyQualifiedClassName + "]"
+							: ""));
+		}
+		for (ReactiveRestClientFactory factory : restClientFactories) {
+			final ReactiveRestClient restClient = factory.create(cl);
+			if (restClient != null) {
+				return new CreatedRestClient(factory, restClient);
+			}
+		}
+		throw new RestClientCreationException("No ReactiveRestClient available for ClassLoader [" + cl + "]"
+				+ ((fullyQualifiedClassName != null)
+						? " and ReactiveRestClient implementation class name [" + fullyQualifiedClassName + "]"
+						: ""));
+	}
+
+	/**
+	 * Obtain the index of the {@link ReactiveRestClientFactory}s that are available via the specified
+	 * {@link ClassLoader}, loading them at first request.
+	 * @param classLoader the {@link ClassLoader} of the returned {@link ReactiveRestClientFactory}s (not null)
+	 * @return The index of the {@link ReactiveRestClientFactory}s loaded by the specified {@link ClassLoader}
+	 */
+	private FactoryIndex getFactoryIndex(ClassLoader classLoader) {
+		final FactoryIndex index = factories.get(new LookupKey(classLoader));
+		if (index != null) {
+			return index;
+		}
+		expungeStaleClassLoaders();
+		return factories.computeIfAbsent(new ClassLoaderKey(classLoader, staleClassLoaders),
+				k -> new FactoryIndex(loadRestClientFactories(classLoader)));
+	}
+
+	/**
+	 * Remove the index entries of the garbage collected {@link ClassLoader}s.
+	 */
+	private void expungeStaleClassLoaders() {
+		Reference<? extends ClassLoader> stale;
+		while ((stale = staleClassLoaders.poll()) != null) {
+			factories.remove(stale);
+		}
+	}
+
+	/**
+	 * Load the {@link ReactiveRestClientFactory}s that are available via the specified {@link ClassLoader}.
+	 * @param classLoader the {@link ClassLoader} to use
+	 * @return The {@link ReactiveRestClientFactory}s list, sorted by priority
+	 */
+	private static List<ReactiveRestClientFactory> loadRestClientFactories(ClassLoader classLoader) {
+		return AccessController.doPrivileged(new PrivilegedAction<List<ReactiveRestClientFactory>>() {
+			@Override
+			public List<ReactiveRestClientFactory> run() {
+				List<ReactiveRestClientFactory> result = new ArrayList<>();
+				ServiceLoader<ReactiveRestClientFactory> serviceLoader = ServiceLoader
+						.load(ReactiveRestClientFactory.class, classLoader);
+				for (ReactiveRestClientFactory factory : serviceLoader) {
+					result.add(factory);
+					LOGGER.debug(() -> "Loaded and registered ReactiveRestClientFactory ["
+							+ factory.getClass().getName() + "]");
+				}
+				// sort
+				Collections.sort(result, PRIORITY_COMPARATOR);
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * Immutable index of the factories loaded by a {@link ClassLoader}.
+	 */
+	private static final class FactoryIndex {
+
+		private final List<ReactiveRestClientFactory> factories;
+		private final Map<String, List<ReactiveRestClientFactory>> factoriesByClassName;
+
+		/**
+		 * Shared clients by implementation class name
+		 */
+		final ConcurrentHashMap<String, ReactiveRestClient> sharedClients = new ConcurrentHashMap<>(4);
+
+		FactoryIndex(List<ReactiveRestClientFactory> factories) {
+			super();
+			this.factories = Collections.unmodifiableList(factories);
+			final Map<String, List<ReactiveRestClientFactory>> byClassName = new HashMap<>();
+			for (ReactiveRestClientFactory factory : factories) {
 				Class<?> cls = factory.getRestClientImplementationClass();
-				if (cls != null && cls.getName().equals(fullyQualifiedClassName)) {
-					byName.add(factory);
+				if (cls != null) {
+					byClassName.computeIfAbsent(cls.getName(), n -> new ArrayList<>(1)).add(factory);
 				}
 			}
-			return byName;
+			byClassName.replaceAll((name, list) -> Collections.unmodifiableList(list));
+			this.factoriesByClassName = byClassName;
 		}
-		return restClientFactories;
+
+		List<ReactiveRestClientFactory> getFactories(String fullyQualifiedClassName) {
+			if (fullyQualifiedClassName != null) {
+				return factoriesByClassName.getOrDefault(fullyQualifiedClassName, Collections.emptyList());
+			}
+			return factories;
+		}
+
 	}
 
 	/**
-	 * Obtain the {@link ReactiveRestClientFactory}s that are available via the specified {@link ClassLoader}.
-	 * @param classLoader the {@link ClassLoader} of the returned {@link ReactiveRestClientFactory}s
-	 * @return an list of {@link ReactiveRestClientFactory}s loaded by the specified {@link ClassLoader}
+	 * A {@link ReactiveRestClient} instance and the factory which created it.
 	 */
-	private synchronized List<ReactiveRestClientFactory> getRestClientFactories(ClassLoader classLoader) {
-
-		final ClassLoader serviceClassLoader = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
-		List<ReactiveRestClientFactory> restClientFactories = factories.get(serviceClassLoader);
-
-		if (restClientFactories == null) {
-			restClientFactories = AccessController
-					.doPrivileged(new PrivilegedAction<List<ReactiveRestClientFactory>>() {
-						@Override
-						public List<ReactiveRestClientFactory> run() {
-							LinkedList<ReactiveRestClientFactory> result = new LinkedList<>();
-							ServiceLoader<ReactiveRestClientFactory> serviceLoader = ServiceLoader
-									.load(ReactiveRestClientFactory.class, serviceClassLoader);
-							for (ReactiveRestClientFactory factory : serviceLoader) {
-								result.add(factory);
-								LOGGER.debug(() -> "Loaded and registered ReactiveRestClientFactory ["
-										+ factory.getClass().getName() + "]");
-							}
-							// sort
-							Collections.sort(result, PRIORITY_COMPARATOR);
-							return result;
-						}
-					});
-			factories.put(serviceClassLoader, restClientFactories);
+	private static final class CreatedRestClient {
+
+		final ReactiveRestClientFactory factory;
+		final ReactiveRestClient restClient;
+
+		CreatedRestClient(ReactiveRestClientFactory factory, ReactiveRestClient restClient) {
+			super();
+			this.factory = factory;
+			this.restClient = restClient;
 		}
-		return restClientFactories;
+
+	}
+
+	/**
+	 * Index key which weakly references a {@link ClassLoader}, using the {@link ClassLoader} identity.
+	 */
+	private static final class ClassLoaderKey extends WeakReference<ClassLoader> {
+
+		private final int hash;
+
+		ClassLoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+			super(classLoader, queue);
+			this.hash = System.identityHashCode(classLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj instanceof ClassLoaderKey) {
+				final ClassLoader classLoader = get();
+				return classLoader != null && classLoader == ((ClassLoaderKey) obj).get();
+			}
+			if (obj instanceof LookupKey) {
+				final ClassLoader classLoader = get();
+				return classLoader != null && classLoader == ((LookupKey) obj).classLoader;
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Key used to lookup the index of a {@link ClassLoader}, without creating a weak reference.
+	 */
+	private static final class LookupKey {
+
+		final ClassLoader classLoader;
+
+		LookupKey(ClassLoader classLoader) {
+			super();
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(classLoader);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj instanceof ClassLoaderKey) {
+				return classLoader == ((ClassLoaderKey) obj).get();
+			}
+			return obj instanceof LookupKey && classLoader == ((LookupKey) obj).classLoader;
+		}
+
 	}
 
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.holonplatform.http.HttpMethod;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+
+/**
+ * A value object which identifies a request invocation, built from the request method, the request URI components
+ * (base URI, path, template and query parameters), all the request headers and an optional discriminator.
+ * <p>
+ * The request components are copied at creation time, so the key is not affected by later changes of the request
+ * definition.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public final class RequestKey {
+
+	private final HttpMethod method;
+	private final URI baseURI;
+	private final String path;
+	private final Map<String, Object> templateParameters;
+	private final Map<String, List<Object>> queryParameters;
+	private final Map<String, String> headers;
+	private final Object discriminator;
+	private final int hash;
+
+	private RequestKey(HttpMethod method, URI baseURI, String path, Map<String, Object> templateParameters,
+			Map<String, Object[]> queryParameters, Map<String, String> headers, Object discriminator) {
+		super();
+		this.method = method;
+		this.baseURI = baseURI;
+		this.path = path;
+		this.templateParameters = new HashMap<>(templateParameters);
+		this.queryParameters = new HashMap<>(queryParameters.size());
+		queryParameters.forEach((n, v) -> this.queryParameters.put(n, (v != null) ? Arrays.asList(v) : null));
+		this.headers = new HashMap<>(headers);
+		this.discriminator = discriminator;
+		this.hash = Objects.hash(method, baseURI, path, this.templateParameters, this.queryParameters, this.headers,
+				discriminator);
+	}
+
+	/**
+	 * Create a new {@link RequestKey}.
+	 * @param method Request method
+	 * @param definition Request definition (not null)
+	 * @param discriminator Optional additional key component, for example the expected response type
+	 * @return A new {@link RequestKey}
+	 */
+	public static RequestKey of(HttpMethod method, ReactiveRequestDefinition definition, Object discriminator) {
+		return new RequestKey(method, definition.getBaseRequestURI().orElse(null),
+				definition.getRequestPath().orElse(null), definition.getTemplateParameters(),
+				definition.getQueryParameters(), definition.getHeaders(), discriminator);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof RequestKey)) {
+			return false;
+		}
+		final RequestKey other = (RequestKey) obj;
+		return hash == other.hash && method == other.method && Objects.equals(baseURI, other.baseURI)
+				&& Objects.equals(path, other.path) && templateParameters.equals(other.templateParameters)
+				&& queryParameters.equals(other.queryParameters) && headers.equals(other.headers)
+				&& Objects.equals(discriminator, other.discriminator);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RequestKey [method=" + method + ", baseURI=" + baseURI + ", path=" + path + "]";
+	}
+
+}
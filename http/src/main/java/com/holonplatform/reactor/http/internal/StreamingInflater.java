@@ -0,0 +1,276 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.http.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.Compression.Encoding;
+
+/**
+ * Incremental decompressor of an {@link Encoding} compressed byte stream, fed chunk by chunk as the chunks are
+ * received.
+ * <p>
+ * For the {@link Encoding#GZIP} encoding, the member header and trailer are parsed even when split across chunks, the
+ * trailer CRC and size are checked and concatenated members are supported.
+ * </p>
+ * <p>
+ * This class is not thread safe: the chunks must be supplied sequentially. The {@link #end()} method must be called
+ * to release the native resources.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class StreamingInflater {
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private static final int CHUNK_SIZE = 8192;
+	private static final int GZIP_HEADER_SIZE = 10;
+	private static final int GZIP_TRAILER_SIZE = 8;
+
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+
+	private final boolean gzip;
+	private final Inflater inflater;
+	private final CRC32 crc;
+	private final byte[] chunk = new byte[CHUNK_SIZE];
+
+	/**
+	 * Pending GZIP member header or trailer bytes
+	 */
+	private byte[] pending = EMPTY;
+	private int pendingLength = 0;
+
+	private boolean header;
+	private long memberBytes;
+
+	private long inputBytes = 0;
+	private long outputBytes = 0;
+
+	/**
+	 * Constructor.
+	 * @param encoding The stream encoding (not null)
+	 */
+	public StreamingInflater(Encoding encoding) {
+		super();
+		ObjectUtils.argumentNotNull(encoding, "Encoding must be not null");
+		this.gzip = (encoding == Encoding.GZIP);
+		this.inflater = new Inflater(gzip);
+		this.crc = gzip ? new CRC32() : null;
+		this.header = gzip;
+	}
+
+	/**
+	 * Decompress a chunk of the compressed stream.
+	 * @param bytes The chunk bytes
+	 * @param offset The chunk offset
+	 * @param length The chunk length
+	 * @return The decompressed bytes, an empty array if more input is required
+	 * @throws ZipException If the stream is not valid
+	 */
+	public byte[] inflate(byte[] bytes, int offset, int length) throws ZipException {
+		inputBytes += length;
+		final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.min(CHUNK_SIZE, length * 4));
+		inflate(bytes, offset, offset + length, output);
+		return (output.size() > 0) ? output.toByteArray() : EMPTY;
+	}
+
+	/**
+	 * Checks that the end of the compressed stream was reached, to be called when no more input is available.
+	 * @throws ZipException If the compressed stream is truncated
+	 */
+	public void finish() throws ZipException {
+		if (inputBytes == 0) {
+			// no entity at all
+			return;
+		}
+		// a GZIP stream is complete when the last member trailer was read and no other member was started
+		final boolean complete = gzip ? (header && pendingLength == 0) : inflater.finished();
+		if (!complete) {
+			throw new ZipException("Unexpected end of compressed stream");
+		}
+	}
+
+	/**
+	 * Release the native resources. Further decompression is not allowed.
+	 */
+	public void end() {
+		inflater.end();
+	}
+
+	/**
+	 * Get the number of compressed bytes supplied so far.
+	 * @return The input bytes count
+	 */
+	public long getInputBytes() {
+		return inputBytes;
+	}
+
+	/**
+	 * Get the number of decompressed bytes produced so far.
+	 * @return The output bytes count
+	 */
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	private void inflate(byte[] bytes, int offset, int end, ByteArrayOutputStream output) throws ZipException {
+		if (offset >= end) {
+			return;
+		}
+		if (header) {
+			// GZIP member header
+			append(bytes, offset, end);
+			final int headerLength = getGzipHeaderLength(pending, pendingLength);
+			if (headerLength < 0) {
+				return;
+			}
+			header = false;
+			final byte[] data = pending;
+			final int dataLength = pendingLength;
+			pending = EMPTY;
+			pendingLength = 0;
+			inflate(data, headerLength, dataLength, output);
+			return;
+		}
+		if (inflater.finished()) {
+			// GZIP member trailer
+			trailer(bytes, offset, end, output);
+			return;
+		}
+		inflater.setInput(bytes, offset, end - offset);
+		try {
+			while (!inflater.finished()) {
+				final int count = inflater.inflate(chunk);
+				if (count == 0) {
+					if (inflater.needsDictionary()) {
+						throw new ZipException("Preset dictionary not supported");
+					}
+					break;
+				}
+				output.write(chunk, 0, count);
+				outputBytes += count;
+				if (gzip) {
+					crc.update(chunk, 0, count);
+					memberBytes += count;
+				}
+			}
+		} catch (DataFormatException e) {
+			throw new ZipException("Invalid compressed stream: " + e.getMessage());
+		}
+		if (inflater.finished() && gzip) {
+			final int remaining = inflater.getRemaining();
+			trailer(bytes, end - remaining, end, output);
+		}
+	}
+
+	private void trailer(byte[] bytes, int offset, int end, ByteArrayOutputStream output) throws ZipException {
+		if (!gzip) {
+			// ignore any trailing bytes after the ZLIB stream
+			return;
+		}
+		final int count = Math.min(GZIP_TRAILER_SIZE - pendingLength, end - offset);
+		append(bytes, offset, offset + count);
+		if (pendingLength < GZIP_TRAILER_SIZE) {
+			return;
+		}
+		if (readInt(pending, 0) != (int) crc.getValue()) {
+			throw new ZipException("Corrupt GZIP trailer: CRC mismatch");
+		}
+		if (readInt(pending, 4) != (int) memberBytes) {
+			throw new ZipException("Corrupt GZIP trailer: size mismatch");
+		}
+		pending = EMPTY;
+		pendingLength = 0;
+		// next member, if any
+		inflater.reset();
+		crc.reset();
+		memberBytes = 0;
+		header = true;
+		inflate(bytes, offset + count, end, output);
+	}
+
+	private void append(byte[] bytes, int offset, int end) {
+		final int length = end - offset;
+		if (pendingLength + length > pending.length) {
+			pending = Arrays.copyOf(pending, Math.max(pendingLength + length, GZIP_HEADER_SIZE * 2));
+		}
+		System.arraycopy(bytes, offset, pending, pendingLength, length);
+		pendingLength += length;
+	}
+
+	/**
+	 * Get the length of the GZIP member header available in given bytes.
+	 * @param bytes Header bytes
+	 * @param length Available bytes count
+	 * @return The header length, <code>-1</code> if the header is not complete
+	 * @throws ZipException If the header is not valid
+	 */
+	private static int getGzipHeaderLength(byte[] bytes, int length) throws ZipException {
+		if (length < GZIP_HEADER_SIZE) {
+			return -1;
+		}
+		if ((bytes[0] & 0xff) != 0x1f || (bytes[1] & 0xff) != 0x8b) {
+			throw new ZipException("Not in GZIP format");
+		}
+		if (bytes[2] != 8) {
+			throw new ZipException("Unsupported GZIP compression method");
+		}
+		final int flags = bytes[3] & 0xff;
+		int position = GZIP_HEADER_SIZE;
+		if ((flags & FEXTRA) != 0) {
+			if (length < position + 2) {
+				return -1;
+			}
+			position += 2 + ((bytes[position] & 0xff) | ((bytes[position + 1] & 0xff) << 8));
+		}
+		if ((flags & FNAME) != 0 && (position = skipZeroTerminated(bytes, position, length)) < 0) {
+			return -1;
+		}
+		if ((flags & FCOMMENT) != 0 && (position = skipZeroTerminated(bytes, position, length)) < 0) {
+			return -1;
+		}
+		if ((flags & FHCRC) != 0) {
+			position += 2;
+		}
+		return (position <= length) ? position : -1;
+	}
+
+	private static int skipZeroTerminated(byte[] bytes, int position, int length) {
+		for (int i = position; i < length; i++) {
+			if (bytes[i] == 0) {
+				return i + 1;
+			}
+		}
+		// not terminated yet
+		return -1;
+	}
+
+	private static int readInt(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xff) | ((bytes[offset + 1] & 0xff) << 8) | ((bytes[offset + 2] & 0xff) << 16)
+				| ((bytes[offset + 3] & 0xff) << 24);
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Live statistics of the connection pool used by a {@link PooledSpringReactiveRestClient}.
+ * <p>
+ * The connection gauges are the sum of the values of the pools bound to each remote host.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface ConnectionPoolStatistics {
+
+	/**
+	 * Get the number of connections currently in use.
+	 * @return The active connections count
+	 */
+	int getActiveConnections();
+
+	/**
+	 * Get the number of connections currently idle in the pool.
+	 * @return The idle connections count
+	 */
+	int getIdleConnections();
+
+	/**
+	 * Get the number of connections currently allocated, either active or idle.
+	 * @return The allocated connections count
+	 */
+	int getAllocatedConnections();
+
+	/**
+	 * Get the number of connection acquisitions currently waiting for a connection to be available.
+	 * @return The pending acquires count
+	 */
+	int getPendingAcquires();
+
+	/**
+	 * Get the number of remote hosts for which a connection pool has been created.
+	 * @return The remote hosts count
+	 */
+	int getRemoteHosts();
+
+	/**
+	 * Get the total number of successful connection acquisitions. The acquisitions are recorded only for HTTP/1.1
+	 * connections: for the multiplexed connections, see {@link #getMultiplexedConnections()}.
+	 * @return The connection acquisitions count
+	 */
+	long getAcquireCount();
+
+	/**
+	 * Get the mean time spent to acquire a connection, either from the pool or by opening a new one.
+	 * @return The mean acquire latency
+	 */
+	Duration getMeanAcquireLatency();
+
+	/**
+	 * Get the maximum time spent to acquire a connection, either from the pool or by opening a new one.
+	 * @return The max acquire latency
+	 */
+	Duration getMaxAcquireLatency();
+
+	/**
+	 * Get the number of HTTP/2 streams currently open, i.e. the number of requests in progress over multiplexed
+	 * connections.
+	 * @return The active streams count, always <code>0</code> using HTTP/1.1
+	 */
+	int getActiveStreams();
+
+	/**
+	 * Get the statistics of the open HTTP/2 connections.
+	 * @return The multiplexed connections statistics, an empty list using HTTP/1.1
+	 */
+	List<MultiplexedConnection> getMultiplexedConnections();
+
+	/**
+	 * Live statistics of a HTTP/2 connection.
+	 */
+	public interface MultiplexedConnection {
+
+		/**
+		 * Get the connection id.
+		 * @return The connection id
+		 */
+		String getId();
+
+		/**
+		 * Get the remote address of the connection.
+		 * @return The remote address
+		 */
+		String getRemoteAddress();
+
+		/**
+		 * Get the number of streams currently open on this connection.
+		 * @return The active streams count
+		 */
+		int getActiveStreams();
+
+		/**
+		 * Get the maximum number of streams concurrently open on this connection.
+		 * @return The max active streams count
+		 */
+		int getMaxActiveStreams();
+
+		/**
+		 * Get the total number of streams opened on this connection.
+		 * @return The streams count
+		 */
+		long getStreamCount();
+
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring;
+
+import java.time.Duration;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * A {@link SpringReactiveRestClient} which owns its connection pool and event loop resources, built using
+ * {@link SpringReactiveRestClient#builder()}.
+ * <p>
+ * The client should be closed when no longer used, to release the pooled connections and the event loop threads.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public interface PooledSpringReactiveRestClient extends SpringReactiveRestClient, AutoCloseable {
+
+	/**
+	 * Get the live connection pool statistics.
+	 * @return The connection pool statistics
+	 */
+	ConnectionPoolStatistics getConnectionPoolStatistics();
+
+	/**
+	 * Dispose the connection pool and the event loop resources owned by this client.
+	 */
+	@Override
+	void close();
+
+	/**
+	 * HTTP protocol versions.
+	 */
+	public enum Protocol {
+
+		/**
+		 * HTTP/1.1, with a connection for each concurrent request.
+		 */
+		HTTP_1_1,
+
+		/**
+		 * HTTP/2 over TLS, negotiated using ALPN with fallback to HTTP/1.1. The request targets must use the
+		 * <code>https</code> scheme.
+		 */
+		HTTP_2,
+
+		/**
+		 * HTTP/2 over cleartext TCP with prior knowledge, without the HTTP/1.1 upgrade. The server must support
+		 * cleartext HTTP/2.
+		 */
+		H2C;
+
+	}
+
+	/**
+	 * {@link PooledSpringReactiveRestClient} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Set the connection pool name. Default is <code>holon-reactive-rest-client</code>.
+		 * @param name The pool name (not null)
+		 * @return this
+		 */
+		Builder poolName(String name);
+
+		/**
+		 * Set the maximum number of connections for each remote host.
+		 * @param maxConnections The max connections per host (must be greater than 0)
+		 * @return this
+		 */
+		Builder maxConnections(int maxConnections);
+
+		/**
+		 * Set the maximum number of connection acquisitions which can wait for a connection to be available, for each
+		 * remote host. When exceeded, the invocation fails.
+		 * @param pendingAcquireMaxCount The max pending acquires, <code>-1</code> for no limit
+		 * @return this
+		 */
+		Builder pendingAcquireMaxCount(int pendingAcquireMaxCount);
+
+		/**
+		 * Set the maximum time to wait for a connection to be available.
+		 * @param pendingAcquireTimeout The pending acquire timeout (not null)
+		 * @return this
+		 */
+		Builder pendingAcquireTimeout(Duration pendingAcquireTimeout);
+
+		/**
+		 * Set the time after which an idle connection is closed.
+		 * @param maxIdleTime The max idle time (not null)
+		 * @return this
+		 */
+		Builder maxIdleTime(Duration maxIdleTime);
+
+		/**
+		 * Set the maximum lifetime of a connection, after which it is closed when released to the pool.
+		 * @param maxLifeTime The max connection lifetime (not null)
+		 * @return this
+		 */
+		Builder maxLifeTime(Duration maxLifeTime);
+
+		/**
+		 * Set the interval at which the idle and expired connections are evicted in background. By default, the
+		 * connections are checked only when acquired or released.
+		 * @param evictionInterval The background eviction interval (not null)
+		 * @return this
+		 */
+		Builder evictionInterval(Duration evictionInterval);
+
+		/**
+		 * Set the number of event loop threads. By default, the shared Reactor Netty event loop is used.
+		 * @param eventLoopThreads The event loop threads count (must be greater than 0)
+		 * @return this
+		 */
+		Builder eventLoopThreads(int eventLoopThreads);
+
+		/**
+		 * Set whether to use HTTP persistent connections and TCP keep-alive. Default is <code>true</code>.
+		 * @param keepAlive Whether to keep the connections alive
+		 * @return this
+		 */
+		Builder keepAlive(boolean keepAlive);
+
+		/**
+		 * Set the connection timeout.
+		 * @param connectTimeout The connection timeout (not null)
+		 * @return this
+		 */
+		Builder connectTimeout(Duration connectTimeout);
+
+		/**
+		 * Set the HTTP protocol version to use. Default is {@link Protocol#HTTP_1_1}.
+		 * <p>
+		 * Using HTTP/2, the concurrent requests to the same remote host are multiplexed as streams over a few
+		 * connections: the {@link #maxConnections(int)} value limits the number of connections, each one carrying up to
+		 * {@link #maxConcurrentStreams(int)} streams.
+		 * </p>
+		 * @param protocol The protocol (not null)
+		 * @return this
+		 */
+		Builder protocol(Protocol protocol);
+
+		/**
+		 * Set the maximum number of concurrent streams for each HTTP/2 connection. A lower value is used if advertised
+		 * by the server. Ignored when using {@link Protocol#HTTP_1_1}.
+		 * @param maxConcurrentStreams The max concurrent streams per connection (must be greater than 0)
+		 * @return this
+		 */
+		Builder maxConcurrentStreams(int maxConcurrentStreams);
+
+		/**
+		 * Set the {@link WebClient.Builder} to use to build the {@link WebClient}, for example to configure codecs and
+		 * filters. The client connector of the builder is replaced.
+		 * @param webClientBuilder The web client builder (not null)
+		 * @return this
+		 */
+		Builder webClientBuilder(WebClient.Builder webClientBuilder);
+
+		/**
+		 * Build the client.
+		 * @return A new {@link PooledSpringReactiveRestClient}
+		 */
+		PooledSpringReactiveRestClient build();
+
+	}
+
+}
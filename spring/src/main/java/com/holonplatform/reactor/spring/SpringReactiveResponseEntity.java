@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import com.holonplatform.reactor.http.ReactiveResponseEntity;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * A {@link ReactiveResponseEntity} returned by a {@link SpringReactiveRestClient}, which provides access to the raw
+ * message entity {@link DataBuffer}s.
+ *
+ * @param <T> Response entity type
+ *
+ * @since 6.0.3
+ */
+public interface SpringReactiveResponseEntity<T> extends ReactiveResponseEntity<T> {
+
+	/**
+	 * Read the message entity as a {@link Flux} of the {@link DataBuffer}s received from the network, without any
+	 * decoding or copy.
+	 * <p>
+	 * The subscriber is responsible for releasing each emitted {@link DataBuffer}, for example using
+	 * {@link DataBufferUtils#release(DataBuffer)}, as soon as it has been processed.
+	 * </p>
+	 * @return A {@link Flux} of the message entity {@link DataBuffer}s
+	 */
+	Flux<DataBuffer> asDataBuffers();
+
+}
@@ -18,6 +18,7 @@ package com.holonplatform.reactor.spring;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.holonplatform.reactor.http.ReactiveRestClient;
+import com.holonplatform.reactor.spring.internal.DefaultPooledSpringReactiveRestClientBuilder;
 import com.holonplatform.reactor.spring.internal.WebClientReactiveRestClient;
 
 /**
@@ -29,6 +30,10 @@ public interface SpringReactiveRestClient extends ReactiveRestClient {
 
 	/**
 	 * Get the {@link WebClient} bound to this RestClient.
+	 * <p>
+	 * This is the {@link WebClient} provided at client creation: the invocations are performed using a copy of it
+	 * with the {@link com.holonplatform.core.property.PropertyBox} JSON codecs registered, when Jackson is available.
+	 * </p>
 	 * @return The {@link WebClient} reference
 	 */
 	WebClient getClient();
@@ -42,4 +47,17 @@ public interface SpringReactiveRestClient extends ReactiveRestClient {
 		return new WebClientReactiveRestClient(webClient);
 	}
 
+	/**
+	 * Get a builder to create a {@link PooledSpringReactiveRestClient}, which uses a dedicated Reactor Netty connection
+	 * pool and optional event loop resources, configured through the builder.
+	 * <p>
+	 * The <code>io.projectreactor.netty:reactor-netty-http</code> artifact must be available in classpath.
+	 * </p>
+	 * @return A new {@link PooledSpringReactiveRestClient} builder
+	 * @since 6.0.3
+	 */
+	static PooledSpringReactiveRestClient.Builder builder() {
+		return new DefaultPooledSpringReactiveRestClientBuilder();
+	}
+
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import com.holonplatform.core.internal.Logger;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.http.ResponseCache;
+import com.holonplatform.reactor.http.ResponseCache.CachedResponse;
+import com.holonplatform.spring.internal.SpringLogger;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Performs a {@link ClientResponse} exchange through a {@link ResponseCache}, replaying the stored responses and
+ * revalidating them using conditional requests when stale.
+ *
+ * @since 6.0.3
+ */
+public class CachingExchange {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = SpringLogger.create();
+
+	private static final int NOT_MODIFIED = 304;
+
+	private final ResponseCache cache;
+
+	/**
+	 * Keys of the stored responses which are being revalidated in background
+	 */
+	private final Set<Object> revalidating = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Exchange strategies used to decode the replayed responses, obtained from the last received response
+	 */
+	private volatile ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+
+	/**
+	 * Constructor.
+	 * @param cache Response cache (not null)
+	 */
+	public CachingExchange(ResponseCache cache) {
+		super();
+		ObjectUtils.argumentNotNull(cache, "ResponseCache must be not null");
+		this.cache = cache;
+	}
+
+	/**
+	 * Get the response cache.
+	 * @return The response cache
+	 */
+	public ResponseCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Perform the exchange, using the stored response bound to given key when available.
+	 * @param key Request key
+	 * @param exchange Actual exchange supplier
+	 * @param conditionalExchange Performs a separate exchange of the same request, with the additional conditional
+	 *        request headers set by given consumer
+	 * @return The response
+	 */
+	public Mono<ClientResponse> exchange(Object key, Supplier<Mono<ClientResponse>> exchange,
+			Function<Consumer<HttpHeaders>, Mono<ClientResponse>> conditionalExchange) {
+		return Mono.defer(() -> {
+			final long now = System.currentTimeMillis();
+			final CachedResponse cached = cache.get(key).orElse(null);
+			if (cached == null) {
+				cache.recordMiss();
+				return exchange.get().flatMap(r -> store(key, r, now));
+			}
+			if (cached.isFresh(now)) {
+				cache.recordHit();
+				return Mono.just(replay(cached));
+			}
+			if (cached.isStaleWhileRevalidate(now)) {
+				cache.recordHit();
+				if (revalidating.add(key)) {
+					revalidate(key, cached, conditionalExchange, now).flatMap(r -> r.releaseBody())
+							.doFinally(signal -> revalidating.remove(key)).subscribe(v -> {
+							}, e -> LOGGER.debug("Background revalidation failed for [" + key + "]", e));
+				}
+				return Mono.just(replay(cached));
+			}
+			return revalidate(key, cached, conditionalExchange, now);
+		});
+	}
+
+	/**
+	 * Revalidate a stored response using a conditional request.
+	 * @param key Request key
+	 * @param cached Stored response
+	 * @param conditionalExchange Conditional exchange function
+	 * @param requestTime Request time
+	 * @return The response
+	 */
+	private Mono<ClientResponse> revalidate(Object key, CachedResponse cached,
+			Function<Consumer<HttpHeaders>, Mono<ClientResponse>> conditionalExchange, long requestTime) {
+		cache.recordRevalidation();
+		return conditionalExchange.apply(headers -> {
+			cached.getETag().ifPresent(etag -> headers.set(HttpHeaders.IF_NONE_MATCH, etag));
+			cached.getLastModified().ifPresent(lm -> headers.set(HttpHeaders.IF_MODIFIED_SINCE, lm));
+		}).flatMap(r -> {
+			if (r.statusCode().value() == NOT_MODIFIED) {
+				cache.recordHit();
+				return r.releaseBody().then(Mono.fromSupplier(() -> replay(cache.revalidated(key, cached,
+						r.headers().asHttpHeaders(), requestTime, System.currentTimeMillis()).orElse(cached))));
+			}
+			cache.recordMiss();
+			return store(key, r, requestTime);
+		});
+	}
+
+	/**
+	 * Store the response, if cacheable. The response body is read in memory only up to the cache maximum entry
+	 * weight: a larger body is returned to the caller as it is received, without storing it.
+	 * @param key Request key
+	 * @param response Response
+	 * @param requestTime Request time
+	 * @return The response to return to the caller
+	 */
+	private Mono<ClientResponse> store(Object key, ClientResponse response, long requestTime) {
+		this.strategies = response.strategies();
+		final int statusCode = response.statusCode().value();
+		final HttpHeaders headers = response.headers().asHttpHeaders();
+		if (!cache.isCacheable(statusCode, headers)) {
+			return Mono.just(response);
+		}
+		final Flux<DataBuffer> body = response.body(BodyExtractors.toDataBuffers());
+		final long maxSize = Math.min(cache.getMaxEntryWeight(), Integer.MAX_VALUE - 8);
+		return Mono.<BoundedBody>create(sink -> body.subscribe(new BoundedBodyReader(maxSize, sink)))
+				.map(read -> {
+					if (read.bytes == null) {
+						// too large to be stored
+						return response.mutate().body(ignored -> read.body).build();
+					}
+					cache.put(key, statusCode, headers, read.bytes, requestTime, System.currentTimeMillis());
+					return replay(statusCode, headers, read.bytes);
+				});
+	}
+
+	/**
+	 * Build a {@link ClientResponse} from a stored response.
+	 * @param cached Stored response
+	 * @return The response
+	 */
+	private ClientResponse replay(CachedResponse cached) {
+		final HttpHeaders headers = new HttpHeaders();
+		cached.getHeaders().forEach((n, v) -> headers.addAll(n, v));
+		return replay(cached.getStatusCode(), headers, cached.getBody());
+	}
+
+	/**
+	 * Build a {@link ClientResponse} using given status code, headers and body bytes.
+	 * @param statusCode Status code
+	 * @param headers Headers
+	 * @param body Body bytes
+	 * @return The response
+	 */
+	private ClientResponse replay(int statusCode, HttpHeaders headers, byte[] body) {
+		final Flux<DataBuffer> buffers = (body.length == 0) ? Flux.empty()
+				: Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+		return ClientResponse.create(HttpStatusCode.valueOf(statusCode), strategies)
+				.headers(h -> h.addAll(headers)).body(buffers).build();
+	}
+
+	/**
+	 * The result of a bounded body read: either the whole body bytes, or the body to stream when it exceeds the limit.
+	 */
+	private static final class BoundedBody {
+
+		final byte[] bytes;
+		final Flux<DataBuffer> body;
+
+		BoundedBody(byte[] bytes, Flux<DataBuffer> body) {
+			super();
+			this.bytes = bytes;
+			this.body = body;
+		}
+
+	}
+
+	/**
+	 * Reads a response body in memory up to a maximum size. When the maximum size is exceeded, the read stops and the
+	 * buffers read so far, followed by the rest of the body, are handed over as the body to stream.
+	 */
+	private static final class BoundedBodyReader extends BaseSubscriber<DataBuffer> {
+
+		private final long maxSize;
+		private final MonoSink<BoundedBody> sink;
+		private final List<DataBuffer> buffers = new ArrayList<>();
+		private final Sinks.Many<DataBuffer> remaining = Sinks.many().unicast().onBackpressureBuffer();
+		private long size = 0L;
+		private volatile boolean exceeded = false;
+
+		BoundedBodyReader(long maxSize, MonoSink<BoundedBody> sink) {
+			super();
+			this.maxSize = maxSize;
+			this.sink = sink;
+			sink.onCancel(this::dispose);
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			subscription.request(1);
+		}
+
+		@Override
+		protected void hookOnNext(DataBuffer buffer) {
+			if (exceeded) {
+				remaining.tryEmitNext(buffer);
+				return;
+			}
+			buffers.add(buffer);
+			size += buffer.readableByteCount();
+			if (size > maxSize) {
+				exceeded = true;
+				// the rest of the body is requested as the streamed body is consumed
+				sink.success(new BoundedBody(null,
+						Flux.concat(Flux.fromIterable(buffers),
+								remaining.asFlux().doOnRequest(this::request).doOnCancel(this::cancel))
+								.doOnDiscard(DataBuffer.class, DataBufferUtils::release)));
+			} else {
+				request(1);
+			}
+		}
+
+		@Override
+		protected void hookOnComplete() {
+			if (exceeded) {
+				remaining.tryEmitComplete();
+				return;
+			}
+			final byte[] bytes = new byte[(int) size];
+			int position = 0;
+			for (DataBuffer buffer : buffers) {
+				final int count = buffer.readableByteCount();
+				buffer.read(bytes, position, count);
+				position += count;
+				DataBufferUtils.release(buffer);
+			}
+			buffers.clear();
+			sink.success(new BoundedBody(bytes, null));
+		}
+
+		@Override
+		protected void hookOnError(Throwable throwable) {
+			if (exceeded) {
+				remaining.tryEmitError(throwable);
+				return;
+			}
+			release();
+			sink.error(throwable);
+		}
+
+		@Override
+		protected void hookOnCancel() {
+			if (!exceeded) {
+				release();
+			}
+		}
+
+		private void release() {
+			buffers.forEach(DataBufferUtils::release);
+			buffers.clear();
+		}
+
+	}
+
+}
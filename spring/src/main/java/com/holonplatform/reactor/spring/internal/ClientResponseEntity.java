@@ -16,21 +16,31 @@
 package com.holonplatform.reactor.spring.internal;
 
 import java.io.InputStream;
-import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.client.ClientResponse;
 
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertySet;
 import com.holonplatform.http.rest.ResponseEntity;
 import com.holonplatform.http.rest.ResponseType;
-import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.ServerSentEvent;
+import com.holonplatform.reactor.spring.SpringReactiveResponseEntity;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Spring {@link ResponseEntity} implementation using a {@link ClientResponse}.
@@ -39,15 +49,29 @@ import reactor.core.publisher.Mono;
  *
  * @since 5.2.0
  */
-public class ClientResponseEntity<T> implements ReactiveResponseEntity<T> {
+public class ClientResponseEntity<T> implements SpringReactiveResponseEntity<T> {
 
 	private final ClientResponse response;
 	private final ResponseType<T> type;
+	private final PropertySet<?> propertySet;
 
 	public ClientResponseEntity(ClientResponse response, ResponseType<T> type) {
+		this(response, type, null);
+	}
+
+	/**
+	 * Constructor.
+	 * @param response The client response
+	 * @param type The response type
+	 * @param propertySet The {@link PropertySet} to use to decode the <code>PropertyBox</code> response payloads
+	 *        (may be null)
+	 * @since 6.0.3
+	 */
+	public ClientResponseEntity(ClientResponse response, ResponseType<T> type, PropertySet<?> propertySet) {
 		super();
 		this.response = response;
 		this.type = type;
+		this.propertySet = propertySet;
 	}
 
 	/*
@@ -84,7 +108,7 @@ public class ClientResponseEntity<T> implements ReactiveResponseEntity<T> {
 	 */
 	@Override
 	public Mono<T> asMono() {
-		return response.bodyToMono(getPayloadType());
+		return bind(response.bodyToMono(getPayloadType()));
 	}
 
 	/*
@@ -93,7 +117,7 @@ public class ClientResponseEntity<T> implements ReactiveResponseEntity<T> {
 	 */
 	@Override
 	public <E> Mono<E> asMono(Class<E> entityType) {
-		return response.bodyToMono(entityType);
+		return bind(response.bodyToMono(entityType));
 	}
 
 	/*
@@ -102,7 +126,7 @@ public class ClientResponseEntity<T> implements ReactiveResponseEntity<T> {
 	 */
 	@Override
 	public <E> Mono<E> asMono(ResponseType<E> entityType) {
-		return response.bodyToMono(ParameterizedTypeReference.forType(entityType.getType()));
+		return bind(response.<E>bodyToMono(ParameterizedTypeReference.forType(entityType.getType())));
 	}
 
 	/*
@@ -111,7 +135,33 @@ public class ClientResponseEntity<T> implements ReactiveResponseEntity<T> {
 	 */
 	@Override
 	public <E> Flux<E> asFlux(Class<E> entityType) {
-		return response.bodyToFlux(entityType);
+		// elements are decoded one by one by the streaming decoders (JSON array, NDJSON, stream+json)
+		return bind(response.bodyToFlux(entityType));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asFlux(com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <E> Flux<E> asFlux(ResponseType<E> entityType) {
+		return bind(response.bodyToFlux(ParameterizedTypeReference.<E>forType(entityType.getType())));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asEvents(com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	public <E> Flux<ServerSentEvent<E>> asEvents(ResponseType<E> dataType) {
+		ObjectUtils.argumentNotNull(dataType, "Event data type must be not null");
+		// decoded by the WebClient Server-Sent Events reader
+		final ResolvableType eventType = ResolvableType.forClassWithGenerics(
+				org.springframework.http.codec.ServerSentEvent.class, ResolvableType.forType(dataType.getType()));
+		final Flux<org.springframework.http.codec.ServerSentEvent<E>> events = response
+				.bodyToFlux(ParameterizedTypeReference.forType(eventType.getType()));
+		return bind(events).map(event -> ServerSentEvent.create(event.id(), event.event(), event.data(),
+				event.retry(), event.comment()));
 	}
 
 	/*
@@ -120,14 +170,101 @@ public class ClientResponseEntity<T> implements ReactiveResponseEntity<T> {
 	 */
 	@Override
 	public Mono<InputStream> asInputStream() {
-		final InputStream initial = new InputStream() {
-			@Override
-			public int read() {
-				return -1;
+		// the stream is blocking: emit it on a thread which can be safely blocked
+		return Mono.<InputStream>fromSupplier(() -> {
+			final DataBufferInputStream stream = new DataBufferInputStream();
+			asDataBuffers().subscribe(stream);
+			return stream;
+		}).publishOn(Schedulers.boundedElastic());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.SpringReactiveResponseEntity#asDataBuffers()
+	 */
+	@Override
+	public Flux<DataBuffer> asDataBuffers() {
+		return response.body(BodyExtractors.toDataBuffers());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#asByteBuffers()
+	 */
+	@Override
+	public Flux<ByteBuffer> asByteBuffers() {
+		return asDataBuffers().map(buffer -> {
+			try {
+				final byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				return ByteBuffer.wrap(bytes);
+			} finally {
+				DataBufferUtils.release(buffer);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#writeTo(java.nio.channels.AsynchronousFileChannel,
+	 * long)
+	 */
+	@Override
+	public Mono<Long> writeTo(AsynchronousFileChannel channel, long position) {
+		ObjectUtils.argumentNotNull(channel, "File channel must be not null");
+		final AtomicLong written = new AtomicLong(0L);
+		// each buffer is released as soon as it is written
+		return DataBufferUtils
+				.write(asDataBuffers().doOnNext(buffer -> written.addAndGet(buffer.readableByteCount())), channel,
+						position)
+				.doOnNext(DataBufferUtils::release).then(Mono.fromSupplier(written::get));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#releaseBody()
+	 */
+	@Override
+	public Mono<Void> releaseBody() {
+		return response.releaseBody();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveResponseEntity#doOnBodyTermination(java.lang.Runnable)
+	 */
+	@Override
+	public SpringReactiveResponseEntity<T> doOnBodyTermination(Runnable callback) {
+		ObjectUtils.argumentNotNull(callback, "Callback must be not null");
+		final AtomicBoolean terminated = new AtomicBoolean(false);
+		// any body read goes through the data buffers flux
+		return new ClientResponseEntity<>(response.mutate().body(body -> body.doFinally(signal -> {
+			if (terminated.compareAndSet(false, true)) {
+				callback.run();
 			}
-		};
-		return response.body(BodyExtractors.toDataBuffers()).reduce(initial,
-				(s, d) -> new SequenceInputStream(s, d.asInputStream()));
+		})).build(), type, propertySet);
+	}
+
+	/**
+	 * Bind the request {@link PropertySet}, if any, to the subscription context of given body publisher.
+	 * @param <E> Body type
+	 * @param body The body publisher
+	 * @return The body publisher
+	 */
+	private <E> Mono<E> bind(Mono<E> body) {
+		return (propertySet != null) ? body.contextWrite(ctx -> PropertyBoxCodecs.withPropertySet(ctx, propertySet))
+				: body;
+	}
+
+	/**
+	 * Bind the request {@link PropertySet}, if any, to the subscription context of given body publisher.
+	 * @param <E> Body type
+	 * @param body The body publisher
+	 * @return The body publisher
+	 */
+	private <E> Flux<E> bind(Flux<E> body) {
+		return (propertySet != null) ? body.contextWrite(ctx -> PropertyBoxCodecs.withPropertySet(ctx, propertySet))
+				: body;
 	}
 
 	/*
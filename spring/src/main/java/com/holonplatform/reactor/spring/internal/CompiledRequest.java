@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestBodySpec;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.DefaultPreparedRequest;
+import com.holonplatform.reactor.http.internal.DefaultPreparedRequest.BoundReactiveRequestDefinition;
+
+/**
+ * The {@link WebClient} specific compiled form of a {@link DefaultPreparedRequest}.
+ * <p>
+ * The request URI template (base URI, path and query parameters) is built and encoded once, using the same encoding
+ * rules of the default {@link WebClient} URI builder factory, and split into literal and variable parts. The
+ * invocations only encode and concatenate the template parameter values, and the prepared headers are copied from
+ * plain arrays.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public final class CompiledRequest {
+
+	private final DefaultPreparedRequest preparedRequest;
+
+	/**
+	 * Encoded URI template literal parts, one more than the variables
+	 */
+	private final String[] literals;
+
+	/**
+	 * URI template variable names
+	 */
+	private final String[] variables;
+
+	/**
+	 * Prepared header names and values
+	 */
+	private final String[] headerNames;
+	private final String[] headerValues;
+
+	/**
+	 * The URI, if the template has no variables
+	 */
+	private final URI staticURI;
+
+	private CompiledRequest(DefaultPreparedRequest preparedRequest, String[] literals, String[] variables) {
+		super();
+		this.preparedRequest = preparedRequest;
+		this.literals = literals;
+		this.variables = variables;
+		final Map<String, String> headers = preparedRequest.getHeaders();
+		this.headerNames = new String[headers.size()];
+		this.headerValues = new String[headers.size()];
+		int i = 0;
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			headerNames[i] = header.getKey();
+			headerValues[i] = header.getValue();
+			i++;
+		}
+		this.staticURI = (variables.length == 0) ? URI.create(literals[0]) : null;
+	}
+
+	/**
+	 * Compile given prepared request. The prepared request must provide a base URI.
+	 * @param preparedRequest The prepared request
+	 * @return The compiled request, <code>null</code> if the prepared request has no base URI
+	 */
+	public static CompiledRequest compile(DefaultPreparedRequest preparedRequest) {
+		final Optional<URI> baseURI = preparedRequest.getBaseRequestURI();
+		if (!baseURI.isPresent()) {
+			return null;
+		}
+		final UriComponentsBuilder builder = UriComponentsBuilder.fromUri(baseURI.get());
+		preparedRequest.getRequestPath().ifPresent(path -> builder.path(path));
+		preparedRequest.getQueryParameters().forEach((name, values) -> builder.queryParam(name, values));
+		// encode the template only, keeping the URI variables
+		final String template = builder.encode().build().toUriString();
+
+		final List<String> literals = new ArrayList<>();
+		final List<String> variables = new ArrayList<>();
+		int start = 0;
+		int open;
+		while ((open = template.indexOf('{', start)) > -1) {
+			final int close = template.indexOf('}', open);
+			if (close < 0) {
+				break;
+			}
+			literals.add(template.substring(start, open));
+			final String variable = template.substring(open + 1, close);
+			final int colon = variable.indexOf(':');
+			variables.add(((colon > -1) ? variable.substring(0, colon) : variable).trim());
+			start = close + 1;
+		}
+		literals.add(template.substring(start));
+		return new CompiledRequest(preparedRequest, literals.toArray(new String[0]),
+				variables.toArray(new String[0]));
+	}
+
+	/**
+	 * Get the compiled form of the prepared request to which given request definition is bound, if the definition
+	 * target, path and query parameters were not changed after binding.
+	 * @param requestDefinition The request definition
+	 * @return The compiled request, <code>null</code> if not available
+	 */
+	public static CompiledRequest of(ReactiveRequestDefinition requestDefinition) {
+		if (requestDefinition instanceof BoundReactiveRequestDefinition) {
+			final DefaultPreparedRequest preparedRequest = ((BoundReactiveRequestDefinition) requestDefinition)
+					.getPreparedRequest();
+			final Object compiled = preparedRequest.getCompiled();
+			if (compiled instanceof CompiledRequest && preparedRequest.hasPreparedTarget(requestDefinition)
+					&& preparedRequest.hasPreparedQueryParameters(requestDefinition)) {
+				return (CompiledRequest) compiled;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Create the request spec for given request definition.
+	 * @param client The web client to use
+	 * @param method Request method
+	 * @param requestDefinition Request definition
+	 * @return The request spec
+	 */
+	public RequestBodySpec spec(WebClient client, org.springframework.http.HttpMethod method,
+			ReactiveRequestDefinition requestDefinition) {
+		final boolean preparedHeaders = preparedRequest.hasPreparedHeaders(requestDefinition);
+		return client.method(method).uri(expand(requestDefinition.getTemplateParameters())).headers(headers -> {
+			if (preparedHeaders) {
+				for (int i = 0; i < headerNames.length; i++) {
+					headers.add(headerNames[i], headerValues[i]);
+				}
+			} else {
+				requestDefinition.getHeaders().forEach((n, v) -> headers.add(n, v));
+			}
+		});
+	}
+
+	/**
+	 * Expand the URI template using given template parameters.
+	 * @param templateParameters Template parameters
+	 * @return The expanded URI
+	 */
+	private URI expand(Map<String, Object> templateParameters) {
+		if (staticURI != null) {
+			return staticURI;
+		}
+		final StringBuilder sb = new StringBuilder(literals[0].length() + 16 * variables.length);
+		sb.append(literals[0]);
+		for (int i = 0; i < variables.length; i++) {
+			if (!templateParameters.containsKey(variables[i])) {
+				throw new IllegalArgumentException("Map has no value for '" + variables[i] + "'");
+			}
+			final Object value = templateParameters.get(variables[i]);
+			if (value != null) {
+				sb.append(UriUtils.encode(value.toString(), StandardCharsets.UTF_8));
+			}
+			sb.append(literals[i + 1]);
+		}
+		return URI.create(sb.toString());
+	}
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * An {@link InputStream} which reads the bytes of a {@link DataBuffer} publisher.
+ * <p>
+ * The {@link DataBuffer}s are requested on demand, keeping at most <code>prefetch</code> buffers in memory, and each
+ * buffer is released as soon as it has been fully read. Closing the stream cancels the subscription and releases any
+ * buffer not yet consumed.
+ * </p>
+ * <p>
+ * The read operations are blocking, so the stream must not be read from a non blocking thread (for example, a network
+ * event loop thread).
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class DataBufferInputStream extends InputStream implements Subscriber<DataBuffer> {
+
+	/**
+	 * Default number of buffers to prefetch
+	 */
+	public static final int DEFAULT_PREFETCH = 16;
+
+	/**
+	 * Completion signal
+	 */
+	private static final Object COMPLETE = new Object();
+
+	/**
+	 * Max buffers to request in advance
+	 */
+	private final int prefetch;
+
+	/**
+	 * Consumed buffers count which triggers a new request
+	 */
+	private final int replenishThreshold;
+
+	/**
+	 * Received buffers and terminal signals
+	 */
+	private final BlockingQueue<Object> queue;
+
+	/**
+	 * Subscription
+	 */
+	private volatile Subscription subscription;
+
+	/**
+	 * Whether the stream was closed
+	 */
+	private volatile boolean closed;
+
+	// reader state
+
+	private DataBuffer current;
+	private int consumed;
+	private boolean done;
+
+	/**
+	 * Constructor using the default prefetch.
+	 */
+	public DataBufferInputStream() {
+		this(DEFAULT_PREFETCH);
+	}
+
+	/**
+	 * Constructor.
+	 * @param prefetch Max number of buffers to request in advance (must be greater than 0)
+	 */
+	public DataBufferInputStream(int prefetch) {
+		super();
+		if (prefetch < 1) {
+			throw new IllegalArgumentException("Prefetch must be greater than 0");
+		}
+		this.prefetch = prefetch;
+		this.replenishThreshold = prefetch - (prefetch >> 2);
+		// one more slot for the terminal signal
+		this.queue = new ArrayBlockingQueue<>(prefetch + 1);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onSubscribe(org.reactivestreams.Subscription)
+	 */
+	@Override
+	public void onSubscribe(Subscription s) {
+		if (subscription != null) {
+			s.cancel();
+			return;
+		}
+		subscription = s;
+		if (closed) {
+			s.cancel();
+		} else {
+			s.request(prefetch);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onNext(java.lang.Object)
+	 */
+	@Override
+	public void onNext(DataBuffer buffer) {
+		if (closed || !queue.offer(buffer)) {
+			DataBufferUtils.release(buffer);
+			return;
+		}
+		if (closed) {
+			// closed concurrently
+			releaseQueued();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onError(java.lang.Throwable)
+	 */
+	@Override
+	public void onError(Throwable t) {
+		queue.offer(t);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onComplete()
+	 */
+	@Override
+	public void onComplete() {
+		queue.offer(COMPLETE);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.InputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		final DataBuffer buffer = currentBuffer();
+		if (buffer == null) {
+			return -1;
+		}
+		return buffer.read() & 0xFF;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		Objects.checkFromIndexSize(off, len, b.length);
+		if (len == 0) {
+			return 0;
+		}
+		final DataBuffer buffer = currentBuffer();
+		if (buffer == null) {
+			return -1;
+		}
+		final int count = Math.min(len, buffer.readableByteCount());
+		buffer.read(b, off, count);
+		return count;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.InputStream#available()
+	 */
+	@Override
+	public int available() throws IOException {
+		ensureOpen();
+		return (current != null) ? current.readableByteCount() : 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.io.InputStream#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		final Subscription s = subscription;
+		if (s != null) {
+			s.cancel();
+		}
+		if (current != null) {
+			DataBufferUtils.release(current);
+			current = null;
+		}
+		releaseQueued();
+		// wake up any blocked reader
+		queue.offer(COMPLETE);
+	}
+
+	/**
+	 * Get the buffer to read from, waiting for the next one if the current buffer was fully consumed.
+	 * @return The buffer to read from, <code>null</code> if the end of the stream has been reached
+	 * @throws IOException If the stream was closed, the read was interrupted or the publisher signalled an error
+	 */
+	private DataBuffer currentBuffer() throws IOException {
+		ensureOpen();
+		while (current == null || current.readableByteCount() == 0) {
+			if (current != null) {
+				DataBufferUtils.release(current);
+				current = null;
+				replenish();
+			}
+			if (done) {
+				return null;
+			}
+			final Object next;
+			try {
+				next = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for data");
+			}
+			ensureOpen();
+			if (next == COMPLETE) {
+				done = true;
+				return null;
+			}
+			if (next instanceof Throwable) {
+				done = true;
+				final Throwable error = (Throwable) next;
+				throw (error instanceof IOException) ? (IOException) error : new IOException(error);
+			}
+			current = (DataBuffer) next;
+		}
+		return current;
+	}
+
+	/**
+	 * Request more buffers when enough buffers have been consumed.
+	 */
+	private void replenish() {
+		if (++consumed >= replenishThreshold) {
+			final int n = consumed;
+			consumed = 0;
+			subscription.request(n);
+		}
+	}
+
+	/**
+	 * Release any queued buffer.
+	 */
+	private void releaseQueued() {
+		Object item;
+		while ((item = queue.poll()) != null) {
+			if (item instanceof DataBuffer) {
+				DataBufferUtils.release((DataBuffer) item);
+			}
+		}
+	}
+
+	/**
+	 * Check the stream was not closed.
+	 * @throws IOException If the stream was closed
+	 */
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+}
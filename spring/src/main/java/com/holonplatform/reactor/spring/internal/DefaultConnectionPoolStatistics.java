@@ -0,0 +1,293 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+import com.holonplatform.reactor.spring.ConnectionPoolStatistics;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelId;
+import reactor.netty.Connection;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Default {@link ConnectionPoolStatistics} implementation, which collects the Reactor Netty pool gauges acting as a
+ * {@link ConnectionProvider.MeterRegistrar}.
+ *
+ * @since 6.0.3
+ */
+public class DefaultConnectionPoolStatistics implements ConnectionPoolStatistics, ConnectionProvider.MeterRegistrar {
+
+	/**
+	 * Pool metrics by pool id and remote address
+	 */
+	private final ConcurrentHashMap<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+	private final LongAdder acquireCount = new LongAdder();
+	private final LongAdder acquireNanos = new LongAdder();
+	private final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0L);
+
+	/**
+	 * Open multiplexed connections by channel id
+	 */
+	private final ConcurrentHashMap<ChannelId, DefaultMultiplexedConnection> connections = new ConcurrentHashMap<>();
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider.MeterRegistrar#registerMetrics(java.lang.String,
+	 * java.lang.String, java.net.SocketAddress, reactor.netty.resources.ConnectionPoolMetrics)
+	 */
+	@Override
+	public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+			ConnectionPoolMetrics metrics) {
+		pools.put(getPoolKey(id, remoteAddress), metrics);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider.MeterRegistrar#deRegisterMetrics(java.lang.String,
+	 * java.lang.String, java.net.SocketAddress)
+	 */
+	@Override
+	public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+		pools.remove(getPoolKey(id, remoteAddress));
+	}
+
+	/**
+	 * Record a successful connection acquisition.
+	 * @param nanos The time spent to acquire the connection, in nanoseconds
+	 */
+	public void recordAcquire(long nanos) {
+		acquireCount.increment();
+		acquireNanos.add(nanos);
+		maxAcquireNanos.accumulate(nanos);
+	}
+
+	/**
+	 * Record a request performed on given connection. If the connection is a HTTP/2 stream, it is counted as an
+	 * active stream of its parent connection until disposed.
+	 * @param connection The request connection
+	 */
+	public void recordStream(Connection connection) {
+		final Channel parent = connection.channel().parent();
+		if (parent == null) {
+			// not multiplexed
+			return;
+		}
+		final ChannelId id = parent.id();
+		DefaultMultiplexedConnection multiplexed = connections.get(id);
+		if (multiplexed == null) {
+			final DefaultMultiplexedConnection created = new DefaultMultiplexedConnection(parent);
+			multiplexed = connections.putIfAbsent(id, created);
+			if (multiplexed == null) {
+				multiplexed = created;
+				// listener registered outside the map update, it may be invoked immediately
+				parent.closeFuture().addListener(f -> connections.remove(id, created));
+			}
+		}
+		multiplexed.streamOpened();
+		connection.onDispose(multiplexed::streamClosed);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getActiveConnections()
+	 */
+	@Override
+	public int getActiveConnections() {
+		return sum(ConnectionPoolMetrics::acquiredSize);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getIdleConnections()
+	 */
+	@Override
+	public int getIdleConnections() {
+		return sum(ConnectionPoolMetrics::idleSize);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getAllocatedConnections()
+	 */
+	@Override
+	public int getAllocatedConnections() {
+		return sum(ConnectionPoolMetrics::allocatedSize);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getPendingAcquires()
+	 */
+	@Override
+	public int getPendingAcquires() {
+		return sum(ConnectionPoolMetrics::pendingAcquireSize);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getRemoteHosts()
+	 */
+	@Override
+	public int getRemoteHosts() {
+		return pools.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getAcquireCount()
+	 */
+	@Override
+	public long getAcquireCount() {
+		return acquireCount.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getMeanAcquireLatency()
+	 */
+	@Override
+	public Duration getMeanAcquireLatency() {
+		final long count = acquireCount.sum();
+		return (count > 0) ? Duration.ofNanos(acquireNanos.sum() / count) : Duration.ZERO;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getMaxAcquireLatency()
+	 */
+	@Override
+	public Duration getMaxAcquireLatency() {
+		return Duration.ofNanos(maxAcquireNanos.get());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getActiveStreams()
+	 */
+	@Override
+	public int getActiveStreams() {
+		int sum = 0;
+		for (DefaultMultiplexedConnection connection : connections.values()) {
+			sum += connection.getActiveStreams();
+		}
+		return sum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.ConnectionPoolStatistics#getMultiplexedConnections()
+	 */
+	@Override
+	public List<MultiplexedConnection> getMultiplexedConnections() {
+		return new ArrayList<>(connections.values());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ConnectionPoolStatistics [active=" + getActiveConnections() + ", idle=" + getIdleConnections()
+				+ ", pendingAcquires=" + getPendingAcquires() + ", acquireCount=" + getAcquireCount()
+				+ ", meanAcquireLatency=" + getMeanAcquireLatency() + ", activeStreams=" + getActiveStreams() + "]";
+	}
+
+	private int sum(ToIntFunction<ConnectionPoolMetrics> gauge) {
+		int sum = 0;
+		for (ConnectionPoolMetrics metrics : pools.values()) {
+			sum += gauge.applyAsInt(metrics);
+		}
+		return sum;
+	}
+
+	private static String getPoolKey(String id, SocketAddress remoteAddress) {
+		return id + "@" + remoteAddress;
+	}
+
+	/**
+	 * Default {@link MultiplexedConnection} implementation.
+	 */
+	private static final class DefaultMultiplexedConnection implements MultiplexedConnection {
+
+		private final String id;
+		private final String remoteAddress;
+		private final AtomicInteger activeStreams = new AtomicInteger();
+		private final LongAccumulator maxActiveStreams = new LongAccumulator(Long::max, 0L);
+		private final LongAdder streamCount = new LongAdder();
+
+		DefaultMultiplexedConnection(Channel channel) {
+			super();
+			this.id = channel.id().asShortText();
+			this.remoteAddress = String.valueOf(channel.remoteAddress());
+		}
+
+		void streamOpened() {
+			streamCount.increment();
+			maxActiveStreams.accumulate(activeStreams.incrementAndGet());
+		}
+
+		void streamClosed() {
+			activeStreams.decrementAndGet();
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public String getRemoteAddress() {
+			return remoteAddress;
+		}
+
+		@Override
+		public int getActiveStreams() {
+			return activeStreams.get();
+		}
+
+		@Override
+		public int getMaxActiveStreams() {
+			return (int) maxActiveStreams.get();
+		}
+
+		@Override
+		public long getStreamCount() {
+			return streamCount.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "MultiplexedConnection [id=" + id + ", remoteAddress=" + remoteAddress + ", activeStreams="
+					+ getActiveStreams() + ", maxActiveStreams=" + getMaxActiveStreams() + ", streamCount="
+					+ getStreamCount() + "]";
+		}
+
+	}
+
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.time.Duration;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.spring.PooledSpringReactiveRestClient;
+import com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder;
+import com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Protocol;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.Http2AllocationStrategy;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Default {@link PooledSpringReactiveRestClient} builder, which uses a Reactor Netty {@link HttpClient}.
+ *
+ * @since 6.0.3
+ */
+public class DefaultPooledSpringReactiveRestClientBuilder implements PooledSpringReactiveRestClient.Builder {
+
+	/**
+	 * Default pool name
+	 */
+	public static final String DEFAULT_POOL_NAME = "holon-reactive-rest-client";
+
+	private String poolName = DEFAULT_POOL_NAME;
+	private int maxConnections = -1;
+	private int pendingAcquireMaxCount = Integer.MIN_VALUE;
+	private Duration pendingAcquireTimeout;
+	private Duration maxIdleTime;
+	private Duration maxLifeTime;
+	private Duration evictionInterval;
+	private int eventLoopThreads = -1;
+	private boolean keepAlive = true;
+	private Duration connectTimeout;
+	private Protocol protocol = Protocol.HTTP_1_1;
+	private int maxConcurrentStreams = -1;
+	private WebClient.Builder webClientBuilder;
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#poolName(java.lang.String)
+	 */
+	@Override
+	public Builder poolName(String name) {
+		ObjectUtils.argumentNotNull(name, "Pool name must be not null");
+		this.poolName = name;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#maxConnections(int)
+	 */
+	@Override
+	public Builder maxConnections(int maxConnections) {
+		if (maxConnections < 1) {
+			throw new IllegalArgumentException("Max connections must be greater than 0");
+		}
+		this.maxConnections = maxConnections;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#pendingAcquireMaxCount(int)
+	 */
+	@Override
+	public Builder pendingAcquireMaxCount(int pendingAcquireMaxCount) {
+		this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#pendingAcquireTimeout(java.time.
+	 * Duration)
+	 */
+	@Override
+	public Builder pendingAcquireTimeout(Duration pendingAcquireTimeout) {
+		ObjectUtils.argumentNotNull(pendingAcquireTimeout, "Timeout must be not null");
+		this.pendingAcquireTimeout = pendingAcquireTimeout;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#maxIdleTime(java.time.Duration)
+	 */
+	@Override
+	public Builder maxIdleTime(Duration maxIdleTime) {
+		ObjectUtils.argumentNotNull(maxIdleTime, "Max idle time must be not null");
+		this.maxIdleTime = maxIdleTime;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#maxLifeTime(java.time.Duration)
+	 */
+	@Override
+	public Builder maxLifeTime(Duration maxLifeTime) {
+		ObjectUtils.argumentNotNull(maxLifeTime, "Max life time must be not null");
+		this.maxLifeTime = maxLifeTime;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#evictionInterval(java.time.Duration)
+	 */
+	@Override
+	public Builder evictionInterval(Duration evictionInterval) {
+		ObjectUtils.argumentNotNull(evictionInterval, "Eviction interval must be not null");
+		this.evictionInterval = evictionInterval;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#eventLoopThreads(int)
+	 */
+	@Override
+	public Builder eventLoopThreads(int eventLoopThreads) {
+		if (eventLoopThreads < 1) {
+			throw new IllegalArgumentException("Event loop threads must be greater than 0");
+		}
+		this.eventLoopThreads = eventLoopThreads;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#keepAlive(boolean)
+	 */
+	@Override
+	public Builder keepAlive(boolean keepAlive) {
+		this.keepAlive = keepAlive;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#connectTimeout(java.time.Duration)
+	 */
+	@Override
+	public Builder connectTimeout(Duration connectTimeout) {
+		ObjectUtils.argumentNotNull(connectTimeout, "Connect timeout must be not null");
+		this.connectTimeout = connectTimeout;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#protocol(com.holonplatform.reactor.
+	 * spring.PooledSpringReactiveRestClient.Protocol)
+	 */
+	@Override
+	public Builder protocol(Protocol protocol) {
+		ObjectUtils.argumentNotNull(protocol, "Protocol must be not null");
+		this.protocol = protocol;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#maxConcurrentStreams(int)
+	 */
+	@Override
+	public Builder maxConcurrentStreams(int maxConcurrentStreams) {
+		if (maxConcurrentStreams < 1) {
+			throw new IllegalArgumentException("Max concurrent streams must be greater than 0");
+		}
+		this.maxConcurrentStreams = maxConcurrentStreams;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#webClientBuilder(org.
+	 * springframework.web.reactive.function.client.WebClient.Builder)
+	 */
+	@Override
+	public Builder webClientBuilder(WebClient.Builder webClientBuilder) {
+		ObjectUtils.argumentNotNull(webClientBuilder, "WebClient builder must be not null");
+		this.webClientBuilder = webClientBuilder;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Builder#build()
+	 */
+	@Override
+	public PooledSpringReactiveRestClient build() {
+		final DefaultConnectionPoolStatistics statistics = new DefaultConnectionPoolStatistics();
+
+		// connection pool
+		final boolean multiplexed = protocol != Protocol.HTTP_1_1;
+		final ConnectionProvider.Builder pool = ConnectionProvider.builder(poolName);
+		if (multiplexed && maxConcurrentStreams > 0) {
+			// the allocation strategy replaces the max connections setting
+			final Http2AllocationStrategy.Builder strategy = Http2AllocationStrategy.builder()
+					.maxConcurrentStreams(maxConcurrentStreams);
+			if (maxConnections > 0) {
+				strategy.maxConnections(maxConnections);
+			}
+			pool.allocationStrategy(strategy.build());
+		} else if (maxConnections > 0) {
+			pool.maxConnections(maxConnections);
+		}
+		if (pendingAcquireMaxCount != Integer.MIN_VALUE) {
+			pool.pendingAcquireMaxCount(pendingAcquireMaxCount);
+		}
+		if (pendingAcquireTimeout != null) {
+			pool.pendingAcquireTimeout(pendingAcquireTimeout);
+		}
+		if (maxIdleTime != null) {
+			pool.maxIdleTime(maxIdleTime);
+		}
+		if (maxLifeTime != null) {
+			pool.maxLifeTime(maxLifeTime);
+		}
+		if (evictionInterval != null) {
+			pool.evictInBackground(evictionInterval);
+		}
+		pool.metrics(true, () -> statistics);
+		// with HTTP/2 Reactor Netty acquires the streams from its own provider, derived from the pool configuration:
+		// the acquisitions can be timed only for HTTP/1.1
+		final ConnectionProvider connectionProvider = multiplexed ? pool.build()
+				: new TimedConnectionProvider(pool.build(), statistics);
+
+		// event loop
+		final LoopResources loopResources = (eventLoopThreads > 0)
+				? LoopResources.create(poolName, eventLoopThreads, true)
+				: null;
+
+		HttpClient httpClient = HttpClient.create(connectionProvider).keepAlive(keepAlive)
+				.option(ChannelOption.SO_KEEPALIVE, keepAlive);
+		if (loopResources != null) {
+			httpClient = httpClient.runOn(loopResources);
+		}
+		if (connectTimeout != null) {
+			httpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+		}
+		switch (protocol) {
+		case HTTP_2:
+			httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+			break;
+		case H2C:
+			httpClient = httpClient.protocol(HttpProtocol.H2C);
+			break;
+		default:
+			break;
+		}
+		if (multiplexed) {
+			// each request is performed on a stream channel, child of the multiplexed connection channel
+			httpClient = httpClient.doOnRequest((request, connection) -> statistics.recordStream(connection));
+		}
+
+		final WebClient.Builder builder = (webClientBuilder != null) ? webClientBuilder.clone() : WebClient.builder();
+		final WebClient webClient = builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+
+		return new PooledWebClientReactiveRestClient(webClient, connectionProvider, loopResources, statistics);
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipException;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.holonplatform.reactor.http.Compression;
+import com.holonplatform.reactor.http.Compression.Encoding;
+import com.holonplatform.reactor.http.Compression.Metrics;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.StreamingInflater;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link Compression} support for the {@link WebClientReactiveRestClient}.
+ *
+ * @since 6.0.3
+ */
+final class HttpCompression {
+
+	private HttpCompression() {
+	}
+
+	/**
+	 * Checks whether the <code>Accept-Encoding</code> header has to be set for given request.
+	 * @param compression Request compression
+	 * @param requestDefinition Request definition
+	 * @return <code>true</code> if the response decompression is enabled and the request does not declare an
+	 *         <code>Accept-Encoding</code> header
+	 */
+	static boolean isAcceptEncodingRequired(Compression compression, ReactiveRequestDefinition requestDefinition) {
+		if (!compression.isResponseDecompression()) {
+			return false;
+		}
+		for (Map.Entry<String, String> header : requestDefinition.getHeaders().entrySet()) {
+			if (HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(header.getKey())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Wrap given body inserter so that the encoded request entity is compressed when its size reaches the compression
+	 * threshold.
+	 * @param inserter The body inserter to wrap
+	 * @param compression Request compression
+	 * @return The compressing body inserter
+	 */
+	static BodyInserter<Object, ClientHttpRequest> compress(BodyInserter<?, ? super ClientHttpRequest> inserter,
+			Compression compression) {
+		return (request, context) -> inserter.insert(new CompressingRequest(request, compression), context);
+	}
+
+	/**
+	 * Decompress the body of given response, if it is encoded using one of the supported encodings. The
+	 * <code>Content-Encoding</code> and <code>Content-Length</code> response headers are removed.
+	 * @param response The response
+	 * @param compression Request compression
+	 * @return The response with a decompressed body
+	 */
+	static ClientResponse decompress(ClientResponse response, Compression compression) {
+		final List<String> contentEncoding = response.headers().header(HttpHeaders.CONTENT_ENCODING);
+		final Optional<Encoding> encoding = (contentEncoding.size() == 1) ? Encoding.of(contentEncoding.get(0))
+				: Optional.empty();
+		if (!encoding.isPresent()) {
+			return response;
+		}
+		return response.mutate().headers(headers -> {
+			headers.remove(HttpHeaders.CONTENT_ENCODING);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+		}).body(body -> decompress(body, encoding.get(), compression.getMetrics())).build();
+	}
+
+	/**
+	 * Decompress given data buffers stream, chunk by chunk.
+	 * @param body The compressed data buffers
+	 * @param encoding The body encoding
+	 * @param metrics The metrics to update when the body is completed
+	 * @return The decompressed data buffers
+	 */
+	private static Flux<DataBuffer> decompress(Flux<DataBuffer> body, Encoding encoding, Metrics metrics) {
+		return Flux.using(() -> new StreamingInflater(encoding), inflater -> body.<DataBuffer>handle((buffer, sink) -> {
+			try {
+				final byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				final byte[] inflated = inflater.inflate(bytes, 0, bytes.length);
+				if (inflated.length > 0) {
+					sink.next(DefaultDataBufferFactory.sharedInstance.wrap(inflated));
+				}
+			} catch (ZipException e) {
+				sink.error(e);
+			} finally {
+				DataBufferUtils.release(buffer);
+			}
+		}).concatWith(Mono.defer(() -> {
+			try {
+				inflater.finish();
+			} catch (ZipException e) {
+				return Mono.error(e);
+			}
+			metrics.recordResponse(inflater.getInputBytes(), inflater.getOutputBytes());
+			return Mono.empty();
+		})), StreamingInflater::end);
+	}
+
+	/**
+	 * Compress given data buffer.
+	 * @param buffer The data buffer to compress, whose read position is preserved
+	 * @param encoding The encoding to use
+	 * @param bufferFactory The buffer factory
+	 * @return The compressed data buffer
+	 * @throws IOException If a compression error occurs
+	 */
+	private static DataBuffer compress(DataBuffer buffer, Encoding encoding, DataBufferFactory bufferFactory)
+			throws IOException {
+		final int position = buffer.readPosition();
+		final DataBuffer compressed = bufferFactory.allocateBuffer(Math.max(256, buffer.readableByteCount() / 4));
+		boolean release = true;
+		try {
+			try (OutputStream stream = encoding.compress(compressed.asOutputStream())) {
+				buffer.asInputStream().transferTo(stream);
+			}
+			release = false;
+			return compressed;
+		} finally {
+			buffer.readPosition(position);
+			if (release) {
+				DataBufferUtils.release(compressed);
+			}
+		}
+	}
+
+	/**
+	 * A {@link ClientHttpRequest} which compresses the request entity before writing it.
+	 */
+	private static final class CompressingRequest extends ClientHttpRequestDecorator {
+
+		private final Compression compression;
+
+		CompressingRequest(ClientHttpRequest delegate, Compression compression) {
+			super(delegate);
+			this.compression = compression;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.http.client.reactive.ClientHttpRequestDecorator#writeWith(org.reactivestreams.
+		 * Publisher)
+		 */
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+				// already encoded
+				return getDelegate().writeWith(body);
+			}
+			// the whole entity is required to check the compression threshold and the content length
+			return Flux.from(body).collectList().doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+					.flatMap(buffers -> {
+						if (buffers.isEmpty()) {
+							return getDelegate().writeWith(Flux.empty());
+						}
+						final DataBuffer entity = bufferFactory().join(buffers);
+						final int size = entity.readableByteCount();
+						if (!compression.isCompressible(size)) {
+							return getDelegate().writeWith(Mono.just(entity));
+						}
+						final DataBuffer compressed;
+						try {
+							compressed = compress(entity, compression.getEncoding(), bufferFactory());
+						} catch (IOException e) {
+							DataBufferUtils.release(entity);
+							return Mono.error(e);
+						}
+						final int compressedSize = compressed.readableByteCount();
+						if (compressedSize >= size) {
+							// not worth it
+							DataBufferUtils.release(compressed);
+							return getDelegate().writeWith(Mono.just(entity));
+						}
+						DataBufferUtils.release(entity);
+						getHeaders().set(HttpHeaders.CONTENT_ENCODING, compression.getEncoding().getName());
+						getHeaders().setContentLength(compressedSize);
+						compression.getMetrics().recordRequest(size, compressedSize);
+						return getDelegate().writeWith(Mono.just(compressed));
+					});
+		}
+
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import com.holonplatform.reactor.http.FileRequestEntity;
+import com.holonplatform.reactor.http.MultipartRequestEntity;
+import com.holonplatform.reactor.http.MultipartRequestEntity.Part;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link FileRequestEntity} and {@link MultipartRequestEntity} support for the {@link WebClientReactiveRestClient}.
+ *
+ * @since 6.0.3
+ */
+final class HttpFiles {
+
+	/**
+	 * Size of the buffers used to read the files when the zero-copy transfer is not available
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private HttpFiles() {
+	}
+
+	/**
+	 * Get a body inserter which writes the content of given file request entity, setting the
+	 * <code>Content-Length</code> header. When the request supports it, the file region is transferred using the
+	 * zero-copy {@link ZeroCopyHttpOutputMessage#writeWith(java.nio.file.Path, long, long)} method, otherwise the file
+	 * is read using the request buffer factory.
+	 * @param file File request entity
+	 * @return The body inserter
+	 */
+	static BodyInserter<FileRequestEntity, ClientHttpRequest> fromFile(FileRequestEntity file) {
+		return (request, context) -> {
+			final long count;
+			try {
+				count = getCount(file);
+			} catch (IOException e) {
+				return Mono.error(e);
+			}
+			final HttpHeaders headers = request.getHeaders();
+			headers.setContentLength(count);
+			if (headers.getContentType() == null) {
+				file.getMediaType().ifPresent(mediaType -> headers.setContentType(MediaType.parseMediaType(mediaType)));
+			}
+			if (request instanceof ZeroCopyHttpOutputMessage) {
+				return ((ZeroCopyHttpOutputMessage) request).writeWith(file.getFile(), file.getPosition(), count);
+			}
+			return request.writeWith(read(file, count, request.bufferFactory()));
+		};
+	}
+
+	/**
+	 * Get a body inserter which writes given multipart request entity. The file parts are read using the request
+	 * buffer factory.
+	 * @param multipart Multipart request entity
+	 * @return The body inserter
+	 */
+	static BodyInserter<MultipartRequestEntity, ClientHttpRequest> fromMultipart(MultipartRequestEntity multipart) {
+		return (request, context) -> {
+			final MultipartBodyBuilder builder = new MultipartBodyBuilder();
+			for (Part part : multipart.getParts()) {
+				final MultipartBodyBuilder.PartBuilder partBuilder;
+				if (part.getValue() instanceof FileRequestEntity) {
+					final FileRequestEntity file = (FileRequestEntity) part.getValue();
+					final long count;
+					try {
+						count = getCount(file);
+					} catch (IOException e) {
+						return Mono.error(e);
+					}
+					partBuilder = builder.asyncPart(part.getName(), read(file, count, request.bufferFactory()),
+							DataBuffer.class);
+					partBuilder.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(count));
+					file.getFileName().ifPresent(partBuilder::filename);
+				} else {
+					partBuilder = builder.part(part.getName(), part.getValue());
+				}
+				part.getMediaType()
+						.ifPresent(mediaType -> partBuilder.contentType(MediaType.parseMediaType(mediaType)));
+			}
+			return BodyInserters.fromMultipartData(builder.build()).insert(request, context);
+		};
+	}
+
+	/**
+	 * Get the number of bytes to transfer for given file request entity, limited to the bytes available in the file
+	 * from the start position.
+	 * @param file File request entity
+	 * @return The number of bytes to transfer
+	 * @throws IOException If the file size cannot be read
+	 */
+	private static long getCount(FileRequestEntity file) throws IOException {
+		final long available = Math.max(0L, Files.size(file.getFile()) - file.getPosition());
+		return Math.min(available, file.getCount().orElse(available));
+	}
+
+	/**
+	 * Read given number of bytes of the file, from the file request entity start position.
+	 * @param file File request entity
+	 * @param count Number of bytes to read
+	 * @param bufferFactory Buffer factory
+	 * @return The file content buffers
+	 */
+	private static Flux<DataBuffer> read(FileRequestEntity file, long count, DataBufferFactory bufferFactory) {
+		return DataBufferUtils.takeUntilByteCount(DataBufferUtils.readAsynchronousFileChannel(
+				() -> AsynchronousFileChannel.open(file.getFile(), StandardOpenOption.READ), file.getPosition(),
+				bufferFactory, BUFFER_SIZE), count);
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient.RequestBodySpec;
+
+import com.holonplatform.reactor.http.Deadline;
+import com.holonplatform.reactor.http.RequestTimeoutException;
+import com.holonplatform.reactor.http.RequestTimeoutException.Phase;
+import com.holonplatform.reactor.http.Timeouts;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link Timeouts} and {@link Deadline} support for the {@link WebClientReactiveRestClient}.
+ *
+ * @since 6.0.3
+ */
+final class HttpTimeouts {
+
+	private HttpTimeouts() {
+	}
+
+	/**
+	 * If a connect timeout is configured, track when the request is sent, i.e. when the client HTTP request is
+	 * available after the connection acquisition. Must be invoked before the exchange is performed.
+	 * @param spec The request spec
+	 * @param timeouts The request timeouts, may be null
+	 * @return The request sent flag, <code>null</code> if no connect timeout is configured
+	 */
+	static AtomicBoolean trackRequestSent(RequestBodySpec spec, Timeouts timeouts) {
+		if (timeouts == null || !timeouts.getConnectTimeout().isPresent()) {
+			return null;
+		}
+		final AtomicBoolean sent = new AtomicBoolean();
+		spec.httpRequest(request -> sent.set(true));
+		return sent;
+	}
+
+	/**
+	 * Apply the request timeouts and the Reactor context deadline, if any, to given response.
+	 * @param response The exchange response
+	 * @param timeouts The request timeouts, may be null
+	 * @param sent The request sent flag obtained from {@link #trackRequestSent(RequestBodySpec, Timeouts)}
+	 * @return The response bounded by the timeouts
+	 */
+	static Mono<ClientResponse> timeout(Mono<ClientResponse> response, Timeouts timeouts, AtomicBoolean sent) {
+		final Duration connectTimeout = (timeouts != null) ? timeouts.getConnectTimeout().orElse(null) : null;
+		final Duration responseTimeout = (timeouts != null) ? timeouts.getResponseTimeout().orElse(null) : null;
+		final Duration readTimeout = (timeouts != null) ? timeouts.getReadTimeout().orElse(null) : null;
+		return Mono.deferContextual(context -> {
+			final Deadline deadline = Deadline.current(context).orElse(null);
+			if (deadline == null && timeouts == null) {
+				return response;
+			}
+			Mono<ClientResponse> timed = response;
+			if (sent != null && connectTimeout != null) {
+				// reset on each subscription
+				sent.set(false);
+				timed = timed.timeout(Mono.delay(connectTimeout).filter(t -> !sent.get()).switchIfEmpty(Mono.never()),
+						Mono.error(() -> new RequestTimeoutException(Phase.CONNECT, connectTimeout)));
+			}
+			if (responseTimeout != null) {
+				timed = timed.timeout(responseTimeout,
+						Mono.error(() -> new RequestTimeoutException(Phase.RESPONSE, responseTimeout)));
+			}
+			if (deadline != null) {
+				timed = timed.timeout(deadline.getRemaining(),
+						Mono.error(() -> new RequestTimeoutException(Phase.DEADLINE, null)));
+			}
+			if (readTimeout == null && deadline == null) {
+				return timed;
+			}
+			return timed.map(r -> r.mutate().body(body -> timeout(body, readTimeout, deadline)).build());
+		});
+	}
+
+	/**
+	 * Bound the wait for each response entity data buffer by the read timeout and by the time remaining before the
+	 * deadline expiration.
+	 * @param body The response entity data buffers
+	 * @param readTimeout Read timeout, may be null
+	 * @param deadline Deadline, may be null
+	 * @return The data buffers stream, which fails with a {@link RequestTimeoutException} on timeout
+	 */
+	private static Flux<DataBuffer> timeout(Flux<DataBuffer> body, Duration readTimeout, Deadline deadline) {
+		final Mono<Long> next = Mono.defer(() -> Mono.delay(getReadTimeout(readTimeout, deadline)));
+		return body.timeout(next, buffer -> next, Flux.error(() -> (deadline != null && deadline.isExpired())
+				? new RequestTimeoutException(Phase.DEADLINE, null)
+				: new RequestTimeoutException(Phase.READ, readTimeout)));
+	}
+
+	private static Duration getReadTimeout(Duration readTimeout, Deadline deadline) {
+		if (deadline == null) {
+			return readTimeout;
+		}
+		final Duration remaining = deadline.getRemaining();
+		return (readTimeout != null && readTimeout.compareTo(remaining) < 0) ? readTimeout : remaining;
+	}
+
+}
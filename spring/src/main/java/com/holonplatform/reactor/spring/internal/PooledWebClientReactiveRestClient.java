@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.reactor.spring.ConnectionPoolStatistics;
+import com.holonplatform.reactor.spring.PooledSpringReactiveRestClient;
+
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Default {@link PooledSpringReactiveRestClient} implementation.
+ *
+ * @since 6.0.3
+ */
+public class PooledWebClientReactiveRestClient extends WebClientReactiveRestClient
+		implements PooledSpringReactiveRestClient {
+
+	private final ConnectionProvider connectionProvider;
+	private final LoopResources loopResources;
+	private final ConnectionPoolStatistics statistics;
+
+	/**
+	 * Constructor.
+	 * @param client Spring {@link WebClient} (not null)
+	 * @param connectionProvider The connection provider owned by this client (not null)
+	 * @param loopResources The event loop resources owned by this client, <code>null</code> if the shared ones are used
+	 * @param statistics The connection pool statistics (not null)
+	 */
+	public PooledWebClientReactiveRestClient(WebClient client, ConnectionProvider connectionProvider,
+			LoopResources loopResources, ConnectionPoolStatistics statistics) {
+		super(client);
+		ObjectUtils.argumentNotNull(connectionProvider, "ConnectionProvider must be not null");
+		ObjectUtils.argumentNotNull(statistics, "Statistics must be not null");
+		this.connectionProvider = connectionProvider;
+		this.loopResources = loopResources;
+		this.statistics = statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient#getConnectionPoolStatistics()
+	 */
+	@Override
+	public ConnectionPoolStatistics getConnectionPoolStatistics() {
+		return statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.spring.PooledSpringReactiveRestClient#close()
+	 */
+	@Override
+	public void close() {
+		getClientCache().clear();
+		connectionProvider.dispose();
+		if (loopResources != null) {
+			loopResources.dispose();
+		}
+	}
+
+}
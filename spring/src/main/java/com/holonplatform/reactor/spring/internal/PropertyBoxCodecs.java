@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.lang.ref.WeakReference;
+
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+
+import reactor.util.context.Context;
+
+/**
+ * {@link PropertyBox} JSON codecs support.
+ * <p>
+ * The {@link PropertySet} to use to decode the {@link PropertyBox} response payloads is provided to the decoder through
+ * the Reactor {@link Context} of the body subscription, so it does not depend on the thread which performs the
+ * decoding.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public final class PropertyBoxCodecs {
+
+	/**
+	 * Reactor {@link Context} key of the {@link PropertySet} to use to decode the {@link PropertyBox} payloads
+	 */
+	public static final String PROPERTY_SET_CONTEXT_KEY = PropertyBoxCodecs.class.getName() + ".propertySet";
+
+	private static final boolean JACKSON_PRESENT = ClassUtils.isPresent(
+			"com.fasterxml.jackson.databind.ObjectMapper", PropertyBoxCodecs.class.getClassLoader());
+
+	/**
+	 * The last configured web client, weakly referenced
+	 */
+	private static volatile Configured lastConfigured;
+
+	private PropertyBoxCodecs() {
+	}
+
+	/**
+	 * Register the {@link PropertyBox} JSON codecs in given {@link WebClient}, if Jackson is available. The codecs
+	 * are registered as custom codecs, so they take precedence over the default JSON codecs for the
+	 * {@link PropertyBox} type, and they use the {@link ObjectMapper} of the Jackson JSON decoder configured in the
+	 * client, if any.
+	 * @param client The web client
+	 * @return The web client with the {@link PropertyBox} codecs, or the given one if Jackson is not available
+	 */
+	public static WebClient configure(WebClient client) {
+		if (!JACKSON_PRESENT) {
+			return client;
+		}
+		// the same WebClient is usually used to create many clients
+		final Configured last = lastConfigured;
+		final WebClient reused = (last != null) ? last.get(client) : null;
+		if (reused != null) {
+			return reused;
+		}
+		final WebClient configured = JacksonCodecs.configure(client);
+		lastConfigured = new Configured(client, configured);
+		return configured;
+	}
+
+	/**
+	 * Put given {@link PropertySet} in the Reactor {@link Context}, to be used to decode the {@link PropertyBox}
+	 * payloads.
+	 * @param context The context
+	 * @param propertySet The property set
+	 * @return The updated context
+	 */
+	public static Context withPropertySet(Context context, PropertySet<?> propertySet) {
+		return context.put(PROPERTY_SET_CONTEXT_KEY, propertySet);
+	}
+
+	/**
+	 * Jackson dependent codecs registration, to avoid loading the Jackson classes when not available.
+	 */
+	private static final class JacksonCodecs {
+
+		static WebClient configure(WebClient client) {
+			return client.mutate().codecs(configurer -> {
+				// the readers include the codecs customizations of the client
+				final ObjectMapper mapper = configurer.getReaders().stream()
+						.filter(reader -> reader instanceof DecoderHttpMessageReader)
+						.map(reader -> ((DecoderHttpMessageReader<?>) reader).getDecoder())
+						.filter(decoder -> decoder instanceof Jackson2JsonDecoder)
+						.map(decoder -> ((Jackson2JsonDecoder) decoder).getObjectMapper()).findFirst()
+						.orElseGet(() -> Jackson2ObjectMapperBuilder.json().build());
+				configurer.customCodecs().register(new PropertyBoxJsonDecoder(mapper));
+				configurer.customCodecs().register(new PropertyBoxJsonEncoder(mapper));
+			}).build();
+		}
+
+	}
+
+	/**
+	 * A web client and its configured version, both weakly referenced so that they are not retained once the clients
+	 * which use them are no longer reachable.
+	 */
+	private static final class Configured {
+
+		private final WeakReference<WebClient> source;
+		private final WeakReference<WebClient> configured;
+
+		Configured(WebClient source, WebClient configured) {
+			super();
+			this.source = new WeakReference<>(source);
+			this.configured = new WeakReference<>(configured);
+		}
+
+		/**
+		 * Get the configured version of given web client.
+		 * @param client The web client
+		 * @return The configured web client, <code>null</code> if not available
+		 */
+		WebClient get(WebClient client) {
+			return (source.get() == client) ? configured.get() : null;
+		}
+
+	}
+
+}
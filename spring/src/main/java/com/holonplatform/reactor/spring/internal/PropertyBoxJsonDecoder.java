@@ -0,0 +1,540 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.holonplatform.core.Path;
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON {@link Decoder} for {@link PropertyBox} payloads.
+ * <p>
+ * The {@link PropertySet} to use is obtained from the Reactor context of the subscription, using the
+ * {@link PropertyBoxCodecs#PROPERTY_SET_CONTEXT_KEY} key. The JSON tokens produced by a non-blocking parser are set
+ * straight into the {@link PropertyBox} property values, using a lookup table of the property set paths by name
+ * computed once for each property set. Only the values of a type which cannot be read directly from the current token
+ * are bound through the {@link ObjectMapper}.
+ * </p>
+ * <p>
+ * The value of a property whose path has a parent path is read from a nested JSON object, named as the parent path:
+ * for example, the <code>name</code> property with the <code>address</code> parent path is bound to the
+ * <code>{"address":{"name":...}}</code> field. A {@link DataTarget} parent path is not mapped to a nested object.
+ * </p>
+ * <p>
+ * Both a JSON array of objects and a sequence of root JSON objects (for example newline delimited JSON) are decoded as
+ * a stream, emitting each {@link PropertyBox} as soon as its JSON object is complete.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class PropertyBoxJsonDecoder implements Decoder<PropertyBox> {
+
+	/**
+	 * Supported mime types
+	 */
+	static final List<MimeType> MIME_TYPES = Collections.unmodifiableList(Arrays.asList(MediaType.APPLICATION_JSON,
+			new MediaType("application", "*+json"), MediaType.APPLICATION_NDJSON));
+
+	private static final int MAX_CACHED_PROPERTY_SETS = 256;
+
+	private static final Object NOT_READ = new Object();
+
+	private final ObjectMapper mapper;
+
+	/**
+	 * Property lookup tables by property set
+	 */
+	private final Map<PropertySet<?>, PropertySlots> propertySlots = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param mapper The object mapper to use to bind the values which cannot be read directly (not null)
+	 */
+	public PropertyBoxJsonDecoder(ObjectMapper mapper) {
+		super();
+		ObjectUtils.argumentNotNull(mapper, "ObjectMapper must be not null");
+		this.mapper = mapper;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Decoder#canDecode(org.springframework.core.ResolvableType,
+	 * org.springframework.util.MimeType)
+	 */
+	@Override
+	public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+		return PropertyBox.class.isAssignableFrom(elementType.toClass()) && isSupported(mimeType);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Decoder#getDecodableMimeTypes()
+	 */
+	@Override
+	public List<MimeType> getDecodableMimeTypes() {
+		return MIME_TYPES;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Decoder#decode(org.reactivestreams.Publisher,
+	 * org.springframework.core.ResolvableType, org.springframework.util.MimeType, java.util.Map)
+	 */
+	@Override
+	public Flux<PropertyBox> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			MimeType mimeType, Map<String, Object> hints) {
+		return Flux.deferContextual(context -> {
+			final PropertySet<?> propertySet = context.getOrDefault(PropertyBoxCodecs.PROPERTY_SET_CONTEXT_KEY, null);
+			if (propertySet == null) {
+				return Flux.error(new DecodingException(
+						"Missing PropertySet to decode the PropertyBox payload: it must be provided using the request "
+								+ "definition propertySet(...) method"));
+			}
+			final Tokenizer tokenizer;
+			try {
+				tokenizer = new Tokenizer(getPropertySlots(propertySet));
+			} catch (IOException e) {
+				return Flux.error(new DecodingException("Failed to create the JSON parser", e));
+			}
+			return Flux.from(inputStream).concatMapIterable(buffer -> tokenizer.feed(buffer))
+					.concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.end())))
+					.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Decoder#decodeToMono(org.reactivestreams.Publisher,
+	 * org.springframework.core.ResolvableType, org.springframework.util.MimeType, java.util.Map)
+	 */
+	@Override
+	public Mono<PropertyBox> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			MimeType mimeType, Map<String, Object> hints) {
+		return decode(inputStream, elementType, mimeType, hints).singleOrEmpty();
+	}
+
+	/**
+	 * Checks whether given mime type is supported.
+	 * @param mimeType The mime type, may be null
+	 * @return <code>true</code> if supported
+	 */
+	static boolean isSupported(MimeType mimeType) {
+		if (mimeType == null) {
+			return true;
+		}
+		for (MimeType supported : MIME_TYPES) {
+			if (supported.isCompatibleWith(mimeType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the names of the parent paths of given path, from the outermost one, excluding the {@link DataTarget}s.
+	 * @param path The path
+	 * @return The parent path names, empty if the path has no parent path
+	 */
+	static List<String> getParentNames(Path<?> path) {
+		Path<?> parent = path.getParent().orElse(null);
+		if (parent == null || parent instanceof DataTarget) {
+			return Collections.emptyList();
+		}
+		final LinkedList<String> names = new LinkedList<>();
+		while (parent != null && !(parent instanceof DataTarget)) {
+			names.addFirst(parent.getName());
+			parent = parent.getParent().orElse(null);
+		}
+		return names;
+	}
+
+	/**
+	 * Get the property lookup table of given property set.
+	 * @param propertySet The property set
+	 * @return The property lookup table
+	 */
+	private PropertySlots getPropertySlots(PropertySet<?> propertySet) {
+		final PropertySlots slots = propertySlots.get(propertySet);
+		if (slots != null) {
+			return slots;
+		}
+		if (propertySlots.size() >= MAX_CACHED_PROPERTY_SETS) {
+			propertySlots.clear();
+		}
+		return propertySlots.computeIfAbsent(propertySet, ps -> new PropertySlots(ps, mapper));
+	}
+
+	/**
+	 * The property lookup table of a property set, or of a nested JSON object.
+	 */
+	private static final class PropertySlots {
+
+		final PropertySet<?> propertySet;
+		private final Map<String, PropertySlot> slots = new HashMap<>();
+
+		/**
+		 * The lookup tables of the nested JSON objects, null if none
+		 */
+		private Map<String, PropertySlots> nested;
+
+		PropertySlots(PropertySet<?> propertySet, ObjectMapper mapper) {
+			super();
+			this.propertySet = propertySet;
+			for (Property<?> property : propertySet) {
+				if (property instanceof Path && !property.isReadOnly()) {
+					PropertySlots table = this;
+					for (String parent : getParentNames((Path<?>) property)) {
+						table = table.nested(parent);
+					}
+					table.slots.put(((Path<?>) property).getName(), new PropertySlot(property, mapper));
+				}
+			}
+		}
+
+		private PropertySlots() {
+			super();
+			this.propertySet = null;
+		}
+
+		private PropertySlots nested(String name) {
+			if (nested == null) {
+				nested = new HashMap<>(4);
+			}
+			return nested.computeIfAbsent(name, n -> new PropertySlots());
+		}
+
+		PropertySlot get(String name) {
+			return slots.get(name);
+		}
+
+		PropertySlots getNested(String name) {
+			return (nested != null) ? nested.get(name) : null;
+		}
+
+	}
+
+	/**
+	 * The value kinds which can be read directly from a JSON token.
+	 */
+	private enum Kind {
+
+		STRING, INTEGER, LONG, DOUBLE, FLOAT, BOOLEAN, BIG_DECIMAL, OTHER;
+
+		static Kind of(Class<?> type) {
+			if (type == String.class) {
+				return STRING;
+			}
+			if (type == Integer.class || type == int.class) {
+				return INTEGER;
+			}
+			if (type == Long.class || type == long.class) {
+				return LONG;
+			}
+			if (type == Double.class || type == double.class) {
+				return DOUBLE;
+			}
+			if (type == Float.class || type == float.class) {
+				return FLOAT;
+			}
+			if (type == Boolean.class || type == boolean.class) {
+				return BOOLEAN;
+			}
+			if (type == BigDecimal.class) {
+				return BIG_DECIMAL;
+			}
+			return OTHER;
+		}
+
+	}
+
+	/**
+	 * A property to which the JSON values are bound.
+	 */
+	private static final class PropertySlot {
+
+		final Property<Object> property;
+		final Kind kind;
+		final JavaType type;
+
+		@SuppressWarnings("unchecked")
+		PropertySlot(Property<?> property, ObjectMapper mapper) {
+			super();
+			this.property = (Property<Object>) property;
+			this.kind = Kind.of(property.getType());
+			this.type = mapper.constructType(property.getType());
+		}
+
+		/**
+		 * Read the value of the current scalar token, if it has a type which can be read directly.
+		 * @param parser The parser
+		 * @param token The current token
+		 * @return The value, or {@link PropertyBoxJsonDecoder#NOT_READ} if the value cannot be read directly
+		 * @throws IOException If a parsing error occurs
+		 */
+		Object read(JsonParser parser, JsonToken token) throws IOException {
+			switch (kind) {
+			case STRING:
+				return (token == JsonToken.VALUE_STRING) ? parser.getText() : NOT_READ;
+			case INTEGER:
+				return (token == JsonToken.VALUE_NUMBER_INT) ? Integer.valueOf(parser.getIntValue()) : NOT_READ;
+			case LONG:
+				return (token == JsonToken.VALUE_NUMBER_INT) ? Long.valueOf(parser.getLongValue()) : NOT_READ;
+			case DOUBLE:
+				return token.isNumeric() ? Double.valueOf(parser.getDoubleValue()) : NOT_READ;
+			case FLOAT:
+				return token.isNumeric() ? Float.valueOf(parser.getFloatValue()) : NOT_READ;
+			case BOOLEAN:
+				return token.isBoolean() ? Boolean.valueOf(token == JsonToken.VALUE_TRUE) : NOT_READ;
+			case BIG_DECIMAL:
+				return token.isNumeric() ? parser.getDecimalValue() : NOT_READ;
+			default:
+				return NOT_READ;
+			}
+		}
+
+	}
+
+	/**
+	 * Decodes the {@link PropertyBox}es from the data buffers of a payload.
+	 */
+	private final class Tokenizer {
+
+		private final PropertySlots slots;
+		private final JsonParser parser;
+		private final ByteArrayFeeder feeder;
+
+		/**
+		 * Whether the payload is a JSON array
+		 */
+		private boolean array;
+
+		/**
+		 * The builder of the PropertyBox being decoded
+		 */
+		private PropertyBox.Builder builder;
+
+		/**
+		 * The lookup table of the JSON object being decoded, and the ones of its enclosing objects
+		 */
+		private PropertySlots current;
+		private final Deque<PropertySlots> enclosing = new ArrayDeque<>(2);
+
+		/**
+		 * The property of the current field, null if the field is not bound to a property
+		 */
+		private PropertySlot slot;
+
+		/**
+		 * The lookup table of the current field nested object, null if the field is not bound to nested properties
+		 */
+		private PropertySlots nested;
+
+		/**
+		 * Structured value being skipped: nesting depth
+		 */
+		private int skipDepth;
+
+		/**
+		 * Structured value being captured: tokens and nesting depth
+		 */
+		private TokenBuffer capture;
+		private int captureDepth;
+
+		Tokenizer(PropertySlots slots) throws IOException {
+			super();
+			this.slots = slots;
+			this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+			this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+		}
+
+		/**
+		 * Feed a data buffer, which is released.
+		 * @param buffer The data buffer
+		 * @return The PropertyBoxes completed by the buffer
+		 */
+		List<PropertyBox> feed(DataBuffer buffer) {
+			final byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			try {
+				feeder.feedInput(bytes, 0, bytes.length);
+				return parse();
+			} catch (IOException e) {
+				throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+			}
+		}
+
+		/**
+		 * Signal the end of the payload.
+		 * @return The remaining PropertyBoxes
+		 */
+		List<PropertyBox> end() {
+			feeder.endOfInput();
+			try {
+				final List<PropertyBox> boxes = parse();
+				if (array || builder != null) {
+					throw new DecodingException("Incomplete JSON payload");
+				}
+				return boxes;
+			} catch (IOException e) {
+				throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+			}
+		}
+
+		private List<PropertyBox> parse() throws IOException {
+			List<PropertyBox> boxes = Collections.emptyList();
+			JsonToken token;
+			while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+				if (capture != null) {
+					capture(token);
+				} else if (skipDepth > 0) {
+					if (token.isStructStart()) {
+						skipDepth++;
+					} else if (token.isStructEnd()) {
+						skipDepth--;
+					}
+				} else if (builder == null) {
+					if (token == JsonToken.START_OBJECT) {
+						builder = PropertyBox.builder(slots.propertySet).invalidAllowed(true);
+						current = slots;
+					} else if (token == JsonToken.START_ARRAY && !array) {
+						array = true;
+					} else if (token == JsonToken.END_ARRAY && array) {
+						array = false;
+					} else {
+						throw new DecodingException("Unexpected JSON token [" + token + "]: a JSON object was expected");
+					}
+				} else if (token == JsonToken.FIELD_NAME) {
+					slot = current.get(parser.getCurrentName());
+					nested = current.getNested(parser.getCurrentName());
+				} else if (token == JsonToken.END_OBJECT && !enclosing.isEmpty()) {
+					current = enclosing.pop();
+				} else if (token == JsonToken.END_OBJECT) {
+					if (boxes.isEmpty()) {
+						boxes = new ArrayList<>(4);
+					}
+					boxes.add(builder.build());
+					builder = null;
+				} else {
+					value(token);
+				}
+			}
+			return boxes;
+		}
+
+		/**
+		 * Handle a field value token.
+		 * @param token The value token
+		 * @throws IOException If a parsing error occurs
+		 */
+		private void value(JsonToken token) throws IOException {
+			if (slot == null) {
+				if (nested != null && token == JsonToken.START_OBJECT) {
+					enclosing.push(current);
+					current = nested;
+					nested = null;
+				} else if (token.isStructStart()) {
+					skipDepth = 1;
+				}
+				return;
+			}
+			if (token.isStructStart()) {
+				capture = new TokenBuffer(parser);
+				capture.copyCurrentEvent(parser);
+				captureDepth = 1;
+				return;
+			}
+			if (token != JsonToken.VALUE_NULL) {
+				final Object value = slot.read(parser, token);
+				if (value != NOT_READ) {
+					builder.set(slot.property, value);
+				} else {
+					final TokenBuffer buffer = new TokenBuffer(parser);
+					buffer.copyCurrentEvent(parser);
+					bind(buffer);
+				}
+			}
+			slot = null;
+		}
+
+		/**
+		 * Capture a token of a structured value.
+		 * @param token The token
+		 * @throws IOException If a parsing error occurs
+		 */
+		private void capture(JsonToken token) throws IOException {
+			capture.copyCurrentEvent(parser);
+			if (token.isStructStart()) {
+				captureDepth++;
+			} else if (token.isStructEnd() && --captureDepth == 0) {
+				final TokenBuffer captured = capture;
+				capture = null;
+				bind(captured);
+				slot = null;
+			}
+		}
+
+		/**
+		 * Bind the value tokens to the current property using the object mapper.
+		 * @param tokens The value tokens
+		 * @throws IOException If a binding error occurs
+		 */
+		private void bind(TokenBuffer tokens) throws IOException {
+			try (JsonParser valueParser = tokens.asParser(mapper)) {
+				final Object value = mapper.readValue(valueParser, slot.type);
+				if (value != null) {
+					builder.set(slot.property, value);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.holonplatform.core.Path;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON {@link Encoder} for {@link PropertyBox} payloads.
+ * <p>
+ * Each {@link PropertyBox} is written as a JSON object, using the path properties names as field names and skipping
+ * the <code>null</code> values. The values of a type which cannot be written directly are serialized through the
+ * {@link ObjectMapper}. A stream of {@link PropertyBox}es is written as a JSON array, or as newline delimited JSON
+ * objects for the <code>application/x-ndjson</code> media type.
+ * </p>
+ * <p>
+ * The value of a property whose path has a parent path is written in a nested JSON object, named as the parent path,
+ * consistently with {@link PropertyBoxJsonDecoder}.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class PropertyBoxJsonEncoder implements Encoder<PropertyBox> {
+
+	private static final byte[] START_ARRAY = "[".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] END_ARRAY = "]".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+	private final ObjectMapper mapper;
+
+	/**
+	 * Constructor.
+	 * @param mapper The object mapper to use to serialize the values which cannot be written directly (not null)
+	 */
+	public PropertyBoxJsonEncoder(ObjectMapper mapper) {
+		super();
+		ObjectUtils.argumentNotNull(mapper, "ObjectMapper must be not null");
+		this.mapper = mapper;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Encoder#canEncode(org.springframework.core.ResolvableType,
+	 * org.springframework.util.MimeType)
+	 */
+	@Override
+	public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+		return PropertyBox.class.isAssignableFrom(elementType.toClass())
+				&& PropertyBoxJsonDecoder.isSupported(mimeType);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Encoder#getEncodableMimeTypes()
+	 */
+	@Override
+	public List<MimeType> getEncodableMimeTypes() {
+		return PropertyBoxJsonDecoder.MIME_TYPES;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Encoder#encode(org.reactivestreams.Publisher,
+	 * org.springframework.core.io.buffer.DataBufferFactory, org.springframework.core.ResolvableType,
+	 * org.springframework.util.MimeType, java.util.Map)
+	 */
+	@Override
+	public Flux<DataBuffer> encode(Publisher<? extends PropertyBox> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		if (inputStream instanceof Mono) {
+			return Mono.from(inputStream)
+					.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+		}
+		if (mimeType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+			return Flux.from(inputStream).map(value -> encode(value, bufferFactory, null, NEWLINE));
+		}
+		return Flux.from(inputStream).index()
+				.map(value -> encode(value.getT2(), bufferFactory, (value.getT1() > 0) ? SEPARATOR : START_ARRAY,
+						null))
+				.switchIfEmpty(Mono.fromSupplier(() -> bufferFactory.wrap(START_ARRAY)))
+				.concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(END_ARRAY)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.codec.Encoder#encodeValue(java.lang.Object,
+	 * org.springframework.core.io.buffer.DataBufferFactory, org.springframework.core.ResolvableType,
+	 * org.springframework.util.MimeType, java.util.Map)
+	 */
+	@Override
+	public DataBuffer encodeValue(PropertyBox value, DataBufferFactory bufferFactory, ResolvableType valueType,
+			MimeType mimeType, Map<String, Object> hints) {
+		return encode(value, bufferFactory, null, null);
+	}
+
+	/**
+	 * Encode a {@link PropertyBox} as a JSON object.
+	 * @param value The value to encode
+	 * @param bufferFactory Buffer factory
+	 * @param prefix Optional bytes to write before the JSON object
+	 * @param suffix Optional bytes to write after the JSON object
+	 * @return The data buffer
+	 */
+	private DataBuffer encode(PropertyBox value, DataBufferFactory bufferFactory, byte[] prefix, byte[] suffix) {
+		final DataBuffer buffer = bufferFactory.allocateBuffer(256);
+		boolean release = true;
+		try {
+			if (prefix != null) {
+				buffer.write(prefix);
+			}
+			try (JsonGenerator generator = mapper.getFactory().createGenerator(buffer.asOutputStream())) {
+				generator.setCodec(mapper);
+				write(generator, value);
+			}
+			if (suffix != null) {
+				buffer.write(suffix);
+			}
+			release = false;
+			return buffer;
+		} catch (IOException e) {
+			throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+		} finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Write a {@link PropertyBox} as a JSON object.
+	 * @param generator The JSON generator
+	 * @param value The value to write
+	 * @throws IOException If a writing error occurs
+	 */
+	private static void write(JsonGenerator generator, PropertyBox value) throws IOException {
+		generator.writeStartObject();
+		// the values of the properties with a parent path, by nested object
+		Map<String, Object> nested = null;
+		for (Property<?> property : value) {
+			if (property instanceof Path) {
+				final Object propertyValue = value.getValue(property);
+				if (propertyValue != null) {
+					final List<String> parents = PropertyBoxJsonDecoder.getParentNames((Path<?>) property);
+					if (parents.isEmpty()) {
+						writeField(generator, ((Path<?>) property).getName(), propertyValue);
+					} else {
+						if (nested == null) {
+							nested = new LinkedHashMap<>(4);
+						}
+						Map<String, Object> fields = nested;
+						for (String parent : parents) {
+							fields = ((NestedObject) fields.computeIfAbsent(parent, n -> new NestedObject())).fields;
+						}
+						fields.put(((Path<?>) property).getName(), propertyValue);
+					}
+				}
+			}
+		}
+		if (nested != null) {
+			writeFields(generator, nested);
+		}
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Write the fields of a nested JSON object.
+	 * @param generator The JSON generator
+	 * @param fields The field values by name, a {@link NestedObject} value for a nested JSON object
+	 * @throws IOException If a writing error occurs
+	 */
+	private static void writeFields(JsonGenerator generator, Map<String, Object> fields) throws IOException {
+		for (Map.Entry<String, Object> field : fields.entrySet()) {
+			if (field.getValue() instanceof NestedObject) {
+				generator.writeObjectFieldStart(field.getKey());
+				writeFields(generator, ((NestedObject) field.getValue()).fields);
+				generator.writeEndObject();
+			} else {
+				writeField(generator, field.getKey(), field.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Write a JSON field.
+	 * @param generator The JSON generator
+	 * @param name The field name
+	 * @param value The field value, not null
+	 * @throws IOException If a writing error occurs
+	 */
+	private static void writeField(JsonGenerator generator, String name, Object value) throws IOException {
+		generator.writeFieldName(name);
+		if (value instanceof String) {
+			generator.writeString((String) value);
+		} else if (value instanceof Integer) {
+			generator.writeNumber(((Integer) value).intValue());
+		} else if (value instanceof Long) {
+			generator.writeNumber(((Long) value).longValue());
+		} else if (value instanceof Double) {
+			generator.writeNumber(((Double) value).doubleValue());
+		} else if (value instanceof Boolean) {
+			generator.writeBoolean(((Boolean) value).booleanValue());
+		} else if (value instanceof BigDecimal) {
+			generator.writeNumber((BigDecimal) value);
+		} else {
+			generator.writeObject(value);
+		}
+	}
+
+	/**
+	 * The fields of a nested JSON object.
+	 */
+	private static final class NestedObject {
+
+		final Map<String, Object> fields = new LinkedHashMap<>(4);
+
+	}
+
+}
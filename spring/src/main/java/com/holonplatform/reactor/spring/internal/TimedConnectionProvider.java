@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+
+import io.netty.resolver.AddressResolverGroup;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+/**
+ * A {@link ConnectionProvider} which delegates to a concrete provider, recording the connection acquire latency.
+ * <p>
+ * Any provider derived from this one through {@link #mutate()}, such as the HTTP/2 provider built by Reactor Netty,
+ * uses the concrete provider configuration and does not record the acquire latency.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class TimedConnectionProvider implements ConnectionProvider {
+
+	private final ConnectionProvider delegate;
+	private final DefaultConnectionPoolStatistics statistics;
+
+	/**
+	 * Constructor.
+	 * @param delegate Concrete provider (not null)
+	 * @param statistics Statistics to update (not null)
+	 */
+	public TimedConnectionProvider(ConnectionProvider delegate, DefaultConnectionPoolStatistics statistics) {
+		super();
+		ObjectUtils.argumentNotNull(delegate, "ConnectionProvider must be not null");
+		ObjectUtils.argumentNotNull(statistics, "Statistics must be not null");
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#acquire(reactor.netty.transport.TransportConfig,
+	 * reactor.netty.ConnectionObserver, java.util.function.Supplier, io.netty.resolver.AddressResolverGroup)
+	 */
+	@Override
+	public Mono<? extends Connection> acquire(TransportConfig config, ConnectionObserver connectionObserver,
+			Supplier<? extends SocketAddress> remoteAddress, AddressResolverGroup<?> resolverGroup) {
+		return Mono.defer(() -> {
+			final long start = System.nanoTime();
+			return delegate.acquire(config, connectionObserver, remoteAddress, resolverGroup)
+					.doOnNext(c -> statistics.recordAcquire(System.nanoTime() - start));
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#disposeWhen(java.net.SocketAddress)
+	 */
+	@Override
+	public void disposeWhen(SocketAddress remoteAddress) {
+		delegate.disposeWhen(remoteAddress);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#disposeLater()
+	 */
+	@Override
+	public Mono<Void> disposeLater() {
+		return delegate.disposeLater();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#isDisposed()
+	 */
+	@Override
+	public boolean isDisposed() {
+		return delegate.isDisposed();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#maxConnections()
+	 */
+	@Override
+	public int maxConnections() {
+		return delegate.maxConnections();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#maxConnectionsPerHost()
+	 */
+	@Override
+	public Map<SocketAddress, Integer> maxConnectionsPerHost() {
+		return delegate.maxConnectionsPerHost();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#mutate()
+	 */
+	@Override
+	public Builder mutate() {
+		return delegate.mutate();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see reactor.netty.resources.ConnectionProvider#name()
+	 */
+	@Override
+	public String name() {
+		return delegate.name();
+	}
+
+}
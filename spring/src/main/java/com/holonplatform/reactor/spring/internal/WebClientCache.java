@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.reactor.spring.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+
+/**
+ * A bounded and concurrent cache of the {@link WebClient} instances derived from a parent {@link WebClient} by setting
+ * a base URL.
+ * <p>
+ * When the cache size exceeds the configured maximum size, the least recently created instances are evicted first.
+ * </p>
+ *
+ * @since 6.0.3
+ */
+public class WebClientCache {
+
+	/**
+	 * Default maximum cache size
+	 */
+	public static final int DEFAULT_MAX_SIZE = 64;
+
+	/**
+	 * Parent client
+	 */
+	private final WebClient client;
+
+	/**
+	 * Maximum cache size
+	 */
+	private final int maxSize;
+
+	/**
+	 * Derived clients by base URL
+	 */
+	private final ConcurrentHashMap<String, WebClient> clients;
+
+	/**
+	 * Base URLs in creation order, used for eviction
+	 */
+	private final ConcurrentLinkedQueue<String> creationOrder = new ConcurrentLinkedQueue<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Constructor using the default maximum size.
+	 * @param client Parent {@link WebClient} (not null)
+	 */
+	public WebClientCache(WebClient client) {
+		this(client, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 * @param client Parent {@link WebClient} (not null)
+	 * @param maxSize Maximum number of cached instances (must be greater than 0)
+	 */
+	public WebClientCache(WebClient client, int maxSize) {
+		super();
+		ObjectUtils.argumentNotNull(client, "Client must be not null");
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache max size must be greater than 0");
+		}
+		this.client = client;
+		this.maxSize = maxSize;
+		this.clients = new ConcurrentHashMap<>(Math.min(maxSize, 16));
+	}
+
+	/**
+	 * Get the parent {@link WebClient}.
+	 * @return The parent client
+	 */
+	public WebClient getClient() {
+		return client;
+	}
+
+	/**
+	 * Get the {@link WebClient} bound to given base URL, building and caching it if not already available.
+	 * @param baseUrl The base URL (if <code>null</code>, the parent client is returned)
+	 * @return The {@link WebClient} bound to given base URL
+	 */
+	public WebClient get(String baseUrl) {
+		if (baseUrl == null) {
+			return client;
+		}
+		final WebClient cached = clients.get(baseUrl);
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+		misses.increment();
+		final WebClient built = client.mutate().baseUrl(baseUrl).build();
+		final WebClient existing = clients.putIfAbsent(baseUrl, built);
+		if (existing != null) {
+			return existing;
+		}
+		creationOrder.offer(baseUrl);
+		evict();
+		return built;
+	}
+
+	/**
+	 * Evict the eldest instances until the cache size is not greater than the maximum size.
+	 */
+	private void evict() {
+		while (clients.size() > maxSize) {
+			final String eldest = creationOrder.poll();
+			if (eldest == null) {
+				break;
+			}
+			if (clients.remove(eldest) != null) {
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Remove all the cached instances.
+	 */
+	public void clear() {
+		clients.clear();
+		creationOrder.clear();
+	}
+
+	/**
+	 * Get the maximum cache size.
+	 * @return the maximum cache size
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Get the current number of cached instances.
+	 * @return the current cache size
+	 */
+	public int size() {
+		return clients.size();
+	}
+
+	/**
+	 * Get the number of lookups which found a cached instance.
+	 * @return the cache hit count
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Get the number of lookups which required to build a new instance.
+	 * @return the cache miss count
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Get the number of evicted instances.
+	 * @return the eviction count
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+}
@@ -15,26 +15,39 @@
  */
 package com.holonplatform.reactor.spring.internal;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
-import org.springframework.http.HttpStatusCode;
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClient.RequestBodySpec;
 
 import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertySet;
 import com.holonplatform.http.HttpMethod;
-import com.holonplatform.http.HttpStatus;
 import com.holonplatform.http.MediaType;
-import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
 import com.holonplatform.http.internal.HttpUtils;
 import com.holonplatform.http.rest.RequestEntity;
 import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.Compression;
+import com.holonplatform.reactor.http.EventStream;
+import com.holonplatform.reactor.http.FileRequestEntity;
+import com.holonplatform.reactor.http.MultipartRequestEntity;
+import com.holonplatform.reactor.http.ReactiveRequestEntity;
 import com.holonplatform.reactor.http.ReactiveResponseEntity;
+import com.holonplatform.reactor.http.ReactiveRestClient;
+import com.holonplatform.reactor.http.ResponseCache;
+import com.holonplatform.reactor.http.Timeouts;
 import com.holonplatform.reactor.http.internal.AbstractReactiveRestClient;
+import com.holonplatform.reactor.http.internal.DefaultPreparedRequest;
 import com.holonplatform.reactor.http.internal.DefaultReactiveRequestDefinition;
+import com.holonplatform.reactor.http.internal.RequestKey;
 import com.holonplatform.reactor.spring.SpringReactiveRestClient;
 
 import reactor.core.publisher.Mono;
@@ -51,14 +64,35 @@ public class WebClientReactiveRestClient extends AbstractReactiveRestClient impl
 	 */
 	private final WebClient client;
 
+	/**
+	 * Web clients bound to a base URL
+	 */
+	private final WebClientCache clientCache;
+
+	/**
+	 * Exchange through the response cache, if configured
+	 */
+	private volatile CachingExchange cachingExchange;
+
 	/**
 	 * Constructor
 	 * @param client Spring {@link WebClient}
 	 */
 	public WebClientReactiveRestClient(WebClient client) {
+		this(client, WebClientCache.DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param client Spring {@link WebClient}
+	 * @param clientCacheSize Maximum number of base URL bound {@link WebClient}s to cache
+	 */
+	public WebClientReactiveRestClient(WebClient client, int clientCacheSize) {
 		super();
 		ObjectUtils.argumentNotNull(client, "Client must be not null");
 		this.client = client;
+		// the invocations use a copy of the client with the PropertyBox codecs, if available
+		this.clientCache = new WebClientCache(PropertyBoxCodecs.configure(client), clientCacheSize);
 	}
 
 	/*
@@ -70,6 +104,25 @@ public class WebClientReactiveRestClient extends AbstractReactiveRestClient impl
 		return client;
 	}
 
+	/**
+	 * Get the cache of the {@link WebClient}s bound to a base URL.
+	 * @return The client cache
+	 */
+	public WebClientCache getClientCache() {
+		return clientCache;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.internal.AbstractReactiveRestClient#withResponseCache(com.holonplatform.
+	 * reactor.http.ResponseCache)
+	 */
+	@Override
+	public ReactiveRestClient withResponseCache(ResponseCache responseCache) {
+		this.cachingExchange = (responseCache != null) ? new CachingExchange(responseCache) : null;
+		return super.withResponseCache(responseCache);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.reactor.http.internal.AbstractReactiveRestClient#buildDefinition()
@@ -81,27 +134,23 @@ public class WebClientReactiveRestClient extends AbstractReactiveRestClient impl
 
 	/*
 	 * (non-Javadoc)
-	 * @see
-	 * com.holonplatform.reactor.http.internal.ReactiveInvoker#invoke(com.holonplatform.reactor.http.
-	 * ReactiveRestClient. ReactiveRequestDefinition, com.holonplatform.http.HttpMethod,
-	 * com.holonplatform.http.rest.RequestEntity, com.holonplatform.http.rest.ResponseType, boolean)
+	 * @see com.holonplatform.reactor.http.internal.AbstractReactiveRestClient#compile(com.holonplatform.reactor.http.
+	 * internal.DefaultPreparedRequest)
 	 */
 	@Override
-	public <T, R> Mono<ReactiveResponseEntity<T>> invoke(ReactiveRequestDefinition requestDefinition, HttpMethod method,
-			RequestEntity<R> requestEntity, ResponseType<T> responseType, boolean onlySuccessfulStatusCode) {
-		ObjectUtils.argumentNotNull(method, "HTTP method must be not null");
-
-		// builder
-		WebClient.Builder builder = getClient().mutate();
-
-		// Base URI
-		final String baseUrl = requestDefinition.getBaseRequestURI().map(uri -> uri.toString()).orElse(null);
-		if (baseUrl != null) {
-			builder = builder.baseUrl(baseUrl);
-		}
+	protected Object compile(DefaultPreparedRequest preparedRequest) {
+		return CompiledRequest.compile(preparedRequest);
+	}
 
-		// WebClient
-		final WebClient client = builder.build();
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.internal.AbstractReactiveRestClient#exchange(com.holonplatform.reactor.http.
+	 * ReactiveRestClient.ReactiveRequestDefinition, com.holonplatform.http.HttpMethod,
+	 * com.holonplatform.http.rest.RequestEntity, com.holonplatform.http.rest.ResponseType)
+	 */
+	@Override
+	protected <T, R> Mono<ReactiveResponseEntity<T>> exchange(ReactiveRequestDefinition requestDefinition,
+			HttpMethod method, RequestEntity<R> requestEntity, ResponseType<T> responseType) {
 
 		// method
 		org.springframework.http.HttpMethod requestMethod = org.springframework.http.HttpMethod
@@ -110,37 +159,181 @@ public class WebClientReactiveRestClient extends AbstractReactiveRestClient impl
 			throw new RestClientException("Unsupported HTTP method: " + method.getMethodName());
 		}
 
-		final RequestBodySpec spec = client.method(requestMethod).uri(ub -> {
-			// path
-			requestDefinition.getRequestPath().ifPresent(path -> ub.path(path));
-			// query parameters
-			requestDefinition.getQueryParameters().forEach((n, v) -> ub.queryParam(n, v));
-			// uri variables
-			return ub.build(requestDefinition.getTemplateParameters());
-		}).headers(headers -> {
-			// headers
-			requestDefinition.getHeaders().forEach((n, v) -> headers.add(n, v));
-		});
+		// request spec
+		final Compression compression = getCompression(requestDefinition);
+		final RequestBodySpec spec = spec(requestMethod, requestDefinition, requestEntity, compression);
 
-		// body
-		getRequestPayload(requestEntity).ifPresent(payload -> {
-			spec.bodyValue(payload);
-		});
+		// track the request sending, before the exchange
+		final Timeouts timeouts = getTimeouts(requestDefinition);
+		final AtomicBoolean sent = HttpTimeouts.trackRequestSent(spec, timeouts);
+
+		// get response, checking propertySet
+		final Supplier<Mono<ClientResponse>> exchange = () -> exchange(requestDefinition, spec);
+
+		// check response cache
+		final CachingExchange caching = cachingExchange;
+		final Mono<ClientResponse> exchanged;
+		if (caching != null && isCacheable(method, requestDefinition, requestEntity)) {
+			final RequestKey key = RequestKey.of(method, requestDefinition, null);
+			exchanged = caching.exchange(key, exchange, conditionalHeaders -> {
+				// the conditional request uses a new request spec, the shared one is left unchanged
+				final RequestBodySpec conditional = spec(requestMethod, requestDefinition, requestEntity, compression);
+				conditional.headers(conditionalHeaders);
+				if (sent != null) {
+					conditional.httpRequest(request -> sent.set(true));
+				}
+				return exchange(requestDefinition, conditional);
+			});
+		} else {
+			exchanged = exchange.get();
+		}
+
+		// timeouts and deadline
+		final Mono<ClientResponse> timed = HttpTimeouts.timeout(exchanged, timeouts, sent);
+
+		// response decompression
+		final Mono<ClientResponse> response = (compression != null && compression.isResponseDecompression())
+				? timed.map(r -> HttpCompression.decompress(r, compression))
+				: timed;
+
+		final PropertySet<?> propertySet = requestDefinition.getPropertySet().orElse(null);
+		return response
+				.<ReactiveResponseEntity<T>>map(r -> new ClientResponseEntity<>(r, responseType, propertySet));
+	}
+
+	/**
+	 * Build the request spec for given request definition, including the request body, if any.
+	 * @param requestMethod Request method
+	 * @param requestDefinition Request definition
+	 * @param requestEntity Request entity
+	 * @param compression Request compression, may be null
+	 * @return The request spec
+	 */
+	private RequestBodySpec spec(org.springframework.http.HttpMethod requestMethod,
+			ReactiveRequestDefinition requestDefinition, RequestEntity<?> requestEntity, Compression compression) {
+		final RequestBodySpec spec;
+		final CompiledRequest compiled = CompiledRequest.of(requestDefinition);
+		if (compiled != null) {
+			// precompiled URI template and headers
+			spec = compiled.spec(clientCache.get(null), requestMethod, requestDefinition);
+		} else if (isCompleteTarget(requestDefinition)) {
+			// the base URI is the complete request URI (for example a pagination link): used as is, not expanded
+			spec = clientCache.get(null).method(requestMethod).uri(requestDefinition.getBaseRequestURI().get())
+					.headers(headers -> requestDefinition.getHeaders().forEach((n, v) -> headers.add(n, v)));
+		} else {
+			// WebClient bound to the base URI
+			final String baseUrl = requestDefinition.getBaseRequestURI().map(uri -> uri.toString()).orElse(null);
+			final WebClient client = clientCache.get(baseUrl);
+
+			spec = client.method(requestMethod).uri(ub -> {
+				// path
+				requestDefinition.getRequestPath().ifPresent(path -> ub.path(path));
+				// query parameters
+				requestDefinition.getQueryParameters().forEach((n, v) -> ub.queryParam(n, v));
+				// uri variables
+				return ub.build(requestDefinition.getTemplateParameters());
+			}).headers(headers -> {
+				// headers
+				requestDefinition.getHeaders().forEach((n, v) -> headers.add(n, v));
+			});
+		}
+
+		// compression
+		if (compression != null && HttpCompression.isAcceptEncodingRequired(compression, requestDefinition)) {
+			spec.header(HttpHeaders.ACCEPT_ENCODING, compression.getAcceptEncoding());
+		}
 
 		// body
+		if (requestEntity instanceof ReactiveRequestEntity) {
+			setRequestPublisher(spec, (ReactiveRequestEntity<?>) requestEntity);
+		} else if (requestEntity instanceof FileRequestEntity) {
+			// zero-copy or streamed file content
+			spec.body(HttpFiles.fromFile((FileRequestEntity) requestEntity));
+		} else if (requestEntity instanceof MultipartRequestEntity) {
+			spec.body(HttpFiles.fromMultipart((MultipartRequestEntity) requestEntity));
+		} else {
+			getRequestPayload(requestEntity).ifPresent(payload -> {
+				if (compression != null && compression.isRequestCompression()) {
+					spec.body(HttpCompression.compress(BodyInserters.fromValue(payload), compression));
+				} else {
+					spec.bodyValue(payload);
+				}
+			});
+		}
+		return spec;
+	}
 
-		// get response, checking propertySet
-		final Mono<ClientResponse> response = requestDefinition.getPropertySet()
-				.map(ps -> ps.execute(() -> spec.exchange())).orElseGet(() -> spec.exchange());
-
-		return response.flatMap(r -> {
-			final HttpStatusCode status = r.statusCode();
-			if (onlySuccessfulStatusCode && !HttpStatus.isSuccessStatusCode(status.value())) {
-				return Mono.<ReactiveResponseEntity<T>>error(
-						new UnsuccessfulResponseException(new ClientResponseEntity<>(r, responseType)));
+	/**
+	 * Perform the exchange of given request spec, binding the request {@link PropertySet}, if any.
+	 * @param requestDefinition Request definition
+	 * @param spec Request spec
+	 * @return The response
+	 */
+	private static Mono<ClientResponse> exchange(ReactiveRequestDefinition requestDefinition, RequestBodySpec spec) {
+		return requestDefinition.getPropertySet().map(ps -> ps.execute(() -> spec.exchange()))
+				.orElseGet(() -> spec.exchange());
+	}
+
+	/**
+	 * Set the request body using the elements publisher of given {@link ReactiveRequestEntity}, which will be encoded
+	 * and written as they are emitted.
+	 * @param <E> Payload elements type
+	 * @param spec Request spec
+	 * @param requestEntity Request entity
+	 */
+	private static <E> void setRequestPublisher(RequestBodySpec spec, ReactiveRequestEntity<E> requestEntity) {
+		requestEntity.getMediaType()
+				.ifPresent(mediaType -> spec.contentType(org.springframework.http.MediaType.parseMediaType(mediaType)));
+		requestEntity.getPayload().ifPresent(elements -> spec.body(elements, requestEntity.getElementType()));
+	}
+
+	/**
+	 * Checks whether the base URI of given request definition is the complete request URI, i.e. it has a path or a
+	 * query and the definition has no path, query parameters or template parameters.
+	 * @param requestDefinition Request definition
+	 * @return <code>true</code> if the base URI is the complete request URI
+	 */
+	private static boolean isCompleteTarget(ReactiveRequestDefinition requestDefinition) {
+		return requestDefinition.getBaseRequestURI()
+				.filter(uri -> (uri.getRawPath() != null && !uri.getRawPath().isEmpty()) || uri.getRawQuery() != null)
+				.isPresent() && !requestDefinition.getRequestPath().isPresent()
+				&& requestDefinition.getQueryParameters().isEmpty()
+				&& requestDefinition.getTemplateParameters().isEmpty();
+	}
+
+	/**
+	 * Checks whether the response to given request can be obtained through the response cache: only <code>GET</code>
+	 * requests without a request entity, for which the response cache is enabled and which are not range or
+	 * Server-Sent Events requests, and without a <code>no-store</code> or <code>no-cache</code> request cache directive
+	 * are cacheable.
+	 * @param method Request method
+	 * @param requestDefinition Request definition
+	 * @param requestEntity Request entity
+	 * @return <code>true</code> if the request is cacheable
+	 */
+	private static boolean isCacheable(HttpMethod method, ReactiveRequestDefinition requestDefinition,
+			RequestEntity<?> requestEntity) {
+		if (method != HttpMethod.GET || (requestEntity != null && requestEntity.getPayload().isPresent())
+				|| !requestDefinition.isResponseCacheEnabled()) {
+			return false;
+		}
+		for (Map.Entry<String, String> header : requestDefinition.getHeaders().entrySet()) {
+			final String name = header.getKey();
+			final String value = header.getValue();
+			if (HttpHeaders.RANGE.equalsIgnoreCase(name)) {
+				return false;
 			}
-			return Mono.just(new ClientResponseEntity<>(r, responseType));
-		});
+			if (value != null) {
+				if (HttpHeaders.CACHE_CONTROL.equalsIgnoreCase(name)
+						&& (value.contains("no-store") || value.contains("no-cache"))) {
+					return false;
+				}
+				if (HttpHeaders.ACCEPT.equalsIgnoreCase(name) && value.contains(EventStream.MEDIA_TYPE)) {
+					return false;
+				}
+			}
+		}
+		return true;
 	}
 
 	private static final String APPLICATION_FORM_URLENCODED_MEDIA_TYPE = MediaType.APPLICATION_FORM_URLENCODED
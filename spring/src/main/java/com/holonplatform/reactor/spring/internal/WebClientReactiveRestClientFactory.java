@@ -62,4 +62,15 @@ public class WebClientReactiveRestClientFactory implements ReactiveRestClientFac
 		return null;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.reactor.http.ReactiveRestClientFactory#isShareable(java.lang.ClassLoader)
+	 */
+	@Override
+	public boolean isShareable(ClassLoader classLoader) {
+		// a WebClient bound to the current thread takes precedence, and it is not shared with other threads
+		return !Context.get().threadScope(classLoader).flatMap(scope -> scope.get("webClient", WebClient.class))
+				.isPresent();
+	}
+
 }
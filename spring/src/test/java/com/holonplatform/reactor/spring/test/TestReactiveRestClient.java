@@ -16,31 +16,60 @@
 package com.holonplatform.reactor.spring.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.FormParam;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
 import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 
+import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
+import org.glassfish.jersey.media.multipart.FormDataParam;
+import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,22 +77,74 @@ import org.slf4j.bridge.SLF4JBridgeHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.CoercionAction;
+import com.fasterxml.jackson.databind.cfg.CoercionInputShape;
+import com.fasterxml.jackson.databind.type.LogicalType;
 import com.holonplatform.core.internal.utils.ConversionUtils;
+import com.holonplatform.core.property.NumericProperty;
+import com.holonplatform.core.property.PathProperty;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.http.HttpMethod;
 import com.holonplatform.http.HttpStatus;
+import com.holonplatform.http.exceptions.RestClientCreationException;
 import com.holonplatform.http.exceptions.UnsuccessfulResponseException;
 import com.holonplatform.http.rest.RequestEntity;
+import com.holonplatform.http.rest.ResponseType;
+import com.holonplatform.reactor.http.BulkInvocation;
+import com.holonplatform.reactor.http.CircuitBreaker;
+import com.holonplatform.reactor.http.Compression;
+import com.holonplatform.reactor.http.Compression.Encoding;
+import com.holonplatform.reactor.http.ConcurrencyLimiter;
+import com.holonplatform.reactor.http.Deadline;
+import com.holonplatform.reactor.http.EventStream;
+import com.holonplatform.reactor.http.FileRequestEntity;
+import com.holonplatform.reactor.http.HedgingPolicy;
+import com.holonplatform.reactor.http.MultipartRequestEntity;
+import com.holonplatform.reactor.http.Pagination;
+import com.holonplatform.reactor.http.PreparedRequest;
+import com.holonplatform.reactor.http.ReactiveRequestEntity;
+import com.holonplatform.reactor.http.ReactiveRequestInterceptor;
 import com.holonplatform.reactor.http.ReactiveResponseEntity;
 import com.holonplatform.reactor.http.ReactiveRestClient;
+import com.holonplatform.reactor.http.ReactiveRestClient.ReactiveRequestDefinition;
+import com.holonplatform.reactor.http.RequestCoalescing;
+import com.holonplatform.reactor.http.RequestMetricsInterceptor;
+import com.holonplatform.reactor.http.RequestMetricsInterceptor.EndpointMetrics;
+import com.holonplatform.reactor.http.RequestRejectedException;
+import com.holonplatform.reactor.http.RequestTimeoutException;
+import com.holonplatform.reactor.http.RequestTimeoutException.Phase;
+import com.holonplatform.reactor.http.ResponseCache;
+import com.holonplatform.reactor.http.Timeouts;
+import com.holonplatform.reactor.spring.ConnectionPoolStatistics;
+import com.holonplatform.reactor.spring.ConnectionPoolStatistics.MultiplexedConnection;
+import com.holonplatform.reactor.spring.PooledSpringReactiveRestClient;
+import com.holonplatform.reactor.spring.PooledSpringReactiveRestClient.Protocol;
+import com.holonplatform.reactor.spring.SpringReactiveResponseEntity;
 import com.holonplatform.reactor.spring.SpringReactiveRestClient;
+import com.holonplatform.reactor.spring.internal.DataBufferInputStream;
+import com.holonplatform.reactor.spring.internal.WebClientReactiveRestClient;
 import com.holonplatform.spring.EnableBeanContext;
 import com.holonplatform.test.JerseyTest5;
 
+import io.netty.buffer.UnpooledByteBufAllocator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
 import reactor.test.StepVerifier;
 
 @ExtendWith(SpringExtension.class)
@@ -87,6 +168,11 @@ public class TestReactiveRestClient extends JerseyTest5 {
 		SLF4JBridgeHandler.install();
 	}
 
+	static final AtomicInteger FRESH_RESPONSES = new AtomicInteger();
+	static final AtomicInteger ETAG_RESPONSES = new AtomicInteger();
+	static final AtomicInteger HEDGED_REQUESTS = new AtomicInteger();
+	static final AtomicInteger PAGE_REQUESTS = new AtomicInteger();
+
 	@Path("test")
 	public static class TestResource {
 
@@ -108,6 +194,129 @@ public class TestReactiveRestClient extends JerseyTest5 {
 			return Response.ok().type(MediaType.APPLICATION_JSON).entity(new TestData(id, "value" + id)).build();
 		}
 
+		@GET
+		@Path("slow/{id}")
+		@Produces(MediaType.APPLICATION_JSON)
+		public TestData getSlowData(@PathParam("id") int id) throws InterruptedException {
+			Thread.sleep(300);
+			return new TestData(id, "value" + id);
+		}
+
+		@GET
+		@Path("cached/fresh")
+		@Produces(MediaType.APPLICATION_JSON)
+		public Response getFreshData() {
+			FRESH_RESPONSES.incrementAndGet();
+			return Response.ok().header("Cache-Control", "max-age=60").entity(new TestData(1, "fresh")).build();
+		}
+
+		@GET
+		@Path("cached/large")
+		@Produces(MediaType.APPLICATION_OCTET_STREAM)
+		public Response getLargeData() {
+			// streamed without Content-Length
+			return Response.ok().header("Cache-Control", "max-age=60").entity((StreamingOutput) output -> {
+				for (int i = 0; i < 64; i++) {
+					output.write(new byte[1024]);
+					output.flush();
+				}
+			}).build();
+		}
+
+		@GET
+		@Path("cached/etag")
+		@Produces(MediaType.APPLICATION_JSON)
+		public Response getETagData(@HeaderParam("If-None-Match") String ifNoneMatch) {
+			if ("\"v1\"".equals(ifNoneMatch)) {
+				return Response.notModified().tag("v1").build();
+			}
+			ETAG_RESPONSES.incrementAndGet();
+			return Response.ok().header("Cache-Control", "no-cache").tag("v1").entity(new TestData(2, "etag"))
+					.build();
+		}
+
+		@GET
+		@Path("hedged")
+		@Produces(MediaType.APPLICATION_JSON)
+		public TestData getHedgedData() throws InterruptedException {
+			final int request = HEDGED_REQUESTS.incrementAndGet();
+			if (request == 1) {
+				Thread.sleep(2000);
+			}
+			return new TestData(request, "hedged");
+		}
+
+		@GET
+		@Path("pages/links")
+		@Produces(MediaType.APPLICATION_JSON)
+		public Response getLinkPage(@QueryParam("page") int page, @Context UriInfo uriInfo) {
+			PAGE_REQUESTS.incrementAndGet();
+			final List<TestData> items = new LinkedList<>();
+			for (int i = 0; i < 3; i++) {
+				items.add(new TestData(page * 3 + i, "page" + page));
+			}
+			final Response.ResponseBuilder builder = Response.ok().entity(items);
+			if (page < 3) {
+				builder.header("Link", "<" + uriInfo.getRequestUriBuilder().replaceQueryParam("page", page + 1).build()
+						+ ">; rel=\"next\", <" + uriInfo.getRequestUriBuilder().replaceQueryParam("page", 3).build()
+						+ ">; rel=\"last\"");
+			}
+			return builder.build();
+		}
+
+		@GET
+		@Path("pages/tokens")
+		@Produces(MediaType.APPLICATION_JSON)
+		public Response getTokenPage(@QueryParam("token") String token, @Context UriInfo uriInfo) {
+			PAGE_REQUESTS.incrementAndGet();
+			final int page = (token != null) ? Integer.parseInt(token.substring(2, token.indexOf('}'))) : 0;
+			if (token != null && !token.equals("{p" + page + "}+next")) {
+				return Response.status(Status.BAD_REQUEST).build();
+			}
+			final List<TestData> items = new LinkedList<>();
+			for (int i = 0; i < 3; i++) {
+				items.add(new TestData(page * 3 + i, "page" + page));
+			}
+			final Response.ResponseBuilder builder = Response.ok().entity(items);
+			if (page < 2) {
+				builder.header("Link",
+						"<" + uriInfo.getAbsolutePath() + "?token=%7Bp" + (page + 1) + "%7D%2Bnext>; rel=\"next\"");
+			}
+			return builder.build();
+		}
+
+		@GET
+		@Path("pages/offset")
+		@Produces(MediaType.APPLICATION_JSON)
+		public List<TestData> getOffsetPage(@QueryParam("offset") int offset, @QueryParam("limit") int limit) {
+			PAGE_REQUESTS.incrementAndGet();
+			final List<TestData> items = new LinkedList<>();
+			for (int i = offset; i < Math.min(offset + limit, 10); i++) {
+				items.add(new TestData(i, "offset"));
+			}
+			return items;
+		}
+
+		@GET
+		@Path("pages/cursor")
+		@Produces(MediaType.APPLICATION_JSON)
+		public CursorPage getCursorPage(@QueryParam("cursor") String cursor) {
+			PAGE_REQUESTS.incrementAndGet();
+			final int page = (cursor != null) ? Integer.parseInt(cursor.substring(1)) : 0;
+			final CursorPage result = new CursorPage();
+			result.setItems(Arrays.asList(new TestData(page * 2, "cursor"), new TestData(page * 2 + 1, "cursor")));
+			result.setNext((page < 4) ? "c" + (page + 1) : null);
+			return result;
+		}
+
+		@GET
+		@Path("echo/{id}")
+		@Produces(MediaType.APPLICATION_JSON)
+		public TestData getEcho(@PathParam("id") String id, @QueryParam("q") String q,
+				@HeaderParam("X-Test") String header) {
+			return new TestData(id.length(), id + "|" + q + "|" + header);
+		}
+
 		@GET
 		@Path("data")
 		@Produces(MediaType.APPLICATION_JSON)
@@ -130,6 +339,82 @@ public class TestReactiveRestClient extends JerseyTest5 {
 			};
 		}
 
+		@GET
+		@Path("ndjson")
+		@Produces("application/x-ndjson")
+		public StreamingOutput getNdjson() {
+			return new StreamingOutput() {
+				@Override
+				public void write(OutputStream output) throws IOException, WebApplicationException {
+					for (int i = 1; i <= 100; i++) {
+						output.write(("{\"code\":" + i + ",\"value\":\"value" + i + "\"}\n")
+								.getBytes(StandardCharsets.UTF_8));
+					}
+				}
+			};
+		}
+
+		@GET
+		@Path("events")
+		@Produces("text/event-stream")
+		public Response getEvents(@HeaderParam("Last-Event-ID") String lastEventId) {
+			final int last = (lastEventId != null) ? Integer.parseInt(lastEventId) : 0;
+			if (last >= 4) {
+				// stop reconnecting
+				return Response.noContent().build();
+			}
+			// two events for each connection
+			final StringBuilder events = new StringBuilder("retry: 10\n\n");
+			for (int i = last + 1; i <= last + 2; i++) {
+				events.append("id: ").append(i).append("\nevent: data\ndata: {\"code\":").append(i)
+						.append(",\"value\":\"value").append(i).append("\"}\n\n");
+			}
+			events.append(": keep-alive\n\n");
+			return Response.ok(events.toString(), "text/event-stream").build();
+		}
+
+		@GET
+		@Path("compressed")
+		@Produces("application/x-ndjson")
+		public Response getCompressed(@HeaderParam("Accept-Encoding") String acceptEncoding) {
+			final boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+			final StreamingOutput entity = output -> {
+				final OutputStream stream = gzip ? new GZIPOutputStream(output) : output;
+				for (int i = 1; i <= 100; i++) {
+					stream.write(("{\"code\":" + i + ",\"value\":\"value" + i + "\"}\n")
+							.getBytes(StandardCharsets.UTF_8));
+				}
+				if (gzip) {
+					((GZIPOutputStream) stream).finish();
+				}
+			};
+			return gzip ? Response.ok(entity).header("Content-Encoding", "gzip").build() : Response.ok(entity).build();
+		}
+
+		@POST
+		@Path("compressed")
+		@Consumes(MediaType.APPLICATION_JSON)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String postCompressed(@HeaderParam("Content-Encoding") String contentEncoding, byte[] body)
+				throws IOException {
+			InputStream stream = new ByteArrayInputStream(body);
+			if ("gzip".equals(contentEncoding)) {
+				stream = new GZIPInputStream(stream);
+			} else if ("deflate".equals(contentEncoding)) {
+				stream = new InflaterInputStream(stream);
+			}
+			return contentEncoding + ":" + new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		@POST
+		@Path("nested")
+		@Consumes(MediaType.APPLICATION_JSON)
+		@Produces(MediaType.APPLICATION_JSON)
+		public String echoNested(String body) {
+			assertEquals("{\"code\":3,\"value\":\"flat\",\"nested\":{\"value\":\"nested\"}}", body);
+			return body;
+		}
+
 		@POST
 		@Path("formParams")
 		@Consumes(MediaType.APPLICATION_FORM_URLENCODED)
@@ -153,6 +438,61 @@ public class TestReactiveRestClient extends JerseyTest5 {
 			return Response.accepted().build();
 		}
 
+		@POST
+		@Path("data/bulk")
+		@Consumes(MediaType.APPLICATION_JSON)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String saveBulk(List<TestData> data) {
+			return String.valueOf(data.size());
+		}
+
+		@POST
+		@Path("bytes")
+		@Consumes(MediaType.APPLICATION_OCTET_STREAM)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String countBytes(InputStream bytes) throws IOException {
+			return String.valueOf(ConversionUtils.convertInputStreamToBytes(bytes).length);
+		}
+
+		@POST
+		@Path("file")
+		@Consumes(MediaType.APPLICATION_OCTET_STREAM)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String receiveFile(@HeaderParam("Content-Length") String length, InputStream bytes) throws IOException {
+			final byte[] content = ConversionUtils.convertInputStreamToBytes(bytes);
+			return length + ":" + content.length + ":" + content[0];
+		}
+
+		@POST
+		@Path("upload")
+		@Consumes(MediaType.MULTIPART_FORM_DATA)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String upload(@FormDataParam("name") String name, @FormDataParam("file") InputStream file,
+				@FormDataParam("file") FormDataContentDisposition disposition) throws IOException {
+			return name + ":" + disposition.getFileName() + ":"
+					+ ConversionUtils.convertInputStreamToBytes(file).length;
+		}
+
+		@GET
+		@Path("download")
+		@Produces(MediaType.APPLICATION_OCTET_STREAM)
+		public Response download(@HeaderParam("Range") String range) {
+			final byte[] content = new byte[100 * 1024];
+			for (int i = 0; i < content.length; i++) {
+				content[i] = (byte) (i % 100);
+			}
+			if (range == null) {
+				return Response.ok(content).build();
+			}
+			final int start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+			if (start >= content.length) {
+				return Response.status(416).header("Content-Range", "bytes */" + content.length).build();
+			}
+			return Response.status(206).entity(Arrays.copyOfRange(content, start, content.length))
+					.header("Content-Range", "bytes " + start + "-" + (content.length - 1) + "/" + content.length)
+					.build();
+		}
+
 		@GET
 		@Path("status/400")
 		public Response get400() {
@@ -266,6 +606,29 @@ public class TestReactiveRestClient extends JerseyTest5 {
 
 	}
 
+	public static class CursorPage {
+
+		private List<TestData> items;
+		private String next;
+
+		public List<TestData> getItems() {
+			return items;
+		}
+
+		public void setItems(List<TestData> items) {
+			this.items = items;
+		}
+
+		public String getNext() {
+			return next;
+		}
+
+		public void setNext(String next) {
+			this.next = next;
+		}
+
+	}
+
 	public static class ApiError {
 
 		private String code;
@@ -304,7 +667,7 @@ public class TestReactiveRestClient extends JerseyTest5 {
 
 	@Override
 	protected Application configure() {
-		return new ResourceConfig(TestResource.class);
+		return new ResourceConfig(TestResource.class).register(MultiPartFeature.class);
 	}
 
 	@Test
@@ -314,6 +677,25 @@ public class TestReactiveRestClient extends JerseyTest5 {
 
 		client = ReactiveRestClient.create(SpringReactiveRestClient.class.getName());
 		assertNotNull(client);
+
+		assertThrows(RestClientCreationException.class, () -> ReactiveRestClient.create("not.available.Client"));
+
+		final ReactiveRestClient shared = ReactiveRestClient.shared();
+		assertNotNull(shared);
+		assertSame(shared, ReactiveRestClient.shared());
+		assertNotSame(shared, ReactiveRestClient.create());
+		assertSame(ReactiveRestClient.shared(SpringReactiveRestClient.class.getName(), getClass().getClassLoader()),
+				ReactiveRestClient.shared(SpringReactiveRestClient.class.getName(), getClass().getClassLoader()));
+
+		// a client using a thread bound WebClient is not cached as the shared instance
+		final ClassLoader isolated = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		final List<ReactiveRestClient> bound = new LinkedList<>();
+		com.holonplatform.core.Context.get().executeThreadBound("webClient", WebClient.create(), () -> {
+			bound.add(ReactiveRestClient.shared(null, isolated));
+			bound.add(ReactiveRestClient.shared(null, isolated));
+		});
+		assertEquals(2, bound.size());
+		assertNotSame(bound.get(0), bound.get(1));
 	}
 
 	@Test
@@ -329,6 +711,13 @@ public class TestReactiveRestClient extends JerseyTest5 {
 		StepVerifier.create(tds).consumeNextWith(d -> assertEquals(1, d.getCode()))
 				.consumeNextWith(d -> assertEquals(2, d.getCode())).expectComplete().verify();
 
+		tds = client.request().path("test").path("data").getAsList(ResponseType.of(TestData.class));
+		StepVerifier.create(tds).expectNextCount(2).expectComplete().verify();
+
+		tds = client.request().path("test").path("ndjson").getAsList(TestData.class);
+		StepVerifier.create(tds, 1).consumeNextWith(d -> assertEquals(1, d.getCode())).thenRequest(99)
+				.expectNextCount(99).expectComplete().verify();
+
 		Mono<ReactiveResponseEntity<TestData>> rspe = client.request().path("test").path("data/{id}").resolve("id", 1)
 				.get(TestData.class);
 		StepVerifier.create(rspe).consumeNextWith(r -> {
@@ -352,6 +741,115 @@ public class TestReactiveRestClient extends JerseyTest5 {
 
 	}
 
+	@Test
+	public void testRequestPublisher() {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		Mono<String> count = client.request().path("test").path("data/bulk").postForEntity(
+				ReactiveRequestEntity.json(Flux.range(1, 1000).map(i -> new TestData(i, "value" + i)), TestData.class),
+				String.class);
+		StepVerifier.create(count).expectNext("1000").expectComplete().verify();
+
+		Mono<String> bytes = client.request().path("test").path("bytes").postForEntity(
+				ReactiveRequestEntity.bytes(Flux.range(0, 10).map(i -> ByteBuffer.wrap(new byte[1024]))),
+				String.class);
+		StepVerifier.create(bytes).expectNext("10240").expectComplete().verify();
+	}
+
+	@Test
+	public void testFileRequestEntity() throws IOException {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		final byte[] content = new byte[300 * 1024];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i % 100);
+		}
+		final java.nio.file.Path file = Files.createTempFile("holon-upload", ".bin");
+		try {
+			Files.write(file, content);
+
+			StepVerifier.create(client.request().path("test").path("file")
+					.postForEntity(FileRequestEntity.of(file), String.class))
+					.expectNext(content.length + ":" + content.length + ":0").expectComplete().verify();
+
+			// region
+			StepVerifier.create(client.request().path("test").path("file").postForEntity(
+					FileRequestEntity.of(MediaType.APPLICATION_OCTET_STREAM, file, 1010, 1000), String.class))
+					.expectNext("1000:1000:10").expectComplete().verify();
+
+			// multipart
+			StepVerifier.create(client.request().path("test").path("upload").postForEntity(MultipartRequestEntity
+					.builder().part("name", "test").file("file", file).build(), String.class))
+					.expectNext("test:" + file.getFileName() + ":" + content.length).expectComplete().verify();
+
+			StepVerifier.create(client.request().path("test").path("upload")
+					.postForEntity(MultipartRequestEntity.builder().part("name", "region")
+							.file("file", FileRequestEntity.of(MediaType.APPLICATION_OCTET_STREAM, file, 0, 10))
+							.build(), String.class))
+					.expectNext("region:" + file.getFileName() + ":10").expectComplete().verify();
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> FileRequestEntity.of(MediaType.APPLICATION_OCTET_STREAM, Paths.get("test"), -1, 10));
+	}
+
+	@Test
+	public void testFileDownload() throws IOException {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		final byte[] expected = new byte[100 * 1024];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = (byte) (i % 100);
+		}
+		final java.nio.file.Path file = Files.createTempFile("holon-download", ".bin");
+		try {
+			StepVerifier.create(client.request().path("test").path("download").getForFile(file)).assertNext(d -> {
+				assertEquals(file, d.getFile());
+				assertEquals(0L, d.getOffset());
+				assertEquals(expected.length, d.getBytesWritten());
+				assertFalse(d.isResumed());
+				assertTrue(d.getThroughput() > 0);
+			}).expectComplete().verify();
+			assertTrue(Arrays.equals(expected, Files.readAllBytes(file)));
+
+			// resume a partial download
+			Files.write(file, Arrays.copyOf(expected, 1000));
+			final ReactiveRequestDefinition download = client.request().path("test").path("download");
+			StepVerifier.create(download.getForFile(file, true)).assertNext(d -> {
+				assertTrue(d.isResumed());
+				assertEquals(1000L, d.getOffset());
+				assertEquals(expected.length - 1000, d.getBytesWritten());
+				assertEquals(expected.length, d.getSize());
+			}).expectComplete().verify();
+			assertTrue(Arrays.equals(expected, Files.readAllBytes(file)));
+			// the request definition is not modified
+			assertTrue(download.getHeaders().isEmpty());
+			assertTrue(download.isResponseCacheEnabled());
+
+			// a caller range cannot be resumed
+			assertThrows(IllegalArgumentException.class, () -> client.request().path("test").path("download")
+					.header("range", "bytes=0-99").getForFile(file, true));
+
+			// already completed
+			StepVerifier.create(client.request().path("test").path("download").getForFile(file, true))
+					.assertNext(d -> assertEquals(0L, d.getBytesWritten())).expectComplete().verify();
+			assertTrue(Arrays.equals(expected, Files.readAllBytes(file)));
+
+			// not resumed: replaced
+			Files.write(file, new byte[200 * 1024]);
+			StepVerifier.create(client.request().path("test").path("download").getForFile(file))
+					.expectNextCount(1).expectComplete().verify();
+			assertTrue(Arrays.equals(expected, Files.readAllBytes(file)));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		StepVerifier.create(client.request().path("test").path("status/400").getForFile(file))
+				.expectError(UnsuccessfulResponseException.class).verify();
+	}
+
 	@Test
 	public void testBean() {
 
@@ -373,6 +871,634 @@ public class TestReactiveRestClient extends JerseyTest5 {
 
 	}
 
+	@Test
+	public void testClientCache() {
+		final WebClientReactiveRestClient client = new WebClientReactiveRestClient(webClient, 1);
+		client.defaultTarget(getBaseUri());
+
+		for (int i = 0; i < 3; i++) {
+			Mono<TestData> td = client.request().path("test").path("data/{id}").resolve("id", i)
+					.getForEntity(TestData.class);
+			StepVerifier.create(td).expectNextCount(1).expectComplete().verify();
+		}
+
+		assertEquals(1, client.getClientCache().size());
+		assertEquals(1, client.getClientCache().getMissCount());
+		assertEquals(2, client.getClientCache().getHitCount());
+
+		Mono<TestData> td = client.request().target("http://localhost:" + getBaseUri().getPort()).path("test")
+				.path("data/{id}").resolve("id", 1).getForEntity(TestData.class);
+		StepVerifier.create(td).expectNextCount(1).expectComplete().verify();
+
+		assertEquals(1, client.getClientCache().size());
+		assertEquals(1, client.getClientCache().getEvictionCount());
+	}
+
+	@Test
+	public void testRequestCoalescing() {
+		final RequestCoalescing coalescing = RequestCoalescing.create();
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withRequestCoalescing(coalescing);
+
+		Flux<TestData> results = Flux.range(0, 10).flatMap(i -> client.request().path("test").path("slow/{id}")
+				.resolve("id", 1).getForEntity(TestData.class));
+		StepVerifier.create(results).expectNextCount(10).expectComplete().verify();
+
+		assertEquals(10, coalescing.getExchangeCount() + coalescing.getCoalescedCount());
+		assertTrue(coalescing.getCoalescedCount() > 0);
+		assertEquals(0, coalescing.getInFlightCount());
+
+		Mono<TestData> other = client.request().path("test").path("slow/{id}").resolve("id", 2)
+				.getForEntity(TestData.class);
+		StepVerifier.create(other).consumeNextWith(d -> assertEquals(2, d.getCode())).expectComplete().verify();
+	}
+
+	@Test
+	public void testResponseCache() {
+		final ResponseCache cache = ResponseCache.create();
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withResponseCache(cache);
+
+		FRESH_RESPONSES.set(0);
+		for (int i = 0; i < 3; i++) {
+			Mono<TestData> fresh = client.request().path("test").path("cached/fresh").getForEntity(TestData.class);
+			StepVerifier.create(fresh).consumeNextWith(d -> assertEquals("fresh", d.getValue())).expectComplete()
+					.verify();
+		}
+		assertEquals(1, FRESH_RESPONSES.get());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.size());
+		assertTrue(cache.getWeight() > 0);
+
+		ETAG_RESPONSES.set(0);
+		for (int i = 0; i < 3; i++) {
+			Mono<TestData> etag = client.request().path("test").path("cached/etag").getForEntity(TestData.class);
+			StepVerifier.create(etag).consumeNextWith(d -> assertEquals("etag", d.getValue())).expectComplete()
+					.verify();
+		}
+		assertEquals(1, ETAG_RESPONSES.get());
+		assertEquals(2, cache.getRevalidationCount());
+
+		// the revalidation does not modify the request: resubscribed after the cache is cleared, it is a plain request
+		final Mono<TestData> resubscribed = client.request().path("test").path("cached/etag")
+				.getForEntity(TestData.class);
+		StepVerifier.create(resubscribed).expectNextCount(1).expectComplete().verify();
+		assertEquals(3, cache.getRevalidationCount());
+		cache.clear();
+		StepVerifier.create(resubscribed).consumeNextWith(d -> assertEquals("etag", d.getValue())).expectComplete()
+				.verify();
+		assertEquals(2, ETAG_RESPONSES.get());
+
+		// per request opt-out
+		StepVerifier.create(client.request().path("test").path("cached/fresh").responseCache(false)
+				.getForEntity(TestData.class)).expectNextCount(1).expectComplete().verify();
+		assertEquals(2, FRESH_RESPONSES.get());
+
+		// neither freshness nor validators
+		final int size = cache.size();
+		StepVerifier.create(client.request().path("test").path("data/{id}").resolve("id", 1)
+				.getForEntity(TestData.class)).expectNextCount(1).expectComplete().verify();
+		assertEquals(size, cache.size());
+
+		// larger than the max entry weight: streamed, not stored
+		final ReactiveRestClient limited = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withResponseCache(ResponseCache.builder().maxEntryWeight(4096).build());
+		StepVerifier.create(limited.request().path("test").path("cached/large").getForEntity(byte[].class))
+				.consumeNextWith(bytes -> assertEquals(64 * 1024, bytes.length)).expectComplete().verify();
+		assertEquals(0, limited.getResponseCache().map(ResponseCache::size).orElse(-1));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+	}
+
+	@Test
+	public void testPooledClient() {
+		try (PooledSpringReactiveRestClient client = SpringReactiveRestClient.builder().maxConnections(2)
+				.pendingAcquireMaxCount(100).maxIdleTime(Duration.ofSeconds(30)).eventLoopThreads(2).build()) {
+			client.defaultTarget(getBaseUri());
+
+			Flux<TestData> results = Flux.range(0, 10).flatMap(i -> client.request().path("test").path("data/{id}")
+					.resolve("id", i).getForEntity(TestData.class));
+			StepVerifier.create(results).expectNextCount(10).expectComplete().verify();
+
+			final ConnectionPoolStatistics statistics = client.getConnectionPoolStatistics();
+			assertEquals(10, statistics.getAcquireCount());
+			assertEquals(1, statistics.getRemoteHosts());
+			assertTrue(statistics.getAllocatedConnections() <= 2);
+			assertEquals(0, statistics.getPendingAcquires());
+			assertTrue(statistics.getMaxAcquireLatency().compareTo(statistics.getMeanAcquireLatency()) >= 0);
+			// HTTP/1.1 connections are not multiplexed
+			assertEquals(0, statistics.getActiveStreams());
+			assertTrue(statistics.getMultiplexedConnections().isEmpty());
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> SpringReactiveRestClient.builder().protocol(Protocol.H2C).maxConcurrentStreams(0));
+	}
+
+	@Test
+	public void testPooledClientH2C() {
+		// HTTP/2 with prior knowledge server
+		final DisposableServer server = HttpServer.create().host("localhost").port(0).protocol(HttpProtocol.H2C)
+				.route(routes -> routes.get("/data/{id}",
+						(request, response) -> response.header("Content-Type", "application/json")
+								.sendString(Mono.delay(Duration.ofMillis(200))
+										.map(d -> "{\"code\":" + request.param("id") + ",\"value\":\"h2c\"}"))))
+				.bindNow();
+		try (PooledSpringReactiveRestClient client = SpringReactiveRestClient.builder().protocol(Protocol.H2C)
+				.maxConnections(1).maxConcurrentStreams(10).build()) {
+			client.defaultTarget(URI.create("http://localhost:" + server.port()));
+
+			Flux<TestData> results = Flux.range(0, 5).flatMap(
+					i -> client.request().path("data/{id}").resolve("id", i).getForEntity(TestData.class));
+			StepVerifier.create(results).expectNextCount(5).expectComplete().verify(Duration.ofSeconds(10));
+
+			// all the requests multiplexed over a single connection
+			final ConnectionPoolStatistics statistics = client.getConnectionPoolStatistics();
+			assertEquals(1, statistics.getMultiplexedConnections().size());
+			final MultiplexedConnection connection = statistics.getMultiplexedConnections().get(0);
+			assertEquals(5, connection.getStreamCount());
+			assertTrue(connection.getMaxActiveStreams() > 1);
+		} finally {
+			server.disposeNow();
+		}
+	}
+
+	@Test
+	public void testRequestMetrics() throws InterruptedException {
+		final RequestMetricsInterceptor metrics = RequestMetricsInterceptor.create();
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withInterceptor(metrics);
+		assertEquals(1, client.getInterceptors().size());
+
+		Flux<TestData> results = Flux.range(0, 5).flatMap(i -> client.request().path("test").path("data/{id}")
+				.resolve("id", i).getForEntity(TestData.class));
+		StepVerifier.create(results).expectNextCount(5).expectComplete().verify();
+
+		Mono<TestData> error = client.request().path("test").path("status/400").getForEntity(TestData.class);
+		StepVerifier.create(error).expectError(UnsuccessfulResponseException.class).verify();
+
+		final EndpointMetrics ok = metrics.getEndpointMetrics().stream()
+				.filter(m -> m.getStatusClass() == 2 && m.getPath().endsWith("data/{id}")).findFirst().orElse(null);
+		assertNotNull(ok);
+		assertEquals(HttpMethod.GET, ok.getMethod());
+		assertEquals(5, ok.getTimeToHeaders().getCount());
+		assertTrue(ok.getTimeToHeaders().getPercentile(50).compareTo(ok.getTimeToHeaders().getMax()) <= 0);
+		// body termination is signaled right after the entity emission
+		for (int i = 0; i < 50 && ok.getTimeToLastByte().getCount() < 5; i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(5, ok.getTimeToLastByte().getCount());
+
+		assertTrue(metrics.getEndpointMetrics().stream()
+				.anyMatch(m -> m.getStatusClass() == 4 && m.getPath().endsWith("status/400")));
+
+		metrics.reset();
+		assertTrue(metrics.getEndpointMetrics().isEmpty());
+	}
+
+	@Test
+	public void testHedging() {
+		final HedgingPolicy hedging = HedgingPolicy.builder().delay(Duration.ofMillis(100)).budget(1d, 10).build();
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withHedgingPolicy(hedging);
+		assertTrue(client.getHedgingPolicy().isPresent());
+
+		// the primary attempt is slow, the hedged one wins
+		final long start = System.currentTimeMillis();
+		StepVerifier.create(client.request().path("test").path("hedged").getForEntity(TestData.class))
+				.consumeNextWith(data -> assertEquals(2, data.getCode())).expectComplete().verify();
+		assertTrue(System.currentTimeMillis() - start < 1500);
+		assertEquals(1, hedging.getInvocationCount());
+		assertEquals(1, hedging.getHedgeCount());
+		assertEquals(1, hedging.getHedgeWinCount());
+		// the cancelled primary attempt is recorded as a lower bound, not shorter than the hedging delay
+		assertEquals(1, hedging.getLatencies().getCount());
+		assertTrue(hedging.getLatencies().getMax().toMillis() >= 100);
+
+		// fast response, no hedge
+		StepVerifier.create(client.request().path("test").path("hedged").getForEntity(TestData.class))
+				.consumeNextWith(data -> assertEquals(3, data.getCode())).expectComplete().verify();
+		assertEquals(2, hedging.getInvocationCount());
+		assertEquals(1, hedging.getHedgeCount());
+
+		// not hedgeable
+		assertFalse(hedging.isHedgeable(HttpMethod.POST, null));
+		assertFalse(hedging.isHedgeable(HttpMethod.GET, RequestEntity.json(new TestData(1, "x"))));
+
+		// request level policy
+		final HedgingPolicy disabled = HedgingPolicy.builder().budget(0d, 1).build();
+		StepVerifier
+				.create(client.request().path("test").path("data/{id}").resolve("id", 1).hedging(disabled)
+						.getForEntity(TestData.class))
+				.consumeNextWith(data -> assertEquals(1, data.getCode())).expectComplete().verify();
+		assertEquals(1, disabled.getInvocationCount());
+		assertEquals(2, hedging.getInvocationCount());
+	}
+
+	@Test
+	public void testConcurrencyLimiter() {
+		final ConcurrencyLimiter rejecting = ConcurrencyLimiter.builder().initialLimit(2).limitBounds(1, 2)
+				.maxQueueSize(0).build();
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withConcurrencyLimiter(rejecting);
+		assertTrue(client.getConcurrencyLimiter().isPresent());
+
+		// exceeding invocations are rejected
+		Mono<Long> rejected = Flux.range(0, 4)
+				.flatMap(i -> client.request().path("test").path("slow/{id}").resolve("id", i).get(TestData.class)
+						.flatMap(r -> r.releaseBody().thenReturn(Boolean.FALSE))
+						.onErrorResume(RequestRejectedException.class, e -> Mono.just(true)))
+				.filter(r -> r).count();
+		StepVerifier.create(rejected).expectNext(2L).expectComplete().verify();
+
+		final String target = "http://" + getBaseUri().getRawAuthority();
+		final ConcurrencyLimiter.TargetState state = rejecting.getState(target).orElse(null);
+		assertNotNull(state);
+		assertEquals(2, state.getRejectedCount());
+		assertEquals(0, state.getInFlight());
+		assertTrue(state.getLimit() <= 2);
+		assertTrue(state.getMinRtt().toMillis() >= 300);
+
+		// the permit is held until the response body read terminates
+		final ReactiveResponseEntity<TestData> unread = client.request().path("test").path("data/{id}")
+				.resolve("id", 1).get(TestData.class).block();
+		assertNotNull(unread);
+		assertEquals(1, state.getInFlight());
+		StepVerifier.create(unread.asMono()).expectNextCount(1).expectComplete().verify();
+		assertEquals(0, state.getInFlight());
+
+		// unsuccessful responses and responses without a payload type do not hold the permit
+		StepVerifier.create(client.request().path("test").path("missing").getForEntity(TestData.class))
+				.expectError(UnsuccessfulResponseException.class).verify();
+		assertEquals(0, state.getInFlight());
+		StepVerifier.create(client.request().path("test").path("data/{id}").resolve("id", 1).get(Void.class))
+				.expectNextCount(1).expectComplete().verify();
+		assertEquals(0, state.getInFlight());
+
+		// exceeding invocations wait in queue
+		final ConcurrencyLimiter queueing = ConcurrencyLimiter.builder().initialLimit(2).limitBounds(1, 2).build();
+		client.withConcurrencyLimiter(queueing);
+		Flux<TestData> results = Flux.range(0, 4).flatMap(
+				i -> client.request().path("test").path("slow/{id}").resolve("id", i).getForEntity(TestData.class));
+		StepVerifier.create(results).expectNextCount(4).expectComplete().verify();
+		assertEquals(0, queueing.getState(target).map(s -> s.getRejectedCount()).orElse(-1L));
+		assertEquals(0, queueing.getState(target).map(s -> s.getQueued()).orElse(-1));
+	}
+
+	@Test
+	public void testCircuitBreaker() throws InterruptedException {
+		final List<String> transitions = new CopyOnWriteArrayList<>();
+		final CircuitBreaker breaker = CircuitBreaker.builder().scope(CircuitBreaker.Scope.ENDPOINT)
+				.slidingWindowSize(4).minimumCalls(4).failureRateThreshold(50).waitInOpenState(Duration.ofMillis(200))
+				.permittedProbes(1).withStateListener((circuit, from, to) -> transitions.add(from + ">" + to))
+				.build();
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withCircuitBreaker(breaker);
+		assertTrue(client.getCircuitBreaker().isPresent());
+
+		for (int i = 0; i < 4; i++) {
+			StepVerifier.create(client.request().path("test").path("status/503").get(Void.class))
+					.consumeNextWith(r -> assertEquals(503, r.getStatusCode())).expectComplete().verify();
+		}
+		final CircuitBreaker.CircuitState state = breaker.getCircuits().stream()
+				.filter(c -> c.getName().endsWith("status/503")).findFirst().orElse(null);
+		assertNotNull(state);
+		assertEquals(CircuitBreaker.State.OPEN, state.getState());
+
+		// short-circuited
+		StepVerifier.create(client.request().path("test").path("status/503").get(Void.class))
+				.expectError(RequestRejectedException.class).verify();
+		assertEquals(1, state.getRejectedCount());
+
+		// other endpoints are not affected
+		StepVerifier.create(client.request().path("test").path("data/{id}").resolve("id", 1)
+				.getForEntity(TestData.class)).expectNextCount(1).expectComplete().verify();
+
+		// half-open probe
+		Thread.sleep(300);
+		StepVerifier.create(client.request().path("test").path("status/503").get(Void.class))
+				.consumeNextWith(r -> assertEquals(503, r.getStatusCode())).expectComplete().verify();
+		assertEquals(CircuitBreaker.State.OPEN, state.getState());
+
+		assertEquals(Arrays.asList("CLOSED>OPEN", "OPEN>HALF_OPEN", "HALF_OPEN>OPEN"), transitions);
+	}
+
+	@Test
+	public void testDefaultConfiguration() throws InterruptedException {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withDefaultHeader("X-Test", "h0");
+
+		final Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 50; j++) {
+					client.withDefaultHeader("X-Header-" + index + "-" + j, "v" + j);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(401, client.request().getHeaders().size());
+
+		// request headers take precedence
+		assertEquals("h1", client.request().header("X-Test", "h1").getHeaders().get("X-Test"));
+
+		client.clearDefaultHeaders().withDefaultHeader("X-Test", "h2");
+		StepVerifier.create(client.request().path("test").path("echo/{id}").resolve("id", "a")
+				.getForEntity(TestData.class)).consumeNextWith(d -> assertEquals("a|null|h2", d.getValue()))
+				.expectComplete().verify();
+
+		client.removeDefaultHeader("X-Test");
+		assertTrue(client.request().getHeaders().isEmpty());
+		assertEquals(getBaseUri(), client.getDefaultTarget().orElse(null));
+	}
+
+	@Test
+	public void testPreparedRequest() {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		final PreparedRequest prepared = client.prepare(client.request().path("test").path("data/{id}"));
+		assertTrue(prepared.getRequestPath().isPresent());
+		for (int i = 1; i <= 3; i++) {
+			final int id = i;
+			StepVerifier.create(prepared.bind().resolve("id", id).getForEntity(TestData.class))
+					.consumeNextWith(d -> assertEquals(id, d.getCode())).expectComplete().verify();
+		}
+
+		// missing template parameter
+		StepVerifier.create(Mono.defer(() -> prepared.bind().getForEntity(TestData.class)))
+				.expectError(IllegalArgumentException.class).verify();
+
+		// encoded template parameters, prepared query parameters and headers
+		final PreparedRequest echo = client.prepare(
+				client.request().path("test").path("echo/{id}").queryParameter("q", "a b").header("X-Test", "h1"));
+		StepVerifier.create(echo.bind().resolve("id", "x y").getForEntity(TestData.class))
+				.consumeNextWith(d -> assertEquals("x y|a b|h1", d.getValue())).expectComplete().verify();
+
+		// changed query parameters and headers
+		StepVerifier.create(echo.bind().resolve("id", "z").queryParameter("q", "c").header("X-Test", "h2")
+				.getForEntity(TestData.class)).consumeNextWith(d -> assertEquals("z|c|h2", d.getValue()))
+				.expectComplete().verify();
+	}
+
+	@Test
+	public void testBulk() {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		// unordered, with per-item error isolation
+		final BulkInvocation bulk = BulkInvocation.builder().concurrency(4).build();
+		StepVerifier.create(client.bulk(Flux.range(-2, 20), (id, r) -> r.path("test").path("data2/{id}")
+				.resolve("id", id).getForEntity(TestData.class), bulk).collectList()).consumeNextWith(results -> {
+					assertEquals(20, results.size());
+					assertEquals(2, results.stream().filter(r -> !r.isSuccess()).count());
+					results.stream().filter(r -> r.isSuccess())
+							.forEach(r -> assertEquals(r.getItem().intValue(), r.getValue().get().getCode()));
+					results.stream().filter(r -> !r.isSuccess()).forEach(
+							r -> assertTrue(r.getError().get() instanceof UnsuccessfulResponseException));
+				}).expectComplete().verify();
+		assertEquals(20, bulk.getMetrics().getStartedCount());
+		assertEquals(18, bulk.getMetrics().getSucceededCount());
+		assertEquals(2, bulk.getMetrics().getFailedCount());
+		assertEquals(0, bulk.getMetrics().getInFlightCount());
+		assertEquals(20, bulk.getMetrics().getLatencies().getCount());
+		assertTrue(bulk.getMetrics().getThroughput() > 0);
+
+		// ordered
+		final BulkInvocation ordered = BulkInvocation.builder().concurrency(8).ordered(true).build();
+		StepVerifier.create(client.bulk(Flux.range(1, 50), (id, r) -> r.path("test").path("data/{id}")
+				.resolve("id", id).getForEntity(TestData.class), ordered).map(r -> r.getValue().get().getCode()))
+				.expectNextSequence(Flux.range(1, 50).toIterable()).expectComplete().verify();
+		assertEquals(8, ordered.getConcurrency());
+		assertTrue(ordered.isOrdered());
+	}
+
+	@Test
+	public void testPagination() {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		// Link header
+		PAGE_REQUESTS.set(0);
+		StepVerifier.create(client.request().path("test").path("pages/links").queryParameter("page", 0)
+				.getPaginated(Pagination.links(TestData.class)).map(d -> d.getCode()))
+				.expectNextSequence(Flux.range(0, 12).toIterable()).expectComplete().verify();
+		assertEquals(4, PAGE_REQUESTS.get());
+
+		// offset
+		PAGE_REQUESTS.set(0);
+		StepVerifier.create(client.request().path("test").path("pages/offset").queryParameter("limit", 4)
+				.getPaginated(Pagination.offset(TestData.class, "offset", 4), 2).map(d -> d.getCode()))
+				.expectNextSequence(Flux.range(0, 10).toIterable()).expectComplete().verify();
+		assertEquals(3, PAGE_REQUESTS.get());
+
+		// cursor
+		PAGE_REQUESTS.set(0);
+		StepVerifier.create(client.request().path("test").path("pages/cursor")
+				.getPaginated(Pagination.cursor(CursorPage.class, CursorPage::getItems, CursorPage::getNext, "cursor"))
+				.map(d -> d.getCode())).expectNextSequence(Flux.range(0, 10).toIterable()).expectComplete().verify();
+		assertEquals(5, PAGE_REQUESTS.get());
+
+		// raw link URIs and PropertyBox pages
+		PAGE_REQUESTS.set(0);
+		StepVerifier.create(client.request().path("test").path("pages/tokens").propertySet(DATA)
+				.getPaginated(Pagination.links(PropertyBox.class)).map(box -> box.getValue(CODE)))
+				.expectNextSequence(Flux.range(0, 9).toIterable()).expectComplete().verify();
+		assertEquals(3, PAGE_REQUESTS.get());
+
+		// next page fetched while the current one is consumed
+		PAGE_REQUESTS.set(0);
+		StepVerifier.create(client.request().path("test").path("pages/links").queryParameter("page", 0)
+				.getPaginated(Pagination.links(TestData.class)), 1).expectNextCount(1)
+				.then(() -> assertTrue(PAGE_REQUESTS.get() <= 2)).thenCancel().verify();
+	}
+
+	private static final NumericProperty<Integer> CODE = NumericProperty.integerType("code");
+	private static final StringProperty VALUE = StringProperty.create("value");
+	private static final PropertySet<?> DATA = PropertySet.of(CODE, VALUE);
+
+	@Test
+	public void testPropertyBox() {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		StepVerifier.create(client.request().path("test").path("data/{id}").resolve("id", 1).propertySet(DATA)
+				.getForEntity(PropertyBox.class)).consumeNextWith(box -> {
+					assertEquals(Integer.valueOf(1), box.getValue(CODE));
+					assertEquals("value1", box.getValue(VALUE));
+				}).expectComplete().verify();
+
+		StepVerifier.create(client.request().path("test").path("data").propertySet(DATA).getAsList(PropertyBox.class)
+				.map(box -> box.getValue(CODE) + ":" + box.getValue(VALUE))).expectNext("1:One", "2:Two")
+				.expectComplete().verify();
+
+		StepVerifier.create(client.request().path("test").path("ndjson").propertySet(DATA)
+				.getAsList(PropertyBox.class)).expectNextCount(100).expectComplete().verify();
+
+		final PropertyBox box = PropertyBox.builder(DATA).set(CODE, 7).set(VALUE, "testPost").build();
+		StepVerifier.create(client.request().path("test").path("data/save").put(RequestEntity.json(box)))
+				.consumeNextWith(r -> assertEquals(HttpStatus.ACCEPTED, r.getStatus())).expectComplete().verify();
+
+		// the codecs use the ObjectMapper of the client JSON decoder
+		final StringProperty textCode = StringProperty.create("code");
+		final PropertySet<?> textual = PropertySet.of(textCode, VALUE);
+		StepVerifier.create(client.request().path("test").path("data/{id}").resolve("id", 1).propertySet(textual)
+				.getForEntity(PropertyBox.class)).consumeNextWith(b -> assertEquals("1", b.getValue(textCode)))
+				.expectComplete().verify();
+
+		final ObjectMapper strict = Jackson2ObjectMapperBuilder.json().build();
+		strict.coercionConfigFor(LogicalType.Textual).setCoercion(CoercionInputShape.Integer, CoercionAction.Fail);
+		final WebClient strictClient = webClient.mutate()
+				.codecs(configurer -> configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(strict)))
+				.build();
+		final ReactiveRestClient strictRestClient = SpringReactiveRestClient.create(strictClient)
+				.defaultTarget(getBaseUri());
+		assertSame(strictClient, ((SpringReactiveRestClient) strictRestClient).getClient());
+		StepVerifier.create(strictRestClient.request().path("test").path("data/{id}").resolve("id", 1)
+				.propertySet(textual).getForEntity(PropertyBox.class)).expectError().verify();
+
+		// a property with a parent path is mapped to a nested JSON object
+		final PathProperty<Object> parent = PathProperty.create("nested", Object.class);
+		final StringProperty nestedValue = StringProperty.create("value").parent(parent);
+		final PropertySet<?> nested = PropertySet.of(CODE, VALUE, nestedValue);
+		final PropertyBox nestedBox = PropertyBox.builder(nested).set(CODE, 3).set(VALUE, "flat")
+				.set(nestedValue, "nested").build();
+		StepVerifier.create(client.request().path("test").path("nested").propertySet(nested)
+				.postForEntity(RequestEntity.json(nestedBox), PropertyBox.class)).consumeNextWith(b -> {
+					assertEquals(Integer.valueOf(3), b.getValue(CODE));
+					assertEquals("flat", b.getValue(VALUE));
+					assertEquals("nested", b.getValue(nestedValue));
+				}).expectComplete().verify();
+	}
+
+	@Test
+	public void testCompression() {
+		final Compression compression = Compression.builder().threshold(100).build();
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withCompression(compression);
+
+		// response decompression
+		StepVerifier.create(client.request().path("test").path("compressed").getAsList(TestData.class)
+				.map(d -> d.getCode())).expectNextSequence(Flux.range(1, 100).toIterable()).expectComplete().verify();
+		assertEquals(1, compression.getMetrics().getDecompressedResponses());
+		assertTrue(compression.getMetrics().getResponseBytes() > compression.getMetrics().getCompressedResponseBytes());
+
+		// request compression above threshold
+		final TestData large = new TestData(1, String.join("", Collections.nCopies(50, "value")));
+		StepVerifier.create(client.request().path("test").path("compressed")
+				.postForEntity(RequestEntity.json(large), String.class))
+				.consumeNextWith(r -> assertTrue(r.startsWith("gzip:{"))).expectComplete().verify();
+		assertEquals(1, compression.getMetrics().getCompressedRequests());
+
+		// below threshold
+		StepVerifier.create(client.request().path("test").path("compressed")
+				.postForEntity(RequestEntity.json(new TestData(2, "small")), String.class))
+				.consumeNextWith(r -> assertTrue(r.startsWith("null:{"))).expectComplete().verify();
+		assertEquals(1, compression.getMetrics().getCompressedRequests());
+		assertTrue(compression.getMetrics().getSavedBytes() > 0);
+
+		// per request compression
+		final ReactiveRestClient plain = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+		StepVerifier.create(plain.request().path("test").path("compressed")
+				.compression(Compression.builder().encoding(Encoding.DEFLATE).threshold(0).build())
+				.postForEntity(RequestEntity.json(large), String.class))
+				.consumeNextWith(r -> assertTrue(r.startsWith("deflate:{"))).expectComplete().verify();
+		StepVerifier.create(plain.request().path("test").path("compressed").getAsList(TestData.class))
+				.expectNextCount(100).expectComplete().verify();
+	}
+
+	@Test
+	public void testTimeouts() {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withTimeouts(Timeouts.builder().connectTimeout(Duration.ofSeconds(5))
+						.responseTimeout(Duration.ofSeconds(5)).readTimeout(Duration.ofSeconds(5)).build());
+		assertTrue(client.getTimeouts().isPresent());
+
+		StepVerifier.create(client.request().path("test").path("slow/{id}").resolve("id", 1)
+				.getForEntity(TestData.class)).expectNextMatches(d -> d.getCode() == 1).expectComplete().verify();
+
+		// request timeouts override the client ones
+		StepVerifier.create(client.request().path("test").path("slow/{id}").resolve("id", 2)
+				.timeouts(Timeouts.builder().responseTimeout(Duration.ofMillis(100)).build())
+				.getForEntity(TestData.class))
+				.expectErrorMatches(e -> e instanceof RequestTimeoutException
+						&& ((RequestTimeoutException) e).getPhase() == Phase.RESPONSE)
+				.verify();
+
+		// deadline
+		StepVerifier.create(client.request().path("test").path("slow/{id}").resolve("id", 3)
+				.getForEntity(TestData.class).contextWrite(Deadline.within(Duration.ofMillis(100))))
+				.expectErrorMatches(e -> e instanceof RequestTimeoutException
+						&& ((RequestTimeoutException) e).getPhase() == Phase.DEADLINE)
+				.verify();
+
+		// nested deadlines cannot extend the outer one
+		StepVerifier.create(client.request().path("test").path("slow/{id}").resolve("id", 4)
+				.getForEntity(TestData.class).contextWrite(Deadline.within(Duration.ofSeconds(10)))
+				.contextWrite(Deadline.within(Duration.ofMillis(100))))
+				.expectError(RequestTimeoutException.class).verify();
+
+		// expired deadline fails fast
+		final AtomicInteger invocations = new AtomicInteger();
+		final ReactiveRestClient counting = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri())
+				.withInterceptor(new ReactiveRequestInterceptor() {
+
+					@Override
+					public <T> Mono<ReactiveResponseEntity<T>> intercept(Invocation<T> invocation) {
+						invocations.incrementAndGet();
+						return invocation.proceed();
+					}
+
+				});
+		StepVerifier.create(counting.request().path("test").path("data/{id}").resolve("id", 1)
+				.getForEntity(TestData.class).contextWrite(Deadline.within(Duration.ZERO)))
+				.expectError(RequestTimeoutException.class).verify();
+		assertEquals(0, invocations.get());
+
+		assertThrows(IllegalArgumentException.class, () -> Timeouts.builder().responseTimeout(Duration.ZERO));
+	}
+
+	@Test
+	public void testEvents() {
+		final ReactiveRestClient client = SpringReactiveRestClient.create(webClient).defaultTarget(getBaseUri());
+
+		// resumed using the last event id, until the server responds with 204
+		StepVerifier.create(client.request().path("test").path("events").getEvents(TestData.class))
+				.assertNext(e -> {
+					assertEquals("1", e.getId().orElse(null));
+					assertEquals("data", e.getEvent().orElse(null));
+					assertEquals(1, e.getData().map(TestData::getCode).orElse(-1));
+				}).expectNextMatches(e -> e.getData().get().getCode() == 2)
+				.expectNextMatches(e -> e.getData().get().getCode() == 3)
+				.expectNextMatches(e -> e.getData().get().getCode() == 4).expectComplete()
+				.verify(Duration.ofSeconds(10));
+
+		// resume a previous stream
+		StepVerifier.create(client.request().path("test").path("events").getEvents(ResponseType.of(TestData.class),
+				EventStream.builder().lastEventId("2").build())).expectNextCount(2).expectComplete()
+				.verify(Duration.ofSeconds(10));
+
+		// without reconnection
+		StepVerifier.create(client.request().path("test").path("events").getEvents(ResponseType.of(String.class),
+				EventStream.builder().reconnect(false).build()))
+				.expectNextMatches(e -> e.getData().get().contains("value1")).expectNextCount(1).expectComplete()
+				.verify(Duration.ofSeconds(10));
+
+		// the request definition is not modified by the connections
+		final ReactiveRequestDefinition events = client.request().path("test").path("events").header("accept",
+				EventStream.MEDIA_TYPE);
+		StepVerifier.create(events.getEvents(TestData.class)).expectNextCount(4).expectComplete()
+				.verify(Duration.ofSeconds(10));
+		assertEquals(1, events.getHeaders().size());
+		assertEquals(EventStream.MEDIA_TYPE, events.getHeaders().get("accept"));
+		assertTrue(events.isResponseCacheEnabled());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> EventStream.builder().backoff(Duration.ofSeconds(2), Duration.ofSeconds(1)).build());
+	}
+
 	@Test
 	public void testStream() {
 
@@ -388,6 +1514,74 @@ public class TestReactiveRestClient extends JerseyTest5 {
 			}
 		}).expectComplete().verify();
 
+		Mono<Integer> bytes = client.request().path("test").path("stream").get(Void.class)
+				.flatMap(r -> r.asByteBuffers().map(b -> b.remaining()).reduce(0, Integer::sum));
+		StepVerifier.create(bytes).expectNext(3).expectComplete().verify();
+
+		Mono<Integer> buffers = client.request().path("test").path("stream").get(Void.class)
+				.flatMap(r -> ((SpringReactiveResponseEntity<Void>) r).asDataBuffers().map(b -> {
+					int count = b.readableByteCount();
+					DataBufferUtils.release(b);
+					return count;
+				}).reduce(0, Integer::sum));
+		StepVerifier.create(buffers).expectNext(3).expectComplete().verify();
+
+	}
+
+	@Test
+	public void testDataBufferInputStream() throws IOException {
+		final NettyDataBufferFactory factory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+		final List<NettyDataBuffer> emitted = new CopyOnWriteArrayList<>();
+		final IntFunction<Flux<DataBuffer>> source = count -> Flux.range(0, count).map(i -> {
+			final byte[] bytes = new byte[1024];
+			Arrays.fill(bytes, (byte) i);
+			final NettyDataBuffer buffer = factory.wrap(bytes);
+			emitted.add(buffer);
+			return buffer;
+		});
+
+		// a body larger than the prefetch window is read fully
+		final AtomicLong maxRequest = new AtomicLong();
+		final AtomicInteger requests = new AtomicInteger();
+		try (DataBufferInputStream stream = new DataBufferInputStream(4)) {
+			source.apply(64).doOnRequest(n -> {
+				requests.incrementAndGet();
+				maxRequest.accumulateAndGet(n, Math::max);
+			}).subscribe(stream);
+			final byte[] bytes = stream.readAllBytes();
+			assertEquals(64 * 1024, bytes.length);
+			for (int i = 0; i < bytes.length; i++) {
+				assertEquals((byte) (i / 1024), bytes[i]);
+			}
+			assertEquals(-1, stream.read());
+		}
+		assertEquals(64, emitted.size());
+		assertTrue(maxRequest.get() <= 4);
+		assertTrue(requests.get() > 1);
+		emitted.forEach(buffer -> assertEquals(0, buffer.getNativeBuffer().refCnt()));
+
+		// closing before the end releases the buffers and cancels the upstream
+		emitted.clear();
+		final AtomicBoolean cancelled = new AtomicBoolean(false);
+		final DataBufferInputStream closing = new DataBufferInputStream(4);
+		source.apply(64).doOnCancel(() -> cancelled.set(true)).subscribe(closing);
+		assertEquals(0, closing.read());
+		assertEquals(1023, closing.read(new byte[2048], 0, 2048));
+		closing.close();
+		assertTrue(cancelled.get());
+		assertTrue(emitted.size() < 64);
+		emitted.forEach(buffer -> assertEquals(0, buffer.getNativeBuffer().refCnt()));
+		assertThrows(IOException.class, () -> closing.read());
+
+		// an upstream error is thrown by the read
+		emitted.clear();
+		final DataBufferInputStream failing = new DataBufferInputStream(4);
+		source.apply(2).concatWith(Flux.error(new IllegalStateException("test error"))).subscribe(failing);
+		assertEquals(2048, failing.readNBytes(2048).length);
+		final IOException error = assertThrows(IOException.class, () -> failing.read());
+		assertTrue(error.getCause() instanceof IllegalStateException);
+		failing.close();
+		emitted.forEach(buffer -> assertEquals(0, buffer.getNativeBuffer().refCnt()));
 	}
 
 	@Test